@@ -0,0 +1,80 @@
+package com.inventory.Calo.s_Drugstore.benchmark;
+
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
+import com.inventory.Calo.s_Drugstore.event.DomainEventBus;
+import com.inventory.Calo.s_Drugstore.repository.ProductRepository;
+import com.inventory.Calo.s_Drugstore.service.DashboardService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The dashboard's KPI cards. DashboardService keeps them until a sale or stock event
+ * arrives, so there are two cases: the figures as a returning dashboard gets them, and
+ * the first call after a change, when every figure is recomputed. For the second, each
+ * iteration starts by publishing a sale and a batch change (see Changed) and waiting
+ * until they have been delivered.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardBenchmark {
+
+    private DashboardService dashboardService;
+
+    @Setup(Level.Trial)
+    public void setUp(DrugstoreState drugstore) {
+        dashboardService = drugstore.bean(DashboardService.class);
+    }
+
+    /**
+     * Invalidates the cached figures before every iteration. Only the benchmark that takes
+     * it as a parameter gets the invalidation, so dashboardMetrics stays on the cache.
+     */
+    @State(Scope.Benchmark)
+    public static class Changed {
+
+        private DomainEventBus events;
+        private Long productId;
+        private final AtomicLong bursts = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp(DrugstoreState drugstore) {
+            events = drugstore.bean(DomainEventBus.class);
+            productId = drugstore.bean(ProductRepository.class).findAll().get(0).getId();
+
+            // Subscribed after DashboardService, so it sees each burst after the dashboard did
+            events.subscribe(burst -> bursts.incrementAndGet());
+        }
+
+        @Setup(Level.Iteration)
+        public void somethingChanged() throws InterruptedException {
+            long seen = bursts.get();
+            events.publish(new DomainEvent.SaleChanged(null, LocalDate.now()));
+            events.publish(new DomainEvent.BatchChanged(productId));
+            while (bursts.get() == seen) {
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> dashboardMetrics() {
+        return dashboardService.getDashboardMetrics();
+    }
+
+    // One call per iteration, right after the change
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 30)
+    public Map<String, Object> dashboardMetricsAfterChange(Changed changed) {
+        return dashboardService.getDashboardMetrics();
+    }
+}
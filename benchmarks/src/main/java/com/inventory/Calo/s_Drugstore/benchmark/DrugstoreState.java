@@ -0,0 +1,37 @@
+package com.inventory.Calo.s_Drugstore.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+
+/**
+ * The application running on a seeded database of the given size: the same services,
+ * caches and SQLite settings as the desktop app, without the window. Sizes are JMH
+ * parameters, e.g. -p products=5000 -p sales=100000.
+ */
+@State(Scope.Benchmark)
+public class DrugstoreState {
+
+    @Param("1000")
+    public int products;
+
+    @Param("20000")
+    public int sales;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        context = SeededDatabase.open(SeededDatabase.workingCopy(products, sales));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
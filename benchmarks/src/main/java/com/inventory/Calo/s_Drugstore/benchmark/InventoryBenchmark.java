@@ -0,0 +1,45 @@
+package com.inventory.Calo.s_Drugstore.benchmark;
+
+import com.inventory.Calo.s_Drugstore.entity.Product;
+import com.inventory.Calo.s_Drugstore.repository.ProductRepository;
+import com.inventory.Calo.s_Drugstore.repository.ProductRow;
+import com.inventory.Calo.s_Drugstore.service.ProductService;
+import com.inventory.Calo.s_Drugstore.service.StockAllocationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stock deduction from a product's batches (FEFO) and the rows of the reports'
+ * expiring-medicines table (30-day window, batch figures included).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InventoryBenchmark {
+
+    private final Random random = new Random(42);
+    private ProductService productService;
+    private List<Long> productIds;
+
+    @Setup(Level.Trial)
+    public void setUp(DrugstoreState drugstore) {
+        productService = drugstore.bean(ProductService.class);
+        productIds = drugstore.bean(ProductRepository.class).findAll().stream().map(Product::getId).toList();
+    }
+
+    @Benchmark
+    public List<StockAllocationService.BatchAllocation> deductStockFromBatches() {
+        return productService.deductStockFromBatches(productIds.get(random.nextInt(productIds.size())), 1);
+    }
+
+    @Benchmark
+    public List<ProductRow> expiringProductRows() {
+        return productService.getExpiringProductRows(30);
+    }
+}
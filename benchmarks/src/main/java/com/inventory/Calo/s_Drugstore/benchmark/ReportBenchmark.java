@@ -0,0 +1,81 @@
+package com.inventory.Calo.s_Drugstore.benchmark;
+
+import com.inventory.Calo.s_Drugstore.entity.Sale;
+import com.inventory.Calo.s_Drugstore.repository.SalesAggregateRepository;
+import com.inventory.Calo.s_Drugstore.service.SalesRollupService;
+import com.inventory.Calo.s_Drugstore.service.SalesService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The report screens' aggregations over the seeded sales history: month totals, the
+ * daily series, category and best-seller breakdowns, the rollup behind the charts and
+ * the full month of sales the monthly export reads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportBenchmark {
+
+    private SalesAggregateRepository salesAggregateRepository;
+    private SalesRollupService salesRollupService;
+    private SalesService salesService;
+
+    private LocalDate today;
+    private LocalDateTime monthStart;
+    private LocalDateTime nextMonthStart;
+    private LocalDateTime weekAgo;
+    private LocalDateTime thirtyDaysAgo;
+
+    @Setup(Level.Trial)
+    public void setUp(DrugstoreState drugstore) {
+        salesAggregateRepository = drugstore.bean(SalesAggregateRepository.class);
+        salesRollupService = drugstore.bean(SalesRollupService.class);
+        salesService = drugstore.bean(SalesService.class);
+
+        today = LocalDate.now();
+        monthStart = today.withDayOfMonth(1).atStartOfDay();
+        nextMonthStart = monthStart.plusMonths(1);
+        weekAgo = today.minusDays(6).atStartOfDay();
+        thirtyDaysAgo = today.minusDays(29).atStartOfDay();
+    }
+
+    @Benchmark
+    public SalesAggregateRepository.SalesTotals monthTotals() {
+        return salesAggregateRepository.totals(monthStart, nextMonthStart, null);
+    }
+
+    @Benchmark
+    public List<SalesAggregateRepository.PeriodTotals> dailyTotals() {
+        return salesAggregateRepository.totalsByPeriod(SalesAggregateRepository.Period.DAY, thirtyDaysAgo, today.plusDays(1).atStartOfDay(), null);
+    }
+
+    @Benchmark
+    public List<SalesAggregateRepository.CategoryTotals> categoryTotals() {
+        return salesAggregateRepository.totalsByCategory(monthStart, nextMonthStart, null);
+    }
+
+    @Benchmark
+    public List<SalesAggregateRepository.MedicineTotals> topMedicines() {
+        return salesAggregateRepository.topMedicines(weekAgo, LocalDateTime.now(), null, 5);
+    }
+
+    @Benchmark
+    public Map<LocalDate, BigDecimal> chartRollup() {
+        return salesRollupService.getDailyTotals(today.minusDays(34), today);
+    }
+
+    @Benchmark
+    public List<Sale> monthSales() {
+        return salesService.getSalesBetweenDates(monthStart, nextMonthStart);
+    }
+}
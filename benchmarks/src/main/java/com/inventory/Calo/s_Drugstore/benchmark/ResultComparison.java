@@ -0,0 +1,102 @@
+package com.inventory.Calo.s_Drugstore.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Compares two JMH JSON result files (-rf json), e.g. the last release against the
+ * current commit, benchmark by benchmark and parameter set by parameter set:
+ *
+ *   ResultComparison baseline.json target/jmh-result.json [threshold percent, default 10]
+ *
+ * A benchmark counts as regressed when it got worse by more than the threshold and by
+ * more than the two runs' error margins together. Exits with 1 if any did, so a CI step
+ * can fail on it.
+ */
+public final class ResultComparison {
+
+    private record Score(double score, double error, String unit, boolean higherIsBetter) {}
+
+    private ResultComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: ResultComparison <baseline.json> <current.json> [threshold %]");
+        }
+        Map<String, Score> baseline = read(Path.of(args[0]));
+        Map<String, Score> current = read(Path.of(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        int regressions = 0;
+        System.out.printf("%-80s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-80s %14s %14s %9s%n", entry.getKey(), "-", format(now), "new");
+                continue;
+            }
+
+            double change = (now.score() - before.score()) / before.score() * 100;
+            double worse = now.higherIsBetter() ? -change : change;
+            boolean beyondNoise = Math.abs(now.score() - before.score()) > nonNegative(now.error()) + nonNegative(before.error());
+            boolean regressed = worse > threshold && beyondNoise;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14s %14s %+8.1f%%%s%n", entry.getKey(), format(before), format(now), change,
+                    regressed ? "  ❌ REGRESSION" : "");
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.printf("%-80s %14s %14s %9s%n", missing, format(baseline.get(missing)), "-", "gone");
+            }
+        }
+
+        if (regressions > 0) {
+            System.out.println("❌ " + regressions + " benchmark(s) regressed by more than " + threshold + "%");
+            System.exit(1);
+        }
+        System.out.println("✅ No regressions beyond " + threshold + "%");
+    }
+
+    // "Benchmark.method [param=value, ...]" -> score
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replace("com.inventory.Calo.s_Drugstore.benchmark.", ""));
+            JsonNode params = result.path("params");
+            if (!params.isMissingNode()) {
+                List<String> values = new ArrayList<>();
+                for (Map.Entry<String, JsonNode> param : params.properties()) {
+                    values.add(param.getKey() + "=" + param.getValue().asText());
+                }
+                Collections.sort(values);
+                key.append(' ').append(values);
+            }
+
+            JsonNode metric = result.path("primaryMetric");
+            scores.put(key.toString(), new Score(
+                    metric.path("score").asDouble(),
+                    metric.path("scoreError").asDouble(Double.NaN),
+                    metric.path("scoreUnit").asText(),
+                    result.path("mode").asText().equals("thrpt")));
+        }
+        return scores;
+    }
+
+    // JMH reports NaN as the error when there were too few samples to compute one
+    private static double nonNegative(double error) {
+        return Double.isNaN(error) ? 0 : Math.abs(error);
+    }
+
+    private static String format(Score score) {
+        return String.format("%.3f %s", score.score(), score.unit());
+    }
+}
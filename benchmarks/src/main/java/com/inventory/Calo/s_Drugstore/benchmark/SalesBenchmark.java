@@ -0,0 +1,51 @@
+package com.inventory.Calo.s_Drugstore.benchmark;
+
+import com.inventory.Calo.s_Drugstore.entity.Product;
+import com.inventory.Calo.s_Drugstore.entity.Sale;
+import com.inventory.Calo.s_Drugstore.entity.SaleItem;
+import com.inventory.Calo.s_Drugstore.entity.User;
+import com.inventory.Calo.s_Drugstore.repository.ProductRepository;
+import com.inventory.Calo.s_Drugstore.repository.UserRepository;
+import com.inventory.Calo.s_Drugstore.service.SalesService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A checkout: three random products (FEFO batch allocation, stock update, sale and
+ * rollup written in one transaction).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SalesBenchmark {
+
+    private final Random random = new Random(42);
+    private SalesService salesService;
+    private List<Product> products;
+    private User cashier;
+
+    @Setup(Level.Trial)
+    public void setUp(DrugstoreState drugstore) {
+        salesService = drugstore.bean(SalesService.class);
+        products = drugstore.bean(ProductRepository.class).findAll();
+        cashier = drugstore.bean(UserRepository.class).findAll().get(0);
+    }
+
+    @Benchmark
+    public Sale completeSale() {
+        List<SalesService.CartLine> cart = new ArrayList<>();
+        Set<Long> inCart = new HashSet<>();
+        while (cart.size() < 3) {
+            Product product = products.get(random.nextInt(products.size()));
+            if (inCart.add(product.getId())) {
+                cart.add(SalesService.CartLine.of(new SaleItem(product, 1 + random.nextInt(3))));
+            }
+        }
+        return salesService.completeSale(cart, cashier);
+    }
+}
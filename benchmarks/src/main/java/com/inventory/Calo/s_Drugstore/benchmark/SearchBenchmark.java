@@ -0,0 +1,52 @@
+package com.inventory.Calo.s_Drugstore.benchmark;
+
+import com.inventory.Calo.s_Drugstore.entity.Product;
+import com.inventory.Calo.s_Drugstore.repository.ProductRow;
+import com.inventory.Calo.s_Drugstore.service.ProductSearchService;
+import com.inventory.Calo.s_Drugstore.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product search: the in-memory index behind the sales search box, and a filtered page
+ * of the inventory table (full-text match plus batch figures). Each call takes the next
+ * of a fixed set of typed-in searches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    private static final String[] SEARCHES = {"pa", "para", "paracetamol", "amox", "biomed", "MED00123", "unilab", "cold", "losartan 500"};
+
+    private ProductSearchService productSearchService;
+    private ProductService productService;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(DrugstoreState drugstore) {
+        productSearchService = drugstore.bean(ProductSearchService.class);
+        productService = drugstore.bean(ProductService.class);
+    }
+
+    @Benchmark
+    public List<Product> productSearch() {
+        return productSearchService.search(nextSearch());
+    }
+
+    @Benchmark
+    public List<ProductRow> inventoryTablePage() {
+        return productService.getProductRowPage(nextSearch(), null, null, PageRequest.of(0, 50));
+    }
+
+    private String nextSearch() {
+        next = (next + 1) % SEARCHES.length;
+        return SEARCHES[next];
+    }
+}
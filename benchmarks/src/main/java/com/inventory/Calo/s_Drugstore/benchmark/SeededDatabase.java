@@ -0,0 +1,165 @@
+package com.inventory.Calo.s_Drugstore.benchmark;
+
+import com.inventory.Calo.s_Drugstore.DrugstoreApplication;
+import com.inventory.Calo.s_Drugstore.config.BackgroundStartup;
+import com.inventory.Calo.s_Drugstore.entity.*;
+import com.inventory.Calo.s_Drugstore.repository.BatchRepository;
+import com.inventory.Calo.s_Drugstore.repository.ProductRepository;
+import com.inventory.Calo.s_Drugstore.repository.SaleRepository;
+import com.inventory.Calo.s_Drugstore.repository.UserRepository;
+import com.inventory.Calo.s_Drugstore.service.SalesRollupService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark databases. Each size (products, sales) is seeded once into
+ * target/jmh-data/seed-p{products}-s{sales}.db and kept for later runs; every trial
+ * works on a fresh copy of it, so checkouts from one trial never show up in the next.
+ * The data is the same on every machine (fixed random seed).
+ */
+final class SeededDatabase {
+
+    private static final Path DATA_DIR = Path.of("target/jmh-data");
+
+    private static final String[] GENERICS = {
+            "Paracetamol", "Ibuprofen", "Amoxicillin", "Cetirizine", "Loratadine", "Metformin",
+            "Losartan", "Amlodipine", "Omeprazole", "Salbutamol", "Azithromycin", "Cefalexin",
+            "Mefenamic Acid", "Phenylephrine", "Dextromethorphan", "Ascorbic Acid", "Ferrous Sulfate"
+    };
+    private static final String[] SYLLABLES = {"bio", "flex", "med", "cor", "vita", "tem", "lo", "ra", "zen", "tri", "pax", "ol", "dex", "ki", "nor", "sol"};
+    private static final String[] STRENGTHS = {"100", "250", "500", "10", "20", "50"};
+    private static final String[] MANUFACTURERS = {"Unilab", "Pascual Lab", "Ritemed", "Getz Pharma", "Interphil", "Sandoz", "Natrapharm", "Generika"};
+    private static final String[] CATEGORIES = {"Pain Relief", "Antibiotics", "Vitamins", "Cold & Flu", "Maintenance", "Others"};
+
+    private SeededDatabase() {
+    }
+
+    // A fresh copy of the seeded database of this size (seeding it first if needed)
+    static Path workingCopy(int products, int sales) throws IOException {
+        Files.createDirectories(DATA_DIR);
+        Path seed = DATA_DIR.resolve("seed-p" + products + "-s" + sales + ".db");
+        if (!Files.exists(seed)) {
+            seed(seed, products, sales);
+        }
+
+        Path working = DATA_DIR.resolve("working.db");
+        deleteDatabase(working);
+        Files.copy(seed, working);
+        return working;
+    }
+
+    // The application (without its window) on the given database, with the startup work done
+    static ConfigurableApplicationContext open(Path database) {
+        // As arguments: they have to win over application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DrugstoreApplication.class)
+                .run("--spring.datasource.url=jdbc:sqlite:" + database,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        context.getBean(BackgroundStartup.class).awaitReady();
+        return context;
+    }
+
+    private static void seed(Path seed, int productCount, int saleCount) throws IOException {
+        System.out.println("🌱 Seeding " + productCount + " products and " + saleCount + " sales into " + seed);
+        long start = System.currentTimeMillis();
+
+        // Seed next to the final file and move it in place once complete, so an interrupted
+        // run never leaves a half-seeded database behind
+        Path seeding = seed.resolveSibling(seed.getFileName() + ".seeding");
+        deleteDatabase(seeding);
+
+        Random random = new Random(42);
+        try (ConfigurableApplicationContext context = open(seeding)) {
+            ProductRepository productRepository = context.getBean(ProductRepository.class);
+            BatchRepository batchRepository = context.getBean(BatchRepository.class);
+            SaleRepository saleRepository = context.getBean(SaleRepository.class);
+            User cashier = context.getBean(UserRepository.class).findAll().get(0);
+
+            List<Product> products = new ArrayList<>();
+            for (int i = 1; i <= productCount; i++) {
+                String generic = GENERICS[random.nextInt(GENERICS.length)];
+                String brand = capitalize(SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)])
+                        + " " + STRENGTHS[random.nextInt(STRENGTHS.length)];
+                Product product = new Product(String.format("MED%05d", i), brand, 0,
+                        BigDecimal.valueOf(5 + random.nextInt(500)), null, "Supplier " + (i % 40));
+                product.setGenericName(generic);
+                product.setManufacturer(MANUFACTURERS[random.nextInt(MANUFACTURERS.length)]);
+                product.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                products.add(product);
+            }
+            products = productRepository.saveAll(products);
+
+            // Two batches per product, the first expiring within a year (some within the
+            // 30-day warning window); every tenth product also has an expired batch
+            List<Batch> batches = new ArrayList<>();
+            for (Product product : products) {
+                LocalDate soon = LocalDate.now().plusDays(1 + random.nextInt(365));
+                batches.add(new Batch(product.getMedicineId() + "-B1", product, 1_000_000, soon, product.getPrice(), "Seed"));
+                batches.add(new Batch(product.getMedicineId() + "-B2", product, 1_000_000, soon.plusYears(1), product.getPrice(), "Seed"));
+                int stock = 2_000_000;
+                if (product.getId() % 10 == 0) {
+                    batches.add(new Batch(product.getMedicineId() + "-B0", product, 50, LocalDate.now().minusDays(10), product.getPrice(), "Seed"));
+                    stock += 50;
+                }
+                product.setStock(stock);
+            }
+            batchRepository.saveAll(batches);
+            productRepository.saveAll(products);
+
+            // Half a year of sales history for the reports and the dashboard
+            List<Sale> history = new ArrayList<>();
+            for (int i = 1; i <= saleCount; i++) {
+                Sale sale = new Sale();
+                sale.setTransactionId(String.format("TXN%07d", i));
+                sale.setSaleDate(LocalDateTime.now().minusMinutes(random.nextInt(180 * 24 * 60)));
+                sale.setUserId(cashier.getId());
+                BigDecimal total = BigDecimal.ZERO;
+                int items = 0;
+                for (int line = 0, lines = 1 + random.nextInt(4); line < lines; line++) {
+                    SaleItem item = new SaleItem(products.get(random.nextInt(products.size())), 1 + random.nextInt(3));
+                    sale.addItem(item);
+                    total = total.add(item.getSubtotal());
+                    items += item.getQuantity();
+                }
+                sale.setTotalAmount(total);
+                sale.setTotalItems(items);
+                history.add(sale);
+
+                if (history.size() == 500) {
+                    saleRepository.saveAll(history);
+                    history.clear();
+                }
+            }
+            saleRepository.saveAll(history);
+
+            // The sales went in directly, so the daily rollup doesn't know them yet
+            context.getBean(SalesRollupService.class).rebuildAll();
+        }
+
+        Files.move(seeding, seed, StandardCopyOption.REPLACE_EXISTING);
+        deleteDatabase(seeding);
+        System.out.println("✅ Seeded in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private static void deleteDatabase(Path database) throws IOException {
+        for (String suffix : new String[]{"", "-wal", "-shm"}) {
+            Files.deleteIfExists(database.resolveSibling(database.getFileName() + suffix));
+        }
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,677 @@
+package com.inventory.Calo.s_Drugstore.util;
+
+import javafx.beans.DefaultProperty;
+import javafx.beans.NamedArg;
+import javafx.event.Event;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import org.w3c.dom.*;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.lang.reflect.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Build step (mvn -Pfxml-codegen, after the main classes are compiled): turns every FXML file
+ * into a Java class that builds the same scene graph with plain constructor and setter calls,
+ * injects the controller's @FXML fields, wires its handlers and initializes it - what
+ * FXMLLoader otherwise works out by parsing the XML and reflecting on every element each
+ * time a page is loaded. The sources go to target/generated-sources/fxml and are compiled
+ * straight into target/classes, where FxmlViews picks them up.
+ *
+ * This class lives in src/build/java so it never ships: the profile compiles it on its own
+ * into target/fxml-codegen-classes, and only the generated views end up in the jar.
+ *
+ * Types, setters and the controller's members are all looked up here, at build time; an FXML
+ * file using something this generator doesn't handle (resource keys, scripts, fx:include, ...)
+ * is reported and left to FXMLLoader at runtime.
+ *
+ *   java -cp target/fxml-codegen-classes:<classpath> ...util.FxmlViewGenerator src/main/resources/fxml target/generated-sources/fxml target/classes
+ */
+public final class FxmlViewGenerator {
+
+    private static final String FX_NAMESPACE = "http://javafx.com/fxml";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: FxmlViewGenerator <fxml dir> <source output dir> <class output dir>");
+        }
+        Path fxmlDir = Path.of(args[0]);
+        Path sourceDir = Path.of(args[1]);
+        Path classDir = Path.of(args[2]);
+
+        List<Path> fxmlFiles;
+        try (Stream<Path> files = Files.list(fxmlDir)) {
+            fxmlFiles = files.filter(file -> file.toString().endsWith(".fxml")).sorted().toList();
+        }
+
+        List<Path> sources = new ArrayList<>();
+        for (Path fxmlFile : fxmlFiles) {
+            String fxmlPath = "/" + fxmlDir.getFileName() + "/" + fxmlFile.getFileName();
+            try {
+                sources.add(generate(fxmlFile, fxmlPath, sourceDir));
+            } catch (Exception e) {
+                System.out.println("⚠️ " + fxmlPath + " left to FXMLLoader: " + e.getMessage());
+            }
+        }
+        compile(sources, classDir);
+        System.out.println("✅ Generated " + sources.size() + " of " + fxmlFiles.size() + " FXML views");
+    }
+
+    // Writes the builder class for one FXML file and returns its source file
+    public static Path generate(Path fxmlFile, String fxmlPath, Path sourceDir) throws Exception {
+        byte[] fxml = Files.readAllBytes(fxmlFile);
+        String className = FxmlViews.generatedClassName(fxmlPath);
+        String source = new ViewWriter(fxmlPath, className).write(fxml);
+
+        Path sourceFile = sourceDir.resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.writeString(sourceFile, source, StandardCharsets.UTF_8);
+        return sourceFile;
+    }
+
+    public static void compile(List<Path> sources, Path classDir) throws IOException {
+        if (sources.isEmpty()) {
+            return;
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Generating FXML views needs a JDK, not a JRE");
+        }
+        Files.createDirectories(classDir);
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromPaths(sources);
+            List<String> options = List.of(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-d", classDir.toString(),
+                    "-proc:none");
+            if (!compiler.getTask(null, fileManager, null, options, null, units).call()) {
+                throw new IllegalStateException("Generated FXML views failed to compile");
+            }
+        }
+    }
+
+    /** Generates one class; throws UnsupportedOperationException for FXML it can't translate. */
+    private static final class ViewWriter {
+
+        private final String fxmlPath;
+        private final String packageName;
+        private final String simpleName;
+        private final ClassLoader classLoader = FxmlViewGenerator.class.getClassLoader();
+
+        private final List<String> importedPackages = new ArrayList<>(List.of("java.lang"));
+        private final Map<String, Class<?>> importedClasses = new HashMap<>();
+
+        private final StringBuilder body = new StringBuilder();
+        private final StringBuilder constants = new StringBuilder();
+        private final Map<String, String> namespace = new HashMap<>();
+        private final Set<String> localNames = new HashSet<>(Set.of("controller", "controllerFactory", "location"));
+        private final Map<String, String> handles = new LinkedHashMap<>();
+
+        private Class<?> controllerClass;
+
+        private ViewWriter(String fxmlPath, String className) {
+            this.fxmlPath = fxmlPath;
+            this.packageName = className.substring(0, className.lastIndexOf('.'));
+            this.simpleName = className.substring(className.lastIndexOf('.') + 1);
+        }
+
+        private String write(byte[] fxml) throws Exception {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setCoalescing(true);
+            Document document = factory.newDocumentBuilder().parse(new java.io.ByteArrayInputStream(fxml));
+
+            for (Node node = document.getFirstChild(); node != null; node = node.getNextSibling()) {
+                if (node instanceof ProcessingInstruction instruction && instruction.getTarget().equals("import")) {
+                    addImport(instruction.getData().trim());
+                }
+            }
+
+            Element rootElement = document.getDocumentElement();
+            String controllerName = rootElement.getAttributeNS(FX_NAMESPACE + "/1", "controller");
+            if (controllerName.isEmpty()) {
+                throw new UnsupportedOperationException("no fx:controller");
+            }
+            controllerClass = Class.forName(controllerName, false, classLoader);
+
+            String root = buildElement(rootElement);
+            initializeController();
+
+            StringBuilder source = new StringBuilder();
+            source.append("// Generated by FxmlViewGenerator from ").append(fxmlPath).append(" - do not edit\n");
+            source.append("package ").append(packageName).append(";\n\n");
+            source.append("import com.inventory.Calo.s_Drugstore.util.FxmlViews;\n\n");
+            source.append("import java.lang.invoke.MethodHandles;\n\n");
+            source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\", \"deprecation\"})\n");
+            source.append("public final class ").append(simpleName).append(" implements FxmlViews.GeneratedView {\n\n");
+            source.append("    private static final MethodHandles.Lookup ACCESS = FxmlViews.privateAccess(")
+                    .append(typeName(controllerClass)).append(".class);\n");
+            source.append(constants).append('\n');
+            source.append("    @Override\n");
+            source.append("    public long sourceChecksum() {\n");
+            source.append("        return ").append(FxmlViews.checksum(fxml)).append("L;\n");
+            source.append("    }\n\n");
+            source.append("    @Override\n");
+            source.append("    public FxmlViews.LoadedView build(javafx.util.Callback<Class<?>, Object> controllerFactory) {\n");
+            source.append("        ").append(typeName(controllerClass)).append(" controller = (")
+                    .append(typeName(controllerClass)).append(") controllerFactory.call(")
+                    .append(typeName(controllerClass)).append(".class);\n");
+            source.append(body);
+            source.append("        return new FxmlViews.LoadedView(").append(root).append(", controller);\n");
+            source.append("    }\n");
+            source.append("}\n");
+            return source.toString();
+        }
+
+        private void addImport(String name) throws ClassNotFoundException {
+            if (name.endsWith(".*")) {
+                importedPackages.add(name.substring(0, name.length() - 2));
+            } else {
+                Class<?> type = Class.forName(name, false, classLoader);
+                importedClasses.put(type.getSimpleName(), type);
+            }
+        }
+
+        private Class<?> resolve(String simpleName) {
+            Class<?> type = importedClasses.get(simpleName);
+            if (type != null) {
+                return type;
+            }
+            for (String importedPackage : importedPackages) {
+                try {
+                    return Class.forName(importedPackage + "." + simpleName, false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    // Try the next import
+                }
+            }
+            throw new UnsupportedOperationException("unknown type " + simpleName);
+        }
+
+        // Emits the code creating the element and returns the expression holding it
+        private String buildElement(Element element) throws Exception {
+            if (isFx(element)) {
+                if (!element.getLocalName().equals("define")) {
+                    throw new UnsupportedOperationException("fx:" + element.getLocalName());
+                }
+                for (Element child : childElements(element)) {
+                    buildElement(child);
+                }
+                return null;
+            }
+
+            Class<?> type = resolve(element.getLocalName());
+
+            String constant = fxAttribute(element, "constant");
+            if (constant != null) {
+                type.getField(constant);
+                return typeName(type) + "." + constant;
+            }
+            for (String unsupported : List.of("value", "factory", "include", "reference", "copy", "root")) {
+                if (fxAttribute(element, unsupported) != null) {
+                    throw new UnsupportedOperationException("fx:" + unsupported);
+                }
+            }
+
+            // Attributes and property elements that are constructor arguments (the chart axes, Insets sides)
+            Map<String, String> attributes = new LinkedHashMap<>();
+            NamedNodeMap attributeNodes = element.getAttributes();
+            for (int i = 0; i < attributeNodes.getLength(); i++) {
+                Attr attribute = (Attr) attributeNodes.item(i);
+                if (attribute.getNamespaceURI() == null) {
+                    attributes.put(attribute.getName(), attribute.getValue());
+                }
+            }
+            Map<String, Element> propertyElements = new LinkedHashMap<>();
+            for (Element child : childElements(element)) {
+                if (Character.isLowerCase(child.getLocalName().charAt(0))) {
+                    propertyElements.put(child.getLocalName(), child);
+                }
+            }
+
+            String id = fxAttribute(element, "id");
+            String variable = localName(id != null ? id : decapitalize(type.getSimpleName()));
+            Set<String> constructorArguments = new HashSet<>();
+            String creation = construct(type, attributes, propertyElements, constructorArguments);
+            statement(typeName(type) + " " + variable + " = " + creation);
+
+            if (id != null) {
+                namespace.put(id, variable);
+                if (findMethod(type, "setId", String.class) != null) {
+                    statement(variable + ".setId(" + literal(id) + ")");
+                }
+                injectField(id, variable);
+            }
+
+            for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+                if (!constructorArguments.contains(attribute.getKey())) {
+                    setAttribute(type, variable, attribute.getKey(), attribute.getValue());
+                }
+            }
+
+            String defaultProperty = defaultProperty(type);
+            for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (child instanceof Element childElement) {
+                    String name = childElement.getLocalName();
+                    if (isFx(childElement) || Character.isUpperCase(name.charAt(0)) && !name.contains(".")) {
+                        if (defaultProperty == null) {
+                            throw new UnsupportedOperationException(type.getSimpleName() + " has no default property");
+                        }
+                        String value = buildElement(childElement);
+                        if (value != null) {
+                            setElementProperty(type, variable, defaultProperty, List.of(value));
+                        }
+                    } else if (name.contains(".")) {
+                        setStaticProperty(variable, name, childValues(childElement));
+                    } else if (!constructorArguments.contains(name)) {
+                        setElementProperty(type, variable, name, childValues(childElement));
+                    }
+                } else if (child instanceof Text text && !text.getData().isBlank()) {
+                    throw new UnsupportedOperationException("text content in " + type.getSimpleName());
+                }
+            }
+            return variable;
+        }
+
+        private String construct(Class<?> type, Map<String, String> attributes, Map<String, Element> propertyElements,
+                                 Set<String> constructorArguments) throws Exception {
+            boolean hasDefaultConstructor = Arrays.stream(type.getConstructors()).anyMatch(c -> c.getParameterCount() == 0);
+            if (hasDefaultConstructor) {
+                return "new " + typeName(type) + "()";
+            }
+
+            // Like FXMLLoader's builder: the @NamedArg constructor matching the most given names
+            Constructor<?> best = null;
+            int bestMatches = -1;
+            for (Constructor<?> constructor : type.getConstructors()) {
+                int matches = 0;
+                boolean named = true;
+                for (Parameter parameter : constructor.getParameters()) {
+                    NamedArg namedArg = parameter.getAnnotation(NamedArg.class);
+                    if (namedArg == null) {
+                        named = false;
+                        break;
+                    }
+                    if (attributes.containsKey(namedArg.value()) || propertyElements.containsKey(namedArg.value())) {
+                        matches++;
+                    }
+                }
+                if (named && (matches > bestMatches
+                        || matches == bestMatches && constructor.getParameterCount() < best.getParameterCount())) {
+                    best = constructor;
+                    bestMatches = matches;
+                }
+            }
+            if (best == null) {
+                throw new UnsupportedOperationException("no usable constructor for " + type.getSimpleName());
+            }
+
+            List<String> arguments = new ArrayList<>();
+            for (Parameter parameter : best.getParameters()) {
+                NamedArg namedArg = parameter.getAnnotation(NamedArg.class);
+                String name = namedArg.value();
+                constructorArguments.add(name);
+                if (attributes.containsKey(name)) {
+                    arguments.add(convert(attributes.get(name), parameter.getType()));
+                } else if (propertyElements.containsKey(name)) {
+                    List<String> values = childValues(propertyElements.get(name));
+                    if (values.size() != 1) {
+                        throw new UnsupportedOperationException(name + " needs exactly one element");
+                    }
+                    arguments.add(values.get(0));
+                } else if (!namedArg.defaultValue().isEmpty()) {
+                    arguments.add(convert(namedArg.defaultValue(), parameter.getType()));
+                } else {
+                    arguments.add(defaultValue(parameter.getType()));
+                }
+            }
+            return "new " + typeName(type) + "(" + String.join(", ", arguments) + ")";
+        }
+
+        private void setAttribute(Class<?> type, String variable, String name, String value) throws Exception {
+            if (name.contains(".")) {
+                // Static property such as HBox.hgrow or GridPane.columnIndex
+                int dot = name.lastIndexOf('.');
+                Class<?> owner = resolve(name.substring(0, dot));
+                Method setter = findStaticSetter(owner, name.substring(dot + 1));
+                statement(typeName(owner) + "." + setter.getName() + "(" + variable + ", "
+                        + convert(value, setter.getParameterTypes()[1]) + ")");
+                return;
+            }
+
+            if (name.startsWith("on") && name.length() > 2 && Character.isUpperCase(name.charAt(2))) {
+                wireHandler(type, variable, name, value);
+                return;
+            }
+
+            List<Method> setters = new ArrayList<>();
+            for (Method method : type.getMethods()) {
+                if (method.getName().equals(setterName(name)) && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())) {
+                    setters.add(method);
+                }
+            }
+            for (Method setter : setters) {
+                try {
+                    statement(variable + "." + setter.getName() + "(" + convert(value, setter.getParameterTypes()[0]) + ")");
+                    return;
+                } catch (UnsupportedOperationException e) {
+                    // Try the next overload
+                }
+            }
+
+            // Read-only list such as styleClass: comma separated values, as FXMLLoader splits them
+            Method getter = findMethod(type, getterName(name));
+            if (getter != null && List.class.isAssignableFrom(getter.getReturnType())) {
+                List<String> values = new ArrayList<>();
+                for (String item : value.split(",")) {
+                    values.add(convert(item.trim(), String.class));
+                }
+                statement(variable + "." + getter.getName() + "().addAll(" + String.join(", ", values) + ")");
+                return;
+            }
+            throw new UnsupportedOperationException("can't set " + name + " on " + type.getSimpleName());
+        }
+
+        private void setElementProperty(Class<?> type, String variable, String name, List<String> values) {
+            if (values.isEmpty()) {
+                return;
+            }
+            Method getter = findMethod(type, getterName(name));
+            if (getter != null && List.class.isAssignableFrom(getter.getReturnType())) {
+                for (String value : values) {
+                    statement(variable + "." + getter.getName() + "().add(" + value + ")");
+                }
+                return;
+            }
+            if (values.size() != 1) {
+                throw new UnsupportedOperationException(name + " takes one element");
+            }
+            for (Method method : type.getMethods()) {
+                if (method.getName().equals(setterName(name)) && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())) {
+                    statement(variable + "." + method.getName() + "(" + values.get(0) + ")");
+                    return;
+                }
+            }
+            throw new UnsupportedOperationException("can't set " + name + " on " + type.getSimpleName());
+        }
+
+        private void setStaticProperty(String variable, String qualifiedName, List<String> values) {
+            if (values.size() != 1) {
+                throw new UnsupportedOperationException(qualifiedName + " takes one element");
+            }
+            int dot = qualifiedName.lastIndexOf('.');
+            Class<?> owner = resolve(qualifiedName.substring(0, dot));
+            Method setter = findStaticSetter(owner, qualifiedName.substring(dot + 1));
+            statement(typeName(owner) + "." + setter.getName() + "(" + variable + ", " + values.get(0) + ")");
+        }
+
+        private List<String> childValues(Element propertyElement) throws Exception {
+            List<String> values = new ArrayList<>();
+            for (Element child : childElements(propertyElement)) {
+                String value = buildElement(child);
+                if (value != null) {
+                    values.add(value);
+                }
+            }
+            return values;
+        }
+
+        // onAction="#handleSignIn": the controller method, with or without the event parameter
+        private void wireHandler(Class<?> type, String variable, String attribute, String value) {
+            if (!value.startsWith("#")) {
+                throw new UnsupportedOperationException("script handler " + attribute);
+            }
+            String methodName = value.substring(1);
+            Method setter = null;
+            for (Method method : type.getMethods()) {
+                if (method.getName().equals(setterName(attribute)) && method.getParameterCount() == 1) {
+                    setter = method;
+                }
+            }
+            if (setter == null) {
+                throw new UnsupportedOperationException("no " + attribute + " on " + type.getSimpleName());
+            }
+
+            Method handler = null;
+            for (Class<?> owner = controllerClass; owner != null && handler == null; owner = owner.getSuperclass()) {
+                for (Method method : owner.getDeclaredMethods()) {
+                    if (method.getName().equals(methodName) && (method.getParameterCount() == 0
+                            || method.getParameterCount() == 1 && Event.class.isAssignableFrom(method.getParameterTypes()[0]))) {
+                        // Prefer the variant taking the event, like FXMLLoader
+                        if (handler == null || method.getParameterCount() == 1) {
+                            handler = method;
+                        }
+                    }
+                }
+            }
+            if (handler == null || handler.getReturnType() != void.class || handler.getDeclaringClass() != controllerClass) {
+                throw new UnsupportedOperationException("no usable handler " + methodName + " in " + controllerClass.getSimpleName());
+            }
+
+            Method target = handler;
+            String handle = handles.computeIfAbsent("method:" + methodName, key -> {
+                String constant = constantName(methodName);
+                String parameters = target.getParameterCount() == 1 ? ", " + typeName(target.getParameterTypes()[0]) + ".class" : "";
+                constants.append("    private static final java.lang.invoke.MethodHandle ").append(constant)
+                        .append(" = FxmlViews.method(ACCESS, ").append(literal(methodName)).append(parameters).append(");\n");
+                return constant;
+            });
+            statement(variable + "." + setter.getName() + "(FxmlViews.handler(" + handle + ", controller))");
+        }
+
+        // FXMLLoader injects an fx:id into a same-named controller field that is @FXML or public
+        private void injectField(String id, String variable) {
+            Field field = null;
+            for (Class<?> owner = controllerClass; owner != null && field == null; owner = owner.getSuperclass()) {
+                try {
+                    field = owner.getDeclaredField(id);
+                } catch (NoSuchFieldException e) {
+                    // Look in the superclass
+                }
+            }
+            if (field == null || Modifier.isStatic(field.getModifiers())
+                    || !field.isAnnotationPresent(FXML.class) && !Modifier.isPublic(field.getModifiers())) {
+                return;
+            }
+            if (field.getDeclaringClass() != controllerClass) {
+                throw new UnsupportedOperationException("@FXML field " + id + " declared in a superclass");
+            }
+            if (Modifier.isPublic(field.getModifiers())) {
+                statement("controller." + id + " = " + variable);
+                return;
+            }
+            String constant = constantName(id);
+            constants.append("    private static final java.lang.invoke.VarHandle ").append(constant)
+                    .append(" = FxmlViews.field(ACCESS, ").append(literal(id)).append(", ")
+                    .append(typeName(field.getType())).append(".class);\n");
+            statement(constant + ".set(controller, " + variable + ")");
+        }
+
+        private void initializeController() {
+            if (Initializable.class.isAssignableFrom(controllerClass)) {
+                statement("controller.initialize(" + simpleName + ".class.getResource(" + literal(fxmlPath) + "), null)");
+                return;
+            }
+            try {
+                Method initialize = controllerClass.getDeclaredMethod("initialize");
+                if (Modifier.isPublic(initialize.getModifiers())) {
+                    statement("controller.initialize()");
+                } else if (initialize.isAnnotationPresent(FXML.class)) {
+                    constants.append("    private static final java.lang.invoke.MethodHandle INITIALIZE = FxmlViews.method(ACCESS, \"initialize\");\n");
+                    statement("FxmlViews.invoke(INITIALIZE, controller)");
+                }
+            } catch (NoSuchMethodException e) {
+                // Nothing to initialize
+            }
+        }
+
+        private String convert(String value, Class<?> type) {
+            if (value.startsWith("$")) {
+                String reference = namespace.get(value.substring(1));
+                if (reference == null) {
+                    throw new UnsupportedOperationException("unknown reference " + value);
+                }
+                return reference;
+            }
+            if (value.startsWith("%") || value.startsWith("@") || value.startsWith("${")) {
+                throw new UnsupportedOperationException("resource, location or binding value " + value);
+            }
+            if (value.startsWith("\\")) {
+                value = value.substring(1);
+            }
+
+            if (type == String.class || type == Object.class) {
+                return literal(value);
+            }
+            if (type == double.class || type == Double.class) {
+                return switch (value) {
+                    case "Infinity" -> "Double.POSITIVE_INFINITY";
+                    case "-Infinity" -> "Double.NEGATIVE_INFINITY";
+                    case "NaN" -> "Double.NaN";
+                    default -> Double.parseDouble(value) + "";
+                };
+            }
+            if (type == int.class || type == Integer.class) {
+                return Integer.parseInt(value) + "";
+            }
+            if (type == long.class || type == Long.class) {
+                return Long.parseLong(value) + "L";
+            }
+            if (type == float.class || type == Float.class) {
+                return Float.parseFloat(value) + "f";
+            }
+            if (type == boolean.class || type == Boolean.class) {
+                return Boolean.parseBoolean(value) + "";
+            }
+            if (type.isEnum()) {
+                String constant = value.toUpperCase(Locale.ROOT);
+                try {
+                    type.getField(constant);
+                } catch (NoSuchFieldException e) {
+                    throw new UnsupportedOperationException("no " + type.getSimpleName() + "." + constant);
+                }
+                return typeName(type) + "." + constant;
+            }
+            throw new UnsupportedOperationException("can't convert \"" + value + "\" to " + type.getSimpleName());
+        }
+
+        private static String defaultValue(Class<?> type) {
+            if (type == boolean.class) {
+                return "false";
+            }
+            return type.isPrimitive() ? "0" : "null";
+        }
+
+        private static String defaultProperty(Class<?> type) {
+            DefaultProperty annotation = type.getAnnotation(DefaultProperty.class);
+            return annotation != null ? annotation.value() : null;
+        }
+
+        private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+            try {
+                return type.getMethod(name, parameterTypes);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        private static Method findStaticSetter(Class<?> owner, String property) {
+            for (Method method : owner.getMethods()) {
+                if (method.getName().equals(setterName(property)) && method.getParameterCount() == 2
+                        && Modifier.isStatic(method.getModifiers())) {
+                    return method;
+                }
+            }
+            throw new UnsupportedOperationException("no static property " + owner.getSimpleName() + "." + property);
+        }
+
+        private static String setterName(String property) {
+            return "set" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        }
+
+        private static String getterName(String property) {
+            return "get" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        }
+
+        private static String constantName(String name) {
+            return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+        }
+
+        private static String decapitalize(String name) {
+            return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+        }
+
+        private String localName(String base) {
+            String name = base;
+            for (int i = 2; !localNames.add(name); i++) {
+                name = base + i;
+            }
+            return name;
+        }
+
+        private void statement(String code) {
+            body.append("        ").append(code).append(";\n");
+        }
+
+        private static String typeName(Class<?> type) {
+            return type.getCanonicalName();
+        }
+
+        private static boolean isFx(Element element) {
+            return element.getNamespaceURI() != null && element.getNamespaceURI().startsWith(FX_NAMESPACE);
+        }
+
+        private static String fxAttribute(Element element, String name) {
+            NamedNodeMap attributes = element.getAttributes();
+            for (int i = 0; i < attributes.getLength(); i++) {
+                Attr attribute = (Attr) attributes.item(i);
+                if (attribute.getNamespaceURI() != null && attribute.getNamespaceURI().startsWith(FX_NAMESPACE)
+                        && attribute.getLocalName().equals(name)) {
+                    return attribute.getValue();
+                }
+            }
+            return null;
+        }
+
+        private static List<Element> childElements(Element element) {
+            List<Element> children = new ArrayList<>();
+            for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (child instanceof Element childElement) {
+                    children.add(childElement);
+                }
+            }
+            return children;
+        }
+
+        // A Java string literal, non-ASCII characters (the emoji icons) escaped
+        private static String literal(String value) {
+            StringBuilder literal = new StringBuilder("\"");
+            for (char c : value.toCharArray()) {
+                switch (c) {
+                    case '"' -> literal.append("\\\"");
+                    case '\\' -> literal.append("\\\\");
+                    case '\n' -> literal.append("\\n");
+                    case '\r' -> literal.append("\\r");
+                    case '\t' -> literal.append("\\t");
+                    default -> {
+                        if (c < 0x20 || c > 0x7e) {
+                            literal.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            literal.append(c);
+                        }
+                    }
+                }
+            }
+            return literal.append('"').toString();
+        }
+    }
+}
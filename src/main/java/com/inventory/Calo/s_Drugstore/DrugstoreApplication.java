@@ -1,24 +1,17 @@
 package com.inventory.Calo.s_Drugstore;
 
-import com.inventory.Calo.s_Drugstore.service.AuthenticationService;
+import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.event.EventListener;
-import org.springframework.beans.factory.annotation.Autowired;
 
 @SpringBootApplication
 public class DrugstoreApplication {
 
-    @Autowired
-
-    private AuthenticationService authenticationService;
-
     public static void main(String[] args) {
+        // CDS training run (mvn package -Pcds): start the context only, without a window
+        if (System.getProperty("spring.context.exit") != null) {
+            SpringApplication.run(DrugstoreApplication.class, args);
+            return;
+        }
         javafx.application.Application.launch(JavaFXApplication.class, args);
     }
-
-    @EventListener(ApplicationReadyEvent.class)
-    public void onApplicationReady() {
-        authenticationService.createDefaultAdminIfNeeded();
-    }
-}
\ No newline at end of file
+}
@@ -1,33 +1,90 @@
 package com.inventory.Calo.s_Drugstore;
 
+import com.inventory.Calo.s_Drugstore.util.FxmlViews;
 import com.inventory.Calo.s_Drugstore.util.IconUtil;
+import com.inventory.Calo.s_Drugstore.util.StartupTimings;
 import javafx.application.Application;
 import javafx.application.Platform;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
-import javafx.scene.image.Image;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.stage.StageStyle;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.context.ConfigurableApplicationContext;
 
-import java.util.Objects;
-
 public class JavaFXApplication extends Application {
 
-    private ConfigurableApplicationContext applicationContext;
+    private volatile ConfigurableApplicationContext applicationContext;
 
     @Override
-    public void init() {
-        applicationContext = new SpringApplicationBuilder(DrugstoreApplication.class)
-                .run();
+    public void start(Stage primaryStage) {
+        // Splash first; Spring starts behind it
+        Stage splash = showSplash();
+        StartupTimings.mark("Splash shown");
+
+        Thread startup = new Thread(() -> {
+            try {
+                applicationContext = new SpringApplicationBuilder(DrugstoreApplication.class)
+                        .applicationStartup(StartupTimings.SPRING_STEPS)
+                        // JPA and the repositories bootstrap in the background (finished by
+                        // BackgroundStartup) while the login window is up; screen controllers
+                        // are @Lazy and created with their page
+                        .properties("spring.data.jpa.repositories.bootstrap-mode=lazy")
+                        .run();
+                StartupTimings.mark("Spring context ready");
+
+                Platform.runLater(() -> {
+                    try {
+                        showLogin(primaryStage);
+                        StartupTimings.mark("Login window shown");
+                    } catch (Exception e) {
+                        startupFailed(e);
+                    } finally {
+                        splash.close();
+                    }
+                });
+            } catch (Throwable e) {
+                Platform.runLater(() -> {
+                    startupFailed(e);
+                    splash.close();
+                });
+            }
+        }, "spring-startup");
+        startup.setDaemon(true);
+        startup.start();
     }
 
-    @Override
-    public void start(Stage primaryStage) throws Exception {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
-        loader.setControllerFactory(applicationContext::getBean);
-        Parent root = loader.load();
+    private Stage showSplash() {
+        Label title = new Label("PharmaTrack");
+        title.setStyle("-fx-font-size: 26px; -fx-font-weight: bold; -fx-text-fill: #2c3e50;");
+        Label subtitle = new Label("Calo's Drugstore");
+        subtitle.setStyle("-fx-font-size: 14px; -fx-text-fill: #7f8c8d;");
+        ProgressIndicator progress = new ProgressIndicator();
+        progress.setMaxSize(36, 36);
+        Label status = new Label("Starting...");
+        status.setStyle("-fx-font-size: 12px; -fx-text-fill: #95a5a6;");
+
+        VBox content = new VBox(12, title, subtitle, progress, status);
+        content.setAlignment(Pos.CENTER);
+        content.setStyle("-fx-background-color: white; -fx-padding: 30px; " +
+                "-fx-border-color: #e0e0e0; -fx-border-width: 1px;");
+
+        Stage splash = new Stage(StageStyle.UNDECORATED);
+        IconUtil.setApplicationIcon(splash);
+        splash.setTitle("PharmaTrack - Calo's Drugstore");
+        splash.setScene(new Scene(content, 360, 240));
+        splash.centerOnScreen();
+        splash.show();
+        return splash;
+    }
+
+    private void showLogin(Stage primaryStage) throws Exception {
+        Parent root = FxmlViews.load("/fxml/login.fxml", applicationContext::getBean).root();
 
         Scene scene = new Scene(root);
         scene.getStylesheets().add(getClass().getResource("/css/login.css").toExternalForm());
@@ -53,9 +110,23 @@ public class JavaFXApplication extends Application {
         primaryStage.show();
     }
 
+    private void startupFailed(Throwable e) {
+        System.err.println("❌ Startup failed: " + e.getMessage());
+        e.printStackTrace();
+
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Startup Error");
+        alert.setHeaderText(null);
+        alert.setContentText("PharmaTrack could not start: " + e.getMessage());
+        alert.showAndWait();
+        Platform.exit();
+    }
+
     @Override
     public void stop() {
-        applicationContext.close();
+        if (applicationContext != null) {
+            applicationContext.close();
+        }
         Platform.exit();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.inventory.Calo.s_Drugstore.config;
+
+import com.inventory.Calo.s_Drugstore.service.AuthenticationService;
+import com.inventory.Calo.s_Drugstore.service.LegacyBatchInfoMigration;
+import com.inventory.Calo.s_Drugstore.service.ProductSearchService;
+import com.inventory.Calo.s_Drugstore.service.SalesRollupService;
+import com.inventory.Calo.s_Drugstore.util.StartupTimings;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup work that needs the database - the repositories themselves, the default admin
+ * account, one-off data migrations, the sales rollup and the search index - done on its
+ * own thread once the context is up, so the login window doesn't wait for it.
+ * On desktop launches JPA also bootstraps in the background (see JavaFXApplication);
+ * signing in waits for awaitReady() instead.
+ */
+@Component
+public class BackgroundStartup {
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private LegacyBatchInfoMigration legacyBatchInfoMigration;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+    private Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker = new Thread(this::run, "startup-tasks");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Blocks until the database is usable and the startup work is done (never call it on the FX thread)
+    public void awaitReady() {
+        ready.join();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Don't close the database under a migration that is still running
+        if (worker != null) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    private void run() {
+        try {
+            // With lazy repository bootstrap each repository (and the JPQL checks of its
+            // queries) would otherwise be set up by whichever screen uses it first
+            applicationContext.getBeansOfType(Repository.class);
+            StartupTimings.mark("Database layer ready");
+
+            authenticationService.createDefaultAdminIfNeeded();
+            legacyBatchInfoMigration.migrate();
+            salesRollupService.rebuildIfEmpty();
+            productSearchService.warmUp();
+            StartupTimings.mark("Startup tasks done");
+
+            ready.complete(null);
+            StartupTimings.report();
+        } catch (Throwable e) {
+            System.err.println("❌ Startup tasks failed: " + e.getMessage());
+            e.printStackTrace();
+            ready.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.inventory.Calo.s_Drugstore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts how much work the reader and writer pools serve: connections handed out,
+ * how long they were held, and the pool's current active/idle/waiting numbers.
+ */
+public class ConnectionPoolMetrics {
+
+    public record PoolStats(String pool, long connectionsServed, double averageHoldMs, long totalHoldMs,
+                            int active, int idle, int total, int waiting) {
+
+        @Override
+        public String toString() {
+            return String.format("%s: served=%d avgHold=%.1fms totalHold=%dms active=%d idle=%d total=%d waiting=%d",
+                    pool, connectionsServed, averageHoldMs, totalHoldMs, active, idle, total, waiting);
+        }
+    }
+
+    private final CountingDataSource writer;
+    private final CountingDataSource reader;
+
+    public ConnectionPoolMetrics(HikariDataSource writerPool, HikariDataSource readerPool) {
+        this.writer = new CountingDataSource(writerPool);
+        this.reader = new CountingDataSource(readerPool);
+    }
+
+    public DataSource getWriter() {
+        return writer;
+    }
+
+    public DataSource getReader() {
+        return reader;
+    }
+
+    public List<PoolStats> snapshot() {
+        return List.of(writer.stats(), reader.stats());
+    }
+
+    @PreDestroy
+    public void logSummary() {
+        System.out.println("📊 Connection pools:");
+        snapshot().forEach(stats -> System.out.println("   " + stats));
+    }
+
+    private static class CountingDataSource extends DelegatingDataSource {
+        private final HikariDataSource pool;
+        private final AtomicLong served = new AtomicLong();
+        private final AtomicLong heldNanos = new AtomicLong();
+
+        CountingDataSource(HikariDataSource pool) {
+            super(pool);
+            this.pool = pool;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return track(pool.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return track(pool.getConnection(username, password));
+        }
+
+        // Wrap the connection so the time until close() is added to the pool's hold time
+        private Connection track(Connection connection) {
+            served.incrementAndGet();
+            long borrowedAt = System.nanoTime();
+            boolean[] closed = {false};
+
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("close") && !closed[0]) {
+                            closed[0] = true;
+                            heldNanos.addAndGet(System.nanoTime() - borrowedAt);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        PoolStats stats() {
+            long count = served.get();
+            long heldMs = heldNanos.get() / 1_000_000;
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            return new PoolStats(pool.getPoolName(), count, count == 0 ? 0 : (double) heldMs / count, heldMs,
+                    bean != null ? bean.getActiveConnections() : 0,
+                    bean != null ? bean.getIdleConnections() : 0,
+                    bean != null ? bean.getTotalConnections() : 0,
+                    bean != null ? bean.getThreadsAwaitingConnection() : 0);
+        }
+    }
+}
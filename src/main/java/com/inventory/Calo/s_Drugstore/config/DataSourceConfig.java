@@ -0,0 +1,69 @@
+package com.inventory.Calo.s_Drugstore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Two connection pools on the same SQLite file.
+ * Read-only transactions (@Transactional(readOnly = true), including Spring Data's
+ * find methods) borrow from the reader pool and read a WAL snapshot; everything
+ * else goes to the writer pool. Reports therefore never hold a connection the
+ * checkout is waiting for.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    // Pool settings come from spring.datasource.hikari.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource writerDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("SQLiteWriter");
+        return dataSource;
+    }
+
+    // Same connection PRAGMAs as the writer, but the connections refuse to write.
+    // Pool settings come from app.datasource.reader.*
+    @Bean
+    @ConfigurationProperties("app.datasource.reader")
+    public HikariDataSource readerDataSource(DataSourceProperties properties, HikariDataSource writerDataSource) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("SQLiteReader");
+        dataSource.setDataSourceProperties(writerDataSource.getDataSourceProperties());
+        dataSource.setConnectionInitSql("PRAGMA query_only = 1");
+        return dataSource;
+    }
+
+    @Bean
+    public ConnectionPoolMetrics connectionPoolMetrics(HikariDataSource writerDataSource, HikariDataSource readerDataSource) {
+        return new ConnectionPoolMetrics(writerDataSource, readerDataSource);
+    }
+
+    /**
+     * The DataSource JPA and Flyway use. Connections are fetched lazily on the first
+     * statement, after the transaction has been marked read-only or not, and then
+     * taken from the matching pool.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ConnectionPoolMetrics metrics) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(metrics.getWriter());
+        routing.setReadOnlyDataSource(metrics.getReader());
+        // SQLite defaults, so the proxy doesn't open a connection just to look them up
+        routing.setDefaultAutoCommit(true);
+        routing.setDefaultTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        return routing;
+    }
+}
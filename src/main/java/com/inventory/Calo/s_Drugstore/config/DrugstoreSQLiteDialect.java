@@ -0,0 +1,34 @@
+package com.inventory.Calo.s_Drugstore.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.community.dialect.SQLiteDialect;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * SQLite dialect used with ddl-auto=validate.
+ * SQLite stores every integer type the same way (an identity column has to be
+ * declared "integer" to alias the rowid), so integral types are treated as
+ * equivalent when Hibernate validates the migrated schema against the entities.
+ *
+ * Also lets JPQL reach the product FTS5 index (V4): product_text_match(p.id, :query)
+ * is true when the product matches the MATCH expression.
+ */
+public class DrugstoreSQLiteDialect extends SQLiteDialect {
+
+    @Override
+    public boolean equivalentTypes(int typeCode1, int typeCode2) {
+        return super.equivalentTypes(typeCode1, typeCode2)
+                || SqlTypes.isIntegral(typeCode1) && SqlTypes.isIntegral(typeCode2);
+    }
+
+    @Override
+    public void initializeFunctionRegistry(FunctionContributions functionContributions) {
+        super.initializeFunctionRegistry(functionContributions);
+
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeForJavaType(Boolean.class);
+        functionContributions.getFunctionRegistry().registerPattern("product_text_match",
+                "(?1 in (select rowid from products_fts where products_fts match ?2))", booleanType);
+    }
+}
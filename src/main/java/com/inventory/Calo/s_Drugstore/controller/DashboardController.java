@@ -1,12 +1,14 @@
 package com.inventory.Calo.s_Drugstore.controller;
 
+import com.inventory.Calo.s_Drugstore.util.FxmlViews;
 import com.inventory.Calo.s_Drugstore.util.IconUtil;
+import com.inventory.Calo.s_Drugstore.util.UiTasks;
 import com.inventory.Calo.s_Drugstore.entity.User;
 import com.inventory.Calo.s_Drugstore.service.DashboardService;
 import com.inventory.Calo.s_Drugstore.service.UserManagementService;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -20,6 +22,7 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Controller;
 
 import java.util.List;
@@ -27,7 +30,8 @@ import java.util.Map;
 
 
 @Controller
-public class DashboardController {
+@Lazy
+public class DashboardController implements NavigableView {
 
     // ========================================
     // FXML FIELDS (Connected to UI elements in dashboard.fxml)
@@ -109,12 +113,17 @@ public class DashboardController {
     @Autowired
     private ApplicationContext springContext;  // Needed for loading other pages
 
+    @Autowired
+    private ViewNavigator viewNavigator;  // Shows the other pages (kept loaded for the session)
+
     @FXML
     private VBox recentActivityContainer;
 
 
     private User currentUser;  // Stores the logged-in user's info
 
+    private UiTasks tasks;  // Runs the service calls off the FX thread (one per page load)
+
 
     public void setCurrentUser(User user) {
         this.currentUser = user;
@@ -140,11 +149,22 @@ public class DashboardController {
         refreshDashboard();
     }
 
+    @Override
+    public void onReturn(List<DomainEvent> changes) {
+        setActiveButton(dashboardBtn);
+
+        // Sales and stock changes move every card and chart on this page
+        if (!changes.isEmpty()) {
+            refreshDashboard();
+        }
+    }
+
     @FXML
     public void initialize() {
-        // Load all dashboard data
-        loadDashboardData();
-        loadRecentActivity();
+        tasks = UiTasks.forView(dashboardBtn)
+                .onError(e -> showStyledAlert(Alert.AlertType.ERROR, "Load Error", "Failed to load dashboard: " + e.getMessage()));
+
+        // Load all dashboard data (in the background; each part fills in as it arrives)
         refreshDashboard();
 
         // Set dashboard button as active (green highlight)
@@ -161,20 +181,19 @@ public class DashboardController {
     private void loadRecentActivity() {
         if (recentActivityContainer == null) return;
 
-        try {
-            List<Map<String, Object>> activities = dashboardService.getRecentActivity();
-
-            // Clear existing activities
-            recentActivityContainer.getChildren().clear();
-
-            for (Map<String, Object> activity : activities) {
-                HBox activityItem = createActivityItem(activity);
-                recentActivityContainer.getChildren().add(activityItem);
-            }
+        tasks.task(dashboardService::getRecentActivity)
+                .key("recentActivity")
+                .onSuccess(activities -> {
+                    // Clear existing activities
+                    recentActivityContainer.getChildren().clear();
 
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+                    for (Map<String, Object> activity : activities) {
+                        HBox activityItem = createActivityItem(activity);
+                        recentActivityContainer.getChildren().add(activityItem);
+                    }
+                })
+                .onError(Throwable::printStackTrace)
+                .start();
     }
 
     private HBox createActivityItem(Map<String, Object> activity) {
@@ -224,8 +243,13 @@ public class DashboardController {
 
     private void loadDashboardData() {
         // Load KPI metrics
-        Map<String, Object> metrics = dashboardService.getDashboardMetrics();
+        tasks.task(dashboardService::getDashboardMetrics)
+                .key("metrics")
+                .onSuccess(this::showDashboardMetrics)
+                .start();
+    }
 
+    private void showDashboardMetrics(Map<String, Object> metrics) {
         // Update KPI Card 1: Total Sales Today
         if (totalSalesTodayLabel != null) {
             totalSalesTodayLabel.setText(String.format("₱%,.0f", metrics.get("totalSalesToday")));
@@ -257,10 +281,6 @@ public class DashboardController {
         if (inventoryMessageLabel != null) {
             inventoryMessageLabel.setText((String) metrics.get("inventoryMessage"));
         }
-
-        // Load Charts
-        loadSalesTrendsChart();
-        loadInventoryDistributionChart();
     }
 
     @FXML
@@ -349,8 +369,13 @@ public class DashboardController {
         if (salesTrendsChart == null) return;
 
         // Get sales trends data from service
-        List<Map<String, Object>> trendsData = dashboardService.getSalesTrends();
+        tasks.task(dashboardService::getSalesTrends)
+                .key("salesTrends")
+                .onSuccess(this::showSalesTrends)
+                .start();
+    }
 
+    private void showSalesTrends(List<Map<String, Object>> trendsData) {
         // Create a series for the line chart
         XYChart.Series<String, Number> series = new XYChart.Series<>();
         series.setName("Daily Sales");
@@ -380,8 +405,13 @@ public class DashboardController {
         if (inventoryDistributionChart == null) return;
 
         // Get inventory distribution data from service
-        Map<String, Integer> distributionData = dashboardService.getInventoryDistribution();
+        tasks.task(dashboardService::getInventoryDistribution)
+                .key("inventoryDistribution")
+                .onSuccess(this::showInventoryDistribution)
+                .start();
+    }
 
+    private void showInventoryDistribution(Map<String, Integer> distributionData) {
         // Create a series for the bar chart
         XYChart.Series<String, Number> series = new XYChart.Series<>();
         series.setName("Stock Count");
@@ -402,86 +432,8 @@ public class DashboardController {
 
     private void navigateToPage(String fxmlPath, String cssPath) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
-
-            // Pass current user to the next controller
-            if (fxmlPath.contains("inventory")) {
-                InventoryController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("dashboard")) {
-                DashboardController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("sales")) {
-                SalesController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("reports")) {
-                ReportsController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("staff")) {
-                StaffController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("product-management")) {
-                ProductManagementController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("supplier")) {
-                SupplierController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            }
-
-
             Stage stage = (Stage) dashboardBtn.getScene().getWindow();
-            Scene currentScene = stage.getScene();
-
-            // SAVE CURRENT WINDOW SIZE AND POSITION
-            double currentWidth = stage.getWidth();
-            double currentHeight = stage.getHeight();
-            double currentX = stage.getX();
-            double currentY = stage.getY();
-            boolean isMaximized = stage.isMaximized();
-
-            // Create new scene
-            Scene newScene = new Scene(root);
-            newScene.getStylesheets().add(getClass().getResource(cssPath).toExternalForm());
-
-            // Set initial opacity to 0 for fade-in effect
-            root.setOpacity(0);
-
-            // Create fade-out animation for current scene
-            javafx.animation.FadeTransition fadeOut = new javafx.animation.FadeTransition(
-                    javafx.util.Duration.millis(30),
-                    currentScene.getRoot()
-            );
-            fadeOut.setFromValue(1.0);
-            fadeOut.setToValue(0.0);
-
-            fadeOut.setOnFinished(e -> {
-                // Switch to new scene
-                stage.setScene(newScene);
-
-                // RESTORE WINDOW SIZE AND POSITION
-                if (isMaximized) {
-                    stage.setMaximized(true);
-                } else {
-                    stage.setWidth(currentWidth);
-                    stage.setHeight(currentHeight);
-                    stage.setX(currentX);
-                    stage.setY(currentY);
-                }
-
-                // Create fade-in animation for new scene
-                javafx.animation.FadeTransition fadeIn = new javafx.animation.FadeTransition(
-                        javafx.util.Duration.millis(30),
-                        root
-                );
-                fadeIn.setFromValue(0.0);
-                fadeIn.setToValue(1.0);
-                fadeIn.play();
-            });
-
-            fadeOut.play();
-
+            viewNavigator.navigate(stage, fxmlPath, cssPath);
         } catch (Exception e) {
             e.printStackTrace();
             showStyledAlert(Alert.AlertType.ERROR, "Error", "Failed to load page: " + e.getMessage());
@@ -489,11 +441,12 @@ public class DashboardController {
     }
 
     private void performLogout() {
+        // Drop the pages kept loaded for this session
+        viewNavigator.endSession();
+
         try {
             // Load login page
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
+            Parent root = FxmlViews.load("/fxml/login.fxml", springContext::getBean).root();
 
             Stage stage = (Stage) dashboardBtn.getScene().getWindow();
             Scene currentScene = stage.getScene();
@@ -3,18 +3,26 @@
     import com.inventory.Calo.s_Drugstore.entity.Batch;
     import com.inventory.Calo.s_Drugstore.entity.Product;
     import com.inventory.Calo.s_Drugstore.entity.User;
+    import com.inventory.Calo.s_Drugstore.event.DomainEvent;
+    import com.inventory.Calo.s_Drugstore.event.DomainEventBus;
     import com.inventory.Calo.s_Drugstore.repository.BatchRepository;
+    import com.inventory.Calo.s_Drugstore.repository.ProductRow;
     import com.inventory.Calo.s_Drugstore.service.ProductService;
     import com.inventory.Calo.s_Drugstore.service.UserManagementService;
+    import com.inventory.Calo.s_Drugstore.util.FxmlViews;
     import com.inventory.Calo.s_Drugstore.util.IconUtil;
+    import com.inventory.Calo.s_Drugstore.util.LazyPagedList;
+    import com.inventory.Calo.s_Drugstore.util.SearchPipeline;
+    import com.inventory.Calo.s_Drugstore.util.UiTasks;
     import javafx.application.Platform;
     import javafx.beans.property.SimpleStringProperty;
     import javafx.collections.FXCollections;
     import javafx.collections.ObservableList;
+    import javafx.event.ActionEvent;
     import javafx.fxml.FXML;
-    import javafx.fxml.FXMLLoader;
     import javafx.fxml.Initializable;
     import javafx.geometry.Pos;
+    import javafx.scene.Node;
     import javafx.scene.Parent;
     import javafx.scene.Scene;
     import javafx.scene.control.*;
@@ -24,6 +32,8 @@
     import javafx.stage.Stage;
     import org.springframework.beans.factory.annotation.Autowired;
     import org.springframework.context.ConfigurableApplicationContext;
+    import org.springframework.data.domain.Sort;
+    import org.springframework.context.annotation.Lazy;
     import org.springframework.stereotype.Controller;
     
     import java.math.BigDecimal;
@@ -31,25 +41,36 @@
     import java.time.LocalDate;
     import java.time.format.DateTimeFormatter;
     import java.util.ArrayList;
+    import java.util.HashMap;
+    import java.util.HashSet;
     import java.util.List;
+    import java.util.Map;
     import java.util.Objects;
     import java.util.ResourceBundle;
+    import java.util.Set;
 
 
     @Controller
-    public class InventoryController implements Initializable {
+    @Lazy
+    public class InventoryController implements Initializable, NavigableView {
     
         @Autowired
         private ProductService productService;
     
         @Autowired
         private ConfigurableApplicationContext springContext;
+
+        @Autowired
+        private ViewNavigator viewNavigator;
     
         @Autowired
         private UserManagementService userManagementService;
 
         @Autowired
 private BatchRepository batchRepository;
+
+        @Autowired
+        private DomainEventBus eventBus;
     
         private User currentUser;
     
@@ -58,14 +79,14 @@ private BatchRepository batchRepository;
         @FXML private ComboBox<String> supplierFilter;
         @FXML private Label totalCountLabel;
     
-        @FXML private TableView<Product> inventoryTable;
-        @FXML private TableColumn<Product, String> medicineIdColumn;
-        @FXML private TableColumn<Product, String> nameColumn;
-        @FXML private TableColumn<Product, String> stockColumn;
-        @FXML private TableColumn<Product, String> priceColumn;
-        @FXML private TableColumn<Product, String> expirationColumn;
-        @FXML private TableColumn<Product, String> supplierColumn;
-        @FXML private TableColumn<Product, Void> actionsColumn;
+        @FXML private TableView<ProductRow> inventoryTable;
+        @FXML private TableColumn<ProductRow, String> medicineIdColumn;
+        @FXML private TableColumn<ProductRow, String> nameColumn;
+        @FXML private TableColumn<ProductRow, String> stockColumn;
+        @FXML private TableColumn<ProductRow, String> priceColumn;
+        @FXML private TableColumn<ProductRow, String> expirationColumn;
+        @FXML private TableColumn<ProductRow, String> supplierColumn;
+        @FXML private TableColumn<ProductRow, Void> actionsColumn;
     
         // Sidebar buttons
         @FXML private Button dashboardBtn;
@@ -86,17 +107,39 @@ private BatchRepository batchRepository;
         @FXML private Label lowStockLabel;
         @FXML private Label totalValueLabel;
     
-        @FXML private TableColumn<Product, String> statusColumn;
+        @FXML private TableColumn<ProductRow, String> statusColumn;
     
-        private ObservableList<Product> productList = FXCollections.observableArrayList();
+        // The table holds only the pages around what's on screen (see LazyPagedList),
+        // each row already carrying its batch figures (see ProductRow)
+        private static final int PRODUCT_PAGE_SIZE = 50;
+        private LazyPagedList<ProductRow> productList;
+        private String activeSearchTerm;
+        private String activeSupplier;
+
+        // Filter changes are counted and queried in the background (see SearchPipeline)
+        private record ProductFilters(String searchTerm, String supplier) {}
+        private SearchPipeline<ProductFilters, LazyPagedList.Loaded<ProductRow>> filterSearch;
+
+        // Runs the service calls off the FX thread (one per page load)
+        private UiTasks tasks;
+
+        // This controller is reused each time the page is opened, so keep one subscription
+        private DomainEventBus.Subscription inventoryChanges;
     
         @Override
         public void initialize(URL location, ResourceBundle resources) {
+            tasks = UiTasks.forView(inventoryBtn)
+                    .onError(e -> showStyledAlert(Alert.AlertType.ERROR, "Load Error", "Failed to load inventory: " + e.getMessage()));
             setupTableColumns();
             setupFilters();
+            setupProductList();
             loadProducts();
             setActiveButton(inventoryBtn);
-    
+
+            if (inventoryChanges != null) {
+                inventoryChanges.cancel();
+            }
+            inventoryChanges = eventBus.subscribe(events -> Platform.runLater(() -> applyInventoryChanges(events)));
         }
     
         public void setCurrentUser(User user) {
@@ -106,11 +149,18 @@ private BatchRepository batchRepository;
                 userEmailLabel.setText(user.getEmail());
             }
         }
+
+        @Override
+        public void onReturn(List<DomainEvent> changes) {
+            setActiveButton(inventoryBtn);
+            refreshFor(changes);
+        }
     
         private void setupTableColumns() {
+            // Rows whose page is still loading come through as null (see LazyPagedList) and stay blank
             // Medicine ID Column
-            medicineIdColumn.setCellValueFactory(data ->
-                    new SimpleStringProperty(data.getValue().getMedicineId()));
+            medicineIdColumn.setCellValueFactory(data -> data.getValue() == null ? new SimpleStringProperty()
+                    : new SimpleStringProperty(data.getValue().product().getMedicineId()));
     
             // Name Column with Warning Icon
             nameColumn.setCellFactory(column -> new TableCell<>() {
@@ -121,19 +171,15 @@ private BatchRepository batchRepository;
                         setGraphic(null);
                         setText(null);
                     } else {
-                        Product product = getTableRow().getItem();
+                        ProductRow row = getTableRow().getItem();
                         HBox container = new HBox(8);
                         container.setAlignment(Pos.CENTER_LEFT);
     
-                        Label nameLabel = new Label(product.getBrandName());
+                        Label nameLabel = new Label(row.product().getBrandName());
                         nameLabel.setStyle("-fx-font-size: 14px;");
 
-                        // Check if any batch is expiring soon
-                        List<Batch> batches = productService.getBatchesForProduct(product);
-                        boolean hasExpiringBatch = batches.stream()
-                                .anyMatch(Batch::isExpiringSoon);
-
-                        if (hasExpiringBatch) {
+                        // Warn if any batch is expiring soon
+                        if (row.hasExpiringBatch()) {
                             Label warningIcon = new Label("⚠");
                             warningIcon.setStyle("-fx-text-fill: #FF9800; -fx-font-size: 16px;");
                             container.getChildren().addAll(nameLabel, warningIcon);
@@ -146,8 +192,11 @@ private BatchRepository batchRepository;
                 }
             });
             nameColumn.setCellValueFactory(data -> {
-                String brandName = data.getValue().getBrandName();
-                String genericName = data.getValue().getGenericName();
+                if (data.getValue() == null) {
+                    return new SimpleStringProperty();
+                }
+                String brandName = data.getValue().product().getBrandName();
+                String genericName = data.getValue().product().getGenericName();
                 if (genericName != null && !genericName.isEmpty()) {
                     return new SimpleStringProperty(brandName + " (" + genericName + ")");
                 }
@@ -170,8 +219,8 @@ private BatchRepository batchRepository;
                     }
                 }
             });
-            stockColumn.setCellValueFactory(data ->
-                    new SimpleStringProperty(String.valueOf(data.getValue().getStock())));
+            stockColumn.setCellValueFactory(data -> data.getValue() == null ? new SimpleStringProperty()
+                    : new SimpleStringProperty(String.valueOf(data.getValue().product().getStock())));
     
             // Status Column - Badge ONLY
             statusColumn.setCellFactory(column -> new TableCell<>() {
@@ -182,7 +231,7 @@ private BatchRepository batchRepository;
                         setGraphic(null);
                         setText(null);
                     } else {
-                        Product product = getTableRow().getItem();
+                        Product product = getTableRow().getItem().product();
     
                         Label badge = new Label(product.getStockStatus());
                         if (product.isLowStock()) {
@@ -212,8 +261,8 @@ private BatchRepository batchRepository;
                     }
                 }
             });
-            statusColumn.setCellValueFactory(data ->
-                    new SimpleStringProperty(data.getValue().getStockStatus()));
+            statusColumn.setCellValueFactory(data -> data.getValue() == null ? new SimpleStringProperty()
+                    : new SimpleStringProperty(data.getValue().product().getStockStatus()));
     
             // Price Column
             priceColumn.setCellFactory(column -> new TableCell<>() {
@@ -229,8 +278,8 @@ private BatchRepository batchRepository;
                     }
                 }
             });
-            priceColumn.setCellValueFactory(data ->
-                    new SimpleStringProperty("₱" + data.getValue().getPrice().toString()));
+            priceColumn.setCellValueFactory(data -> data.getValue() == null ? new SimpleStringProperty()
+                    : new SimpleStringProperty("₱" + data.getValue().product().getPrice().toString()));
             // ===== FIXED: Expiration Date Column - Now reads from batches WITH STOCK CHECK =====
             expirationColumn.setCellFactory(column -> new TableCell<>() {
                 @Override
@@ -240,32 +289,8 @@ private BatchRepository batchRepository;
                         setText(null);
                         setStyle("");
                     } else {
-                        Product product = getTableRow().getItem();
-                        
-                        // Check if product has any stock at all
-                        if (product.getStock() == 0) {
-                            setText("N/A");
-                            setStyle("");
-                            return;
-                        }
-                        
-                        List<Batch> batches = productService.getBatchesForProduct(product);
-                        LocalDate displayDate = null;
-
-                        if (!batches.isEmpty()) {
-                            // Get earliest expiration date from batches that HAVE STOCK
-                            displayDate = batches.stream()
-                                    .filter(batch -> batch.getStock() > 0)  // Only consider batches with stock
-                                    .map(Batch::getExpirationDate)
-                                    .filter(date -> date != null)
-                                    .min(LocalDate::compareTo)
-                                    .orElse(null);
-                        }
-
-                        // FALLBACK: If no batch data with stock, check if product has expiration
-                        if (displayDate == null && product.getExpirationDate() != null) {
-                            displayDate = product.getExpirationDate();
-                        }
+                        // Earliest expiry among batches with stock (N/A when out of stock)
+                        LocalDate displayDate = getTableRow().getItem().displayExpiry();
 
                         if (displayDate != null) {
                             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM. dd, yyyy");
@@ -287,30 +312,10 @@ private BatchRepository batchRepository;
             });
 
             expirationColumn.setCellValueFactory(data -> {
-                Product product = data.getValue();
-                
-                // If no stock, show N/A
-                if (product.getStock() == 0) {
-                    return new SimpleStringProperty("N/A");
-                }
-                
-                List<Batch> batches = productService.getBatchesForProduct(product);
-                LocalDate displayDate = null;
-
-                if (!batches.isEmpty()) {
-                    // Only get expiry from batches that have stock
-                    displayDate = batches.stream()
-                            .filter(batch -> batch.getStock() > 0)
-                            .map(Batch::getExpirationDate)
-                            .filter(date -> date != null)
-                            .min(LocalDate::compareTo)
-                            .orElse(null);
-                }
-
-                // FALLBACK to product expiration date if it has stock
-                if (displayDate == null && product.getExpirationDate() != null) {
-                    displayDate = product.getExpirationDate();
+                if (data.getValue() == null) {
+                    return new SimpleStringProperty();
                 }
+                LocalDate displayDate = data.getValue().displayExpiry();
 
                 if (displayDate != null) {
                     DateTimeFormatter formatter = DateTimeFormatter.ofPattern("M/d/yyyy");
@@ -319,37 +324,9 @@ private BatchRepository batchRepository;
                 return new SimpleStringProperty("N/A");
             });
 
-            // ===== FIXED: Supplier Column - Now reads from batches WITH FALLBACK =====
-            supplierColumn.setCellValueFactory(data -> {
-                List<Batch> batches = productService.getBatchesForProduct(data.getValue());
-
-                if (!batches.isEmpty()) {
-                    // Get unique suppliers from all batches
-                    List<String> suppliers = batches.stream()
-                            .map(Batch::getSupplier)
-                            .filter(s -> s != null && !s.isEmpty())
-                            .distinct()
-                            .toList();
-
-                    if (!suppliers.isEmpty()) {
-                        // If multiple suppliers, show "Multiple" or list them
-                        if (suppliers.size() == 1) {
-                            return new SimpleStringProperty(suppliers.get(0));
-                        } else {
-                            // Show first supplier + count
-                            return new SimpleStringProperty(suppliers.get(0) + " (+" + (suppliers.size() - 1) + ")");
-                        }
-                    }
-                }
-
-                // FALLBACK: If no batch data, use product's supplier
-                String productSupplier = data.getValue().getSupplier();
-                if (productSupplier != null && !productSupplier.isEmpty()) {
-                    return new SimpleStringProperty(productSupplier);
-                }
-
-                return new SimpleStringProperty("N/A");
-            });
+            // Supplier Column - batch suppliers, falling back to the product's supplier
+            supplierColumn.setCellValueFactory(data -> data.getValue() == null ? new SimpleStringProperty()
+                    : new SimpleStringProperty(data.getValue().supplierLabel()));
             // Actions Column
             actionsColumn.setCellFactory(column -> new TableCell<>() {
                 private final Button editBtn = new Button();
@@ -426,23 +403,23 @@ private BatchRepository batchRepository;
                     ));
 
                     viewBtn.setOnAction(event -> {
-                        Product product = getTableRow().getItem();
-                        if (product != null) {
-                            handleViewProduct(product);
+                        ProductRow row = getTableRow().getItem();
+                        if (row != null) {
+                            handleViewProduct(row.product());
                         }
                     });
     
                     editBtn.setOnAction(event -> {
-                        Product product = getTableRow().getItem();
-                        if (product != null) {
-                            handleEditProduct(product);
+                        ProductRow row = getTableRow().getItem();
+                        if (row != null) {
+                            handleEditProduct(row.product());
                         }
                     });
 
                     deleteBtn.setOnAction(event -> {
-                        Product product = getTableRow().getItem();
-                        if (product != null) {
-                            handleDeleteProduct(product);
+                        ProductRow row = getTableRow().getItem();
+                        if (row != null) {
+                            handleDeleteProduct(row.product());
                         }
                     });
                 }
@@ -450,26 +427,19 @@ private BatchRepository batchRepository;
                 @Override
                 protected void updateItem(Void item, boolean empty) {
                     super.updateItem(item, empty);
-                    if (empty) {
+                    ProductRow row = empty || getTableRow() == null ? null : getTableRow().getItem();
+                    if (row == null) {
                         setGraphic(null);
+                    } else if (row.canDelete()) {
+                        // Legacy product - show delete button
+                        HBox buttons = new HBox(8, viewBtn, editBtn, deleteBtn);
+                        buttons.setAlignment(Pos.CENTER_LEFT);
+                        setGraphic(buttons);
                     } else {
-                        Product product = getTableRow().getItem();
-                        if (product != null) {
-                            // Check if product has batches
-                            long batchCount = productService.countBatchesForProduct(product);
-
-                            if (batchCount == 0) {
-                                // Legacy product - show delete button
-                                HBox buttons = new HBox(8, viewBtn, editBtn, deleteBtn);
-                                buttons.setAlignment(Pos.CENTER_LEFT);
-                                setGraphic(buttons);
-                            } else {
-                                // Product with batches - no delete button
-                                HBox buttons = new HBox(8, viewBtn, editBtn);
-                                buttons.setAlignment(Pos.CENTER_LEFT);
-                                setGraphic(buttons);
-                            }
-                        }
+                        // Product with batches - no delete button
+                        HBox buttons = new HBox(8, viewBtn, editBtn);
+                        buttons.setAlignment(Pos.CENTER_LEFT);
+                        setGraphic(buttons);
                     }
                 }
             });
@@ -489,37 +459,114 @@ private BatchRepository batchRepository;
         private void setupFilters() {
             // Setup supplier filter
             supplierFilter.getItems().add("All Suppliers");
-            List<String> suppliers = productService.getAllSuppliers();
-            supplierFilter.getItems().addAll(suppliers);
             supplierFilter.setValue("All Suppliers");
+            tasks.task(productService::getAllSuppliers)
+                    .key("suppliers")
+                    .onSuccess(suppliers -> supplierFilter.getItems().addAll(suppliers))
+                    .start();
     
             // Add listener for filter changes
-            supplierFilter.setOnAction(e -> applyFilters());
+            supplierFilter.setOnAction(e -> filterSearch.submitNow(currentFilters()));
     
-            // Add listener for search
-            searchField.textProperty().addListener((obs, oldVal, newVal) -> applyFilters());
+            // Add listener for search (runs once typing pauses)
+            searchField.textProperty().addListener((obs, oldVal, newVal) -> filterSearch.submit(currentFilters()));
         }
     
-        private void applyFilters() {
-            String searchTerm = searchField.getText();
-            String supplier = supplierFilter.getValue();
+        private void setupProductList() {
+            // Pages are queried with the last filters the search applied, sorted by the clicked column
+            productList = new LazyPagedList<>(
+                    pageable -> productService.getProductRowPage(activeSearchTerm, activeSupplier, null, pageable),
+                    () -> productService.countProducts(activeSearchTerm, activeSupplier, null),
+                    PRODUCT_PAGE_SIZE, 10, Sort.by("id"));
+
+            productList.bindTo(inventoryTable, Map.<TableColumn<ProductRow, ?>, String>of(
+                    medicineIdColumn, "medicineId",
+                    nameColumn, "brandName",
+                    stockColumn, "stock",
+                    priceColumn, "price",
+                    supplierColumn, "supplier"));
+
+            filterSearch = new SearchPipeline<>(SearchPipeline.TYPING_PAUSE,
+                    filters -> productList.load(
+                            () -> productService.countProducts(filters.searchTerm(), filters.supplier(), null),
+                            pageable -> productService.getProductRowPage(filters.searchTerm(), filters.supplier(), null, pageable)),
+                    (filters, loaded) -> {
+                        activeSearchTerm = filters.searchTerm();
+                        activeSupplier = filters.supplier();
+                        productList.show(loaded);
+                        updateTotalCount();
+                    });
+        }
 
-            List<Product> filtered = productService.filterProducts(searchTerm, supplier, null);
-            productList.setAll(filtered);
-            updateTotalCount();
+        private ProductFilters currentFilters() {
+            return new ProductFilters(searchField.getText(), supplierFilter.getValue());
         }
     
         private void loadProducts() {
-            productService.clearBatchCache(); // Clear cache before reload
-            List<Product> products = productService.getAllProducts();
-            productList.setAll(products);
-            inventoryTable.setItems(productList);
-            updateTotalCount();
+            reloadProducts();
             updateKPIs();
         }
+
+        // Re-count and re-query the first page with the applied filters, in the background
+        private void reloadProducts() {
+            String searchTerm = activeSearchTerm;
+            String supplier = activeSupplier;
+            tasks.task(() -> productList.load(
+                            () -> productService.countProducts(searchTerm, supplier, null),
+                            pageable -> productService.getProductRowPage(searchTerm, supplier, null, pageable)))
+                    .key("products")
+                    .onSuccess(loaded -> {
+                        productList.show(loaded);
+                        updateTotalCount();
+                    })
+                    .start();
+        }
     
+        // Saves made here or on any other screen arrive as events once committed:
+        // stock changes re-query only the pages showing those products, catalog changes re-run the list
+        private void applyInventoryChanges(List<DomainEvent> events) {
+            Scene scene = inventoryTable.getScene();
+            if (scene == null || scene.getWindow() == null || !scene.getWindow().isShowing()) {
+                return; // Page isn't open - onReturn() catches up when it is shown again
+            }
+            refreshFor(events);
+        }
+
+        // Reload what the events touched: changed rows only, unless the catalog or the stock order changed
+        private void refreshFor(List<DomainEvent> events) {
+            boolean catalogChanged = false;
+            Set<Long> stockChanged = new HashSet<>();
+            for (DomainEvent event : events) {
+                if (event instanceof DomainEvent.ProductChanged) {
+                    catalogChanged = true;
+                } else if (event instanceof DomainEvent.BatchChanged changed) {
+                    stockChanged.add(changed.productId());
+                }
+            }
+            if (!catalogChanged && stockChanged.isEmpty()) {
+                return;
+            }
+
+            if (catalogChanged || productList.isSortedBy("stock")) {
+                reloadProducts();
+            } else {
+                productList.reloadWhere(row -> stockChanged.contains(row.product().getId()));
+            }
+            updateKPIs();
+        }
+
         private void updateTotalCount() {
-            totalCountLabel.setText("Total: " + productList.size() + " medicines");
+            totalCountLabel.setText("Total: " + productList.getTotalCount() + " medicines");
+        }
+    
+        // The add-batch dialogs' search boxes: nothing until something is typed
+        private List<Product> searchProductsToAdd(String text) {
+            return text == null || text.isBlank() ? List.of() : productService.searchProducts(text);
+        }
+
+        // Every product matching the given filters (the table itself only holds a few pages)
+        private List<Product> getFilteredProducts(String searchTerm, String supplier) {
+            return productService.filterProducts(searchTerm, supplier, null);
         }
     
         @FXML
@@ -538,17 +585,31 @@ private BatchRepository batchRepository;
         }
 
         @FXML
-        private void handlePrintInventory() {
-            try {
-                // Show print preview dialog
-                showInventoryPrintPreviewDialog();
-            } catch (Exception e) {
-                e.printStackTrace();
-                showStyledAlert(Alert.AlertType.ERROR, "Error",
-                        "Failed to show print preview: " + e.getMessage());
-            }
+        private void handlePrintInventory(ActionEvent event) {
+            // Load the filtered products and their batches in the background, then show the preview
+            String searchTerm = activeSearchTerm;
+            String supplier = activeSupplier;
+            tasks.task(() -> {
+                        List<Product> products = getFilteredProducts(searchTerm, supplier);
+                        Map<Long, List<Batch>> batches = new HashMap<>();
+                        for (Product product : products) {
+                            batches.put(product.getId(), productService.getBatchesForProduct(product));
+                        }
+                        return new PrintData(products, batches);
+                    })
+                    .disabling((Node) event.getSource())
+                    .onSuccess(this::showInventoryPrintPreviewDialog)
+                    .onError(e -> {
+                        e.printStackTrace();
+                        showStyledAlert(Alert.AlertType.ERROR, "Error",
+                                "Failed to show print preview: " + e.getMessage());
+                    })
+                    .start();
         }
 
+        // The products the print preview shows, with each one's batches
+        private record PrintData(List<Product> products, Map<Long, List<Batch>> batches) {}
+
         @FXML
         private void handleImportCSV() {
             try {
@@ -566,19 +627,24 @@ private BatchRepository batchRepository;
                 java.io.File file = fileChooser.showOpenDialog(stage);
 
                 if (file != null) {
-                    // Parse and validate CSV
-                    List<Product> productsToImport = parseCSV(file);
-
-                    if (productsToImport.isEmpty()) {
-                        Platform.runLater(() -> {
-                            showStyledAlert(Alert.AlertType.WARNING, "No Data",
-                                    "The CSV file contains no valid products to import.");
-                        });
-                        return;
-                    }
-
-                    // Show preview and confirmation dialog
-                    showImportPreviewDialog(productsToImport, file.getName());
+                    // Parse and validate CSV in the background (rows without an ID take one from the database)
+                    tasks.task(() -> parseCSV(file))
+                            .onSuccess(productsToImport -> {
+                                if (productsToImport.isEmpty()) {
+                                    showStyledAlert(Alert.AlertType.WARNING, "No Data",
+                                            "The CSV file contains no valid products to import.");
+                                    return;
+                                }
+
+                                // Show preview and confirmation dialog
+                                showImportPreviewDialog(productsToImport, file.getName());
+                            })
+                            .onError(e -> {
+                                e.printStackTrace();
+                                showStyledAlert(Alert.AlertType.ERROR, "Import Failed",
+                                        "Failed to import CSV file: " + e.getMessage());
+                            })
+                            .start();
                 }
 
             } catch (Exception e) {
@@ -594,10 +660,6 @@ private BatchRepository batchRepository;
             List<Product> products = new ArrayList<>();
             DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
-            // Get the starting Medicine ID ONCE before the loop
-            String lastMedicineId = productService.generateNextMedicineId();
-            int currentIdNumber = Integer.parseInt(lastMedicineId.substring(3)); // Extract number from "MED018"
-
             try (java.io.BufferedReader reader = new java.io.BufferedReader(new java.io.FileReader(file))) {
                 String line;
                 boolean isFirstLine = true;
@@ -632,9 +694,8 @@ private BatchRepository batchRepository;
                         if (csvMedicineId != null && !csvMedicineId.isEmpty()) {
                             product.setMedicineId(csvMedicineId);
                         } else {
-                            // Generate sequential Medicine ID for this import batch
-                            product.setMedicineId(String.format("MED%03d", currentIdNumber));
-                            currentIdNumber++; // Increment for next product
+                            // Take the next Medicine ID from the shared sequence
+                            product.setMedicineId(productService.generateNextMedicineId());
                         }
 
                         // Map CSV columns to product fields
@@ -798,51 +859,26 @@ private BatchRepository batchRepository;
             ));
 
             importButton.setOnAction(e -> {
-                try {
-                    int successCount = 0;
-                    int failCount = 0;
-
-                    for (Product product : products) {
-                        try {
-                            // Import as batch instead of direct product save
-                            productService.saveProductWithBatch(
-                                    product,
-                                    product.getStock(),
-                                    product.getExpirationDate(),
-                                    product.getPrice(),
-                                    product.getSupplier(),
-                                    LocalDate.now() // CSV import defaults to today
-                            );
-                            successCount++;
-                        } catch (Exception ex) {
-                            failCount++;
-                            System.err.println("Failed to import: " + product.getBrandName() + " - " + ex.getMessage());
-                        }
-                    }
-
-                    dialogStage.close();
-                    loadProducts();
-
-                    final int finalSuccess = successCount;
-                    final int finalFail = failCount;
-
-                    Platform.runLater(() -> {
-                        if (finalFail == 0) {
-                            showStyledAlert(Alert.AlertType.INFORMATION, "Import Successful",
-                                    "Successfully imported " + finalSuccess + " products!");
-                        } else {
-                            showStyledAlert(Alert.AlertType.WARNING, "Import Completed with Errors",
-                                    "Successfully imported: " + finalSuccess + " products\n" +
-                                            "Failed: " + finalFail + " products");
-                        }
-                    });
-
-                } catch (Exception ex) {
-                    Platform.runLater(() -> {
-                        showStyledAlert(Alert.AlertType.ERROR, "Import Failed",
-                                "Failed to import products: " + ex.getMessage());
-                    });
-                }
+                // Import as batches at bulk priority (CSV import defaults to today)
+                tasks.task(() -> productService.importProducts(products, LocalDate.now()))
+                        .disabling(importButton, cancelButton)
+                        .outlivesView()
+                        .onSuccess(result -> {
+                            result.failures().forEach(failure -> System.err.println("Failed to import: " + failure));
+                            dialogStage.close();
+
+                            if (result.failures().isEmpty()) {
+                                showStyledAlert(Alert.AlertType.INFORMATION, "Import Successful",
+                                        "Successfully imported " + result.imported() + " products!");
+                            } else {
+                                showStyledAlert(Alert.AlertType.WARNING, "Import Completed with Errors",
+                                        "Successfully imported: " + result.imported() + " products\n" +
+                                                "Failed: " + result.failures().size() + " products");
+                            }
+                        })
+                        .onError(ex -> showStyledAlert(Alert.AlertType.ERROR, "Import Failed",
+                                "Failed to import products: " + ex.getMessage()))
+                        .start();
             });
 
             buttonContainer.getChildren().addAll(cancelButton, importButton);
@@ -988,101 +1024,108 @@ private BatchRepository batchRepository;
         }
     
         private void handleCSVExport() {
-            try {
-                // Get all products from inventory
-                List<Product> products = productService.getAllProducts();
-    
-                if (products.isEmpty()) {
-                    showStyledAlert(Alert.AlertType.WARNING, "No Data",
-                            "There are no products in the inventory to export.");
-                    return;
-                }
-    
-                // Create file chooser
-                javafx.stage.FileChooser fileChooser = new javafx.stage.FileChooser();
-                fileChooser.setTitle("Export Inventory to CSV");
-    
-                // Set default filename with current date
-                String defaultFileName = "Inventory_Export_" +
-                        LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) + ".csv";
-                fileChooser.setInitialFileName(defaultFileName);
-    
-                // Set file extension filter
-                javafx.stage.FileChooser.ExtensionFilter extFilter =
-                        new javafx.stage.FileChooser.ExtensionFilter("CSV files (*.csv)", "*.csv");
-                fileChooser.getExtensionFilters().add(extFilter);
-    
-                // Show save dialog
-                Stage stage = (Stage) inventoryTable.getScene().getWindow();
-                java.io.File file = fileChooser.showSaveDialog(stage);
-    
-                if (file != null) {
-                    // Export to CSV
-                    exportToCSV(products, file);
+            tasks.task(productService::getAllProducts)
+                    .onSuccess(products -> {
+                        if (products.isEmpty()) {
+                            showStyledAlert(Alert.AlertType.WARNING, "No Data",
+                                    "There are no products in the inventory to export.");
+                            return;
+                        }
 
-                    Platform.runLater(() -> {
-                        String message = "Inventory exported successfully to CSV!\n\n" +
-                                "File: " + file.getName() + "\n" +
-                                "Total Products: " + products.size() + "\n\n" +
-                                "The file has been saved to:\n" + file.getAbsolutePath();
+                        // Create file chooser
+                        javafx.stage.FileChooser fileChooser = new javafx.stage.FileChooser();
+                        fileChooser.setTitle("Export Inventory to CSV");
+
+                        // Set default filename with current date
+                        String defaultFileName = "Inventory_Export_" +
+                                LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) + ".csv";
+                        fileChooser.setInitialFileName(defaultFileName);
+
+                        // Set file extension filter
+                        javafx.stage.FileChooser.ExtensionFilter extFilter =
+                                new javafx.stage.FileChooser.ExtensionFilter("CSV files (*.csv)", "*.csv");
+                        fileChooser.getExtensionFilters().add(extFilter);
+
+                        // Show save dialog
+                        Stage stage = (Stage) inventoryTable.getScene().getWindow();
+                        java.io.File file = fileChooser.showSaveDialog(stage);
+
+                        if (file != null) {
+                            // Export to CSV
+                            tasks.run(() -> exportToCSV(products, file))
+                                    .onSuccess(done -> {
+                                        String message = "Inventory exported successfully to CSV!\n\n" +
+                                                "File: " + file.getName() + "\n" +
+                                                "Total Products: " + products.size() + "\n\n" +
+                                                "The file has been saved to:\n" + file.getAbsolutePath();
+
+                                        showStyledAlert(Alert.AlertType.INFORMATION, "Export Successful", message);
+                                    })
+                                    .onError(this::showExportError)
+                                    .start();
+                        }
+                    })
+                    .onError(this::showExportError)
+                    .start();
+        }
 
-                        showStyledAlert(Alert.AlertType.INFORMATION, "Export Successful", message);
-                    });
-                }
-    
-            } catch (Exception e) {
-                e.printStackTrace();
-                showStyledAlert(Alert.AlertType.ERROR, "Export Failed",
-                        "Failed to export inventory: " + e.getMessage());
-            }
+        private void showExportError(Throwable e) {
+            e.printStackTrace();
+            showStyledAlert(Alert.AlertType.ERROR, "Export Failed",
+                    "Failed to export inventory: " + e.getMessage());
         }
     
         private void handlePDFExport() {
-        try {
-            // Get products from the inventory table (filters out deleted products)
-            List<Product> products = new ArrayList<>(inventoryTable.getItems());
-
-            if (products.isEmpty()) {
-                showStyledAlert(Alert.AlertType.WARNING, "No Data",
-                        "There are no products in the inventory to export.");
-                return;
-            }                // Create file chooser
-                javafx.stage.FileChooser fileChooser = new javafx.stage.FileChooser();
-                fileChooser.setTitle("Export Inventory Report to PDF");
-    
-                // Set default filename with current date
-                String defaultFileName = "Inventory_Report_" +
-                        LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) + ".pdf";
-                fileChooser.setInitialFileName(defaultFileName);
-    
-                // Set file extension filter
-                javafx.stage.FileChooser.ExtensionFilter extFilter =
-                        new javafx.stage.FileChooser.ExtensionFilter("PDF files (*.pdf)", "*.pdf");
-                fileChooser.getExtensionFilters().add(extFilter);
-    
-                // Show save dialog
-                Stage stage = (Stage) inventoryTable.getScene().getWindow();
-                java.io.File file = fileChooser.showSaveDialog(stage);
-    
-                if (file != null) {
-                    // Export to PDF
-                    exportToPDF(products, file);
-
-                    Platform.runLater(() -> {
-                        String message = "Inventory report exported successfully to PDF!\n\n" +
-                                "File: " + file.getName() + "\n" +
-                                "Total Products: " + products.size() + "\n\n" +
-                                "The file has been saved to:\n" + file.getAbsolutePath();
-
-                        showStyledAlert(Alert.AlertType.INFORMATION, "Export Successful", message);
-                    });
-                }
+            // Get the products the inventory table is filtered to
+            String searchTerm = activeSearchTerm;
+            String supplier = activeSupplier;
+            tasks.task(() -> getFilteredProducts(searchTerm, supplier))
+                    .onSuccess(products -> {
+                        if (products.isEmpty()) {
+                            showStyledAlert(Alert.AlertType.WARNING, "No Data",
+                                    "There are no products in the inventory to export.");
+                            return;
+                        }
 
-            } catch (Exception e) {
-                e.printStackTrace();
-                showStyledAlert(Alert.AlertType.ERROR, "Export Failed",
-                        "Failed to export inventory report: " + e.getMessage());
-            }
+                        // Create file chooser
+                        javafx.stage.FileChooser fileChooser = new javafx.stage.FileChooser();
+                        fileChooser.setTitle("Export Inventory Report to PDF");
+
+                        // Set default filename with current date
+                        String defaultFileName = "Inventory_Report_" +
+                                LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) + ".pdf";
+                        fileChooser.setInitialFileName(defaultFileName);
+
+                        // Set file extension filter
+                        javafx.stage.FileChooser.ExtensionFilter extFilter =
+                                new javafx.stage.FileChooser.ExtensionFilter("PDF files (*.pdf)", "*.pdf");
+                        fileChooser.getExtensionFilters().add(extFilter);
+
+                        // Show save dialog
+                        Stage stage = (Stage) inventoryTable.getScene().getWindow();
+                        java.io.File file = fileChooser.showSaveDialog(stage);
+
+                        if (file != null) {
+                            // Export to PDF (looks up every product's batches, so it stays off the FX thread)
+                            tasks.run(() -> exportToPDF(products, file))
+                                    .onSuccess(done -> {
+                                        String message = "Inventory report exported successfully to PDF!\n\n" +
+                                                "File: " + file.getName() + "\n" +
+                                                "Total Products: " + products.size() + "\n\n" +
+                                                "The file has been saved to:\n" + file.getAbsolutePath();
+
+                                        showStyledAlert(Alert.AlertType.INFORMATION, "Export Successful", message);
+                                    })
+                                    .onError(e -> {
+                                        e.printStackTrace();
+                                        showStyledAlert(Alert.AlertType.ERROR, "Export Failed",
+                                                "Failed to export inventory report: " + e.getMessage());
+                                    })
+                                    .start();
+                        }
+                    })
+                    .onError(this::showExportError)
+                    .start();
         }
     
         private void exportToCSV(List<Product> products, java.io.File file) throws Exception {
@@ -1349,9 +1392,8 @@ private BatchRepository batchRepository;
             return value;
         }
 
-        private void showInventoryPrintPreviewDialog() throws Exception {
-            // Get products from the inventory table
-            List<Product> products = new ArrayList<>(inventoryTable.getItems());
+        private void showInventoryPrintPreviewDialog(PrintData data) {
+            List<Product> products = data.products();
 
             if (products.isEmpty()) {
                 showStyledAlert(Alert.AlertType.WARNING, "No Data",
@@ -1388,7 +1430,7 @@ private BatchRepository batchRepository;
             scrollPane.setPrefViewportHeight(500);
             VBox.setVgrow(scrollPane, Priority.ALWAYS);
 
-            VBox printContent = createInventoryPrintableContent(products);
+            VBox printContent = createInventoryPrintableContent(data);
             printContent.setStyle(
                     "-fx-background-color: white; " +
                     "-fx-padding: 50; " +
@@ -1449,7 +1491,8 @@ private BatchRepository batchRepository;
             dialogStage.showAndWait();
         }
 
-        private VBox createInventoryPrintableContent(List<Product> products) {
+        private VBox createInventoryPrintableContent(PrintData data) {
+            List<Product> products = data.products();
             VBox content = new VBox(20);
 
             // Title
@@ -1483,7 +1526,7 @@ private BatchRepository batchRepository;
             LocalDate thirtyDaysFromNow = today.plusDays(30);
             long expiringCount = products.stream()
                     .filter(product -> {
-                        List<com.inventory.Calo.s_Drugstore.entity.Batch> batches = productService.getBatchesForProduct(product);
+                        List<com.inventory.Calo.s_Drugstore.entity.Batch> batches = data.batches().get(product.getId());
                         if (batches.isEmpty()) {
                             return product.getExpirationDate() != null &&
                                    !product.getExpirationDate().isBefore(today) &&
@@ -1521,7 +1564,7 @@ private BatchRepository batchRepository;
             Label productsTitle = new Label("COMPLETE INVENTORY LIST");
             productsTitle.setStyle("-fx-font-size: 14px; -fx-font-weight: bold; -fx-text-fill: #2c3e50; -fx-padding: 20 0 10 0;");
 
-            GridPane productsGrid = createInventoryProductsGrid(products);
+            GridPane productsGrid = createInventoryProductsGrid(data);
 
             content.getChildren().addAll(
                     title, subtitle, separator1,
@@ -1542,7 +1585,8 @@ private BatchRepository batchRepository;
             return label;
         }
 
-        private GridPane createInventoryProductsGrid(List<Product> products) {
+        private GridPane createInventoryProductsGrid(PrintData data) {
+            List<Product> products = data.products();
             GridPane grid = new GridPane();
             grid.setHgap(10);
             grid.setVgap(6);
@@ -1561,7 +1605,7 @@ private BatchRepository batchRepository;
             for (int row = 0; row < maxRows; row++) {
                 Product product = products.get(row);
 
-                List<com.inventory.Calo.s_Drugstore.entity.Batch> batches = productService.getBatchesForProduct(product);
+                List<com.inventory.Calo.s_Drugstore.entity.Batch> batches = data.batches().get(product.getId());
                 LocalDate expiryDate = null;
                 if (!batches.isEmpty()) {
                     expiryDate = batches.stream()
@@ -1777,10 +1821,10 @@ private BatchRepository batchRepository;
 
             saveAllButton.setOnAction(e -> {
                 try {
-                    int successCount = 0;
                     int failCount = 0;
                     int emptyCount = 0;
                     StringBuilder errorMessages = new StringBuilder();
+                    List<BulkBatch> toSave = new ArrayList<>();
 
                     for (int i = 0; i < batchDataList.size(); i++) {
                         BatchFormData formData = batchDataList.get(i);
@@ -1839,47 +1883,40 @@ private BatchRepository batchRepository;
                             String supplier = formData.selectedProduct.getSupplier() != null ?
                                     formData.selectedProduct.getSupplier() : "Unknown";
 
-                            // Add batch
-                            productService.saveProductWithBatch(
-                                    formData.selectedProduct,
-                                    quantity,
-                                    formData.expiryDate.getValue(),
-                                    price,
-                                    supplier,
-                                    formData.dateReceived.getValue()
-                            );
-                            successCount++;
+                            // Saved below, once every form has been checked
+                            toSave.add(new BulkBatch(i + 1, formData.selectedProduct, quantity,
+                                    formData.expiryDate.getValue(), price, supplier, formData.dateReceived.getValue()));
 
                         } catch (NumberFormatException ex) {
                             failCount++;
                             errorMessages.append("Batch #").append(i + 1)
                                     .append(": Invalid quantity format\n");
-                        } catch (Exception ex) {
-                            failCount++;
-                            errorMessages.append("Batch #").append(i + 1)
-                                    .append(": ").append(ex.getMessage()).append("\n");
                         }
                     }
 
-                    // Show appropriate message based on results
-                    if (successCount == 0 && failCount > 0) {
-                        showStyledAlert(Alert.AlertType.ERROR, "Validation Failed",
-                                "No batches were added. Please fix the following errors:\n\n" + errorMessages.toString());
-                    } else if (successCount > 0 && failCount > 0) {
-                        loadProducts();
-                        dialogStage.close();
-                        showStyledAlert(Alert.AlertType.WARNING, "Partial Success",
-                                successCount + " batch(es) added successfully!\n" +
-                                        failCount + " batch(es) failed validation:\n\n" + errorMessages.toString());
-                    } else if (successCount > 0) {
-                        loadProducts();
-                        dialogStage.close();
-                        showStyledAlert(Alert.AlertType.INFORMATION, "Success",
-                                successCount + " batch(es) added successfully!");
-                    } else {
-                        showStyledAlert(Alert.AlertType.WARNING, "No Data",
-                                "Please fill in at least one batch form before adding.");
-                    }
+                    // Add the valid batches in the background
+                    int validationFailures = failCount;
+                    tasks.task(() -> {
+                                int saved = 0;
+                                StringBuilder saveErrors = new StringBuilder();
+                                for (BulkBatch batch : toSave) {
+                                    try {
+                                        productService.saveProductWithBatch(batch.product(), batch.quantity(),
+                                                batch.expiryDate(), batch.price(), batch.supplier(), batch.dateReceived());
+                                        saved++;
+                                    } catch (Exception ex) {
+                                        saveErrors.append("Batch #").append(batch.number())
+                                                .append(": ").append(ex.getMessage()).append("\n");
+                                    }
+                                }
+                                return new BulkAddResult(saved, toSave.size() - saved, saveErrors.toString());
+                            })
+                            .disabling(saveAllButton, cancelButton)
+                            .outlivesView()
+                            .onSuccess(result -> showBulkAddResult(dialogStage, result.saved(),
+                                    validationFailures + result.failed(), errorMessages + result.errors()))
+                            .onError(ex -> showStyledAlert(Alert.AlertType.ERROR, "Error", "Failed to add batches: " + ex.getMessage()))
+                            .start();
 
                 } catch (Exception ex) {
                     showStyledAlert(Alert.AlertType.ERROR, "Error", "Failed to add batches: " + ex.getMessage());
@@ -1899,6 +1936,32 @@ private BatchRepository batchRepository;
             dialogStage.showAndWait();
         }
 
+        // A filled-in bulk add form, checked and ready to save
+        private record BulkBatch(int number, Product product, int quantity, LocalDate expiryDate,
+                                 BigDecimal price, String supplier, LocalDate dateReceived) {}
+
+        private record BulkAddResult(int saved, int failed, String errors) {}
+
+        private void showBulkAddResult(Stage dialogStage, int successCount, int failCount, String errorMessages) {
+            // Show appropriate message based on results
+            if (successCount == 0 && failCount > 0) {
+                showStyledAlert(Alert.AlertType.ERROR, "Validation Failed",
+                        "No batches were added. Please fix the following errors:\n\n" + errorMessages);
+            } else if (successCount > 0 && failCount > 0) {
+                dialogStage.close();
+                showStyledAlert(Alert.AlertType.WARNING, "Partial Success",
+                        successCount + " batch(es) added successfully!\n" +
+                                failCount + " batch(es) failed validation:\n\n" + errorMessages);
+            } else if (successCount > 0) {
+                dialogStage.close();
+                showStyledAlert(Alert.AlertType.INFORMATION, "Success",
+                        successCount + " batch(es) added successfully!");
+            } else {
+                showStyledAlert(Alert.AlertType.WARNING, "No Data",
+                        "Please fill in at least one batch form before adding.");
+            }
+        }
+
         // Helper method to add a batch form
         private void addBatchForm(VBox container, ObservableList<BatchFormData> dataList, int number) {
             // Batch card
@@ -2040,23 +2103,13 @@ private BatchRepository batchRepository;
             formData.cardReference = batchCard;
             dataList.add(0, formData); // Add at the beginning to match UI order
 
-            // Search functionality
-            searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-                if (newVal == null || newVal.trim().isEmpty()) {
-                    searchResultsList.setVisible(false);
-                    searchResultsList.setManaged(false);
-                    searchResultsList.getSelectionModel().clearSelection();
-                    searchResultsList.getItems().clear();
-                    return;
-                }
-                List<Product> results = productService.searchProducts(newVal.trim());
-                // Use Platform.runLater to avoid ListView internal state conflicts
-                Platform.runLater(() -> {
-                    searchResultsList.getSelectionModel().clearSelection();
-                    searchResultsList.getItems().setAll(results);
-                    searchResultsList.setVisible(!results.isEmpty());
-                    searchResultsList.setManaged(!results.isEmpty());
-                });
+            // Search functionality (runs in the background once typing pauses; results arrive
+            // in a later pulse, which also keeps the ListView's selection handling out of the way)
+            SearchPipeline.forField(searchField, this::searchProductsToAdd, results -> {
+                searchResultsList.getSelectionModel().clearSelection();
+                searchResultsList.getItems().setAll(results);
+                searchResultsList.setVisible(!results.isEmpty());
+                searchResultsList.setManaged(!results.isEmpty());
             });
 
             searchResultsList.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
@@ -2111,21 +2164,19 @@ private BatchRepository batchRepository;
             showProductDetailsDialog(product);
         }
 
-        private void updateKPIs() {
-            // Total items
-            totalItemsLabel.setText(String.valueOf(productList.size()));
-
-            // Low stock count
-            long lowStockCount = productList.stream()
-                    .filter(p -> p.getStock() <= p.getMinStockLevel())
-                    .count();
-            lowStockLabel.setText(String.valueOf(lowStockCount));
+        private record InventoryKpis(long totalItems, long lowStock, BigDecimal totalValue) {}
 
-            // Total inventory value
-            BigDecimal totalValue = productList.stream()
-                    .map(p -> p.getPrice().multiply(BigDecimal.valueOf(p.getStock())))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            totalValueLabel.setText("₱" + String.format("%,.2f", totalValue));
+        private void updateKPIs() {
+            // Whole-catalog figures (from the catalog snapshot)
+            tasks.task(() -> new InventoryKpis(productService.getTotalProductCount(),
+                            productService.getLowStockCount(), productService.getInventoryValue()))
+                    .key("kpis")
+                    .onSuccess(kpis -> {
+                        totalItemsLabel.setText(String.valueOf(kpis.totalItems()));
+                        lowStockLabel.setText(String.valueOf(kpis.lowStock()));
+                        totalValueLabel.setText("₱" + String.format("%,.2f", kpis.totalValue()));
+                    })
+                    .start();
         }
 
         private void addDatePickerCalendarCSS(Scene scene) {
@@ -2443,15 +2494,14 @@ private BatchRepository batchRepository;
             boolean confirmed = showDeleteConfirmation(product.getBrandName());
     
             if (confirmed) {
-                try {
-                    productService.deleteProduct(product.getId());
-                    loadProducts();
-                    showStyledAlert(Alert.AlertType.INFORMATION, "Success",
-                            "Product deleted successfully!");
-                } catch (Exception e) {
-                    showStyledAlert(Alert.AlertType.ERROR, "Error",
-                            "Failed to delete product: " + e.getMessage());
-                }
+                tasks.run(() -> productService.deleteProduct(product.getId()))
+                        .disabling(inventoryTable)
+                        .outlivesView()
+                        .onSuccess(done -> showStyledAlert(Alert.AlertType.INFORMATION, "Success",
+                                "Product deleted successfully!"))
+                        .onError(e -> showStyledAlert(Alert.AlertType.ERROR, "Error",
+                                "Failed to delete product: " + e.getMessage()))
+                        .start();
             }
         }
 
@@ -2570,62 +2620,62 @@ private BatchRepository batchRepository;
 
     // If confirmed, proceed with deletion
     if ((Boolean) confirmStage.getUserData()) {
-        try {
-            // ✅ Store product ID before deletion
-            Long productId = product.getId();
-            
-            // Check if this is the last batch
-            long batchCount = productService.countBatchesForProduct(product);
-
-            if (batchCount <= 1) {
-                // This is the last batch - warn user that product will be deleted too
-                boolean deleteProduct = showLastBatchWarning(product.getName());
-
-                if (deleteProduct) {
-                    // Get the stage reference before deletion
-                    Stage batchDialogStage = (Stage) batchTable.getScene().getWindow();
-                    
-                    // Delete the entire product (cascade will delete the batch)
-                    productService.deleteProduct(productId);
-
-                    // Close the batch dialog
-                    batchDialogStage.close();
-                    
-                    // ✅ Use Platform.runLater to ensure UI updates after deletion completes
-                    Platform.runLater(() -> {
-                        loadProducts();
-                        showStyledAlert(Alert.AlertType.INFORMATION, "Success",
-                                "Last batch deleted. Product removed from inventory.");
-                    });
-                } else {
-                    return; // User cancelled
-                }
-            } else {
-                // Delete the batch
-                productService.deleteBatch(batch.getId());
-
-                // ✅ Reload batches using product ID (not stale product object)
-                List<Batch> updatedBatches = batchRepository.findByProductOrderByExpirationDate(productId);
-                
-                // ✅ Clear and reload table
-                batchTable.getItems().clear();
-                batchTable.setItems(FXCollections.observableArrayList(updatedBatches));
-                batchTable.refresh();
-
-                // ✅ Refresh main inventory table to show updated total stock
-                Platform.runLater(() -> {
-                    loadProducts();
-                });
-
-                showStyledAlert(Alert.AlertType.INFORMATION, "Success",
-                        "Batch deleted successfully. Total stock updated.");
-            }
-
-        } catch (Exception ex) {
+        // ✅ Store product ID before deletion
+        Long productId = product.getId();
+        java.util.function.Consumer<Throwable> failed = ex -> {
             ex.printStackTrace();
             showStyledAlert(Alert.AlertType.ERROR, "Error",
                     "Failed to delete batch: " + ex.getMessage());
-        }
+        };
+
+        // Check if this is the last batch
+        tasks.task(() -> productService.countBatchesForProduct(product))
+                .disabling(batchTable)
+                .onSuccess(batchCount -> {
+                    if (batchCount <= 1) {
+                        // This is the last batch - warn user that product will be deleted too
+                        if (!showLastBatchWarning(product.getName())) {
+                            return; // User cancelled
+                        }
+
+                        // Get the stage reference before deletion
+                        Stage batchDialogStage = (Stage) batchTable.getScene().getWindow();
+
+                        // Delete the entire product (cascade will delete the batch)
+                        tasks.run(() -> productService.deleteProduct(productId))
+                                .disabling(batchTable)
+                                .outlivesView()
+                                .onSuccess(done -> {
+                                    // Close the batch dialog
+                                    batchDialogStage.close();
+                                    showStyledAlert(Alert.AlertType.INFORMATION, "Success",
+                                            "Last batch deleted. Product removed from inventory.");
+                                })
+                                .onError(failed)
+                                .start();
+                    } else {
+                        // Delete the batch, then reload batches using product ID (not stale product object)
+                        tasks.task(() -> {
+                                    productService.deleteBatch(batch.getId());
+                                    return batchRepository.findByProductOrderByExpirationDate(productId);
+                                })
+                                .disabling(batchTable)
+                                .outlivesView()
+                                .onSuccess(updatedBatches -> {
+                                    // ✅ Clear and reload table
+                                    batchTable.getItems().clear();
+                                    batchTable.setItems(FXCollections.observableArrayList(updatedBatches));
+                                    batchTable.refresh();
+
+                                    showStyledAlert(Alert.AlertType.INFORMATION, "Success",
+                                            "Batch deleted successfully. Total stock updated.");
+                                })
+                                .onError(failed)
+                                .start();
+                    }
+                })
+                .onError(failed)
+                .start();
     }
 }
 
@@ -2753,16 +2803,17 @@ private BatchRepository batchRepository;
 
             // Check if user confirmed
             if (Boolean.TRUE.equals(confirmStage.getUserData())) {
-                try {
-                    productService.deleteProduct(product.getId());
-                    dialogStage.close(); // Close the View Batches dialog
-                    loadProducts(); // Refresh the main inventory table
-                    showStyledAlert(Alert.AlertType.INFORMATION, "Success",
-                            "Product and all batches deleted successfully!");
-                } catch (Exception ex) {
-                    showStyledAlert(Alert.AlertType.ERROR, "Error",
-                            "Failed to delete product: " + ex.getMessage());
-                }
+                tasks.run(() -> productService.deleteProduct(product.getId()))
+                        .disabling(dialogStage.getScene().getRoot())
+                        .outlivesView()
+                        .onSuccess(done -> {
+                            dialogStage.close(); // Close the View Batches dialog
+                            showStyledAlert(Alert.AlertType.INFORMATION, "Success",
+                                    "Product and all batches deleted successfully!");
+                        })
+                        .onError(ex -> showStyledAlert(Alert.AlertType.ERROR, "Error",
+                                "Failed to delete product: " + ex.getMessage()))
+                        .start();
             }
         }
 
@@ -2915,7 +2966,7 @@ private BatchRepository batchRepository;
 
             // Medicine ID (auto-generated, read-only)
             TextField medicineIdField = createStyledTextField(
-                    product == null ? productService.generateNextMedicineId() : product.getMedicineId(),
+                    product == null ? "" : product.getMedicineId(),
                     "Auto-generated"
             );
             medicineIdField.setDisable(true);
@@ -3098,6 +3149,14 @@ private BatchRepository batchRepository;
                             "-fx-cursor: hand;"
             );
 
+            if (product == null) {
+                // Take the next Medicine ID in the background; saving waits until it's there
+                tasks.task(productService::generateNextMedicineId)
+                        .disabling(saveButton)
+                        .onSuccess(medicineIdField::setText)
+                        .start();
+            }
+
             saveButton.setOnMouseEntered(e -> saveButton.setStyle(
                     saveButton.getStyle() + "-fx-background-color: #45a049;"
             ));
@@ -3180,6 +3239,8 @@ private BatchRepository batchRepository;
                     }
 
                     // Save using the batch-aware method
+                    Product target;
+                    String successMessage;
                     if (product == null) {
                         // New product with first batch
                         Product newProduct = new Product();
@@ -3195,40 +3256,33 @@ private BatchRepository batchRepository;
                         newProduct.setUnitOfMeasure(unitCombo.getValue());
                         newProduct.setMinStockLevel(minStockLevel);
 
-                        productService.saveProductWithBatch(
-                                newProduct,
-                                stock,
-                                expirationPicker.getValue(),
-                                price,
-                                supplierField.getText().trim(),
-                                LocalDate.now() // Default to today
-                        );
-
-                        showStyledAlert(Alert.AlertType.INFORMATION, "Success",
-                                "Product and first batch added successfully!");
+                        target = newProduct;
+                        successMessage = "Product and first batch added successfully!";
                     } else {
                         // Add new batch to existing product
-                        productService.saveProductWithBatch(
-                                product,
-                                stock,
-                                expirationPicker.getValue(),
-                                price,
-                                supplierField.getText().trim(),
-                                LocalDate.now() // Default to today
-                        );
-
-                        showStyledAlert(Alert.AlertType.INFORMATION, "Success",
-                                "New batch added successfully to " + product.getBrandName() + "!");
+                        target = product;
+                        successMessage = "New batch added successfully to " + product.getBrandName() + "!";
                     }
 
-                    loadProducts();
-                    dialogStage.close();
-
-                    // Force refresh of dashboard data if it exists
-                    Platform.runLater(() -> {
-                        productService.clearBatchCache();
-                        updateKPIs(); // Refresh local KPIs
-                    });
+                    LocalDate expirationDate = expirationPicker.getValue();
+                    String supplier = supplierField.getText().trim();
+                    tasks.run(() -> productService.saveProductWithBatch(
+                                    target,
+                                    stock,
+                                    expirationDate,
+                                    price,
+                                    supplier,
+                                    LocalDate.now() // Default to today
+                            ))
+                            .disabling(saveButton, cancelButton)
+                            .outlivesView()
+                            .onSuccess(done -> {
+                                showStyledAlert(Alert.AlertType.INFORMATION, "Success", successMessage);
+                                dialogStage.close();
+                            })
+                            .onError(ex -> showStyledAlert(Alert.AlertType.ERROR, "Error",
+                                    "Failed to save: " + ex.getMessage()))
+                            .start();
 
                 } catch (Exception ex) {
                     showStyledAlert(Alert.AlertType.ERROR, "Error",
@@ -3347,17 +3401,9 @@ private BatchRepository batchRepository;
                 }
             });
 
-            // Search functionality
-            searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-                if (newVal == null || newVal.trim().isEmpty()) {
-                    searchResultsList.getItems().clear();
-                    return;
-                }
-
-                // Search products by ID or name
-                List<Product> results = productService.searchProducts(newVal.trim());
-                searchResultsList.getItems().setAll(results);
-            });
+            // Search products by ID or name (in the background once typing pauses)
+            SearchPipeline.forField(searchField, this::searchProductsToAdd,
+                    results -> searchResultsList.getItems().setAll(results));
 
             // Selected product display
             Label selectedProductLabel = new Label("No product selected");
@@ -3542,19 +3588,25 @@ private BatchRepository batchRepository;
                             selectedProduct[0].getSupplier() : "Unknown";
 
                     // Add batch using productService
-                    productService.saveProductWithBatch(
-                            selectedProduct[0],
-                            quantity,
-                            expiryDate,
-                            price,
-                            supplier,
-                            dateReceived
-                    );
-
-                    dialogStage.close();showAddBatchDialog();
-                    loadProducts(); // Refresh inventory table
-                    showStyledAlert(Alert.AlertType.INFORMATION, "Success",
-                            "Batch added successfully to " + selectedProduct[0].getBrandName() + "!");
+                    Product product = selectedProduct[0];
+                    tasks.run(() -> productService.saveProductWithBatch(
+                                    product,
+                                    quantity,
+                                    expiryDate,
+                                    price,
+                                    supplier,
+                                    dateReceived
+                            ))
+                            .disabling(addBatchButton, cancelButton)
+                            .outlivesView()
+                            .onSuccess(done -> {
+                                dialogStage.close();showAddBatchDialog();
+                                showStyledAlert(Alert.AlertType.INFORMATION, "Success",
+                                        "Batch added successfully to " + product.getBrandName() + "!");
+                            })
+                            .onError(ex -> showStyledAlert(Alert.AlertType.ERROR, "Error",
+                                    "Failed to add batch: " + ex.getMessage()))
+                            .start();
 
                 } catch (Exception ex) {
                     showStyledAlert(Alert.AlertType.ERROR, "Error",
@@ -4070,22 +4122,26 @@ private BatchRepository batchRepository;
                     LocalDate expiryDate = expiryPicker.getValue();
                     LocalDate dateReceived = dateReceivedPicker.getValue();
 
-                    // Update batch
+                    // Update batch, then refresh the batch table
                     batch.setStock(quantity);
                     batch.setExpirationDate(expiryDate);
                     batch.setDateReceived(dateReceived);
-                    productService.updateBatch(batch);
-
-                    // Refresh the batch table
-                    List<Batch> batches = productService.getBatchesForProduct(product);
-                    batchTable.getItems().setAll(batches);
-
-                    // Refresh the main inventory table
-                    loadProducts();
-
-                    dialogStage.close();
-                    showStyledAlert(Alert.AlertType.INFORMATION, "Success",
-                            "Batch updated successfully!");
+                    tasks.task(() -> {
+                                productService.updateBatch(batch);
+                                return productService.getBatchesForProduct(product);
+                            })
+                            .disabling(saveButton, cancelButton)
+                            .outlivesView()
+                            .onSuccess(batches -> {
+                                batchTable.getItems().setAll(batches);
+
+                                dialogStage.close();
+                                showStyledAlert(Alert.AlertType.INFORMATION, "Success",
+                                        "Batch updated successfully!");
+                            })
+                            .onError(ex -> showStyledAlert(Alert.AlertType.ERROR, "Error",
+                                    "Failed to update batch: " + ex.getMessage()))
+                            .start();
 
                 } catch (Exception ex) {
                     showStyledAlert(Alert.AlertType.ERROR, "Error",
@@ -4474,86 +4530,8 @@ private BatchRepository batchRepository;
     
         private void navigateToPage(String fxmlPath, String cssPath) {
             try {
-                FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-                loader.setControllerFactory(springContext::getBean);
-                Parent root = loader.load();
-    
-                // Pass current user to the next controller
-                if (fxmlPath.contains("inventory")) {
-                    InventoryController controller = loader.getController();
-                    controller.setCurrentUser(currentUser);
-                } else if (fxmlPath.contains("dashboard")) {
-                    DashboardController controller = loader.getController();
-                    controller.setCurrentUser(currentUser);
-                    controller.refreshDashboard();
-                } else if (fxmlPath.contains("sales")) {
-                    SalesController controller = loader.getController();
-                    controller.setCurrentUser(currentUser);
-                } else if (fxmlPath.contains("reports")) {
-                    ReportsController controller = loader.getController();
-                    controller.setCurrentUser(currentUser);
-                } else if (fxmlPath.contains("staff")) {
-                    StaffController controller = loader.getController();
-                    controller.setCurrentUser(currentUser);
-                } else if (fxmlPath.contains("product-management")) {
-                    ProductManagementController controller = loader.getController();
-                    controller.setCurrentUser(currentUser);
-                } else if (fxmlPath.contains("supplier")) {
-                    SupplierController controller = loader.getController();
-                    controller.setCurrentUser(currentUser);
-                }
-    
                 Stage stage = (Stage) dashboardBtn.getScene().getWindow();
-                Scene currentScene = stage.getScene();
-    
-                // SAVE CURRENT WINDOW SIZE AND POSITION
-                double currentWidth = stage.getWidth();
-                double currentHeight = stage.getHeight();
-                double currentX = stage.getX();
-                double currentY = stage.getY();
-                boolean isMaximized = stage.isMaximized();
-    
-                // Create new scene
-                Scene newScene = new Scene(root);
-                newScene.getStylesheets().add(Objects.requireNonNull(getClass().getResource(cssPath)).toExternalForm());
-    
-                // Set initial opacity to 0 for fade-in effect
-                root.setOpacity(0);
-    
-                // Create fade-out animation for current scene
-                javafx.animation.FadeTransition fadeOut = new javafx.animation.FadeTransition(
-                        javafx.util.Duration.millis(30),
-                        currentScene.getRoot()
-                );
-                fadeOut.setFromValue(1.0);
-                fadeOut.setToValue(0.0);
-    
-                fadeOut.setOnFinished(e -> {
-                    // Switch to new scene
-                    stage.setScene(newScene);
-    
-                    // RESTORE WINDOW SIZE AND POSITION
-                    if (isMaximized) {
-                        stage.setMaximized(true);
-                    } else {
-                        stage.setWidth(currentWidth);
-                        stage.setHeight(currentHeight);
-                        stage.setX(currentX);
-                        stage.setY(currentY);
-                    }
-    
-                    // Create fade-in animation for new scene
-                    javafx.animation.FadeTransition fadeIn = new javafx.animation.FadeTransition(
-                            javafx.util.Duration.millis(30),
-                            root
-                    );
-                    fadeIn.setFromValue(0.0);
-                    fadeIn.setToValue(1.0);
-                    fadeIn.play();
-                });
-    
-                fadeOut.play();
-    
+                viewNavigator.navigate(stage, fxmlPath, cssPath);
             } catch (Exception e) {
                 e.printStackTrace();
                 showStyledAlert(Alert.AlertType.ERROR, "Error", "Failed to load page: " + e.getMessage());
@@ -4561,11 +4539,12 @@ private BatchRepository batchRepository;
         }
     
         private void performLogout() {
+            // Drop the pages kept loaded for this session
+            viewNavigator.endSession();
+
             try {
                 // Load login page
-                FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
-                loader.setControllerFactory(springContext::getBean);
-                Parent root = loader.load();
+                Parent root = FxmlViews.load("/fxml/login.fxml", springContext::getBean).root();
     
                 Stage stage = (Stage) dashboardBtn.getScene().getWindow();
                 Scene currentScene = stage.getScene();
@@ -1,9 +1,10 @@
 package com.inventory.Calo.s_Drugstore.controller;
 
+import com.inventory.Calo.s_Drugstore.config.BackgroundStartup;
 import com.inventory.Calo.s_Drugstore.entity.User;
 import com.inventory.Calo.s_Drugstore.service.AuthenticationService;
+import com.inventory.Calo.s_Drugstore.util.UiTasks;
 import javafx.application.Platform;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -17,10 +18,12 @@ import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Controller;
 import java.util.Optional;
 
 @Controller
+@Lazy
 public class LoginController {
 
     @FXML
@@ -59,8 +62,18 @@ public class LoginController {
     @Autowired
     private ApplicationContext springContext;
 
+    @Autowired
+    private ViewNavigator viewNavigator;
+
+    @Autowired
+    private BackgroundStartup backgroundStartup;
+
+    private UiTasks tasks;
+
     @FXML
     public void initialize() {
+        tasks = UiTasks.forView(signInButton);
+
         // AUTO-FOCUS: Set focus on username field when page loads
         Platform.runLater(() -> usernameField.requestFocus());
 
@@ -166,61 +179,38 @@ public class LoginController {
             return;
         }
 
-        // LOADING INDICATOR: Show loading and disable button
-        showLoading(true);
-        signInButton.setDisable(true);
         hideError();
 
         // Perform authentication in background thread
-        Task<Optional<User>> authTask = new Task<>() {
-            @Override
-            protected Optional<User> call() {
-                // Simulate slight delay for better UX (optional)
-                try {
+        // LOADING INDICATOR: shown, and the button disabled, until it finishes
+        tasks.task(() -> {
+                    // Simulate slight delay for better UX (optional)
                     Thread.sleep(300);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-                return authenticationService.authenticate(username, password);
-            }
-        };
-
-        authTask.setOnSucceeded(event -> {
-            showLoading(false);
-            signInButton.setDisable(false);
-
-            Optional<User> userOpt = authTask.getValue();
-            if (userOpt.isPresent()) {
-                User user = userOpt.get();
-                showInfo("Welcome, " + user.getFullName() + "!");
-
-                System.out.println("Login successful!");
-                System.out.println("User: " + user.getUsername());
-                System.out.println("Role: " + user.getRole());
-
-                loadDashboard(user);
-            } else {
-                showError("Invalid username or password");
-                passwordField.clear();
-                passwordTextField.clear();
-                passwordField.requestFocus();
-            }
-        });
-
-        authTask.setOnFailed(event -> {
-            showLoading(false);
-            signInButton.setDisable(false);
-            showError("Authentication error: " + authTask.getException().getMessage());
-        });
-
-        // Start the authentication task
-        new Thread(authTask).start();
-    }
-
-    private void showLoading(boolean show) {
-        if (loadingIndicator != null) {
-            loadingIndicator.setVisible(show);
-        }
+                    // Right after launch the database may still be starting up (the window comes first)
+                    backgroundStartup.awaitReady();
+                    return authenticationService.authenticate(username, password);
+                })
+                .showing(loadingIndicator)
+                .disabling(signInButton)
+                .onSuccess(userOpt -> {
+                    if (userOpt.isPresent()) {
+                        User user = userOpt.get();
+                        showInfo("Welcome, " + user.getFullName() + "!");
+
+                        System.out.println("Login successful!");
+                        System.out.println("User: " + user.getUsername());
+                        System.out.println("Role: " + user.getRole());
+
+                        loadDashboard(user);
+                    } else {
+                        showError("Invalid username or password");
+                        passwordField.clear();
+                        passwordTextField.clear();
+                        passwordField.requestFocus();
+                    }
+                })
+                .onError(e -> showError("Authentication error: " + e.getMessage()))
+                .start();
     }
 
     private void showError(String message) {
@@ -271,31 +261,6 @@ public class LoginController {
                 return;
             }
 
-            FXMLLoader loader = new FXMLLoader(dashboardUrl);
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
-
-//            // TEMPORARY: Set current user for Product Management Controller
-//            ProductManagementController productManagementController = loader.getController();
-//            if (productManagementController != null) {
-//                productManagementController.setCurrentUser(user);
-//            }
-
-//             TODO: Restore original controller assignment after testing
-//             Original code:
-             if (user.getRole().equalsIgnoreCase("ADMIN")) {
-                 DashboardController dashboardController = loader.getController();
-                 if (dashboardController != null) {
-                     dashboardController.setCurrentUser(user);
-                     dashboardController.refreshDashboard();
-                 }
-             } else {
-                 StaffDashboardController staffDashboardController = loader.getController();
-                 if (staffDashboardController != null) {
-                     staffDashboardController.setCurrentUser(user);
-                 }
-             }
-
             Stage stage = (Stage) signInButton.getScene().getWindow();
 
             if (stage == null) {
@@ -303,13 +268,9 @@ public class LoginController {
                 return;
             }
 
-            Scene scene = new Scene(root);
-
-            // Load CSS
-            java.net.URL cssUrl = getClass().getResource(cssPath);
-            if (cssUrl != null) {
-                scene.getStylesheets().add(cssUrl.toExternalForm());
-            }
+            // New session: the dashboard is loaded now, the role's busiest pages in the background
+            viewNavigator.startSession(user);
+            Scene scene = viewNavigator.open(fxmlPath, cssPath);
 
             stage.setWidth(1200);
             stage.setHeight(700);
@@ -0,0 +1,19 @@
+package com.inventory.Calo.s_Drugstore.controller;
+
+import com.inventory.Calo.s_Drugstore.entity.User;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
+
+import java.util.List;
+
+/**
+ * A sidebar page kept loaded by the ViewNavigator for the rest of the session.
+ * initialize() and setCurrentUser() run once, when the page is first loaded; after that
+ * the same scene is shown again and onReturn() brings it up to date.
+ */
+public interface NavigableView {
+
+    void setCurrentUser(User user);
+
+    // Re-entering the page: changes holds what was written while it was hidden (empty if nothing)
+    void onReturn(List<DomainEvent> changes);
+}
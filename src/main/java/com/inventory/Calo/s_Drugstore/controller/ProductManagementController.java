@@ -6,12 +6,14 @@ import com.inventory.Calo.s_Drugstore.repository.BatchRepository;
 import com.inventory.Calo.s_Drugstore.service.ProductService;
 import com.inventory.Calo.s_Drugstore.service.SupplierService;
 import com.inventory.Calo.s_Drugstore.service.UserManagementService;
+import com.inventory.Calo.s_Drugstore.util.FxmlViews;
 import com.inventory.Calo.s_Drugstore.util.IconUtil;
+import com.inventory.Calo.s_Drugstore.util.LazyPagedList;
+import com.inventory.Calo.s_Drugstore.util.SearchPipeline;
+import com.inventory.Calo.s_Drugstore.util.UiTasks;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
 import javafx.beans.property.SimpleStringProperty;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
@@ -23,6 +25,8 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Controller;
 
 import java.math.BigDecimal;
@@ -30,7 +34,8 @@ import java.net.URL;
 import java.util.*;
 
 @Controller
-public class ProductManagementController implements Initializable {
+@Lazy
+public class ProductManagementController implements Initializable, NavigableView {
 
     @Autowired
     private ProductService productService;
@@ -38,6 +43,9 @@ public class ProductManagementController implements Initializable {
     @Autowired
     private ConfigurableApplicationContext springContext;
 
+    @Autowired
+    private ViewNavigator viewNavigator;
+
     @Autowired
     private UserManagementService userManagementService;
 
@@ -87,13 +95,29 @@ public class ProductManagementController implements Initializable {
     @FXML private TableColumn<Product, String> priceColumn;
     @FXML private TableColumn<Product, Void> actionsColumn;
 
-    private ObservableList<Product> productList = FXCollections.observableArrayList();
+    // The table holds only the pages around what's on screen (see LazyPagedList)
+    private static final int PRODUCT_PAGE_SIZE = 50;
+    private LazyPagedList<Product> productList;
+    private String activeSearchTerm;
+    private String activeSupplier;
+    private String activeCategory;
+
+    // Filter changes are counted and queried in the background (see SearchPipeline)
+    private record ProductFilters(String searchTerm, String supplier, String category) {}
+    private SearchPipeline<ProductFilters, LazyPagedList.Loaded<Product>> filterSearch;
+
+    private UiTasks tasks;
+    private record FilterOptions(List<String> categories, List<String> suppliers) {}
+    private record ProductStatistics(long totalProducts, int categories, int suppliers) {}
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+        tasks = UiTasks.forView(productsBtn)
+                .onError(e -> showStyledAlert(Alert.AlertType.ERROR, "Load Error", "Failed to load data: " + e.getMessage()));
         setupTableColumns();
         setupFilters();
         setupSearchListener();
+        setupProductList();
         loadProducts();
         updateStatistics();
         setActiveButton(productsBtn);
@@ -107,54 +131,84 @@ public class ProductManagementController implements Initializable {
         }
     }
 
+    @Override
+    public void onReturn(List<DomainEvent> changes) {
+        setActiveButton(productsBtn);
+
+        // The table shows no stock, so only catalog edits matter here
+        if (changes.stream().anyMatch(event -> event instanceof DomainEvent.ProductChanged)) {
+            applyFilters();
+            updateStatistics();
+        }
+    }
+
     private void setupTableColumns() {
+        // Rows whose page is still loading come through as null (see LazyPagedList) and stay blank
         // Product ID Column
-        productIdColumn.setCellValueFactory(data ->
-                new SimpleStringProperty(data.getValue().getMedicineId()));
+        productIdColumn.setCellValueFactory(data -> data.getValue() == null ? new SimpleStringProperty()
+                : new SimpleStringProperty(data.getValue().getMedicineId()));
 
         // Brand Name Column
-        brandNameColumn.setCellValueFactory(data ->
-                new SimpleStringProperty(data.getValue().getBrandName()));
+        brandNameColumn.setCellValueFactory(data -> data.getValue() == null ? new SimpleStringProperty()
+                : new SimpleStringProperty(data.getValue().getBrandName()));
 
         // Generic Name Column
         genericNameColumn.setCellValueFactory(data -> {
+            if (data.getValue() == null) {
+                return new SimpleStringProperty();
+            }
             String genericName = data.getValue().getGenericName();
             return new SimpleStringProperty(genericName != null ? genericName : "N/A");
         });
 
         // Category Column
         categoryColumn.setCellValueFactory(data -> {
+            if (data.getValue() == null) {
+                return new SimpleStringProperty();
+            }
             String category = data.getValue().getCategory();
             return new SimpleStringProperty(category != null ? category : "N/A");
         });
 
         // Dosage Form Column
         dosageFormColumn.setCellValueFactory(data -> {
+            if (data.getValue() == null) {
+                return new SimpleStringProperty();
+            }
             String dosageForm = data.getValue().getDosageForm();
             return new SimpleStringProperty(dosageForm != null ? dosageForm : "N/A");
         });
 
         // Dosage Strength Column
         dosageStrengthColumn.setCellValueFactory(data -> {
+            if (data.getValue() == null) {
+                return new SimpleStringProperty();
+            }
             String dosageStrength = data.getValue().getDosageStrength();
             return new SimpleStringProperty(dosageStrength != null ? dosageStrength : "N/A");
         });
 
         // Manufacturer Column
         manufacturerColumn.setCellValueFactory(data -> {
+            if (data.getValue() == null) {
+                return new SimpleStringProperty();
+            }
             String manufacturer = data.getValue().getManufacturer();
             return new SimpleStringProperty(manufacturer != null ? manufacturer : "N/A");
         });
 
         // Supplier Column
         supplierColumn.setCellValueFactory(data -> {
+            if (data.getValue() == null) {
+                return new SimpleStringProperty();
+            }
             String supplier = data.getValue().getSupplier();
             return new SimpleStringProperty(supplier != null ? supplier : "N/A");
         });
 
         // Price Column
-        priceColumn.setCellValueFactory(data ->
-                new SimpleStringProperty("₱" + data.getValue().getPrice().toString()));
+        priceColumn.setCellValueFactory(data -> data.getValue() == null ? new SimpleStringProperty()
+                : new SimpleStringProperty("₱" + data.getValue().getPrice().toString()));
 
         // Actions Column
         actionsColumn.setCellFactory(column -> new TableCell<>() {
@@ -224,7 +278,7 @@ public class ProductManagementController implements Initializable {
             @Override
             protected void updateItem(Void item, boolean empty) {
                 super.updateItem(item, empty);
-                if (empty) {
+                if (empty || getTableRow() == null || getTableRow().getItem() == null) {
                     setGraphic(null);
                 } else {
                     HBox actionBox = new HBox(8);
@@ -237,34 +291,37 @@ public class ProductManagementController implements Initializable {
     }
 
     private void setupFilters() {
-        // Populate category filter
-        List<String> categories = productService.getAllCategories();
-        categoryFilter.getItems().clear();
-        categoryFilter.getItems().add("All Categories");
-        categoryFilter.getItems().addAll(categories);
+        categoryFilter.getItems().setAll("All Categories");
         categoryFilter.setValue("All Categories");
-
-        // Populate supplier filter
-        List<String> suppliers = supplierService.getAllSuppliers()
-                .stream()
-                .map(com.inventory.Calo.s_Drugstore.entity.Supplier::getCompanyName)
-                .toList();
-        supplierFilter.getItems().clear();
-        supplierFilter.getItems().add("All Suppliers");
-        supplierFilter.getItems().addAll(suppliers);
+        supplierFilter.getItems().setAll("All Suppliers");
         supplierFilter.setValue("All Suppliers");
 
+        // Populate category and supplier filters
+        tasks.task(() -> new FilterOptions(
+                        productService.getAllCategories(),
+                        supplierService.getAllSuppliers()
+                                .stream()
+                                .map(com.inventory.Calo.s_Drugstore.entity.Supplier::getCompanyName)
+                                .toList()))
+                .key("filterOptions")
+                .onSuccess(options -> {
+                    categoryFilter.getItems().addAll(options.categories());
+                    supplierFilter.getItems().addAll(options.suppliers());
+                })
+                .start();
+
         // Add listeners
-        categoryFilter.setOnAction(e -> applyFilters());
-        supplierFilter.setOnAction(e -> applyFilters());
+        categoryFilter.setOnAction(e -> filterSearch.submitNow(currentFilters()));
+        supplierFilter.setOnAction(e -> filterSearch.submitNow(currentFilters()));
 
         // Refresh supplier list when dropdown opens
         supplierFilter.setOnShowing(e -> refreshSupplierDropdown());
     }
 
     private void setupSearchListener() {
+        // Runs once typing pauses
         searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            applyFilters();
+            filterSearch.submit(currentFilters());
         });
     }
 
@@ -290,63 +347,69 @@ public class ProductManagementController implements Initializable {
         }
     }
 
+    private void setupProductList() {
+        // Pages are queried with the last filters applied, sorted by the clicked column
+        productList = new LazyPagedList<>(
+                pageable -> productService.getProductPage(activeSearchTerm, activeSupplier, activeCategory, pageable),
+                () -> productService.countProducts(activeSearchTerm, activeSupplier, activeCategory),
+                PRODUCT_PAGE_SIZE, 10, Sort.by("id"));
+
+        productList.bindTo(productsTable, Map.<TableColumn<Product, ?>, String>of(
+                productIdColumn, "medicineId",
+                brandNameColumn, "brandName",
+                genericNameColumn, "genericName",
+                categoryColumn, "category",
+                dosageFormColumn, "dosageForm",
+                dosageStrengthColumn, "dosageStrength",
+                manufacturerColumn, "manufacturer",
+                supplierColumn, "supplier",
+                priceColumn, "price"));
+
+        filterSearch = new SearchPipeline<ProductFilters, LazyPagedList.Loaded<Product>>(SearchPipeline.TYPING_PAUSE,
+                filters -> productList.load(
+                        () -> productService.countProducts(filters.searchTerm(), filters.supplier(), filters.category()),
+                        pageable -> productService.getProductPage(filters.searchTerm(), filters.supplier(), filters.category(), pageable)),
+                (filters, loaded) -> {
+                    activeSearchTerm = filters.searchTerm();
+                    activeSupplier = filters.supplier();
+                    activeCategory = filters.category();
+                    productList.show(loaded);
+                    updateTotalCount();
+                })
+                .onError(e -> showStyledAlert(Alert.AlertType.ERROR, "Load Error", "Failed to load products: " + e.getMessage()));
+    }
+
+    private ProductFilters currentFilters() {
+        return new ProductFilters(searchField.getText(), supplierFilter.getValue(), categoryFilter.getValue());
+    }
+
     private void loadProducts() {
-        try {
-            List<Product> products = productService.getAllProducts();
-            productList.setAll(products);
-            productsTable.setItems(productList);
-            updateTotalCount();
-        } catch (Exception e) {
-            showStyledAlert(Alert.AlertType.ERROR, "Load Error", "Failed to load products: " + e.getMessage());
-            e.printStackTrace();
-        }
+        applyFilters();
     }
 
+    // Reload right away (after an edit or a filter change)
     private void applyFilters() {
-        String searchTerm = searchField.getText();
-        String category = categoryFilter.getValue();
-        String supplier = supplierFilter.getValue();
-
-        try {
-            List<Product> filtered = productService.filterProducts(searchTerm, supplier, category);
-            productList.setAll(filtered);
-            updateTotalCount();
-        } catch (Exception e) {
-            showStyledAlert(Alert.AlertType.ERROR, "Filter Error", "Failed to apply filters: " + e.getMessage());
-            e.printStackTrace();
-        }
+        filterSearch.submitNow(currentFilters());
     }
 
     private void updateTotalCount() {
-        totalCountLabel.setText("Total: " + productList.size() + " products");
+        totalCountLabel.setText("Total: " + productList.getTotalCount() + " products");
     }
 
     private void updateStatistics() {
-        try {
-            List<Product> allProducts = productService.getAllProducts();
-
-            // Total products
-            totalProductsLabel.setText(String.valueOf(allProducts.size()));
-
-            // Total categories
-            long categoryCount = allProducts.stream()
-                    .map(Product::getCategory)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .count();
-            totalCategoriesLabel.setText(String.valueOf(categoryCount));
-
-            // Total suppliers
-            long supplierCount = allProducts.stream()
-                    .map(Product::getSupplier)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .count();
-            totalSuppliersLabel.setText(String.valueOf(supplierCount));
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        tasks.task(() -> new ProductStatistics(
+                        productService.getTotalProductCount(),
+                        // Total categories and suppliers in use (distinct, non-null)
+                        productService.getAllCategories().size(),
+                        productService.getAllSuppliers().size()))
+                .key("statistics")
+                .onSuccess(stats -> {
+                    totalProductsLabel.setText(String.valueOf(stats.totalProducts()));
+                    totalCategoriesLabel.setText(String.valueOf(stats.categories()));
+                    totalSuppliersLabel.setText(String.valueOf(stats.suppliers()));
+                })
+                .onError(Throwable::printStackTrace)
+                .start();
     }
 
     @FXML
@@ -393,7 +456,7 @@ public class ProductManagementController implements Initializable {
 
         // Product ID (auto-generated)
         TextField productIdField = createStyledTextField(
-                product == null ? productService.generateNextMedicineId() : product.getMedicineId(),
+                product == null ? "" : product.getMedicineId(),
                 "Auto-generated"
         );
         productIdField.setDisable(true);
@@ -537,6 +600,14 @@ public class ProductManagementController implements Initializable {
                 "-fx-cursor: hand;"
         );
 
+        if (product == null) {
+            // Take the next Medicine ID in the background; saving waits until it's there
+            tasks.task(productService::generateNextMedicineId)
+                    .disabling(saveButton)
+                    .onSuccess(productIdField::setText)
+                    .start();
+        }
+
         saveButton.setOnAction(e -> {
             try {
                 // Validation
@@ -598,16 +669,24 @@ public class ProductManagementController implements Initializable {
                 targetProduct.setMinStockLevel(reorderLevel);
 
                 // Save product
-                productService.saveProduct(targetProduct);
-
-                // Close dialog and refresh
-                dialogStage.close();
-                loadProducts();
-                updateStatistics();
-                setupFilters();
-
-                showStyledAlert(Alert.AlertType.INFORMATION, "Success",
-                        product == null ? "Product profile created successfully" : "Product profile updated successfully");
+                tasks.task(() -> productService.saveProduct(targetProduct))
+                        .disabling(saveButton, cancelButton)
+                        .outlivesView()
+                        .onSuccess(saved -> {
+                            // Close dialog and refresh
+                            dialogStage.close();
+                            loadProducts();
+                            updateStatistics();
+                            setupFilters();
+
+                            showStyledAlert(Alert.AlertType.INFORMATION, "Success",
+                                    product == null ? "Product profile created successfully" : "Product profile updated successfully");
+                        })
+                        .onError(ex -> {
+                            showStyledAlert(Alert.AlertType.ERROR, "Save Error", "Failed to save product: " + ex.getMessage());
+                            ex.printStackTrace();
+                        })
+                        .start();
 
             } catch (NumberFormatException ex) {
                 showStyledAlert(Alert.AlertType.ERROR, "Validation Error", "Please enter valid numeric values for price and reorder level");
@@ -652,16 +731,20 @@ public class ProductManagementController implements Initializable {
     private void handleDeleteProduct(Product product) {
         if (showConfirmation("Delete Product", "Are you sure you want to delete " + product.getBrandName() + "?",
                 "This action cannot be undone.")) {
-            try {
-                productService.deleteProduct(product.getId());
-                loadProducts();
-                updateStatistics();
-                setupFilters();
-                showStyledAlert(Alert.AlertType.INFORMATION, "Success", "Product deleted successfully");
-            } catch (Exception e) {
-                showStyledAlert(Alert.AlertType.ERROR, "Delete Error", "Failed to delete product: " + e.getMessage());
-                e.printStackTrace();
-            }
+            tasks.run(() -> productService.deleteProduct(product.getId()))
+                    .disabling(productsTable)
+                    .outlivesView()
+                    .onSuccess(done -> {
+                        loadProducts();
+                        updateStatistics();
+                        setupFilters();
+                        showStyledAlert(Alert.AlertType.INFORMATION, "Success", "Product deleted successfully");
+                    })
+                    .onError(e -> {
+                        showStyledAlert(Alert.AlertType.ERROR, "Delete Error", "Failed to delete product: " + e.getMessage());
+                        e.printStackTrace();
+                    })
+                    .start();
         }
     }
 
@@ -720,7 +803,7 @@ public class ProductManagementController implements Initializable {
     private void handleLogout() {
         if (showConfirmation("Logout", "Are you sure you want to logout?",
                 "You will be redirected to the login page.")) {
-            navigateToPage("/fxml/login.fxml", "/css/login.css");
+            performLogout();
         }
     }
 
@@ -750,86 +833,8 @@ public class ProductManagementController implements Initializable {
                 return;
             }
 
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
-
-            // Pass current user to the next controller
-            if (fxmlPath.contains("inventory")) {
-                InventoryController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("dashboard")) {
-                DashboardController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("sales")) {
-                SalesController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("staff")) {
-                StaffController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("product-management")) {
-                ProductManagementController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-                cssPath = "/css/inventory.css"; // Use inventory CSS for product management
-            } else if (fxmlPath.contains("reports")) {
-                ReportsController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("supplier")) {
-                SupplierController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            }
-
             Stage stage = (Stage) dashboardBtn.getScene().getWindow();
-            Scene currentScene = stage.getScene();
-
-            // Save current window size and position
-            double currentWidth = stage.getWidth();
-            double currentHeight = stage.getHeight();
-            double currentX = stage.getX();
-            double currentY = stage.getY();
-            boolean isMaximized = stage.isMaximized();
-
-            // Create new scene
-            Scene newScene = new Scene(root);
-            newScene.getStylesheets().add(getClass().getResource(cssPath).toExternalForm());
-
-            // Set initial opacity to 0 for fade-in effect
-            root.setOpacity(0);
-
-            // Create fade-out animation for current scene
-            javafx.animation.FadeTransition fadeOut = new javafx.animation.FadeTransition(
-                    javafx.util.Duration.millis(30),
-                    currentScene.getRoot()
-            );
-            fadeOut.setFromValue(1.0);
-            fadeOut.setToValue(0.0);
-
-            fadeOut.setOnFinished(e -> {
-                // Switch to new scene
-                stage.setScene(newScene);
-
-                // Restore window size and position
-                if (isMaximized) {
-                    stage.setMaximized(true);
-                } else {
-                    stage.setWidth(currentWidth);
-                    stage.setHeight(currentHeight);
-                    stage.setX(currentX);
-                    stage.setY(currentY);
-                }
-
-                // Create fade-in animation for new scene
-                javafx.animation.FadeTransition fadeIn = new javafx.animation.FadeTransition(
-                        javafx.util.Duration.millis(30),
-                        root
-                );
-                fadeIn.setFromValue(0.0);
-                fadeIn.setToValue(1.0);
-                fadeIn.play();
-            });
-
-            fadeOut.play();
-
+            viewNavigator.navigate(stage, fxmlPath, cssPath);
         } catch (Exception e) {
             showStyledAlert(Alert.AlertType.ERROR, "Navigation Error", "Failed to navigate: " + e.getMessage());
             e.printStackTrace();
@@ -837,11 +842,12 @@ public class ProductManagementController implements Initializable {
     }
 
     private void performLogout() {
+        // Drop the pages kept loaded for this session
+        viewNavigator.endSession();
+
         try {
             // Load login page
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
+            Parent root = FxmlViews.load("/fxml/login.fxml", springContext::getBean).root();
 
             Stage stage = (Stage) dashboardBtn.getScene().getWindow();
             Scene currentScene = stage.getScene();
@@ -1,18 +1,25 @@
 package com.inventory.Calo.s_Drugstore.controller;
 
+import com.inventory.Calo.s_Drugstore.repository.ProductRow;
+import com.inventory.Calo.s_Drugstore.repository.SalesAggregateRepository;
+import com.inventory.Calo.s_Drugstore.repository.TransactionSummary;
 import com.inventory.Calo.s_Drugstore.service.UserManagementService;
+import com.inventory.Calo.s_Drugstore.util.FxmlViews;
 import com.inventory.Calo.s_Drugstore.util.IconUtil;
+import com.inventory.Calo.s_Drugstore.util.TableScrollUtil;
+import com.inventory.Calo.s_Drugstore.util.UiTasks;
 import com.inventory.Calo.s_Drugstore.entity.Product;
 import com.inventory.Calo.s_Drugstore.entity.Sale;
 import com.inventory.Calo.s_Drugstore.entity.SaleItem;
 import com.inventory.Calo.s_Drugstore.entity.User;
 import com.inventory.Calo.s_Drugstore.service.ProductService;
+import com.inventory.Calo.s_Drugstore.service.SalesRollupService;
 import com.inventory.Calo.s_Drugstore.service.SalesService;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
@@ -30,6 +37,7 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Controller;
 
 import java.math.BigDecimal;
@@ -44,7 +52,8 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Controller
-public class ReportsController implements Initializable {
+@Lazy
+public class ReportsController implements Initializable, NavigableView {
 
     @Autowired
     private SalesService salesService;
@@ -52,11 +61,24 @@ public class ReportsController implements Initializable {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SalesAggregateRepository salesAggregateRepository;
+
     @Autowired
     private ConfigurableApplicationContext springContext;
 
+    @Autowired
+    private ViewNavigator viewNavigator;
+
     private User currentUser;
 
+    // Runs the report queries off the FX thread (one per page load)
+    private UiTasks tasks;
+    private UiTasks.Handle transactionLoad;
+
     // FXML Components
     @FXML private Button dashboardBtn;
     @FXML private Button productsBtn;
@@ -85,13 +107,13 @@ public class ReportsController implements Initializable {
     @FXML private ComboBox<String> monthSelectorCombo;
 
     // Expiring medicines table
-    @FXML private TableView<Product> expiringMedicinesTable;
-    @FXML private TableColumn<Product, String> medicineIdCol;
-    @FXML private TableColumn<Product, String> medicineNameCol;
-    @FXML private TableColumn<Product, String> expirationDateCol;
-    @FXML private TableColumn<Product, String> daysLeftCol;
-    @FXML private TableColumn<Product, String> stockCol;
-    @FXML private TableColumn<Product, String> statusCol;
+    @FXML private TableView<ProductRow> expiringMedicinesTable;
+    @FXML private TableColumn<ProductRow, String> medicineIdCol;
+    @FXML private TableColumn<ProductRow, String> medicineNameCol;
+    @FXML private TableColumn<ProductRow, String> expirationDateCol;
+    @FXML private TableColumn<ProductRow, String> daysLeftCol;
+    @FXML private TableColumn<ProductRow, String> stockCol;
+    @FXML private TableColumn<ProductRow, String> statusCol;
 
     // Top Selling Medicines table
     @FXML private TableView<Map<String, Object>> topSellingTable;
@@ -101,16 +123,24 @@ public class ReportsController implements Initializable {
     @FXML private TableColumn<Map<String, Object>, String> quantitySoldCol;
 
     // Transaction Management table
-    @FXML private TableView<Sale> transactionsTable;
-    @FXML private TableColumn<Sale, String> txnIdCol;
+    @FXML private TableView<TransactionSummary> transactionsTable;
+    @FXML private TableColumn<TransactionSummary, String> txnIdCol;
     
     // Flag to track if showing voided transactions
     private boolean showVoidedTransactions = false;
-    @FXML private TableColumn<Sale, String> txnDateCol;
-    @FXML private TableColumn<Sale, String> txnItemsCol;
-    @FXML private TableColumn<Sale, String> txnTotalCol;
-    @FXML private TableColumn<Sale, String> txnStaffCol;
-    @FXML private TableColumn<Sale, Void> txnActionsCol;
+    @FXML private TableColumn<TransactionSummary, String> txnDateCol;
+    @FXML private TableColumn<TransactionSummary, String> txnItemsCol;
+    @FXML private TableColumn<TransactionSummary, String> txnTotalCol;
+    @FXML private TableColumn<TransactionSummary, String> txnStaffCol;
+    @FXML private TableColumn<TransactionSummary, Void> txnActionsCol;
+    @FXML private DatePicker txnFromDatePicker;
+    @FXML private DatePicker txnToDatePicker;
+    @FXML private ComboBox<User> txnStaffFilter;
+
+    // Transactions are fetched a page at a time as the table is scrolled
+    private static final int TRANSACTION_PAGE_SIZE = 100;
+    private TransactionSummary lastTransactionShown;
+    private boolean moreTransactions;
 
     @Autowired
     private UserManagementService userManagementService; // Add this autowired dependency
@@ -120,11 +150,14 @@ public class ReportsController implements Initializable {
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+        tasks = UiTasks.forView(reportsBtn)
+                .onError(e -> showStyledAlert(Alert.AlertType.ERROR, "Load Error", "Failed to load report data: " + e.getMessage()));
         setActiveButton(reportsBtn);
         setupExpiringMedicinesTable();
         setupTopSellingTable();
         setupTableColumns();
         setupTransactionsTable();
+        setupTransactionFilters();
         loadDashboardData();
         loadSalesTrendsChart();
         loadCategoryChart();
@@ -224,59 +257,30 @@ public class ReportsController implements Initializable {
     }
 
     private void loadTopSellingMedicines() {
-        try {
-            // Get sales from last 7 days
-            LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
-            LocalDateTime now = LocalDateTime.now();
-
-            List<Sale> weekSales = salesService.getSalesBetweenDates(weekAgo, now);
-
-            // Count quantities by medicine
-            Map<String, Map<String, Object>> medicineStats = new HashMap<>();
-
-            for (Sale sale : weekSales) {
-                List<SaleItem> items = sale.getItems();
-                for (SaleItem item : items) {
-                    String medicineName = item.getMedicineName();
-
-                    if (!medicineStats.containsKey(medicineName)) {
-                        // Find the product to get category
-                        Optional<Product> productOpt = productService.getProductByMedicineId(item.getMedicineId());
-                        String category = productOpt.map(Product::getCategory).orElse("Unknown");
-
+        tasks.task(() -> {
+                    // Get sales from last 7 days
+                    LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
+                    LocalDateTime now = LocalDateTime.now();
+
+                    // Top 5 by quantity, summed by the database
+                    List<Map<String, Object>> topMedicines = new ArrayList<>();
+                    for (SalesAggregateRepository.MedicineTotals medicine : salesAggregateRepository.topMedicines(weekAgo, now, null, 5)) {
                         Map<String, Object> stats = new HashMap<>();
-                        stats.put("medicineName", medicineName);
-                        stats.put("category", category);
-                        stats.put("quantitySold", 0);
-                        medicineStats.put(medicineName, stats);
+                        stats.put("rank", topMedicines.size() + 1);
+                        stats.put("medicineName", medicine.medicineName());
+                        stats.put("category", medicine.category());
+                        stats.put("quantitySold", (int) medicine.quantitySold());
+                        topMedicines.add(stats);
                     }
-
-                    Map<String, Object> stats = medicineStats.get(medicineName);
-                    Integer currentQty = (Integer) stats.get("quantitySold");
-                    stats.put("quantitySold", currentQty + item.getQuantity());
-                }
-            }
-
-            // Sort by quantity and take top 5
-            List<Map<String, Object>> topMedicines = medicineStats.values().stream()
-                    .sorted((a, b) -> Integer.compare(
-                            (Integer) b.get("quantitySold"),
-                            (Integer) a.get("quantitySold")
-                    ))
-                    .limit(5)
-                    .collect(Collectors.toList());
-
-            // Add rank numbers
-            for (int i = 0; i < topMedicines.size(); i++) {
-                topMedicines.get(i).put("rank", i + 1);
-            }
-
-            topSellingTable.setItems(FXCollections.observableArrayList(topMedicines));
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Error loading top selling medicines: " + e.getMessage());
-        }
+                    return topMedicines;
+                })
+                .key("topSelling")
+                .onSuccess(topMedicines -> topSellingTable.setItems(FXCollections.observableArrayList(topMedicines)))
+                .onError(e -> {
+                    e.printStackTrace();
+                    System.err.println("Error loading top selling medicines: " + e.getMessage());
+                })
+                .start();
     }
 
     public void setCurrentUser(User user) {
@@ -287,6 +291,22 @@ public class ReportsController implements Initializable {
         }
     }
 
+    @Override
+    public void onReturn(List<DomainEvent> changes) {
+        setActiveButton(reportsBtn);
+
+        if (changes.stream().anyMatch(DomainEvent::isSaleEvent)) {
+            loadDashboardData();
+            loadSalesTrendsChart();
+            loadCategoryChart();
+            loadTopSellingMedicines();
+            loadAllTransactions();
+        }
+        if (changes.stream().anyMatch(event -> !event.isSaleEvent())) {
+            loadExpiringMedicines();
+        }
+    }
+
     private void setActiveButton(Button activeButton) {
         // Remove active class from all buttons
         dashboardBtn.getStyleClass().remove("active");
@@ -314,42 +334,35 @@ public class ReportsController implements Initializable {
         });
     }
 
-    private void loadDashboardData() {
-        try {
-            // Get current month sales
-            LocalDateTime startOfMonth = LocalDate.now().withDayOfMonth(1).atStartOfDay();
-            LocalDateTime endOfMonth = LocalDate.now().withDayOfMonth(
-                    LocalDate.now().lengthOfMonth()).atTime(23, 59, 59);
-
-            List<Sale> monthSales = salesService.getSalesBetweenDates(startOfMonth, endOfMonth);
-
-            // Calculate metrics
-            BigDecimal totalRevenue = monthSales.stream()
-                    .map(Sale::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            int totalTransactions = monthSales.size();
+    private record MonthMetrics(SalesAggregateRepository.SalesTotals totals, long lowStockCount) {}
 
-            BigDecimal avgOrder = totalTransactions > 0
-                    ? totalRevenue.divide(BigDecimal.valueOf(totalTransactions), 2, BigDecimal.ROUND_HALF_UP)
-                    : BigDecimal.ZERO;
-
-            long lowStockCount = productService.getLowStockCount();
-
-            // Update labels
-            totalRevenueLabel.setText("₱" + String.format("%,.2f", totalRevenue));
-            totalTransactionsLabel.setText(String.format("%,d", totalTransactions));
-            avgOrderValueLabel.setText("₱" + String.format("%,.2f", avgOrder));
-            lowStockItemsLabel.setText(String.valueOf(lowStockCount));
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            // Set default values on error
-            totalRevenueLabel.setText("₱0.00");
-            totalTransactionsLabel.setText("0");
-            avgOrderValueLabel.setText("₱0.00");
-            lowStockItemsLabel.setText("0");
-        }
+    private void loadDashboardData() {
+        tasks.task(() -> {
+                    // Get current month sales
+                    LocalDateTime startOfMonth = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+                    LocalDateTime startOfNextMonth = startOfMonth.plusMonths(1);
+
+                    // Calculate metrics
+                    return new MonthMetrics(salesAggregateRepository.totals(startOfMonth, startOfNextMonth, null),
+                            productService.getLowStockCount());
+                })
+                .key("metrics")
+                .onSuccess(metrics -> {
+                    // Update labels
+                    totalRevenueLabel.setText("₱" + String.format("%,.2f", metrics.totals().revenue()));
+                    totalTransactionsLabel.setText(String.format("%,d", metrics.totals().transactions()));
+                    avgOrderValueLabel.setText("₱" + String.format("%,.2f", metrics.totals().averageOrder()));
+                    lowStockItemsLabel.setText(String.valueOf(metrics.lowStockCount()));
+                })
+                .onError(e -> {
+                    e.printStackTrace();
+                    // Set default values on error
+                    totalRevenueLabel.setText("₱0.00");
+                    totalTransactionsLabel.setText("0");
+                    avgOrderValueLabel.setText("₱0.00");
+                    lowStockItemsLabel.setText("0");
+                })
+                .start();
     }
 
     @FXML
@@ -371,6 +384,36 @@ public class ReportsController implements Initializable {
     }
 
     private void loadSalesTrendsChart() {
+        String viewMode = currentViewMode;
+
+        // The series isn't on screen yet, so it can be filled in the background
+        tasks.task(() -> {
+                    XYChart.Series<String, Number> series = new XYChart.Series<>();
+                    if ("DAILY".equals(viewMode)) {
+                        loadDailySalesTrend(series);
+                    } else if ("WEEKLY".equals(viewMode)) {
+                        loadWeeklySalesTrend(series);
+                    } else if ("MONTHLY".equals(viewMode)) {
+                        loadMonthlySalesTrend(series);
+                    }
+                    return series;
+                })
+                .key("salesTrends")
+                .onSuccess(this::showSalesTrendsChart)
+                .onError(e -> {
+                    e.printStackTrace();
+                    // Use sample data if error
+                    XYChart.Series<String, Number> series = new XYChart.Series<>();
+                    String[] labels = {"Period 1", "Period 2", "Period 3", "Period 4", "Period 5"};
+                    for (String label : labels) {
+                        series.getData().add(new XYChart.Data<>(label, 0));
+                    }
+                    showSalesTrendsChart(series);
+                })
+                .start();
+    }
+
+    private void showSalesTrendsChart(XYChart.Series<String, Number> series) {
         CategoryAxis xAxis = new CategoryAxis();
         NumberAxis yAxis = new NumberAxis();
         LineChart<String, Number> lineChart = new LineChart<>(xAxis, yAxis);
@@ -379,26 +422,8 @@ public class ReportsController implements Initializable {
         lineChart.setLegendVisible(false);
         lineChart.setAnimated(true);
 
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
         series.setName("Sales");
 
-        try {
-            if ("DAILY".equals(currentViewMode)) {
-                loadDailySalesTrend(series);
-            } else if ("WEEKLY".equals(currentViewMode)) {
-                loadWeeklySalesTrend(series);
-            } else if ("MONTHLY".equals(currentViewMode)) {
-                loadMonthlySalesTrend(series);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            // Use sample data if error
-            String[] labels = {"Period 1", "Period 2", "Period 3", "Period 4", "Period 5"};
-            for (String label : labels) {
-                series.getData().add(new XYChart.Data<>(label, 0));
-            }
-        }
-
         lineChart.getData().add(series);
         salesChartContainer.getChildren().clear();
         salesChartContainer.getChildren().add(lineChart);
@@ -407,15 +432,10 @@ public class ReportsController implements Initializable {
     private void loadDailySalesTrend(XYChart.Series<String, Number> series) {
         // Last 7 days
         LocalDate today = LocalDate.now();
+        Map<LocalDate, BigDecimal> dailyTotals = salesRollupService.getDailyTotals(today.minusDays(6), today);
         for (int i = 6; i >= 0; i--) {
             LocalDate date = today.minusDays(i);
-            LocalDateTime startOfDay = date.atStartOfDay();
-            LocalDateTime endOfDay = date.atTime(23, 59, 59);
-
-            List<Sale> daySales = salesService.getSalesBetweenDates(startOfDay, endOfDay);
-            BigDecimal dayTotal = daySales.stream()
-                    .map(Sale::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal dayTotal = dailyTotals.getOrDefault(date, BigDecimal.ZERO);
 
             String dayLabel = date.format(DateTimeFormatter.ofPattern("EEE"));
             series.getData().add(new XYChart.Data<>(dayLabel, dayTotal.doubleValue()));
@@ -425,17 +445,13 @@ public class ReportsController implements Initializable {
     private void loadWeeklySalesTrend(XYChart.Series<String, Number> series) {
         // Last 8 weeks
         LocalDate today = LocalDate.now();
+        LocalDate firstWeekStart = today.minusWeeks(7).with(TemporalAdjusters.previousOrSame(java.time.DayOfWeek.MONDAY));
+        Map<LocalDate, BigDecimal> dailyTotals = salesRollupService.getDailyTotals(firstWeekStart, today.plusDays(6));
         for (int i = 7; i >= 0; i--) {
             LocalDate weekStart = today.minusWeeks(i).with(TemporalAdjusters.previousOrSame(java.time.DayOfWeek.MONDAY));
             LocalDate weekEnd = weekStart.plusDays(6);
 
-            LocalDateTime startOfWeek = weekStart.atStartOfDay();
-            LocalDateTime endOfWeek = weekEnd.atTime(23, 59, 59);
-
-            List<Sale> weekSales = salesService.getSalesBetweenDates(startOfWeek, endOfWeek);
-            BigDecimal weekTotal = weekSales.stream()
-                    .map(Sale::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal weekTotal = SalesRollupService.sumBetween(dailyTotals, weekStart, weekEnd);
 
             String weekLabel = "Week " + weekStart.format(DateTimeFormatter.ofPattern("MMM dd"));
             series.getData().add(new XYChart.Data<>(weekLabel, weekTotal.doubleValue()));
@@ -445,18 +461,15 @@ public class ReportsController implements Initializable {
     private void loadMonthlySalesTrend(XYChart.Series<String, Number> series) {
         // Last 6 months
         LocalDate today = LocalDate.now();
+        Map<LocalDate, BigDecimal> dailyTotals = salesRollupService.getDailyTotals(
+                today.minusMonths(5).with(TemporalAdjusters.firstDayOfMonth()),
+                today.with(TemporalAdjusters.lastDayOfMonth()));
         for (int i = 5; i >= 0; i--) {
             LocalDate month = today.minusMonths(i);
             LocalDate monthStart = month.with(TemporalAdjusters.firstDayOfMonth());
             LocalDate monthEnd = month.with(TemporalAdjusters.lastDayOfMonth());
 
-            LocalDateTime startOfMonth = monthStart.atStartOfDay();
-            LocalDateTime endOfMonth = monthEnd.atTime(23, 59, 59);
-
-            List<Sale> monthSales = salesService.getSalesBetweenDates(startOfMonth, endOfMonth);
-            BigDecimal monthTotal = monthSales.stream()
-                    .map(Sale::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal monthTotal = SalesRollupService.sumBetween(dailyTotals, monthStart, monthEnd);
 
             String monthLabel = month.format(DateTimeFormatter.ofPattern("MMM"));
             series.getData().add(new XYChart.Data<>(monthLabel, monthTotal.doubleValue()));
@@ -472,50 +485,47 @@ public class ReportsController implements Initializable {
         pieChart.setLegendVisible(true);
         pieChart.setAnimated(true);
 
-        try {
-            // Get sales for selected month
-            LocalDate monthStart = selectedMonth.with(TemporalAdjusters.firstDayOfMonth());
-            LocalDate monthEnd = selectedMonth.with(TemporalAdjusters.lastDayOfMonth());
-
-            LocalDateTime startOfMonth = monthStart.atStartOfDay();
-            LocalDateTime endOfMonth = monthEnd.atTime(23, 59, 59);
-
-            List<Sale> monthSales = salesService.getSalesBetweenDates(startOfMonth, endOfMonth);
+        // Get sales for selected month
+        LocalDate monthStart = selectedMonth.with(TemporalAdjusters.firstDayOfMonth());
+        LocalDate monthEnd = selectedMonth.with(TemporalAdjusters.lastDayOfMonth());
 
-            // Count quantities by category
-            Map<String, Integer> categoryCount = new HashMap<>();
-
-            for (Sale sale : monthSales) {
-                for (SaleItem item : sale.getItems()) {
-                    Optional<Product> productOpt = productService.getProductByMedicineId(item.getMedicineId());
-                    if (productOpt.isPresent()) {
-                        String category = productOpt.get().getCategory();
-                        categoryCount.put(category, categoryCount.getOrDefault(category, 0) + item.getQuantity());
+        tasks.task(() -> {
+                    // Count quantities by category
+                    Map<String, Long> categoryCount = new LinkedHashMap<>();
+                    for (SalesAggregateRepository.CategoryTotals category : salesAggregateRepository.totalsByCategory(
+                            monthStart.atStartOfDay(), monthEnd.plusDays(1).atStartOfDay(), null)) {
+                        categoryCount.put(category.category(), category.itemsSold());
                     }
-                }
-            }
-
-            // Create pie chart data
-            if (categoryCount.isEmpty()) {
-                pieChart.getData().add(new PieChart.Data("No Sales", 1));
-            } else {
-                for (Map.Entry<String, Integer> entry : categoryCount.entrySet()) {
-                    pieChart.getData().add(new PieChart.Data(entry.getKey() + " (" + entry.getValue() + ")", entry.getValue()));
-                }
-            }
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            // Use sample data if error
-            pieChart.getData().addAll(
-                    new PieChart.Data("Pain Relief", 35),
-                    new PieChart.Data("Antibiotics", 25),
-                    new PieChart.Data("Vitamins", 20),
-                    new PieChart.Data("Cold & Flu", 15),
-                    new PieChart.Data("Others", 5)
-            );
-        }
+                    return categoryCount;
+                })
+                .key("categoryChart")
+                .onSuccess(categoryCount -> {
+                    // Create pie chart data
+                    if (categoryCount.isEmpty()) {
+                        pieChart.getData().add(new PieChart.Data("No Sales", 1));
+                    } else {
+                        for (Map.Entry<String, Long> entry : categoryCount.entrySet()) {
+                            pieChart.getData().add(new PieChart.Data(entry.getKey() + " (" + entry.getValue() + ")", entry.getValue()));
+                        }
+                    }
+                    showCategoryChart(pieChart);
+                })
+                .onError(e -> {
+                    e.printStackTrace();
+                    // Use sample data if error
+                    pieChart.getData().addAll(
+                            new PieChart.Data("Pain Relief", 35),
+                            new PieChart.Data("Antibiotics", 25),
+                            new PieChart.Data("Vitamins", 20),
+                            new PieChart.Data("Cold & Flu", 15),
+                            new PieChart.Data("Others", 5)
+                    );
+                    showCategoryChart(pieChart);
+                })
+                .start();
+    }
 
+    private void showCategoryChart(PieChart pieChart) {
         categoryChartContainer.getChildren().clear();
         categoryChartContainer.getChildren().add(pieChart);
     }
@@ -525,103 +535,31 @@ public class ReportsController implements Initializable {
         expiringMedicinesTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
 
         medicineIdCol.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getMedicineId()));
+                new SimpleStringProperty(cellData.getValue().product().getMedicineId()));
 
         medicineNameCol.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getBrandName()));
+                new SimpleStringProperty(cellData.getValue().product().getBrandName()));
 
-        // ✅ FIXED: Get expiration date from batches
+        // Earliest batch expiry (falls back to the product's own date) - precomputed in ProductRow
         expirationDateCol.setCellValueFactory(cellData -> {
-            Product product = cellData.getValue();
-            List<com.inventory.Calo.s_Drugstore.entity.Batch> batches = productService.getBatchesForProduct(product);
-
-            if (!batches.isEmpty()) {
-                // Get earliest expiration date
-                LocalDate earliestExpiry = batches.stream()
-                        .map(com.inventory.Calo.s_Drugstore.entity.Batch::getExpirationDate)
-                        .filter(date -> date != null)
-                        .min(LocalDate::compareTo)
-                        .orElse(null);
-
-                if (earliestExpiry != null) {
-                    return new SimpleStringProperty(earliestExpiry.format(DateTimeFormatter.ofPattern("MMM dd, yyyy")));
-                }
-            }
-
-            // Fallback to product expiration date if no batches
-            if (product.getExpirationDate() != null) {
-                return new SimpleStringProperty(product.getExpirationDate().format(DateTimeFormatter.ofPattern("MMM dd, yyyy")));
-            }
-
-            return new SimpleStringProperty("N/A");
+            LocalDate expiryDate = cellData.getValue().earliestExpiry();
+            return new SimpleStringProperty(expiryDate != null
+                    ? expiryDate.format(DateTimeFormatter.ofPattern("MMM dd, yyyy")) : "N/A");
         });
 
-        // ✅ FIXED: Calculate days left from batches
         daysLeftCol.setCellValueFactory(cellData -> {
-            Product product = cellData.getValue();
-            List<com.inventory.Calo.s_Drugstore.entity.Batch> batches = productService.getBatchesForProduct(product);
-
-            LocalDate expiryDate = null;
-
-            if (!batches.isEmpty()) {
-                // Get earliest expiration date
-                expiryDate = batches.stream()
-                        .map(com.inventory.Calo.s_Drugstore.entity.Batch::getExpirationDate)
-                        .filter(date -> date != null)
-                        .min(LocalDate::compareTo)
-                        .orElse(null);
-            }
-
-            // Fallback to product expiration date
-            if (expiryDate == null) {
-                expiryDate = product.getExpirationDate();
-            }
-
-            if (expiryDate != null) {
-                long daysLeft = ChronoUnit.DAYS.between(LocalDate.now(), expiryDate);
-                return new SimpleStringProperty(String.valueOf(Math.max(0, daysLeft)));
-            }
-
-            return new SimpleStringProperty("N/A");
+            Long daysLeft = cellData.getValue().daysUntilExpiry();
+            return new SimpleStringProperty(daysLeft != null ? String.valueOf(Math.max(0, daysLeft)) : "N/A");
         });
 
         stockCol.setCellValueFactory(cellData ->
-                new SimpleStringProperty(String.valueOf(cellData.getValue().getStock())));
-
-        // ✅ FIXED: Calculate status from batches
-        statusCol.setCellValueFactory(cellData -> {
-            Product product = cellData.getValue();
-            List<com.inventory.Calo.s_Drugstore.entity.Batch> batches = productService.getBatchesForProduct(product);
-
-            LocalDate expiryDate = null;
-
-            if (!batches.isEmpty()) {
-                // Get earliest expiration date
-                expiryDate = batches.stream()
-                        .map(com.inventory.Calo.s_Drugstore.entity.Batch::getExpirationDate)
-                        .filter(date -> date != null)
-                        .min(LocalDate::compareTo)
-                        .orElse(null);
-            }
+                new SimpleStringProperty(String.valueOf(cellData.getValue().product().getStock())));
 
-            // Fallback to product expiration date
-            if (expiryDate == null) {
-                expiryDate = product.getExpirationDate();
-            }
-
-            if (expiryDate != null) {
-                long daysLeft = ChronoUnit.DAYS.between(LocalDate.now(), expiryDate);
-                if (daysLeft < 0) return new SimpleStringProperty("Expired");
-                else if (daysLeft <= 7) return new SimpleStringProperty("Critical");
-                else if (daysLeft <= 30) return new SimpleStringProperty("Warning");
-                else return new SimpleStringProperty("Good");
-            }
-
-            return new SimpleStringProperty("Unknown");
-        });
+        statusCol.setCellValueFactory(cellData ->
+                new SimpleStringProperty(cellData.getValue().expiryStatus()));
 
         // Style the status column
-        statusCol.setCellFactory(column -> new TableCell<Product, String>() {
+        statusCol.setCellFactory(column -> new TableCell<ProductRow, String>() {
             @Override
             protected void updateItem(String item, boolean empty) {
                 super.updateItem(item, empty);
@@ -705,18 +643,18 @@ public class ReportsController implements Initializable {
     }
 
     private void loadExpiringMedicines() {
-        try {
-            // ✅ NOW CHECKS BATCHES - gets products with expired or expiring batches within 30 days
-            List<Product> expiringProducts = productService.getProductsWithExpiringBatches(30);
-
-            expiringMedicinesTable.setItems(FXCollections.observableArrayList(expiringProducts));
-
-            if (expiringProducts.isEmpty()) {
-                expiringMedicinesTable.setPlaceholder(new Label("No expired or expiring medicines"));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        // ✅ NOW CHECKS BATCHES - gets products with expired or expiring batches within 30 days
+        tasks.task(() -> productService.getExpiringProductRows(30))
+                .key("expiring")
+                .onSuccess(expiringProducts -> {
+                    expiringMedicinesTable.setItems(FXCollections.observableArrayList(expiringProducts));
+
+                    if (expiringProducts.isEmpty()) {
+                        expiringMedicinesTable.setPlaceholder(new Label("No expired or expiring medicines"));
+                    }
+                })
+                .onError(Throwable::printStackTrace)
+                .start();
     }
 
     // Navigation methods
@@ -851,11 +789,12 @@ public class ReportsController implements Initializable {
     }
 
     private void performLogout() {
+        // Drop the pages kept loaded for this session
+        viewNavigator.endSession();
+
         try {
             // Load login page
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
+            Parent root = FxmlViews.load("/fxml/login.fxml", springContext::getBean).root();
 
             Stage stage = (Stage) dashboardBtn.getScene().getWindow();
             Scene currentScene = stage.getScene();
@@ -991,97 +930,23 @@ public class ReportsController implements Initializable {
 
     private void navigateToPage(String fxmlPath, String cssPath) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
-
-            // Pass current user to the next controller
-            if (fxmlPath.contains("inventory")) {
-                InventoryController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("dashboard")) {
-                DashboardController controller = loader.getController();
-                controller.refreshDashboard();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("sales")) {
-                SalesController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("reports")) {
-                ReportsController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("staff")) {
-                StaffController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("product-management")) {
-                ProductManagementController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("supplier")) {
-                SupplierController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            }
-
             Stage stage = (Stage) dashboardBtn.getScene().getWindow();
-            Scene currentScene = stage.getScene();
-
-            // SAVE CURRENT WINDOW SIZE AND POSITION
-            double currentWidth = stage.getWidth();
-            double currentHeight = stage.getHeight();
-            double currentX = stage.getX();
-            double currentY = stage.getY();
-            boolean isMaximized = stage.isMaximized();
-
-            Scene newScene = new Scene(root);
-            newScene.getStylesheets().add(getClass().getResource(cssPath).toExternalForm());
-
-            root.setOpacity(0);
-
-            javafx.animation.FadeTransition fadeOut = new javafx.animation.FadeTransition(
-                    javafx.util.Duration.millis(30),
-                    currentScene.getRoot()
-            );
-            fadeOut.setFromValue(1.0);
-            fadeOut.setToValue(0.0);
-
-            fadeOut.setOnFinished(e -> {
-                stage.setScene(newScene);
-
-                // RESTORE WINDOW SIZE AND POSITION
-                if (isMaximized) {
-                    stage.setMaximized(true);
-                } else {
-                    stage.setWidth(currentWidth);
-                    stage.setHeight(currentHeight);
-                    stage.setX(currentX);
-                    stage.setY(currentY);
-                }
-
-                javafx.animation.FadeTransition fadeIn = new javafx.animation.FadeTransition(
-                        javafx.util.Duration.millis(30),
-                        root
-                );
-                fadeIn.setFromValue(0.0);
-                fadeIn.setToValue(1.0);
-                fadeIn.play();
-            });
-
-            fadeOut.play();
-
+            viewNavigator.navigate(stage, fxmlPath, cssPath);
         } catch (Exception e) {
             e.printStackTrace();
             showStyledAlert(Alert.AlertType.ERROR, "Error", "Failed to load page: " + e.getMessage());
         }
-
     }
 
     private void setupTransactionsTable() {
         txnIdCol.setCellValueFactory(data ->
-                new SimpleStringProperty(data.getValue().getTransactionId()));
+                new SimpleStringProperty(data.getValue().transactionId()));
         txnIdCol.setStyle("-fx-alignment: CENTER-LEFT;");
-        txnIdCol.setCellFactory(column -> new TableCell<Sale, String>() {
+        txnIdCol.setCellFactory(column -> new TableCell<TransactionSummary, String>() {
             @Override
             protected void updateItem(String item, boolean empty) {
                 super.updateItem(item, empty);
-                Sale sale = getTableRow() != null ? getTableRow().getItem() : null;
+                TransactionSummary sale = getTableRow() != null ? getTableRow().getItem() : null;
                 
                 if (empty || item == null || sale == null) {
                     setText(null);
@@ -1118,14 +983,14 @@ public class ReportsController implements Initializable {
 
         txnDateCol.setCellValueFactory(data -> {
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM. d, yyyy h:mm a");
-            return new SimpleStringProperty(data.getValue().getSaleDate().format(formatter));
+            return new SimpleStringProperty(data.getValue().saleDate().format(formatter));
         });
         txnDateCol.setStyle("-fx-alignment: CENTER-LEFT;");
 
         txnItemsCol.setCellValueFactory(data ->
-                new SimpleStringProperty(String.valueOf(data.getValue().getTotalItems())));
+                new SimpleStringProperty(String.valueOf(data.getValue().totalItems())));
         txnItemsCol.setStyle("-fx-alignment: CENTER;");
-        txnItemsCol.setCellFactory(column -> new TableCell<Sale, String>() {
+        txnItemsCol.setCellFactory(column -> new TableCell<TransactionSummary, String>() {
             @Override
             protected void updateItem(String item, boolean empty) {
                 super.updateItem(item, empty);
@@ -1141,9 +1006,9 @@ public class ReportsController implements Initializable {
         });
 
         txnTotalCol.setCellValueFactory(data ->
-                new SimpleStringProperty("₱" + String.format("%.2f", data.getValue().getTotalAmount())));
+                new SimpleStringProperty("₱" + String.format("%.2f", data.getValue().totalAmount())));
         txnTotalCol.setStyle("-fx-alignment: CENTER-RIGHT;");
-        txnTotalCol.setCellFactory(column -> new TableCell<Sale, String>() {
+        txnTotalCol.setCellFactory(column -> new TableCell<TransactionSummary, String>() {
             @Override
             protected void updateItem(String item, boolean empty) {
                 super.updateItem(item, empty);
@@ -1158,14 +1023,14 @@ public class ReportsController implements Initializable {
             }
         });
 
+        // Cashier name comes with the summary row, no per-row user lookup
         txnStaffCol.setCellValueFactory(data -> {
-            Long userId = data.getValue().getUserId();
-            Optional<User> userOpt = userManagementService.getUserById(userId);
-            return new SimpleStringProperty(userOpt.isPresent() ? userOpt.get().getFullName() : "Unknown");
+            String cashierName = data.getValue().cashierName();
+            return new SimpleStringProperty(cashierName != null ? cashierName : "Unknown");
         });
         txnStaffCol.setStyle("-fx-alignment: CENTER-LEFT;");
 
-        txnActionsCol.setCellFactory(column -> new TableCell<Sale, Void>() {
+        txnActionsCol.setCellFactory(column -> new TableCell<TransactionSummary, Void>() {
             private final Button viewBtn = new Button("👁");
             private final Button editBtn = new Button("🔧");
             private final Button voidBtn = new Button("⊘ Void");
@@ -1226,7 +1091,7 @@ public class ReportsController implements Initializable {
             protected void updateItem(Void item, boolean empty) {
                 super.updateItem(item, empty);
 
-                Sale sale = getTableRow() != null ? getTableRow().getItem() : null;
+                TransactionSummary sale = getTableRow() != null ? getTableRow().getItem() : null;
 
                 if (empty || sale == null) {
                     setGraphic(null);
@@ -1234,12 +1099,12 @@ public class ReportsController implements Initializable {
                     buttons.getChildren().clear();
                     
                     // Always show view button
-                    viewBtn.setOnAction(e -> handleViewTransaction(sale));
+                    viewBtn.setOnAction(e -> openTransaction(sale).ifPresent(ReportsController.this::handleViewTransaction));
                     buttons.getChildren().add(viewBtn);
                     
                     // Only show edit and void buttons for non-voided transactions
                     if (!sale.isVoided()) {
-                        editBtn.setOnAction(e -> handleEditTransaction(sale));
+                        editBtn.setOnAction(e -> openTransaction(sale).ifPresent(ReportsController.this::handleEditTransaction));
                         voidBtn.setOnAction(e -> handleVoidTransaction(sale));
                         buttons.getChildren().addAll(editBtn, voidBtn);
                     }
@@ -1250,36 +1115,87 @@ public class ReportsController implements Initializable {
         });
     }
 
-    private void loadAllTransactions() {
-        try {
-            // Get last 30 days of transactions
-            LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-            LocalDateTime now = LocalDateTime.now();
-
-            List<Sale> transactions;
-            if (showVoidedTransactions) {
-                // Show ALL including voided
-                transactions = salesService.getAllSalesBetweenDates(thirtyDaysAgo, now);
-            } else {
-                // Show only active (non-voided) transactions
-                transactions = salesService.getSalesBetweenDates(thirtyDaysAgo, now);
+    private void setupTransactionFilters() {
+        // Default to the last 30 days, all staff
+        txnFromDatePicker.setValue(LocalDate.now().minusDays(30));
+        txnToDatePicker.setValue(LocalDate.now());
+
+        txnStaffFilter.setConverter(new javafx.util.StringConverter<User>() {
+            @Override
+            public String toString(User user) {
+                return user == null ? "All Staff" : user.getFullName();
             }
 
-            // Sort by date descending (newest first)
-            transactions.sort((a, b) -> b.getSaleDate().compareTo(a.getSaleDate()));
+            @Override
+            public User fromString(String string) {
+                return null;
+            }
+        });
+        tasks.task(userManagementService::getAllUsers)
+                .onSuccess(users -> {
+                    List<User> staffOptions = new ArrayList<>();
+                    staffOptions.add(null);
+                    staffOptions.addAll(users);
+                    txnStaffFilter.setItems(FXCollections.observableArrayList(staffOptions));
+                })
+                .start();
+
+        txnFromDatePicker.valueProperty().addListener((obs, oldVal, newVal) -> loadAllTransactions());
+        txnToDatePicker.valueProperty().addListener((obs, oldVal, newVal) -> loadAllTransactions());
+        txnStaffFilter.valueProperty().addListener((obs, oldVal, newVal) -> loadAllTransactions());
+
+        TableScrollUtil.onScrolledToBottom(transactionsTable, this::loadMoreTransactions);
+    }
 
-            transactionsTable.setItems(FXCollections.observableArrayList(transactions));
+    // Start the list over from the newest transaction matching the filters
+    private void loadAllTransactions() {
+        if (transactionLoad != null) {
+            transactionLoad.cancel(); // Its page belongs to the old filters
+        }
+        lastTransactionShown = null;
+        moreTransactions = true;
+        transactionsTable.setItems(FXCollections.observableArrayList());
+        loadMoreTransactions();
+    }
 
-            if (transactions.isEmpty()) {
-                String message = showVoidedTransactions ? 
-                    "No transactions found in the last 30 days" : 
-                    "No active transactions found in the last 30 days";
-                transactionsTable.setPlaceholder(new Label(message));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            showStyledAlert(Alert.AlertType.ERROR, "Error", "Failed to load transactions: " + e.getMessage());
+    // Append the next page (called again whenever the table is scrolled to the bottom)
+    private void loadMoreTransactions() {
+        if (!moreTransactions || (transactionLoad != null && !transactionLoad.isDone())) {
+            return;
         }
+
+        LocalDate fromDate = txnFromDatePicker.getValue() != null
+                ? txnFromDatePicker.getValue() : LocalDate.now().minusDays(30);
+        LocalDate toDate = txnToDatePicker.getValue() != null
+                ? txnToDatePicker.getValue() : LocalDate.now();
+        User staff = txnStaffFilter.getValue();
+        boolean includeVoided = showVoidedTransactions;
+        TransactionSummary after = lastTransactionShown;
+
+        // Summary rows only (newest first); voided ones are included when the filter is on
+        transactionLoad = tasks.task(() -> salesService.getTransactionPage(
+                        fromDate.atStartOfDay(), toDate.plusDays(1).atStartOfDay(), includeVoided,
+                        staff != null ? staff.getId() : null, after, TRANSACTION_PAGE_SIZE))
+                .onSuccess(page -> {
+                    transactionsTable.getItems().addAll(page);
+                    moreTransactions = page.size() == TRANSACTION_PAGE_SIZE;
+                    if (!page.isEmpty()) {
+                        lastTransactionShown = page.get(page.size() - 1);
+                    }
+
+                    if (transactionsTable.getItems().isEmpty()) {
+                        String message = includeVoided ?
+                            "No transactions found for the selected dates" :
+                            "No active transactions found for the selected dates";
+                        transactionsTable.setPlaceholder(new Label(message));
+                    }
+                })
+                .onError(e -> {
+                    e.printStackTrace();
+                    moreTransactions = false;
+                    showStyledAlert(Alert.AlertType.ERROR, "Error", "Failed to load transactions: " + e.getMessage());
+                })
+                .start();
     }
     
     public void toggleVoidedTransactions() {
@@ -1287,6 +1203,17 @@ public class ReportsController implements Initializable {
         loadAllTransactions();
     }
 
+    // Load the full sale behind a list row (the list itself doesn't carry items)
+    private Optional<Sale> openTransaction(TransactionSummary summary) {
+        Optional<Sale> saleOpt = salesService.getTransactionWithItems(summary.id());
+        if (saleOpt.isEmpty()) {
+            showStyledAlert(Alert.AlertType.WARNING, "Not Found",
+                    "Transaction " + summary.transactionId() + " no longer exists.");
+            loadAllTransactions();
+        }
+        return saleOpt;
+    }
+
     private void handleViewTransaction(Sale sale) {
         if (sale == null) return;
 
@@ -1574,10 +1501,7 @@ public class ReportsController implements Initializable {
                             String medicineId = saleItem.getMedicineId();
                             int originalQty = originalQuantities.getOrDefault(medicineId, 0);
 
-                            List<Product> allProducts = productService.getAllProducts();
-                            Optional<Product> productOpt = allProducts.stream()
-                                    .filter(p -> p.getMedicineId().equals(medicineId))
-                                    .findFirst();
+                            Optional<Product> productOpt = productService.getProductByMedicineId(medicineId);
 
                             if (productOpt.isPresent()) {
                                 Product product = productOpt.get();
@@ -1793,12 +1717,21 @@ public class ReportsController implements Initializable {
                         }
 
                         // Save changes with inventory update
-                        salesService.updateTransactionWithInventory(sale, originalQuantities);
-
-                        showStyledAlert(Alert.AlertType.INFORMATION, "Success",
-                                "Transaction updated successfully!\nInventory has been adjusted.");
-                        loadAllTransactions();
-                        dialogStage.close();
+                        tasks.run(() -> salesService.updateTransactionWithInventory(sale, originalQuantities))
+                                .disabling(saveButton, closeButton)
+                                .outlivesView()
+                                .onSuccess(done -> {
+                                    showStyledAlert(Alert.AlertType.INFORMATION, "Success",
+                                            "Transaction updated successfully!\nInventory has been adjusted.");
+                                    loadAllTransactions();
+                                    dialogStage.close();
+                                })
+                                .onError(ex -> {
+                                    ex.printStackTrace();
+                                    showStyledAlert(Alert.AlertType.ERROR, "Error",
+                                            "Failed to update transaction: " + ex.getMessage());
+                                })
+                                .start();
                     } catch (Exception ex) {
                         ex.printStackTrace();
                         showStyledAlert(Alert.AlertType.ERROR, "Error",
@@ -1897,16 +1830,16 @@ public class ReportsController implements Initializable {
         return (Boolean) dialogStage.getUserData();
     }
 
-    private void handleVoidTransaction(Sale sale) {
+    private void handleVoidTransaction(TransactionSummary sale) {
         // Check if already voided
-        if (sale.getVoided() != null && sale.getVoided()) {
+        if (sale.isVoided()) {
             showStyledAlert(Alert.AlertType.WARNING, "Already Voided", 
                 "This transaction has already been voided.");
             return;
         }
 
         // Check if transaction is from today
-        LocalDate saleDate = sale.getSaleDate().toLocalDate();
+        LocalDate saleDate = sale.saleDate().toLocalDate();
         LocalDate today = LocalDate.now();
         if (!saleDate.equals(today)) {
             showStyledAlert(Alert.AlertType.WARNING, "Cannot Void", 
@@ -1922,16 +1855,20 @@ public class ReportsController implements Initializable {
             return; // User cancelled
         }
 
-        try {
-            salesService.voidTransaction(sale.getId(), reason);
-            showStyledAlert(Alert.AlertType.INFORMATION, "Success",
-                    "Transaction voided successfully!\nInventory has been restored.");
-            loadAllTransactions();
-        } catch (Exception e) {
-            e.printStackTrace();
-            showStyledAlert(Alert.AlertType.ERROR, "Error",
-                    "Failed to void transaction: " + e.getMessage());
-        }
+        tasks.run(() -> salesService.voidTransaction(sale.id(), reason))
+                .disabling(transactionsTable)
+                .outlivesView()
+                .onSuccess(done -> {
+                    showStyledAlert(Alert.AlertType.INFORMATION, "Success",
+                            "Transaction voided successfully!\nInventory has been restored.");
+                    loadAllTransactions();
+                })
+                .onError(e -> {
+                    e.printStackTrace();
+                    showStyledAlert(Alert.AlertType.ERROR, "Error",
+                            "Failed to void transaction: " + e.getMessage());
+                })
+                .start();
     }
 
     private String showVoidReasonDialog() {
@@ -2037,16 +1974,20 @@ public class ReportsController implements Initializable {
                             "• Transaction will be permanently deleted\n" +
                             "• Inventory will be restored for all items\n" +
                             "• This affects your sales reports and statistics")) {
-                try {
-                    salesService.deleteTransaction(sale.getId());
-                    showStyledAlert(Alert.AlertType.INFORMATION, "Success",
-                            "Transaction deleted successfully!\nInventory has been restored.");
-                    loadAllTransactions();
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    showStyledAlert(Alert.AlertType.ERROR, "Error",
-                            "Failed to delete transaction: " + e.getMessage());
-                }
+                tasks.run(() -> salesService.deleteTransaction(sale.getId()))
+                        .disabling(transactionsTable)
+                        .outlivesView()
+                        .onSuccess(done -> {
+                            showStyledAlert(Alert.AlertType.INFORMATION, "Success",
+                                    "Transaction deleted successfully!\nInventory has been restored.");
+                            loadAllTransactions();
+                        })
+                        .onError(e -> {
+                            e.printStackTrace();
+                            showStyledAlert(Alert.AlertType.ERROR, "Error",
+                                    "Failed to delete transaction: " + e.getMessage());
+                        })
+                        .start();
             }
         } else {
             showStyledAlert(Alert.AlertType.ERROR,"Error","Cannot delete transactions that are not within the day!");
@@ -2079,9 +2020,18 @@ public class ReportsController implements Initializable {
             java.io.File file = fileChooser.showSaveDialog(dashboardBtn.getScene().getWindow());
 
             if (file != null) {
-                generatePDFReport(file);
-                showStyledAlert(Alert.AlertType.INFORMATION, "Success",
-                        "Report exported successfully to:\n" + file.getAbsolutePath());
+                // The month's sales are queried and the PDF written in the background
+                LocalDate month = exportMonth;
+                List<ProductRow> expiringRows = new ArrayList<>(expiringMedicinesTable.getItems());
+                tasks.run(() -> generatePDFReport(file, month, expiringRows))
+                        .onSuccess(done -> showStyledAlert(Alert.AlertType.INFORMATION, "Success",
+                                "Report exported successfully to:\n" + file.getAbsolutePath()))
+                        .onError(e -> {
+                            e.printStackTrace();
+                            showStyledAlert(Alert.AlertType.ERROR, "Error",
+                                    "Failed to export report: " + e.getMessage());
+                        })
+                        .start();
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -2102,17 +2052,58 @@ public class ReportsController implements Initializable {
         // Set the export month for printing
         exportMonth = selectedPrintMonth;
 
-        try {
-            // Show print preview dialog
-            showPrintPreviewDialog();
-        } catch (Exception e) {
-            e.printStackTrace();
-            showStyledAlert(Alert.AlertType.ERROR, "Error",
-                    "Failed to show print preview: " + e.getMessage());
+        // Query the month in the background, then show the print preview dialog
+        LocalDate month = exportMonth;
+        tasks.task(() -> loadPrintReport(month))
+                .onSuccess(this::showPrintPreviewDialog)
+                .onError(e -> {
+                    e.printStackTrace();
+                    showStyledAlert(Alert.AlertType.ERROR, "Error",
+                            "Failed to show print preview: " + e.getMessage());
+                })
+                .start();
+    }
+
+    // The month's figures the print preview shows
+    private record PrintReport(List<Sale> sales, long lowStock, List<Map<String, Object>> topMedicines) {}
+
+    private PrintReport loadPrintReport(LocalDate month) {
+        LocalDate exportMonthStart = month.with(TemporalAdjusters.firstDayOfMonth());
+        LocalDate exportMonthEnd = month.with(TemporalAdjusters.lastDayOfMonth());
+        LocalDateTime startOfExportMonth = exportMonthStart.atStartOfDay();
+        LocalDateTime endOfExportMonth = exportMonthEnd.atTime(23, 59, 59);
+
+        List<Sale> exportMonthSales = salesService.getSalesBetweenDates(startOfExportMonth, endOfExportMonth);
+        long exportLowStock = productService.getLowStockCount();
+
+        // Calculate top selling products
+        Map<String, Map<String, Object>> medicineStats = new HashMap<>();
+        for (Sale sale : exportMonthSales) {
+            for (SaleItem item : sale.getItems()) {
+                String medicineName = item.getMedicineName();
+                if (!medicineStats.containsKey(medicineName)) {
+                    Optional<Product> productOpt = productService.getProductByMedicineId(item.getMedicineId());
+                    String category = productOpt.map(Product::getCategory).orElse("Unknown");
+                    Map<String, Object> stats = new HashMap<>();
+                    stats.put("medicineName", medicineName);
+                    stats.put("category", category);
+                    stats.put("quantitySold", 0);
+                    medicineStats.put(medicineName, stats);
+                }
+                Map<String, Object> stats = medicineStats.get(medicineName);
+                stats.put("quantitySold", (Integer) stats.get("quantitySold") + item.getQuantity());
+            }
         }
+
+        List<Map<String, Object>> topMedicines = medicineStats.values().stream()
+                .sorted((a, b) -> Integer.compare((Integer) b.get("quantitySold"), (Integer) a.get("quantitySold")))
+                .limit(5)
+                .collect(Collectors.toList());
+
+        return new PrintReport(exportMonthSales, exportLowStock, topMedicines);
     }
 
-    private void showPrintPreviewDialog() throws Exception {
+    private void showPrintPreviewDialog(PrintReport report) {
         // Create print preview dialog
         Stage dialogStage = new Stage();
         IconUtil.setApplicationIcon(dialogStage);
@@ -2143,7 +2134,7 @@ public class ReportsController implements Initializable {
         scrollPane.setPrefViewportHeight(500);
         VBox.setVgrow(scrollPane, Priority.ALWAYS);
 
-        VBox printContent = createPrintableContent();
+        VBox printContent = createPrintableContent(report);
         printContent.setStyle(
                 "-fx-background-color: white; " +
                 "-fx-padding: 50; " +
@@ -2204,7 +2195,7 @@ public class ReportsController implements Initializable {
         dialogStage.showAndWait();
     }
 
-    private VBox createPrintableContent() {
+    private VBox createPrintableContent(PrintReport report) {
         VBox content = new VBox(20);
 
         // Title
@@ -2237,12 +2228,7 @@ public class ReportsController implements Initializable {
         kpiTitle.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: #2c3e50;");
 
         // Calculate KPIs
-        LocalDate exportMonthStart = exportMonth.with(TemporalAdjusters.firstDayOfMonth());
-        LocalDate exportMonthEnd = exportMonth.with(TemporalAdjusters.lastDayOfMonth());
-        LocalDateTime startOfExportMonth = exportMonthStart.atStartOfDay();
-        LocalDateTime endOfExportMonth = exportMonthEnd.atTime(23, 59, 59);
-
-        List<Sale> exportMonthSales = salesService.getSalesBetweenDates(startOfExportMonth, endOfExportMonth);
+        List<Sale> exportMonthSales = report.sales();
 
         BigDecimal exportRevenue = exportMonthSales.stream()
                 .map(Sale::getTotalAmount)
@@ -2254,7 +2240,7 @@ public class ReportsController implements Initializable {
                 ? exportRevenue.divide(BigDecimal.valueOf(exportTransactions), 2, BigDecimal.ROUND_HALF_UP)
                 : BigDecimal.ZERO;
 
-        long exportLowStock = productService.getLowStockCount();
+        long exportLowStock = report.lowStock();
 
         // KPI Grid
         GridPane kpiGrid = new GridPane();
@@ -2275,29 +2261,7 @@ public class ReportsController implements Initializable {
         Label topSellingTitle = new Label("Top Selling Products");
         topSellingTitle.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: #2c3e50; -fx-padding: 20 0 10 0;");
 
-        // Calculate top selling products
-        Map<String, Map<String, Object>> medicineStats = new HashMap<>();
-        for (Sale sale : exportMonthSales) {
-            for (SaleItem item : sale.getItems()) {
-                String medicineName = item.getMedicineName();
-                if (!medicineStats.containsKey(medicineName)) {
-                    Optional<Product> productOpt = productService.getProductByMedicineId(item.getMedicineId());
-                    String category = productOpt.map(Product::getCategory).orElse("Unknown");
-                    Map<String, Object> stats = new HashMap<>();
-                    stats.put("medicineName", medicineName);
-                    stats.put("category", category);
-                    stats.put("quantitySold", 0);
-                    medicineStats.put(medicineName, stats);
-                }
-                Map<String, Object> stats = medicineStats.get(medicineName);
-                stats.put("quantitySold", (Integer) stats.get("quantitySold") + item.getQuantity());
-            }
-        }
-
-        List<Map<String, Object>> topMedicines = medicineStats.values().stream()
-                .sorted((a, b) -> Integer.compare((Integer) b.get("quantitySold"), (Integer) a.get("quantitySold")))
-                .limit(5)
-                .collect(Collectors.toList());
+        List<Map<String, Object>> topMedicines = report.topMedicines();
 
         GridPane topSellingGrid = createTableGrid(
                 new String[]{"Rank", "Product", "Category", "Quantity Sold"},
@@ -2386,7 +2350,7 @@ public class ReportsController implements Initializable {
         }
 
         // Add expiring products data
-        List<Product> expiringProducts = new ArrayList<>(expiringMedicinesTable.getItems());
+        List<ProductRow> expiringProducts = new ArrayList<>(expiringMedicinesTable.getItems());
         if (expiringProducts.isEmpty()) {
             Label noData = new Label("No expiring products");
             noData.setStyle("-fx-font-size: 12px; -fx-text-fill: #7f8c8d; -fx-padding: 5;");
@@ -2394,20 +2358,8 @@ public class ReportsController implements Initializable {
         } else {
             int maxRows = Math.min(10, expiringProducts.size()); // Limit to 10 rows for print
             for (int row = 0; row < maxRows; row++) {
-                Product product = expiringProducts.get(row);
-
-                List<com.inventory.Calo.s_Drugstore.entity.Batch> batches = productService.getBatchesForProduct(product);
-                LocalDate expiryDate = null;
-                if (!batches.isEmpty()) {
-                    expiryDate = batches.stream()
-                            .map(com.inventory.Calo.s_Drugstore.entity.Batch::getExpirationDate)
-                            .filter(date -> date != null)
-                            .min(LocalDate::compareTo)
-                            .orElse(null);
-                }
-                if (expiryDate == null) {
-                    expiryDate = product.getExpirationDate();
-                }
+                Product product = expiringProducts.get(row).product();
+                LocalDate expiryDate = expiringProducts.get(row).earliestExpiry();
 
                 String expiryStr = expiryDate != null ? expiryDate.format(DateTimeFormatter.ofPattern("MMM dd, yyyy")) : "N/A";
                 long daysLeft = expiryDate != null ? java.time.temporal.ChronoUnit.DAYS.between(LocalDate.now(), expiryDate) : 0;
@@ -2588,7 +2540,8 @@ public class ReportsController implements Initializable {
         return (LocalDate) dialogStage.getUserData();
     }
 
-    private void generatePDFReport(java.io.File file) throws Exception {
+    // Runs off the FX thread: everything it needs from the page is passed in
+    private void generatePDFReport(java.io.File file, LocalDate month, List<ProductRow> expiringRows) throws Exception {
         com.itextpdf.kernel.pdf.PdfWriter writer = new com.itextpdf.kernel.pdf.PdfWriter(file);
         com.itextpdf.kernel.pdf.PdfDocument pdf = new com.itextpdf.kernel.pdf.PdfDocument(writer);
         com.itextpdf.layout.Document document = new com.itextpdf.layout.Document(pdf);
@@ -2619,7 +2572,7 @@ public class ReportsController implements Initializable {
 
         // Date range
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM yyyy");
-        com.itextpdf.layout.element.Paragraph dateRange = new com.itextpdf.layout.element.Paragraph(exportMonth.format(formatter))
+        com.itextpdf.layout.element.Paragraph dateRange = new com.itextpdf.layout.element.Paragraph(month.format(formatter))
                 .setFont(com.itextpdf.kernel.font.PdfFontFactory.createFont(com.itextpdf.io.font.constants.StandardFonts.HELVETICA))
                 .setFontSize(12)
                 .setFontColor(grayColor)
@@ -2648,8 +2601,8 @@ public class ReportsController implements Initializable {
         document.add(kpiTitle);
 
         // Calculate KPIs for export month
-        LocalDate exportMonthStart = exportMonth.with(TemporalAdjusters.firstDayOfMonth());
-        LocalDate exportMonthEnd = exportMonth.with(TemporalAdjusters.lastDayOfMonth());
+        LocalDate exportMonthStart = month.with(TemporalAdjusters.firstDayOfMonth());
+        LocalDate exportMonthEnd = month.with(TemporalAdjusters.lastDayOfMonth());
         LocalDateTime startOfExportMonth = exportMonthStart.atStartOfDay();
         LocalDateTime endOfExportMonth = exportMonthEnd.atTime(23, 59, 59);
 
@@ -2768,26 +2721,11 @@ public class ReportsController implements Initializable {
         expiringTable.addHeaderCell(createHeaderCell("Stock"));
         expiringTable.addHeaderCell(createHeaderCell("Status"));
 
-        for (Product product : expiringMedicinesTable.getItems()) {
-            // Get earliest batch expiration date (same logic as the UI table)
-            List<com.inventory.Calo.s_Drugstore.entity.Batch> batches = productService.getBatchesForProduct(product);
-            
-            LocalDate expiryDate = null;
-            
-            if (!batches.isEmpty()) {
-                // Get earliest expiration date from batches
-                expiryDate = batches.stream()
-                        .map(com.inventory.Calo.s_Drugstore.entity.Batch::getExpirationDate)
-                        .filter(date -> date != null)
-                        .min(LocalDate::compareTo)
-                        .orElse(null);
-            }
-            
-            // Fallback to product expiration date if no batches
-            if (expiryDate == null) {
-                expiryDate = product.getExpirationDate();
-            }
-            
+        for (ProductRow expiringRow : expiringRows) {
+            // Earliest batch expiration date (same as the UI table)
+            Product product = expiringRow.product();
+            LocalDate expiryDate = expiringRow.earliestExpiry();
+
             // Skip products without expiration date
             if (expiryDate == null) {
                 continue;
@@ -2822,17 +2760,11 @@ public class ReportsController implements Initializable {
                 .setMarginBottom(15);
         document.add(categoryTitle);
 
-        // Get category data
-        LocalDate monthStart = exportMonth.with(TemporalAdjusters.firstDayOfMonth());
-        LocalDate monthEnd = exportMonth.with(TemporalAdjusters.lastDayOfMonth());
-        LocalDateTime startOfMonth = monthStart.atStartOfDay();
-        LocalDateTime endOfMonth = monthEnd.atTime(23, 59, 59);
-        List<Sale> monthSales = salesService.getSalesBetweenDates(startOfMonth, endOfMonth);
-
+        // Get category data (same month as the KPIs above)
         Map<String, Integer> categoryCount = new HashMap<>();
         int totalItems = 0;
 
-        for (Sale sale : monthSales) {
+        for (Sale sale : exportMonthSales) {
             for (SaleItem item : sale.getItems()) {
                 Optional<Product> productOpt = productService.getProductByMedicineId(item.getMedicineId());
                 if (productOpt.isPresent()) {
@@ -1,21 +1,27 @@
     package com.inventory.Calo.s_Drugstore.controller;
 
     import com.inventory.Calo.s_Drugstore.entity.Batch;
+    import com.inventory.Calo.s_Drugstore.util.FxmlViews;
     import com.inventory.Calo.s_Drugstore.util.IconUtil;
+    import com.inventory.Calo.s_Drugstore.util.SearchPipeline;
+    import com.inventory.Calo.s_Drugstore.util.UiTasks;
     import com.inventory.Calo.s_Drugstore.entity.Product;
     import com.inventory.Calo.s_Drugstore.entity.Sale;
     import com.inventory.Calo.s_Drugstore.entity.SaleItem;
     import com.inventory.Calo.s_Drugstore.entity.User;
+    import com.inventory.Calo.s_Drugstore.repository.TransactionSummary;
     import com.inventory.Calo.s_Drugstore.service.ProductService;
     import com.inventory.Calo.s_Drugstore.service.SalesService;
+    import com.inventory.Calo.s_Drugstore.event.DomainEvent;
     import javafx.application.Platform;
     import javafx.beans.property.SimpleStringProperty;
     import javafx.collections.FXCollections;
     import javafx.collections.ObservableList;
+    import javafx.event.ActionEvent;
     import javafx.fxml.FXML;
-    import javafx.fxml.FXMLLoader;
     import javafx.fxml.Initializable;
     import javafx.geometry.Pos;
+    import javafx.scene.Node;
     import javafx.scene.Parent;
     import javafx.scene.Scene;
     import javafx.scene.control.*;
@@ -24,6 +30,7 @@
     import javafx.stage.Stage;
     import org.springframework.beans.factory.annotation.Autowired;
     import org.springframework.context.ConfigurableApplicationContext;
+    import org.springframework.context.annotation.Lazy;
     import org.springframework.stereotype.Controller;
     
     import java.math.BigDecimal;
@@ -32,7 +39,8 @@
     import java.util.*;
     
     @Controller
-    public class SalesController implements Initializable {
+    @Lazy
+    public class SalesController implements Initializable, NavigableView {
     
         @Autowired
         private SalesService salesService;
@@ -42,6 +50,9 @@
     
         @Autowired
         private ConfigurableApplicationContext springContext;
+
+        @Autowired
+        private ViewNavigator viewNavigator;
     
         private User currentUser;
     
@@ -66,12 +77,12 @@
         @FXML private Label totalSalesLabel;
     
         // FXML Components - Transactions Table
-        @FXML private TableView<Sale> transactionsTable;
-        @FXML private TableColumn<Sale, String> transactionIdColumn;
-        @FXML private TableColumn<Sale, String> itemsColumn;
-        @FXML private TableColumn<Sale, String> totalAmountColumn;
-        @FXML private TableColumn<Sale, String> dateTimeColumn;
-        @FXML private TableColumn<Sale, Void> actionsColumn;
+        @FXML private TableView<TransactionSummary> transactionsTable;
+        @FXML private TableColumn<TransactionSummary, String> transactionIdColumn;
+        @FXML private TableColumn<TransactionSummary, String> itemsColumn;
+        @FXML private TableColumn<TransactionSummary, String> totalAmountColumn;
+        @FXML private TableColumn<TransactionSummary, String> dateTimeColumn;
+        @FXML private TableColumn<TransactionSummary, Void> actionsColumn;
     
         // Sidebar buttons
         @FXML private Button dashboardBtn;
@@ -92,10 +103,15 @@
         private static ObservableList<SaleItem> sharedCartItems = FXCollections.observableArrayList();
         private ObservableList<SaleItem> cartItems = sharedCartItems; // Reference to shared cart
         private ObservableList<Product> allProducts = FXCollections.observableArrayList();
+
+        // Runs the service calls off the FX thread (one per page load)
+        private UiTasks tasks;
     
         @Override
         public void initialize(URL location, ResourceBundle resources) {
             System.out.println("=== SALES CONTROLLER INITIALIZE ===");
+            tasks = UiTasks.forView(salesBtn)
+                    .onError(e -> showStyledAlert(Alert.AlertType.ERROR, "Load Error", e.getMessage()));
     
             // Force CSS reload after scene is ready
             setupMedicineCombo();
@@ -129,6 +145,20 @@
                 }
             }
         }
+
+        @Override
+        public void onReturn(List<DomainEvent> changes) {
+            setActiveButton(salesBtn);
+
+            // Stock and prices for the product pickers; the cart is kept as it was
+            if (changes.stream().anyMatch(event -> !event.isSaleEvent())) {
+                loadProducts();
+            }
+            if (changes.stream().anyMatch(DomainEvent::isSaleEvent)) {
+                loadTodaysSummary();
+                loadTodaysTransactions();
+            }
+        }
     
         private void setupMedicineCombo() {
             medicineCombo.setCellFactory(lv -> new ListCell<Product>() {
@@ -149,30 +179,32 @@
         }
     
         private void setupSearchField() {
+            // Ranked matches from the search index (names, ID, supplier, category), looked up once typing pauses
+            SearchPipeline<String, List<Product>> medicineSearch = new SearchPipeline<>(SearchPipeline.TYPING_PAUSE,
+                    productService::searchProducts,
+                    (text, results) -> {
+                        ObservableList<Product> filtered = FXCollections.observableArrayList(results);
+    
+                        medicineCombo.setItems(filtered);
+    
+                        // Show dropdown when there are results
+                        if (!filtered.isEmpty()) {
+                            if (!medicineCombo.isShowing()) {
+                                medicineCombo.show();
+                            }
+                        } else {
+                            medicineCombo.hide();
+                        }
+                    });
+    
             // Real-time filtering
             medicineSearchField.textProperty().addListener((obs, oldVal, newVal) -> {
                 if (newVal == null || newVal.trim().isEmpty()) {
+                    medicineSearch.cancel();
                     medicineCombo.setItems(allProducts);
                     medicineCombo.hide();
                 } else {
-                    String searchText = newVal.toLowerCase();
-                    ObservableList<Product> filtered = allProducts.filtered(product ->
-                            product.getBrandName().toLowerCase().contains(searchText) ||
-                                    product.getMedicineId().toLowerCase().contains(searchText) ||
-                                    product.getCategory().toLowerCase().contains(searchText) ||
-                                    (product.getSupplier() != null && product.getSupplier().toLowerCase().contains(searchText))
-                    );
-    
-                    medicineCombo.setItems(filtered);
-    
-                    // Show dropdown when there are results
-                    if (!filtered.isEmpty()) {
-                        if (!medicineCombo.isShowing()) {
-                            medicineCombo.show();
-                        }
-                    } else {
-                        medicineCombo.hide();
-                    }
+                    medicineSearch.submit(newVal);
                 }
             });
     
@@ -214,9 +246,9 @@
     
         private void setupTransactionsTable() {
             transactionIdColumn.setCellValueFactory(data ->
-                    new SimpleStringProperty(data.getValue().getTransactionId()));
+                    new SimpleStringProperty(data.getValue().transactionId()));
     
-            // Keep your nice badge display
+            // Keep your nice badge display (first item, then "+N more")
             itemsColumn.setCellFactory(column -> new TableCell<>() {
                 @Override
                 protected void updateItem(String item, boolean empty) {
@@ -224,12 +256,20 @@
                     if (empty || getTableRow() == null || getTableRow().getItem() == null) {
                         setGraphic(null);
                     } else {
-                        Sale sale = getTableRow().getItem();
+                        TransactionSummary sale = getTableRow().getItem();
                         HBox container = new HBox(5);
                         container.setAlignment(Pos.CENTER_LEFT);
     
-                        for (SaleItem saleItem : sale.getItems()) {
-                            Label badge = new Label(saleItem.getMedicineName() + " " + saleItem.getQuantity() + "x");
+                        List<String> badgeTexts = new ArrayList<>();
+                        if (sale.firstItemName() != null) {
+                            badgeTexts.add(sale.firstItemName() + " " + sale.firstItemQuantity() + "x");
+                        }
+                        if (sale.otherItemLines() > 0) {
+                            badgeTexts.add("+" + sale.otherItemLines() + " more");
+                        }
+    
+                        for (String badgeText : badgeTexts) {
+                            Label badge = new Label(badgeText);
                             badge.setStyle(
                                     "-fx-background-color: #E3F2FD; " +
                                             "-fx-text-fill: #1976D2; " +
@@ -247,15 +287,15 @@
             itemsColumn.setCellValueFactory(data -> new SimpleStringProperty(""));
     
             totalAmountColumn.setCellValueFactory(data ->
-                    new SimpleStringProperty("₱" + String.format("%.2f", data.getValue().getTotalAmount())));
+                    new SimpleStringProperty("₱" + String.format("%.2f", data.getValue().totalAmount())));
     
             dateTimeColumn.setCellValueFactory(data -> {
                 DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM. dd, yyyy, h:mm a");
-                return new SimpleStringProperty(data.getValue().getSaleDate().format(formatter));
+                return new SimpleStringProperty(data.getValue().saleDate().format(formatter));
             });
     
             // Updated actions with Details and Print buttons
-            actionsColumn.setCellFactory(column -> new TableCell<Sale, Void>() {
+            actionsColumn.setCellFactory(column -> new TableCell<TransactionSummary, Void>() {
                 @Override
                 protected void updateItem(Void item, boolean empty) {
                     super.updateItem(item, empty);
@@ -316,9 +356,13 @@
         }
     
         private void loadProducts() {
-            List<Product> products = productService.getAllProducts();
-            allProducts.setAll(products);
-            medicineCombo.setItems(allProducts);
+            tasks.task(productService::getAllProducts)
+                    .key("products")
+                    .onSuccess(products -> {
+                        allProducts.setAll(products);
+                        medicineCombo.setItems(allProducts);
+                    })
+                    .start();
         }
     
         @FXML
@@ -697,29 +741,31 @@
             bulkTable.setItems(bulkItems);
     
             // ==================== SEARCH FUNCTIONALITY ====================
+            // Same ranked index search as the main search box, looked up once typing pauses
+            SearchPipeline<String, List<Product>> productSearch = new SearchPipeline<>(SearchPipeline.TYPING_PAUSE,
+                    productService::searchProducts,
+                    (text, results) -> {
+                        ObservableList<Product> filtered = FXCollections.observableArrayList(results);
+    
+                        productCombo.setItems(filtered);
+    
+                        // Show dropdown when there are results
+                        if (!filtered.isEmpty()) {
+                            if (!productCombo.isShowing()) {
+                                productCombo.show();
+                            }
+                        } else {
+                            productCombo.hide();
+                        }
+                    });
+    
             searchField.textProperty().addListener((obs, oldVal, newVal) -> {
                 if (newVal == null || newVal.trim().isEmpty()) {
+                    productSearch.cancel();
                     productCombo.setItems(allProducts);
                     productCombo.hide();
                 } else {
-                    String searchText = newVal.toLowerCase();
-                    ObservableList<Product> filtered = allProducts.filtered(product ->
-                            product.getBrandName().toLowerCase().contains(searchText) ||
-                                    product.getMedicineId().toLowerCase().contains(searchText) ||
-                                    product.getCategory().toLowerCase().contains(searchText) ||
-                                    (product.getSupplier() != null && product.getSupplier().toLowerCase().contains(searchText))
-                    );
-    
-                    productCombo.setItems(filtered);
-    
-                    // Show dropdown when there are results
-                    if (!filtered.isEmpty()) {
-                        if (!productCombo.isShowing()) {
-                            productCombo.show();
-                        }
-                    } else {
-                        productCombo.hide();
-                    }
+                    productSearch.submit(newVal);
                 }
             });
     
@@ -907,47 +953,73 @@
         }
     
         @FXML
-        private void handleCompleteTransaction() {
+        private void handleCompleteTransaction(ActionEvent event) {
             if (cartItems.isEmpty()) {
                 showStyledAlert(Alert.AlertType.WARNING, "Empty Cart", "Please add items to cart before completing transaction.");
                 return;
             }
     
-            try {
-                Sale completedSale = salesService.completeSale(new ArrayList<>(cartItems), currentUser);
-    
-                showStyledAlert(Alert.AlertType.INFORMATION, "Success",
-                        "Transaction " + completedSale.getTransactionId() + " completed successfully!\n" +
-                                "Total: ₱" + String.format("%.2f", completedSale.getTotalAmount()));
-    
-                cartItems.clear();
-                updateCartUI();
-                loadTodaysSummary();
-                loadTodaysTransactions();
+            // The button stays disabled until the sale has committed, so it can't be sold twice.
+            // The result is applied even after leaving the page - the cart is shared and must be cleared.
+            // The cart stays editable meanwhile, so the sale gets a copy of it as it is now.
+            List<SaleItem> sold = new ArrayList<>(cartItems);
+            List<SalesService.CartLine> lines = sold.stream().map(SalesService.CartLine::of).toList();
+            tasks.task(() -> salesService.completeSale(lines, currentUser))
+                    .disabling((Node) event.getSource())
+                    .outlivesView()
+                    .onSuccess(completedSale -> {
+                        showStyledAlert(Alert.AlertType.INFORMATION, "Success",
+                                "Transaction " + completedSale.getTransactionId() + " completed successfully!\n" +
+                                        "Total: ₱" + String.format("%.2f", completedSale.getTotalAmount()));
+    
+                        removeSold(sold, lines);
+                        updateCartUI();
+                        loadTodaysSummary();
+                        loadTodaysTransactions();
+                    })
+                    .onError(e -> showStyledAlert(Alert.AlertType.ERROR, "Transaction Failed", e.getMessage()))
+                    .start();
+        }
     
-            } catch (Exception e) {
-                showStyledAlert(Alert.AlertType.ERROR, "Transaction Failed", e.getMessage());
+        // Take the sold units out of the cart; a line raised while the sale was saving keeps the extra units
+        private void removeSold(List<SaleItem> sold, List<SalesService.CartLine> lines) {
+            for (int i = 0; i < sold.size(); i++) {
+                SaleItem item = sold.get(i);
+                int unsold = item.getQuantity() - lines.get(i).quantity();
+                if (unsold > 0) {
+                    item.setQuantity(unsold);
+                } else {
+                    cartItems.remove(item);
+                }
             }
         }
     
         private void loadTodaysSummary() {
-            Map<String, Object> summary = salesService.getTodaysSummary();
-            totalTransactionsLabel.setText(String.valueOf(summary.get("totalTransactions")));
-            totalItemsSoldLabel.setText(String.valueOf(summary.get("totalItemsSold")));
-            totalSalesLabel.setText("₱" + String.format("%.2f", (BigDecimal) summary.get("totalSales")));
+            tasks.task(salesService::getTodaysSummary)
+                    .key("todaysSummary")
+                    .onSuccess(summary -> {
+                        totalTransactionsLabel.setText(String.valueOf(summary.get("totalTransactions")));
+                        totalItemsSoldLabel.setText(String.valueOf(summary.get("totalItemsSold")));
+                        totalSalesLabel.setText("₱" + String.format("%.2f", (BigDecimal) summary.get("totalSales")));
+                    })
+                    .start();
         }
     
         private void loadTodaysTransactions() {
-            List<Sale> sales = salesService.getTodaysTransactions();
-            transactionsTable.setItems(FXCollections.observableArrayList(sales));
+            tasks.task(salesService::getTodaysTransactions)
+                    .key("todaysTransactions")
+                    .onSuccess(sales -> {
+                        transactionsTable.setItems(FXCollections.observableArrayList(sales));
     
-            if (sales.isEmpty()) {
-                transactionsTable.setPlaceholder(new Label("No transactions recorded today"));
-            }
+                        if (sales.isEmpty()) {
+                            transactionsTable.setPlaceholder(new Label("No transactions recorded today"));
+                        }
+                    })
+                    .start();
         }
     
-        private void handlePrint(Sale sale) {
-            showStyledAlert(Alert.AlertType.INFORMATION, "Print", "Print receipt for " + sale.getTransactionId());
+        private void handlePrint(TransactionSummary sale) {
+            showStyledAlert(Alert.AlertType.INFORMATION, "Print", "Print receipt for " + sale.transactionId());
         }
     
         private void setActiveButton(Button activeButton) {
@@ -1145,110 +1217,8 @@
     
         private void navigateToPage(String fxmlPath, String cssPath) {
             try {
-                FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-                loader.setControllerFactory(springContext::getBean);
-                Parent root = loader.load();
-                
-                // Pass current user to the next controller
-                if (fxmlPath.contains("inventory")) {
-                    if (fxmlPath.contains("staff-inventory")) {
-                        // Staff inventory controller
-                        StaffInventoryController controller = loader.getController();
-                        controller.setCurrentUser(currentUser);
-                        System.out.println("✅ Set user for StaffInventoryController");
-                    } else {
-                        // Admin inventory controller
-                        InventoryController controller = loader.getController();
-                        controller.setCurrentUser(currentUser);
-                        System.out.println("✅ Set user for InventoryController");
-                    }
-                } else if (fxmlPath.contains("dashboard")) {
-                    if (fxmlPath.contains("staff-dashboard")) {
-                        // Staff dashboard controller
-                        StaffDashboardController controller = loader.getController();
-                        controller.setCurrentUser(currentUser);
-                        System.out.println("✅ Set user for StaffDashboardController");
-                    } else {
-                        // Admin dashboard controller
-                        DashboardController controller = loader.getController();
-                        controller.setCurrentUser(currentUser);
-                        controller.refreshDashboard();
-                        System.out.println("✅ Set user for DashboardController");
-                    }
-                } else if (fxmlPath.contains("sales")) {
-                    SalesController controller = loader.getController();
-                    controller.setCurrentUser(currentUser);
-                    System.out.println("✅ Set user for SalesController");
-                } else if (fxmlPath.contains("reports")) {
-                    if (fxmlPath.contains("staff-reports")) {
-                        StaffReportsController controller = loader.getController();
-                        controller.setCurrentUser(currentUser);
-                        System.out.println("✅ Set user for StaffReportsController");
-                    } else {
-                        ReportsController controller = loader.getController();
-                        controller.setCurrentUser(currentUser);
-                        System.out.println("✅ Set user for ReportsController");
-                    }
-                }
-    
-    
-                Stage stage = (Stage) salesBtn.getScene().getWindow();  // Change salesBtn to appropriate button
-                Scene currentScene = stage.getScene();
-    
-                double currentWidth = stage.getWidth();
-                double currentHeight = stage.getHeight();
-                double currentX = stage.getX();
-                double currentY = stage.getY();
-                boolean isMaximized = stage.isMaximized();
-    
-                // CREATE NEW SCENE AND FORCE CSS LOAD
-                Scene newScene = new Scene(root);
-    
-                try {
-                    java.net.URL cssUrl = getClass().getResource(cssPath);
-                    if (cssUrl != null) {
-                        String cssString = cssUrl.toExternalForm();
-                        newScene.getStylesheets().add(cssString);
-                        System.out.println("✅ CSS LOADED: " + cssString);
-                    } else {
-                        System.out.println("❌ CSS NOT FOUND: " + cssPath);
-                    }
-                } catch (Exception cssEx) {
-                    System.err.println("❌ CSS ERROR: " + cssEx.getMessage());
-                }
-    
-                root.setOpacity(0);
-    
-                javafx.animation.FadeTransition fadeOut = new javafx.animation.FadeTransition(
-                        javafx.util.Duration.millis(30),
-                        currentScene.getRoot()
-                );
-                fadeOut.setFromValue(1.0);
-                fadeOut.setToValue(0.0);
-    
-                fadeOut.setOnFinished(e -> {
-                    stage.setScene(newScene);  // Scene is attached here!
-    
-                    if (isMaximized) {
-                        stage.setMaximized(true);
-                    } else {
-                        stage.setWidth(currentWidth);
-                        stage.setHeight(currentHeight);
-                        stage.setX(currentX);
-                        stage.setY(currentY);
-                    }
-    
-                    javafx.animation.FadeTransition fadeIn = new javafx.animation.FadeTransition(
-                            javafx.util.Duration.millis(30),
-                            root
-                    );
-                    fadeIn.setFromValue(0.0);
-                    fadeIn.setToValue(1.0);
-                    fadeIn.play();
-                });
-    
-                fadeOut.play();
-    
+                Stage stage = (Stage) salesBtn.getScene().getWindow();
+                viewNavigator.navigate(stage, fxmlPath, cssPath);
             } catch (Exception e) {
                 e.printStackTrace();
                 showStyledAlert(Alert.AlertType.ERROR, "Error", "Failed to load page: " + e.getMessage());
@@ -1256,11 +1226,12 @@
         }
     
         private void performLogout() {
+            // Drop the pages kept loaded for this session
+            viewNavigator.endSession();
+
             try {
                 // Load login page
-                FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
-                loader.setControllerFactory(springContext::getBean);
-                Parent root = loader.load();
+                Parent root = FxmlViews.load("/fxml/login.fxml", springContext::getBean).root();
     
                 Stage stage = (Stage) dashboardBtn.getScene().getWindow();
                 Scene currentScene = stage.getScene();
@@ -1482,8 +1453,17 @@
             return (Boolean) dialogStage.getUserData();
         }
     
-        private void handleViewDetails(Sale sale) {
-            if (sale == null) return;
+        private void handleViewDetails(TransactionSummary summary) {
+            if (summary == null) return;
+    
+            // The list only holds summaries - load the items now
+            Optional<Sale> saleOpt = salesService.getTransactionWithItems(summary.id());
+            if (saleOpt.isEmpty()) {
+                showStyledAlert(Alert.AlertType.WARNING, "Not Found", "Transaction " + summary.transactionId() + " no longer exists.");
+                loadTodaysTransactions();
+                return;
+            }
+            Sale sale = saleOpt.get();
     
             Stage dialogStage = new Stage();
             IconUtil.setApplicationIcon(dialogStage);
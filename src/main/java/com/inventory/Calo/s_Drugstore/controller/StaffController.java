@@ -1,15 +1,17 @@
 package com.inventory.Calo.s_Drugstore.controller;
 
+import com.inventory.Calo.s_Drugstore.util.FxmlViews;
 import com.inventory.Calo.s_Drugstore.util.IconUtil;
+import com.inventory.Calo.s_Drugstore.util.UiTasks;
 import com.inventory.Calo.s_Drugstore.entity.User;
 import com.inventory.Calo.s_Drugstore.entity.Category;
 import com.inventory.Calo.s_Drugstore.service.UserManagementService;
 import com.inventory.Calo.s_Drugstore.service.CategoryService;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
@@ -20,6 +22,7 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Controller;
 import java.net.URL;
 import java.time.LocalDate;
@@ -29,7 +32,8 @@ import java.util.Optional;
 import java.util.ResourceBundle;
 
 @Controller
-public class StaffController implements Initializable {
+@Lazy
+public class StaffController implements Initializable, NavigableView {
 
     @Autowired
     private UserManagementService userManagementService;
@@ -40,6 +44,9 @@ public class StaffController implements Initializable {
     @Autowired
     private ConfigurableApplicationContext springContext;
 
+    @Autowired
+    private ViewNavigator viewNavigator;
+
     private User currentUser;
 
     // FXML Components - Summary Cards
@@ -73,15 +80,18 @@ public class StaffController implements Initializable {
     @FXML private Label userEmailLabel;
 
     private ObservableList<User> staffList = FXCollections.observableArrayList();
+    private UiTasks tasks;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         System.out.println("=== STAFF CONTROLLER INITIALIZE ===");
 
+        tasks = UiTasks.forView(staffBtn)
+                .onError(e -> showStyledAlert(Alert.AlertType.ERROR, "Load Error", "Failed to load staff accounts: " + e.getMessage()));
+
         setupStaffTable();
         loadStaffData();
         setupColumnWidths();
-        updateSummaryCards();
         setActiveButton(staffBtn);
 
         // Apply custom scrollbar styling to main page
@@ -130,6 +140,12 @@ public class StaffController implements Initializable {
             userEmailLabel.setText(user.getEmail());
         }
     }
+
+    @Override
+    public void onReturn(List<DomainEvent> changes) {
+        // Accounts are only edited on this page, which reloads itself after each edit
+        setActiveButton(staffBtn);
+    }
     private void setupStaffTable() {
         staffTable.setEditable(false);
         staffTable.setItems(staffList);
@@ -456,13 +472,18 @@ public class StaffController implements Initializable {
     }
 
     private void loadStaffData() {
-        List<User> users = userManagementService.getAllUsers();
-        staffList.setAll(users);
-        staffTable.setItems(staffList);
-        staffTable.refresh();
-        if (users.isEmpty()) {
-            staffTable.setPlaceholder(new Label("No staff accounts found"));
-        }
+        tasks.task(userManagementService::getAllUsers)
+                .key("staff")
+                .onSuccess(users -> {
+                    staffList.setAll(users);
+                    staffTable.setItems(staffList);
+                    staffTable.refresh();
+                    if (users.isEmpty()) {
+                        staffTable.setPlaceholder(new Label("No staff accounts found"));
+                    }
+                    updateSummaryCards();
+                })
+                .start();
     }
 
     private void updateSummaryCards() {
@@ -730,7 +751,6 @@ public class StaffController implements Initializable {
             user.setActive(!user.isActive());
             userManagementService.setUserActiveStatus(user.getId(), user.isActive());
             loadStaffData();
-            updateSummaryCards();
             showStyledAlert(Alert.AlertType.INFORMATION, "Success",
                     "Employee account " + (user.isActive() ? "activated" : "deactivated") + " successfully!");
         }
@@ -745,7 +765,6 @@ public class StaffController implements Initializable {
         if (confirmed) {
             userManagementService.deleteUser(user.getId());
             loadStaffData();
-            updateSummaryCards();
             showStyledAlert(Alert.AlertType.INFORMATION, "Success", "Employee account deleted successfully!");
         }
     }
@@ -1246,7 +1265,6 @@ public class StaffController implements Initializable {
                 }
 
                 loadStaffData();
-                updateSummaryCards();
                 dialogStage.close();
 
             } catch (RuntimeException ex) {
@@ -1440,103 +1458,8 @@ public class StaffController implements Initializable {
 
     private void navigateToPage(String fxmlPath, String cssPath) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
-
-            if (fxmlPath.contains("inventory")) {
-                InventoryController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("dashboard")) {
-                DashboardController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-                controller.refreshDashboard();
-            } else if (fxmlPath.contains("sales")) {
-                SalesController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("reports")) {
-                ReportsController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("product-management")) {
-                ProductManagementController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("supplier")) {
-                SupplierController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            }
-
             Stage stage = (Stage) staffBtn.getScene().getWindow();
-            Scene currentScene = stage.getScene();
-
-            double currentWidth = stage.getWidth();
-            double currentHeight = stage.getHeight();
-            double currentX = stage.getX();
-            double currentY = stage.getY();
-            boolean isMaximized = stage.isMaximized();
-
-            Scene newScene = new Scene(root);
-
-            String scrollBarStyle =
-                    ".scroll-bar {" +
-                            "    -fx-background-color: transparent !important;" +
-                            "}" +
-                            ".scroll-bar .thumb {" +
-                            "    -fx-background-color:  #cbd5e0 !important;" +
-                            "    -fx-background-radius: 4px !important;" +
-                            "}" +
-                            ".scroll-bar .thumb:hover {" +
-                            "    -fx-background-color: #a0aec0 !important;" +
-                            "}" +
-                            ".scroll-bar .track {" +
-                            "    -fx-background-color: transparent !important;" +
-                            "}" +
-                            ".scroll-bar .increment-button," +
-                            ".scroll-bar .decrement-button {" +
-                            "    -fx-background-color: transparent !important;" +
-                            "    -fx-padding: 0 !important;" +
-                            "}";
-
-            newScene.getStylesheets().add("data:text/css," + scrollBarStyle);
-
-            try {
-                java.net.URL cssUrl = getClass().getResource(cssPath);
-                if (cssUrl != null) {
-                    newScene.getStylesheets().add(cssUrl.toExternalForm());
-                }
-            } catch (Exception cssEx) {
-                System.err.println("CSS ERROR: " + cssEx.getMessage());
-            }
-
-            root.setOpacity(0);
-
-            javafx.animation.FadeTransition fadeOut = new javafx.animation.FadeTransition(
-                    javafx.util.Duration.millis(30), currentScene.getRoot()
-            );
-            fadeOut.setFromValue(1.0);
-            fadeOut.setToValue(0.0);
-
-            fadeOut.setOnFinished(e -> {
-                stage.setScene(newScene);
-
-                if (isMaximized) {
-                    stage.setMaximized(true);
-                } else {
-                    stage.setWidth(currentWidth);
-                    stage.setHeight(currentHeight);
-                    stage.setX(currentX);
-                    stage.setY(currentY);
-                }
-
-                javafx.animation.FadeTransition fadeIn = new javafx.animation.FadeTransition(
-                        javafx.util.Duration.millis(30), root
-                );
-                fadeIn.setFromValue(0.0);
-                fadeIn.setToValue(1.0);
-                fadeIn.play();
-            });
-
-            fadeOut.play();
-
+            viewNavigator.navigate(stage, fxmlPath, cssPath);
         } catch (Exception e) {
             e.printStackTrace();
             showStyledAlert(Alert.AlertType.ERROR, "Error", "Failed to load page: " + e.getMessage());
@@ -1544,10 +1467,11 @@ public class StaffController implements Initializable {
     }
 
     private void performLogout() {
+        // Drop the pages kept loaded for this session
+        viewNavigator.endSession();
+
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
+            Parent root = FxmlViews.load("/fxml/login.fxml", springContext::getBean).root();
 
             Stage stage = (Stage) staffBtn.getScene().getWindow();
             Scene currentScene = stage.getScene();
@@ -1,12 +1,14 @@
 package com.inventory.Calo.s_Drugstore.controller;
 
 
+import com.inventory.Calo.s_Drugstore.util.FxmlViews;
 import com.inventory.Calo.s_Drugstore.util.IconUtil;
 import com.inventory.Calo.s_Drugstore.entity.User;
 import com.inventory.Calo.s_Drugstore.service.DashboardService;
 import com.inventory.Calo.s_Drugstore.util.IconUtil;
+import com.inventory.Calo.s_Drugstore.util.UiTasks;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
@@ -21,13 +23,15 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Controller;
 
 import java.net.URL;
 import java.util.*;
 
 @Controller
-public class StaffDashboardController implements Initializable {
+@Lazy
+public class StaffDashboardController implements Initializable, NavigableView {
 
     @Autowired
     private DashboardService dashboardService;
@@ -35,6 +39,9 @@ public class StaffDashboardController implements Initializable {
     @Autowired
     private ConfigurableApplicationContext springContext;
 
+    @Autowired
+    private ViewNavigator viewNavigator;
+
     private User currentUser;
 
     // FXML Components
@@ -57,8 +64,12 @@ public class StaffDashboardController implements Initializable {
     @FXML private VBox recentTransactionsContainer;
     @FXML private VBox lowStockItemsContainer;
 
+    private UiTasks tasks;
+    private record StaffMetrics(Map<String, Object> staff, Map<String, Object> general) {}
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+        tasks = UiTasks.forView(dashboardBtn).onError(Throwable::printStackTrace);
         setActiveButton(dashboardBtn);
     }
 
@@ -73,6 +84,14 @@ public class StaffDashboardController implements Initializable {
         }
     }
 
+    @Override
+    public void onReturn(List<DomainEvent> changes) {
+        setActiveButton(dashboardBtn);
+        if (!changes.isEmpty()) {
+            refreshDashboard();
+        }
+    }
+
     public void refreshDashboard() {
         if (currentUser == null) return;
 
@@ -82,56 +101,59 @@ public class StaffDashboardController implements Initializable {
     }
 
     private void loadStaffMetrics() {
-        try {
-            // Get staff-specific metrics
-            Map<String, Object> staffMetrics = dashboardService.getStaffMetrics(currentUser.getId());
-            Map<String, Object> generalMetrics = dashboardService.getDashboardMetrics();
-
-            // Update KPI cards
-            myTransactionsLabel.setText(String.valueOf(staffMetrics.get("myTransactions")));
-            myItemsSoldLabel.setText(staffMetrics.get("myItemsSold") + " items sold");
-            mySalesLabel.setText("₱" + String.format("%,.2f", staffMetrics.get("myRevenue")));
-            lowStockCountLabel.setText(String.valueOf(generalMetrics.get("lowStockAlerts")));
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            // Set default values on error
-            myTransactionsLabel.setText("0");
-            myItemsSoldLabel.setText("0 items sold");
-            mySalesLabel.setText("₱0.00");
-            lowStockCountLabel.setText("0");
-        }
+        Long userId = currentUser.getId();
+        // Get staff-specific metrics
+        tasks.task(() -> new StaffMetrics(dashboardService.getStaffMetrics(userId), dashboardService.getDashboardMetrics()))
+                .key("metrics")
+                .onSuccess(metrics -> {
+                    Map<String, Object> staffMetrics = metrics.staff();
+                    Map<String, Object> generalMetrics = metrics.general();
+
+                    // Update KPI cards
+                    myTransactionsLabel.setText(String.valueOf(staffMetrics.get("myTransactions")));
+                    myItemsSoldLabel.setText(staffMetrics.get("myItemsSold") + " items sold");
+                    mySalesLabel.setText("₱" + String.format("%,.2f", staffMetrics.get("myRevenue")));
+                    lowStockCountLabel.setText(String.valueOf(generalMetrics.get("lowStockAlerts")));
+                })
+                .onError(e -> {
+                    e.printStackTrace();
+                    // Set default values on error
+                    myTransactionsLabel.setText("0");
+                    myItemsSoldLabel.setText("0 items sold");
+                    mySalesLabel.setText("₱0.00");
+                    lowStockCountLabel.setText("0");
+                })
+                .start();
     }
 
     private void loadRecentTransactions() {
         if (recentTransactionsContainer == null || currentUser == null) return;
 
-        try {
-            List<Map<String, Object>> activities = dashboardService.getStaffRecentActivity(currentUser.getId());
-
-            // Clear existing items
-            recentTransactionsContainer.getChildren().clear();
-
-            // Filter only sales transactions
-            int count = 0;
-            for (Map<String, Object> activity : activities) {
-                if ("sale".equals(activity.get("type")) && count < 5) {
-                    HBox transactionItem = createTransactionItem(activity);
-                    recentTransactionsContainer.getChildren().add(transactionItem);
-                    count++;
-                }
-            }
-
-            // If no transactions, show placeholder
-            if (count == 0) {
-                Label placeholder = new Label("No transactions today");
-                placeholder.setStyle("-fx-text-fill: #95a5a6; -fx-font-size: 14px;");
-                recentTransactionsContainer.getChildren().add(placeholder);
-            }
+        Long userId = currentUser.getId();
+        tasks.task(() -> dashboardService.getStaffRecentActivity(userId))
+                .key("recentTransactions")
+                .onSuccess(activities -> {
+                    // Clear existing items
+                    recentTransactionsContainer.getChildren().clear();
+
+                    // Filter only sales transactions
+                    int count = 0;
+                    for (Map<String, Object> activity : activities) {
+                        if ("sale".equals(activity.get("type")) && count < 5) {
+                            HBox transactionItem = createTransactionItem(activity);
+                            recentTransactionsContainer.getChildren().add(transactionItem);
+                            count++;
+                        }
+                    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+                    // If no transactions, show placeholder
+                    if (count == 0) {
+                        Label placeholder = new Label("No transactions today");
+                        placeholder.setStyle("-fx-text-fill: #95a5a6; -fx-font-size: 14px;");
+                        recentTransactionsContainer.getChildren().add(placeholder);
+                    }
+                })
+                .start();
     }
 
     private HBox createTransactionItem(Map<String, Object> activity) {
@@ -176,32 +198,30 @@ public class StaffDashboardController implements Initializable {
     private void loadLowStockItems() {
         if (lowStockItemsContainer == null) return;
 
-        try {
-            List<Map<String, Object>> activities = dashboardService.getRecentActivity();
-
-            // Clear existing items
-            lowStockItemsContainer.getChildren().clear();
-
-            // Filter only alert items
-            int count = 0;
-            for (Map<String, Object> activity : activities) {
-                if ("alert".equals(activity.get("type")) && count < 5) {
-                    HBox lowStockItem = createLowStockItem(activity);
-                    lowStockItemsContainer.getChildren().add(lowStockItem);
-                    count++;
-                }
-            }
-
-            // If no low stock items, show placeholder
-            if (count == 0) {
-                Label placeholder = new Label("All items well stocked");
-                placeholder.setStyle("-fx-text-fill: #4CAF50; -fx-font-size: 14px; -fx-font-weight: 600;");
-                lowStockItemsContainer.getChildren().add(placeholder);
-            }
+        tasks.task(dashboardService::getRecentActivity)
+                .key("lowStockItems")
+                .onSuccess(activities -> {
+                    // Clear existing items
+                    lowStockItemsContainer.getChildren().clear();
+
+                    // Filter only alert items
+                    int count = 0;
+                    for (Map<String, Object> activity : activities) {
+                        if ("alert".equals(activity.get("type")) && count < 5) {
+                            HBox lowStockItem = createLowStockItem(activity);
+                            lowStockItemsContainer.getChildren().add(lowStockItem);
+                            count++;
+                        }
+                    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+                    // If no low stock items, show placeholder
+                    if (count == 0) {
+                        Label placeholder = new Label("All items well stocked");
+                        placeholder.setStyle("-fx-text-fill: #4CAF50; -fx-font-size: 14px; -fx-font-weight: 600;");
+                        lowStockItemsContainer.getChildren().add(placeholder);
+                    }
+                })
+                .start();
     }
 
     private HBox createLowStockItem(Map<String, Object> activity) {
@@ -377,10 +397,11 @@ public class StaffDashboardController implements Initializable {
     }
 
     private void performLogout() {
+        // Drop the pages kept loaded for this session
+        viewNavigator.endSession();
+
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
+            Parent root = FxmlViews.load("/fxml/login.fxml", springContext::getBean).root();
 
             Stage stage = (Stage) logoutBtn.getScene().getWindow();
             Scene currentScene = stage.getScene();
@@ -438,69 +459,8 @@ public class StaffDashboardController implements Initializable {
 
     private void navigateToPage(String fxmlPath, String cssPath) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
-
-            // Pass current user to the next controller
-            if (fxmlPath.contains("staff-inventory")) {
-                StaffInventoryController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("staff-sales") || fxmlPath.contains("sales"))  {
-                SalesController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("staff-reports")) {
-                StaffReportsController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-                System.out.println("✅ Set user for StaffReportsController");
-            }
-
             Stage stage = (Stage) dashboardBtn.getScene().getWindow();
-            Scene currentScene = stage.getScene();
-
-            // Save window size and position
-            double currentWidth = stage.getWidth();
-            double currentHeight = stage.getHeight();
-            double currentX = stage.getX();
-            double currentY = stage.getY();
-            boolean isMaximized = stage.isMaximized();
-
-            Scene newScene = new Scene(root);
-            newScene.getStylesheets().add(getClass().getResource(cssPath).toExternalForm());
-
-            root.setOpacity(0);
-
-            javafx.animation.FadeTransition fadeOut = new javafx.animation.FadeTransition(
-                    javafx.util.Duration.millis(30),
-                    currentScene.getRoot()
-            );
-            fadeOut.setFromValue(1.0);
-            fadeOut.setToValue(0.0);
-
-            fadeOut.setOnFinished(e -> {
-                stage.setScene(newScene);
-
-                // Restore window size and position
-                if (isMaximized) {
-                    stage.setMaximized(true);
-                } else {
-                    stage.setWidth(currentWidth);
-                    stage.setHeight(currentHeight);
-                    stage.setX(currentX);
-                    stage.setY(currentY);
-                }
-
-                javafx.animation.FadeTransition fadeIn = new javafx.animation.FadeTransition(
-                        javafx.util.Duration.millis(30),
-                        root
-                );
-                fadeIn.setFromValue(0.0);
-                fadeIn.setToValue(1.0);
-                fadeIn.play();
-            });
-
-            fadeOut.play();
-
+            viewNavigator.navigate(stage, fxmlPath, cssPath);
         } catch (Exception e) {
             e.printStackTrace();
             showAlert(Alert.AlertType.ERROR, "Error", "Failed to load page: " + e.getMessage());
@@ -1,15 +1,17 @@
 package com.inventory.Calo.s_Drugstore.controller;
 
 import com.inventory.Calo.s_Drugstore.repository.BatchRepository;
+import com.inventory.Calo.s_Drugstore.util.FxmlViews;
 import com.inventory.Calo.s_Drugstore.util.IconUtil;
+import com.inventory.Calo.s_Drugstore.util.UiTasks;
 import com.inventory.Calo.s_Drugstore.entity.Product;
 import com.inventory.Calo.s_Drugstore.entity.User;
 import com.inventory.Calo.s_Drugstore.service.ProductService;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
@@ -21,6 +23,7 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Controller;
 
 import java.math.BigDecimal;
@@ -31,7 +34,8 @@ import java.util.ResourceBundle;
 import java.util.stream.Collectors;
 
 @Controller
-public class StaffInventoryController implements Initializable {
+@Lazy
+public class StaffInventoryController implements Initializable, NavigableView {
 
     @Autowired
     private ProductService productService;
@@ -39,13 +43,19 @@ public class StaffInventoryController implements Initializable {
     @Autowired
     private ConfigurableApplicationContext springContext;
 
+    @Autowired
+    private ViewNavigator viewNavigator;
+
     @Autowired
     private BatchRepository batchRepository;
 
     private User currentUser;
-    private ObservableList<Product> allProducts;
+    private ObservableList<Product> allProducts = FXCollections.observableArrayList();
     private ObservableList<Product> filteredProducts;
 
+    private UiTasks tasks;
+    private record InventoryData(List<Product> products, List<String> categories) {}
+
     // FXML Components
     @FXML private Button dashboardBtn;
     @FXML private Button inventoryBtn;
@@ -84,6 +94,7 @@ public class StaffInventoryController implements Initializable {
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+        tasks = UiTasks.forView(inventoryBtn).onError(Throwable::printStackTrace);
         setActiveButton(inventoryBtn);
         setupTable();
         setupSearchAndFilter();
@@ -100,6 +111,14 @@ public class StaffInventoryController implements Initializable {
         }
     }
 
+    @Override
+    public void onReturn(List<DomainEvent> changes) {
+        setActiveButton(inventoryBtn);
+        if (changes.stream().anyMatch(event -> !event.isSaleEvent())) {
+            loadInventoryData();
+        }
+    }
+
     private void setupTable() {
         // Medicine ID Column
         medicineIdCol.setCellValueFactory(cellData ->
@@ -237,34 +256,33 @@ public class StaffInventoryController implements Initializable {
     }
 
     private void loadInventoryData() {
-        try {
-            // Load all products
-            allProducts = FXCollections.observableArrayList(productService.getAllProducts());
-            filteredProducts = FXCollections.observableArrayList(allProducts);
-
-            // Load categories with "All Categories" as first option
-            List<String> categories = productService.getAllCategories();
-            ObservableList<String> categoryList = FXCollections.observableArrayList();
-            categoryList.add("All Categories"); // Add "All" option first
-            categoryList.addAll(categories);
-            categoryCombo.setItems(categoryList);
-            categoryCombo.setValue("All Categories"); // Set as default
-
-            // Update table
-            inventoryTable.setItems(filteredProducts);
-
-            // Update KPIs
-            updateKPIs();
-
-            // Update results label
-            updateResultsLabel();
-
-            // Show low stock alert if needed
-            updateLowStockAlert();
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        // Load all products and the categories
+        tasks.task(() -> new InventoryData(productService.getAllProducts(), productService.getAllCategories()))
+                .key("inventory")
+                .onSuccess(data -> {
+                    allProducts = FXCollections.observableArrayList(data.products());
+                    filteredProducts = FXCollections.observableArrayList(allProducts);
+
+                    // Load categories with "All Categories" as first option
+                    ObservableList<String> categoryList = FXCollections.observableArrayList();
+                    categoryList.add("All Categories"); // Add "All" option first
+                    categoryList.addAll(data.categories());
+                    categoryCombo.setItems(categoryList);
+                    categoryCombo.setValue("All Categories"); // Set as default
+
+                    // Update table
+                    inventoryTable.setItems(filteredProducts);
+
+                    // Update KPIs
+                    updateKPIs();
+
+                    // Update results label
+                    updateResultsLabel();
+
+                    // Show low stock alert if needed
+                    updateLowStockAlert();
+                })
+                .start();
     }
 
     private void filterInventory() {
@@ -461,11 +479,12 @@ public class StaffInventoryController implements Initializable {
     }
 
     private void performLogout() {
+        // Drop the pages kept loaded for this session
+        viewNavigator.endSession();
+
         try {
             // Load login page
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
+            Parent root = FxmlViews.load("/fxml/login.fxml", springContext::getBean).root();
 
             Stage stage = (Stage) dashboardBtn.getScene().getWindow();
             Scene currentScene = stage.getScene();
@@ -610,70 +629,8 @@ public class StaffInventoryController implements Initializable {
 
     private void navigateToPage(String fxmlPath, String cssPath) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
-
-            // Pass current user to the next controller
-            if (fxmlPath.contains("staff-dashboard")) {
-                StaffDashboardController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("staff-sales") || fxmlPath.contains("sales")) {
-                SalesController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("staff-reports")) {
-                StaffReportsController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-                System.out.println("✅ Set user for StaffReportsController");
-            }
-
             Stage stage = (Stage) dashboardBtn.getScene().getWindow();
-            Scene currentScene = stage.getScene();
-
-            // Save window size and position
-            double currentWidth = stage.getWidth();
-            double currentHeight = stage.getHeight();
-            double currentX = stage.getX();
-            double currentY = stage.getY();
-            boolean isMaximized = stage.isMaximized();
-
-            Scene newScene = new Scene(root);
-            newScene.getStylesheets().add(getClass().getResource(cssPath).toExternalForm());
-
-            root.setOpacity(0);
-
-            javafx.animation.FadeTransition fadeOut = new javafx.animation.FadeTransition(
-                    javafx.util.Duration.millis(30),
-                    currentScene.getRoot()
-            );
-            fadeOut.setFromValue(1.0);
-            fadeOut.setToValue(0.0);
-
-            fadeOut.setOnFinished(e -> {
-                stage.setScene(newScene);
-
-                // Restore window size and position
-                if (isMaximized) {
-                    stage.setMaximized(true);
-                } else {
-                    stage.setWidth(currentWidth);
-                    stage.setHeight(currentHeight);
-                    stage.setX(currentX);
-                    stage.setY(currentY);
-                }
-
-                javafx.animation.FadeTransition fadeIn = new javafx.animation.FadeTransition(
-                        javafx.util.Duration.millis(30),
-                        root
-                );
-                fadeIn.setFromValue(0.0);
-                fadeIn.setToValue(1.0);
-                fadeIn.play();
-            });
-
-            fadeOut.play();
-
-
+            viewNavigator.navigate(stage, fxmlPath, cssPath);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -1,15 +1,16 @@
 package com.inventory.Calo.s_Drugstore.controller;
 
+import com.inventory.Calo.s_Drugstore.util.FxmlViews;
 import com.inventory.Calo.s_Drugstore.util.IconUtil;
-import com.inventory.Calo.s_Drugstore.entity.Sale;
+import com.inventory.Calo.s_Drugstore.util.UiTasks;
 import com.inventory.Calo.s_Drugstore.entity.User;
-import com.inventory.Calo.s_Drugstore.service.SalesService;
+import com.inventory.Calo.s_Drugstore.repository.SalesAggregateRepository;
 import com.inventory.Calo.s_Drugstore.util.IconUtil;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
@@ -22,29 +23,37 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Controller;
 
 import java.net.URL;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Controller
-public class StaffReportsController implements Initializable {
+@Lazy
+public class StaffReportsController implements Initializable, NavigableView {
 
     @Autowired
-    private SalesService salesService;
+    private SalesAggregateRepository salesAggregateRepository;
 
     @Autowired
     private ConfigurableApplicationContext springContext;
 
+    @Autowired
+    private ViewNavigator viewNavigator;
+
     private User currentUser;
     private String selectedPeriod = "This Week";
 
+    private UiTasks tasks;
+    private record PeriodReport(SalesAggregateRepository.SalesTotals totals,
+                                List<SalesAggregateRepository.PeriodTotals> days,
+                                List<SalesAggregateRepository.MedicineTotals> topMedicines) {}
+
     // FXML Components
     @FXML private Button dashboardBtn;
     @FXML private Button inventoryBtn;
@@ -82,6 +91,7 @@ public class StaffReportsController implements Initializable {
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+        tasks = UiTasks.forView(reportsBtn).onError(Throwable::printStackTrace);
         setActiveButton(reportsBtn);
         setupTables();
         setupTimeFilter();
@@ -98,6 +108,14 @@ public class StaffReportsController implements Initializable {
         }
     }
 
+    @Override
+    public void onReturn(List<DomainEvent> changes) {
+        setActiveButton(reportsBtn);
+        if (changes.stream().anyMatch(DomainEvent::isSaleEvent)) {
+            loadReportsData();
+        }
+    }
+
     private void setupTimeFilter() {
         ObservableList<String> periods = FXCollections.observableArrayList(
                 "This Week", "Last Week", "This Month", "Last Month"
@@ -278,11 +296,24 @@ public class StaffReportsController implements Initializable {
         LocalDate startDate = dateRange[0];
         LocalDate endDate = dateRange[1];
 
-        loadKPIs(startDate, endDate);
-        loadDailyTransactionsChart(startDate, endDate);
-        loadItemsSoldChart(startDate, endDate);
-        loadTopSellingMedicines(startDate, endDate);
-        loadRecentActivity(startDate, endDate);
+        Long userId = currentUser.getId();
+        tasks.task(() -> new PeriodReport(
+                        // Calculate KPIs for the current user
+                        salesAggregateRepository.totals(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(), userId),
+                        // Transactions and items per day in the period (both charts and the activity table)
+                        salesAggregateRepository.totalsByPeriod(SalesAggregateRepository.Period.DAY,
+                                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(), userId),
+                        // Current user's top 5
+                        salesAggregateRepository.topMedicines(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(), userId, 5)))
+                .key("report")
+                .onSuccess(report -> {
+                    showKPIs(report.totals());
+                    showDailyTransactionsChart(startDate, endDate, report.days());
+                    showItemsSoldChart(startDate, endDate, report.days());
+                    showTopSellingMedicines(report.topMedicines());
+                    showRecentActivity(report.days());
+                })
+                .start();
     }
 
     private LocalDate[] getDateRange(String period) {
@@ -311,59 +342,34 @@ public class StaffReportsController implements Initializable {
         return new LocalDate[]{start, end};
     }
 
-    private void loadKPIs(LocalDate startDate, LocalDate endDate) {
-        try {
-            LocalDateTime start = startDate.atStartOfDay();
-            LocalDateTime end = endDate.atTime(23, 59, 59);
+    private void showKPIs(SalesAggregateRepository.SalesTotals myTotals) {
+        long totalTransactions = myTotals.transactions();
+        long totalItems = myTotals.itemsSold();
+        double avgItems = totalTransactions > 0 ? (double) totalItems / totalTransactions : 0.0;
 
-            List<Sale> periodSales = salesService.getSalesBetweenDates(start, end);
-
-            // Filter by current user
-            List<Sale> mySales = periodSales.stream()
-                    .filter(sale -> sale.getUserId().equals(currentUser.getId()))
-                    .collect(Collectors.toList());
-
-            // Calculate KPIs
-            int totalTransactions = mySales.size();
-            int totalItems = mySales.stream()
-                    .mapToInt(Sale::getTotalItems)
-                    .sum();
-            double avgItems = totalTransactions > 0 ? (double) totalItems / totalTransactions : 0.0;
-
-            // Update labels
-            totalTransactionsLabel.setText(String.valueOf(totalTransactions));
-            transactionsPeriodLabel.setText(selectedPeriod.toLowerCase());
-            itemsSoldLabel.setText(String.valueOf(totalItems));
-            avgItemsLabel.setText(String.format("%.1f", avgItems));
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        // Update labels
+        totalTransactionsLabel.setText(String.valueOf(totalTransactions));
+        transactionsPeriodLabel.setText(selectedPeriod.toLowerCase());
+        itemsSoldLabel.setText(String.valueOf(totalItems));
+        avgItemsLabel.setText(String.format("%.1f", avgItems));
     }
 
-    private void loadDailyTransactionsChart(LocalDate startDate, LocalDate endDate) {
+    private void showDailyTransactionsChart(LocalDate startDate, LocalDate endDate, List<SalesAggregateRepository.PeriodTotals> days) {
         try {
             dailyTransactionsChart.getData().clear();
 
             XYChart.Series<String, Number> series = new XYChart.Series<>();
             series.setName("Transactions");
 
-            Map<LocalDate, Integer> dailyCounts = new LinkedHashMap<>();
+            Map<LocalDate, Long> dailyCounts = new LinkedHashMap<>();
             for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-                dailyCounts.put(date, 0);
+                dailyCounts.put(date, 0L);
             }
 
-            LocalDateTime start = startDate.atStartOfDay();
-            LocalDateTime end = endDate.atTime(23, 59, 59);
-            List<Sale> periodSales = salesService.getSalesBetweenDates(start, end);
-
-            // Filter and count by date
-            periodSales.stream()
-                    .filter(sale -> sale.getUserId().equals(currentUser.getId()))
-                    .forEach(sale -> {
-                        LocalDate saleDate = sale.getSaleDate().toLocalDate();
-                        dailyCounts.merge(saleDate, 1, Integer::sum);
-                    });
+            // Count by date
+            for (SalesAggregateRepository.PeriodTotals day : days) {
+                dailyCounts.put(day.periodStart(), day.transactions());
+            }
 
             // Choose formatter based on period
             DateTimeFormatter formatter;
@@ -376,7 +382,7 @@ public class StaffReportsController implements Initializable {
             }
 
             // Add data to chart
-            for (Map.Entry<LocalDate, Integer> entry : dailyCounts.entrySet()) {
+            for (Map.Entry<LocalDate, Long> entry : dailyCounts.entrySet()) {
                 String dayLabel = entry.getKey().format(formatter);
                 series.getData().add(new XYChart.Data<>(dayLabel, entry.getValue()));
             }
@@ -387,30 +393,22 @@ public class StaffReportsController implements Initializable {
             e.printStackTrace();
         }
     }
-    private void loadItemsSoldChart(LocalDate startDate, LocalDate endDate) {
+    private void showItemsSoldChart(LocalDate startDate, LocalDate endDate, List<SalesAggregateRepository.PeriodTotals> days) {
         try {
             itemsSoldChart.getData().clear();
 
             XYChart.Series<String, Number> series = new XYChart.Series<>();
             series.setName("Items Sold");
 
-            Map<LocalDate, Integer> dailyItems = new LinkedHashMap<>();
+            Map<LocalDate, Long> dailyItems = new LinkedHashMap<>();
             for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-                dailyItems.put(date, 0);
+                dailyItems.put(date, 0L);
             }
 
-            LocalDateTime start = startDate.atStartOfDay();
-            LocalDateTime end = endDate.atTime(23, 59, 59);
-            List<Sale> periodSales = salesService.getSalesBetweenDates(start, end);
-
-            // Filter and count items by date
-            periodSales.stream()
-                    .filter(sale -> sale.getUserId().equals(currentUser.getId()))
-                    .forEach(sale -> {
-                        LocalDate saleDate = sale.getSaleDate().toLocalDate();
-                        int items = sale.getTotalItems();
-                        dailyItems.merge(saleDate, items, Integer::sum);
-                    });
+            // Count items by date
+            for (SalesAggregateRepository.PeriodTotals day : days) {
+                dailyItems.put(day.periodStart(), day.itemsSold());
+            }
 
             // Choose formatter based on period
             DateTimeFormatter formatter;
@@ -423,7 +421,7 @@ public class StaffReportsController implements Initializable {
             }
 
             // Add data to chart
-            for (Map.Entry<LocalDate, Integer> entry : dailyItems.entrySet()) {
+            for (Map.Entry<LocalDate, Long> entry : dailyItems.entrySet()) {
                 String dayLabel = entry.getKey().format(formatter);
                 series.getData().add(new XYChart.Data<>(dayLabel, entry.getValue()));
             }
@@ -435,39 +433,17 @@ public class StaffReportsController implements Initializable {
         }
     }
 
-    private void loadTopSellingMedicines(LocalDate startDate, LocalDate endDate) {
+    private void showTopSellingMedicines(List<SalesAggregateRepository.MedicineTotals> topMedicines) {
         try {
-            LocalDateTime start = startDate.atStartOfDay();
-            LocalDateTime end = endDate.atTime(23, 59, 59);
-            List<Sale> periodSales = salesService.getSalesBetweenDates(start, end);
-
-            // Filter by current user and aggregate items
-            Map<String, MedicineStats> medicineMap = new HashMap<>();
-
-            periodSales.stream()
-                    .filter(sale -> sale.getUserId().equals(currentUser.getId()))
-                    .flatMap(sale -> sale.getItems().stream())
-                    .forEach(item -> {
-                        String medicineName = item.getMedicineName();
-                        medicineMap.putIfAbsent(medicineName, new MedicineStats(medicineName));
-                        medicineMap.get(medicineName).addQuantity(item.getQuantity());
-                    });
-
-            // Sort and get top 5
-            List<MedicineStats> topMedicines = medicineMap.values().stream()
-                    .sorted((a, b) -> Integer.compare(b.totalQuantity, a.totalQuantity))
-                    .limit(5)
-                    .collect(Collectors.toList());
-
             // Populate table
             ObservableList<Map<String, Object>> data = FXCollections.observableArrayList();
             int rank = 1;
-            for (MedicineStats stats : topMedicines) {
+            for (SalesAggregateRepository.MedicineTotals medicine : topMedicines) {
                 Map<String, Object> row = new HashMap<>();
                 row.put("rank", "#" + rank);
-                row.put("medicine", stats.name);
-                row.put("category", getCategoryForMedicine(stats.name));
-                row.put("quantity", stats.totalQuantity);
+                row.put("medicine", medicine.medicineName());
+                row.put("category", medicine.category());
+                row.put("quantity", medicine.quantitySold());
                 data.add(row);
                 rank++;
             }
@@ -479,35 +455,25 @@ public class StaffReportsController implements Initializable {
         }
     }
 
-    private void loadRecentActivity(LocalDate startDate, LocalDate endDate) {
+    private void showRecentActivity(List<SalesAggregateRepository.PeriodTotals> periodDays) {
         try {
-            LocalDateTime start = startDate.atStartOfDay();
-            LocalDateTime end = endDate.atTime(23, 59, 59);
-            List<Sale> periodSales = salesService.getSalesBetweenDates(start, end);
-
-            // Group by date
-            Map<LocalDate, DailyStats> dailyStatsMap = new TreeMap<>(Collections.reverseOrder());
-
-            periodSales.stream()
-                    .filter(sale -> sale.getUserId().equals(currentUser.getId()))
-                    .forEach(sale -> {
-                        LocalDate saleDate = sale.getSaleDate().toLocalDate();
-                        dailyStatsMap.putIfAbsent(saleDate, new DailyStats(saleDate));
-                        dailyStatsMap.get(saleDate).addSale(sale);
-                    });
+            // Most recent days first
+            List<SalesAggregateRepository.PeriodTotals> days = new ArrayList<>(periodDays);
+            Collections.reverse(days);
 
             // Populate table
             ObservableList<Map<String, Object>> data = FXCollections.observableArrayList();
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEE, MMM dd");
 
-            for (DailyStats stats : dailyStatsMap.values()) {
+            for (SalesAggregateRepository.PeriodTotals day : days) {
                 if (data.size() >= 5) break;
 
+                double average = day.transactions() > 0 ? (double) day.itemsSold() / day.transactions() : 0.0;
                 Map<String, Object> row = new HashMap<>();
-                row.put("date", stats.date.format(formatter));
-                row.put("transactions", stats.transactions);
-                row.put("items", stats.totalItems);
-                row.put("avg", String.format("%.1f", stats.getAverage()));
+                row.put("date", day.periodStart().format(formatter));
+                row.put("transactions", day.transactions());
+                row.put("items", day.itemsSold());
+                row.put("avg", String.format("%.1f", average));
                 data.add(row);
             }
 
@@ -518,56 +484,6 @@ public class StaffReportsController implements Initializable {
         }
     }
 
-    private String getCategoryForMedicine(String medicineName) {
-        // Simple category mapping - you can enhance this with actual product data
-        if (medicineName.toLowerCase().contains("paracetamol") ||
-                medicineName.toLowerCase().contains("aspirin") ||
-                medicineName.toLowerCase().contains("ibuprofen")) {
-            return "Pain Relief";
-        } else if (medicineName.toLowerCase().contains("vitamin")) {
-            return "Vitamins";
-        } else if (medicineName.toLowerCase().contains("cold") ||
-                medicineName.toLowerCase().contains("cough")) {
-            return "Cold & Flu";
-        } else if (medicineName.toLowerCase().contains("antibiotic")) {
-            return "Antibiotics";
-        }
-        return "Others";
-    }
-
-    // Helper classes
-    private static class MedicineStats {
-        String name;
-        int totalQuantity = 0;
-
-        MedicineStats(String name) {
-            this.name = name;
-        }
-
-        void addQuantity(int quantity) {
-            this.totalQuantity += quantity;
-        }
-    }
-
-    private static class DailyStats {
-        LocalDate date;
-        int transactions = 0;
-        int totalItems = 0;
-
-        DailyStats(LocalDate date) {
-            this.date = date;
-        }
-
-        void addSale(Sale sale) {
-            transactions++;
-            totalItems += sale.getTotalItems();
-        }
-
-        double getAverage() {
-            return transactions > 0 ? (double) totalItems / transactions : 0.0;
-        }
-    }
-
     private void setActiveButton(Button activeBtn) {
         dashboardBtn.getStyleClass().remove("active");
         inventoryBtn.getStyleClass().remove("active");
@@ -698,10 +614,11 @@ public class StaffReportsController implements Initializable {
     }
 
     private void performLogout() {
+        // Drop the pages kept loaded for this session
+        viewNavigator.endSession();
+
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
+            Parent root = FxmlViews.load("/fxml/login.fxml", springContext::getBean).root();
 
             Stage stage = (Stage) logoutBtn.getScene().getWindow();
             Scene currentScene = stage.getScene();
@@ -767,69 +684,8 @@ public class StaffReportsController implements Initializable {
 
     private void navigateToPage(String fxmlPath, String cssPath) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
-
-            // Pass current user to the next controller
-            if (fxmlPath.contains("staff-dashboard")) {
-                StaffDashboardController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("staff-inventory")) {
-                StaffInventoryController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("staff-sales")) {
-                SalesController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            }
-
             Stage stage = (Stage) dashboardBtn.getScene().getWindow();
-            Scene currentScene = stage.getScene();
-
-            // Save window size and position
-            double currentWidth = stage.getWidth();
-            double currentHeight = stage.getHeight();
-            double currentX = stage.getX();
-            double currentY = stage.getY();
-            boolean isMaximized = stage.isMaximized();
-
-            Scene newScene = new Scene(root);
-            newScene.getStylesheets().add(getClass().getResource(cssPath).toExternalForm());
-
-            root.setOpacity(0);
-
-            javafx.animation.FadeTransition fadeOut = new javafx.animation.FadeTransition(
-                    javafx.util.Duration.millis(30),
-                    currentScene.getRoot()
-            );
-            fadeOut.setFromValue(1.0);
-            fadeOut.setToValue(0.0);
-
-            fadeOut.setOnFinished(e -> {
-                stage.setScene(newScene);
-
-                // Restore window size and position
-                if (isMaximized) {
-                    stage.setMaximized(true);
-                } else {
-                    stage.setWidth(currentWidth);
-                    stage.setHeight(currentHeight);
-                    stage.setX(currentX);
-                    stage.setY(currentY);
-                }
-
-                javafx.animation.FadeTransition fadeIn = new javafx.animation.FadeTransition(
-                        javafx.util.Duration.millis(30),
-                        root
-                );
-                fadeIn.setFromValue(0.0);
-                fadeIn.setToValue(1.0);
-                fadeIn.play();
-            });
-
-            fadeOut.play();
-
-
+            viewNavigator.navigate(stage, fxmlPath, cssPath);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -3,13 +3,16 @@ package com.inventory.Calo.s_Drugstore.controller;
 import com.inventory.Calo.s_Drugstore.entity.Supplier;
 import com.inventory.Calo.s_Drugstore.entity.User;
 import com.inventory.Calo.s_Drugstore.service.SupplierService;
+import com.inventory.Calo.s_Drugstore.util.FxmlViews;
 import com.inventory.Calo.s_Drugstore.util.IconUtil;
+import com.inventory.Calo.s_Drugstore.util.SearchPipeline;
+import com.inventory.Calo.s_Drugstore.util.UiTasks;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
 import javafx.animation.FadeTransition;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
@@ -22,6 +25,7 @@ import javafx.stage.Stage;
 import javafx.util.Duration;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Controller;
 
 import java.net.URL;
@@ -31,7 +35,8 @@ import java.util.List;
 import java.util.ResourceBundle;
 
 @Controller
-public class SupplierController implements Initializable {
+@Lazy
+public class SupplierController implements Initializable, NavigableView {
 
     @Autowired
     private SupplierService supplierService;
@@ -39,6 +44,9 @@ public class SupplierController implements Initializable {
     @Autowired
     private ConfigurableApplicationContext springContext;
 
+    @Autowired
+    private ViewNavigator viewNavigator;
+
     private User currentUser;
 
     @FXML private Label totalSuppliersLabel;
@@ -69,17 +77,19 @@ public class SupplierController implements Initializable {
     @FXML private Label userEmailLabel;
 
     private ObservableList<Supplier> supplierList = FXCollections.observableArrayList();
+    private SearchPipeline<String, List<Supplier>> supplierSearch;
+    private UiTasks tasks;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         System.out.println("=== SUPPLIER CONTROLLER INITIALIZE ===");
 
-        supplierService.syncSuppliersFromProducts();
+        tasks = UiTasks.forView(supplierBtn)
+                .onError(e -> showStyledAlert(Alert.AlertType.ERROR, "Load Error", "Failed to load suppliers: " + e.getMessage()));
 
         setupSupplierTable();
-        loadSupplierData();
         setupColumnWidths();
-        updateSummaryCards();
+        syncAndLoadSuppliers();
         setupSearch();
         setupFilter();
         setActiveButton(supplierBtn);
@@ -123,6 +133,16 @@ public class SupplierController implements Initializable {
         }
     }
 
+    @Override
+    public void onReturn(List<DomainEvent> changes) {
+        setActiveButton(supplierBtn);
+
+        // A product may name a supplier that isn't in the table yet
+        if (changes.stream().anyMatch(event -> event instanceof DomainEvent.ProductChanged)) {
+            syncAndLoadSuppliers();
+        }
+    }
+
     private void setupSupplierTable() {
         supplierTable.setEditable(false);
         supplierTable.setItems(supplierList);
@@ -364,14 +384,32 @@ public class SupplierController implements Initializable {
         });
     }
 
+    // Suppliers named on products but not yet in the table are added before loading
+    private void syncAndLoadSuppliers() {
+        tasks.task(() -> {
+                    supplierService.syncSuppliersFromProducts();
+                    return supplierService.getAllSuppliers();
+                })
+                .key("suppliers")
+                .onSuccess(this::showSuppliers)
+                .start();
+    }
+
     private void loadSupplierData() {
-        List<Supplier> suppliers = supplierService.getAllSuppliers();
+        tasks.task(supplierService::getAllSuppliers)
+                .key("suppliers")
+                .onSuccess(this::showSuppliers)
+                .start();
+    }
+
+    private void showSuppliers(List<Supplier> suppliers) {
         supplierList.setAll(suppliers);
         supplierTable.setItems(supplierList);
         supplierTable.refresh();
         if (suppliers.isEmpty()) {
             supplierTable.setPlaceholder(new Label("No suppliers found"));
         }
+        updateSummaryCards();
     }
 
     private void updateSummaryCards() {
@@ -392,7 +430,9 @@ public class SupplierController implements Initializable {
 
     private void setupSearch() {
         if (searchField != null) {
-            searchField.textProperty().addListener((obs, oldVal, newVal) -> applyFilters());
+            // Full-text search (company, contact, email, phone, ID) in the background once typing pauses
+            supplierSearch = SearchPipeline.forField(searchField, supplierService::searchSuppliers,
+                    suppliers -> supplierList.setAll(suppliers));
         }
     }
 
@@ -405,21 +445,9 @@ public class SupplierController implements Initializable {
     }
 
     private void applyFilters() {
-        String searchTerm = searchField != null ? searchField.getText().toLowerCase() : "";
-
-        List<Supplier> allSuppliers = supplierService.getAllSuppliers();
-        List<Supplier> filtered = allSuppliers.stream()
-                .filter(s -> {
-                    boolean matchesSearch = searchTerm.isEmpty() ||
-                            s.getCompanyName().toLowerCase().contains(searchTerm) ||
-                            s.getSupplierId().toLowerCase().contains(searchTerm) ||
-                            (s.getContactPerson() != null && s.getContactPerson().toLowerCase().contains(searchTerm)) ||
-                            (s.getEmail() != null && s.getEmail().toLowerCase().contains(searchTerm));
-                    return matchesSearch;
-                })
-                .toList();
-
-        supplierList.setAll(filtered);
+        if (supplierSearch != null) {
+            supplierSearch.submitNow(searchField.getText());
+        }
     }
 
     @FXML
@@ -663,7 +691,6 @@ public class SupplierController implements Initializable {
             supplier.setStatus(newStatus);
             supplierService.updateSupplier(supplier);
             loadSupplierData();
-            updateSummaryCards();
             showStyledAlert(Alert.AlertType.INFORMATION, "Success",
                     "Supplier " + (newStatus.equalsIgnoreCase("Active") ? "activated" : "deactivated") + " successfully!");
         }
@@ -678,7 +705,6 @@ public class SupplierController implements Initializable {
         if (confirmed) {
             supplierService.deleteSupplier(supplier.getId());
             loadSupplierData();
-            updateSummaryCards();
             showStyledAlert(Alert.AlertType.INFORMATION, "Success", "Supplier deleted successfully!");
         }
     }
@@ -889,7 +915,6 @@ public class SupplierController implements Initializable {
                 }
 
                 loadSupplierData();
-                updateSummaryCards();
                 dialogStage.close();
 
                 refreshProductManagementSuppliers();
@@ -1066,103 +1091,8 @@ public class SupplierController implements Initializable {
 
     private void navigateToPage(String fxmlPath, String cssPath) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
-
-            if (fxmlPath.contains("inventory")) {
-                InventoryController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("dashboard")) {
-                DashboardController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-                controller.refreshDashboard();
-            } else if (fxmlPath.contains("sales")) {
-                SalesController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("reports")) {
-                ReportsController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("product-management")) {
-                ProductManagementController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            } else if (fxmlPath.contains("staff")) {
-                StaffController controller = loader.getController();
-                controller.setCurrentUser(currentUser);
-            }
-
             Stage stage = (Stage) supplierBtn.getScene().getWindow();
-            Scene currentScene = stage.getScene();
-
-            double currentWidth = stage.getWidth();
-            double currentHeight = stage.getHeight();
-            double currentX = stage.getX();
-            double currentY = stage.getY();
-            boolean isMaximized = stage.isMaximized();
-
-            Scene newScene = new Scene(root);
-
-            String scrollBarStyle =
-                    ".scroll-bar {" +
-                            "    -fx-background-color: transparent !important;" +
-                            "}" +
-                            ".scroll-bar .thumb {" +
-                            "    -fx-background-color:  #cbd5e0 !important;" +
-                            "    -fx-background-radius: 4px !important;" +
-                            "}" +
-                            ".scroll-bar .thumb:hover {" +
-                            "    -fx-background-color: #a0aec0 !important;" +
-                            "}" +
-                            ".scroll-bar .track {" +
-                            "    -fx-background-color: transparent !important;" +
-                            "}" +
-                            ".scroll-bar .increment-button," +
-                            ".scroll-bar .decrement-button {" +
-                            "    -fx-background-color: transparent !important;" +
-                            "    -fx-padding: 0 !important;" +
-                            "}";
-
-            newScene.getStylesheets().add("data:text/css," + scrollBarStyle);
-
-            try {
-                java.net.URL cssUrl = getClass().getResource(cssPath);
-                if (cssUrl != null) {
-                    newScene.getStylesheets().add(cssUrl.toExternalForm());
-                }
-            } catch (Exception cssEx) {
-                System.err.println("CSS ERROR: " + cssEx.getMessage());
-            }
-
-            root.setOpacity(0);
-
-            javafx.animation.FadeTransition fadeOut = new javafx.animation.FadeTransition(
-                    javafx.util.Duration.millis(30), currentScene.getRoot()
-            );
-            fadeOut.setFromValue(1.0);
-            fadeOut.setToValue(0.0);
-
-            fadeOut.setOnFinished(e -> {
-                stage.setScene(newScene);
-
-                if (isMaximized) {
-                    stage.setMaximized(true);
-                } else {
-                    stage.setWidth(currentWidth);
-                    stage.setHeight(currentHeight);
-                    stage.setX(currentX);
-                    stage.setY(currentY);
-                }
-
-                javafx.animation.FadeTransition fadeIn = new javafx.animation.FadeTransition(
-                        javafx.util.Duration.millis(30), root
-                );
-                fadeIn.setFromValue(0.0);
-                fadeIn.setToValue(1.0);
-                fadeIn.play();
-            });
-
-            fadeOut.play();
-
+            viewNavigator.navigate(stage, fxmlPath, cssPath);
         } catch (Exception e) {
             e.printStackTrace();
             showStyledAlert(Alert.AlertType.ERROR, "Error", "Failed to load page: " + e.getMessage());
@@ -1170,10 +1100,11 @@ public class SupplierController implements Initializable {
     }
 
     private void performLogout() {
+        // Drop the pages kept loaded for this session
+        viewNavigator.endSession();
+
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
-            loader.setControllerFactory(springContext::getBean);
-            Parent root = loader.load();
+            Parent root = FxmlViews.load("/fxml/login.fxml", springContext::getBean).root();
 
             Stage stage = (Stage) supplierBtn.getScene().getWindow();
             Scene currentScene = stage.getScene();
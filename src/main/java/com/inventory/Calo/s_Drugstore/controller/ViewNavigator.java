@@ -0,0 +1,273 @@
+package com.inventory.Calo.s_Drugstore.controller;
+
+import com.inventory.Calo.s_Drugstore.entity.User;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
+import com.inventory.Calo.s_Drugstore.event.DomainEventBus;
+import com.inventory.Calo.s_Drugstore.util.FxmlViews;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import javafx.animation.FadeTransition;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Sidebar navigation for a logged-in session. Each page is loaded once (FXML, CSS,
+ * controller and its first data load) and its scene is kept, so going back to a page just
+ * puts its scene on the stage again; the controller's onReturn() then reloads only what
+ * changed meanwhile, going by the DomainEvents the page missed while it was hidden.
+ * The pages a role opens most are preloaded after login: their FXML and controllers are
+ * prepared on a background thread, and once the first page is on screen the scenes are
+ * built and initialized on the FX thread, one page per event.
+ *
+ * The controllers are singletons bound to the scene they were loaded into, so the cache
+ * lives exactly as long as the session: logging out drops every page.
+ * Call everything on the FX thread.
+ */
+@Component
+@Lazy
+public class ViewNavigator {
+
+    // Opened most often after the dashboard; preloaded at login
+    private static final List<Page> ADMIN_PRELOAD = List.of(
+            new Page("/fxml/sales.fxml", "/css/sales.css"),
+            new Page("/fxml/inventory.fxml", "/css/inventory.css"));
+    private static final List<Page> STAFF_PRELOAD = List.of(
+            new Page("/fxml/staff-sales.fxml", "/css/sales.css"),
+            new Page("/fxml/staff-inventory.fxml", "/css/dashboard.css"));
+
+    private record Page(String fxmlPath, String cssPath) {}
+
+    @Autowired
+    private ConfigurableApplicationContext springContext;
+
+    @Autowired
+    private DomainEventBus events;
+
+    @Value("${app.navigation.preload:true}")
+    private boolean preloadEnabled;
+
+    // How often a preload checks whether the session's first page is on screen yet
+    private static final Duration FIRST_PAGE_POLL = Duration.millis(100);
+
+    // One page at a time, so a preload never competes with more than the page being opened
+    private final ExecutorService preloader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "view-preload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, View> views = new HashMap<>();
+    private final Map<String, Future<?>> preloads = new ConcurrentHashMap<>();
+    private volatile User sessionUser;
+    private volatile long session;
+
+    private static final class View {
+        private final Scene scene;
+        private final NavigableView controller;
+        // Written while the page was hidden, handed to onReturn() when it is shown again
+        private final List<DomainEvent> missed = new ArrayList<>();
+
+        private View(Scene scene, NavigableView controller) {
+            this.scene = scene;
+            this.controller = controller;
+        }
+    }
+
+    @PostConstruct
+    void subscribeToChanges() {
+        events.subscribe(burst -> {
+            if (sessionUser == null) {
+                return; // Nothing cached (and perhaps no FX toolkit at all)
+            }
+            Platform.runLater(() -> {
+                for (View view : views.values()) {
+                    if (view.scene.getWindow() == null) {
+                        view.missed.addAll(burst);
+                    }
+                }
+            });
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        preloader.shutdownNow();
+    }
+
+    // After a successful login; starts loading the role's busiest pages
+    public void startSession(User user) {
+        endSession();
+        sessionUser = user;
+        if (preloadEnabled) {
+            for (Page page : "ADMIN".equalsIgnoreCase(user.getRole()) ? ADMIN_PRELOAD : STAFF_PRELOAD) {
+                preload(page);
+            }
+        }
+    }
+
+    // On logout: every cached page is dropped and the next login starts from scratch
+    public void endSession() {
+        session++;
+        sessionUser = null;
+        preloads.values().forEach(pending -> pending.cancel(false));
+        preloads.clear();
+        views.clear();
+    }
+
+    /**
+     * The page's scene, up to date: loaded now if it isn't cached yet, otherwise told
+     * what changed since it was last shown. The caller puts it on the stage.
+     */
+    public Scene open(String fxmlPath, String cssPath) {
+        if (sessionUser == null) {
+            throw new IllegalStateException("No user is logged in");
+        }
+
+        View view = views.get(fxmlPath);
+        if (view == null) {
+            // Not preloaded (yet): whatever the background thread has prepared is still used
+            Future<?> pending = preloads.remove(fxmlPath);
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            view = load(fxmlPath, cssPath, sessionUser);
+            views.put(fxmlPath, view);
+            System.out.println("📄 Loaded " + fxmlPath);
+            return view.scene;
+        }
+
+        List<DomainEvent> missed = List.copyOf(view.missed);
+        view.missed.clear();
+        view.controller.onReturn(missed);
+        return view.scene;
+    }
+
+    // Switch the stage to the page, keeping the window's size and position
+    public void navigate(Stage stage, String fxmlPath, String cssPath) {
+        Scene currentScene = stage.getScene();
+        Scene newScene = open(fxmlPath, cssPath);
+        if (newScene == currentScene) {
+            return;
+        }
+
+        double currentWidth = stage.getWidth();
+        double currentHeight = stage.getHeight();
+        double currentX = stage.getX();
+        double currentY = stage.getY();
+        boolean isMaximized = stage.isMaximized();
+
+        Parent root = newScene.getRoot();
+        root.setOpacity(0);
+
+        FadeTransition fadeOut = new FadeTransition(Duration.millis(30), currentScene.getRoot());
+        fadeOut.setFromValue(1.0);
+        fadeOut.setToValue(0.0);
+
+        fadeOut.setOnFinished(e -> {
+            stage.setScene(newScene);
+
+            if (isMaximized) {
+                stage.setMaximized(true);
+            } else {
+                stage.setWidth(currentWidth);
+                stage.setHeight(currentHeight);
+                stage.setX(currentX);
+                stage.setY(currentY);
+            }
+
+            FadeTransition fadeIn = new FadeTransition(Duration.millis(30), root);
+            fadeIn.setFromValue(0.0);
+            fadeIn.setToValue(1.0);
+            fadeIn.play();
+        });
+
+        fadeOut.play();
+    }
+
+    private void preload(Page page) {
+        long preloadSession = session;
+        User user = sessionUser;
+        preloads.put(page.fxmlPath(), preloader.submit(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                // Classes and the controller (with the services behind it) don't need the FX thread
+                Class<?> controllerClass = FxmlViews.prepare(page.fxmlPath());
+                if (controllerClass != null) {
+                    springContext.getBean(controllerClass);
+                }
+            } catch (Exception e) {
+                System.err.println("❌ Preparing " + page.fxmlPath() + " failed: " + e.getMessage());
+                preloads.remove(page.fxmlPath());
+                return;
+            }
+            System.out.println("📄 Prepared " + page.fxmlPath() + " in " + (System.currentTimeMillis() - start) + " ms");
+
+            Platform.runLater(() -> afterFirstPage(preloadSession, () -> finishPreload(page, preloadSession, user)));
+        }));
+    }
+
+    // Runs the work once a page of the session is showing, so preloads never hold up the first one
+    private void afterFirstPage(long preloadSession, Runnable work) {
+        if (session != preloadSession) {
+            return;
+        }
+        if (views.values().stream().anyMatch(view -> view.scene.getWindow() != null)) {
+            Platform.runLater(work);
+            return;
+        }
+        PauseTransition wait = new PauseTransition(FIRST_PAGE_POLL);
+        wait.setOnFinished(e -> afterFirstPage(preloadSession, work));
+        wait.play();
+    }
+
+    // Scene, initialize() and setCurrentUser() for a prepared page, on the FX thread
+    private void finishPreload(Page page, long preloadSession, User user) {
+        // Skipped if the page has been opened meanwhile or the user logged out
+        if (session != preloadSession || preloads.remove(page.fxmlPath()) == null || views.containsKey(page.fxmlPath())) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            views.put(page.fxmlPath(), load(page.fxmlPath(), page.cssPath(), user));
+            System.out.println("📄 Preloaded " + page.fxmlPath() + " in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (RuntimeException e) {
+            System.err.println("❌ Preloading " + page.fxmlPath() + " failed: " + e.getMessage());
+        }
+    }
+
+    // On the FX thread: the controller's initialize() runs as part of loading the FXML
+    private View load(String fxmlPath, String cssPath, User user) {
+        try {
+            FxmlViews.LoadedView loaded = FxmlViews.load(fxmlPath, springContext::getBean);
+
+            Scene scene = new Scene(loaded.root());
+            URL cssUrl = getClass().getResource(cssPath);
+            if (cssUrl != null) {
+                scene.getStylesheets().add(cssUrl.toExternalForm());
+            } else {
+                System.out.println("❌ CSS NOT FOUND: " + cssPath);
+            }
+
+            NavigableView controller = loaded.getController();
+            controller.setCurrentUser(user);
+            return new View(scene, controller);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load " + fxmlPath, e);
+        }
+    }
+}
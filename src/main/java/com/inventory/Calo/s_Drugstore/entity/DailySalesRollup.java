@@ -0,0 +1,80 @@
+package com.inventory.Calo.s_Drugstore.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Non-voided sales totals per day, category and cashier.
+// Amounts are split by each item's category, so a sale touching two categories
+// counts once in each of their transaction counts.
+@Entity
+@Table(name = "daily_sales_rollup", indexes = {
+        @Index(name = "uk_daily_sales_rollup_key", columnList = "sale_date, category, user_id", unique = true)
+})
+public class DailySalesRollup {
+
+    // Category used for items without one (or whose product was deleted)
+    public static final String UNCATEGORIZED = "Uncategorized";
+
+    // Cashier used for sales without a user
+    public static final long UNKNOWN_USER = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @Column(name = "category", nullable = false)
+    private String category;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Integer transactionCount = 0;
+
+    @Column(name = "items_sold", nullable = false)
+    private Integer itemsSold = 0;
+
+    @Column(name = "total_amount", nullable = false, precision = 38, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    public DailySalesRollup() {}
+
+    public DailySalesRollup(LocalDate saleDate, String category, Long userId) {
+        this.saleDate = saleDate;
+        this.category = category;
+        this.userId = userId;
+    }
+
+    // Add one sale's share (its items in this category) to the row
+    public void add(int items, BigDecimal amount) {
+        this.transactionCount += 1;
+        this.itemsSold += items;
+        this.totalAmount = this.totalAmount.add(amount);
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getSaleDate() { return saleDate; }
+    public void setSaleDate(LocalDate saleDate) { this.saleDate = saleDate; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Integer getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(Integer transactionCount) { this.transactionCount = transactionCount; }
+
+    public Integer getItemsSold() { return itemsSold; }
+    public void setItemsSold(Integer itemsSold) { this.itemsSold = itemsSold; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+}
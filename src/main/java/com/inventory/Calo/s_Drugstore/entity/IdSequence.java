@@ -0,0 +1,32 @@
+package com.inventory.Calo.s_Drugstore.entity;
+
+import jakarta.persistence.*;
+
+// High-water mark for the TXN/MED/SUP/BATCH identifier sequences.
+// The service hands out values from in-memory blocks, so next_value is
+// always at or beyond the last identifier that was actually issued.
+@Entity
+@Table(name = "id_sequences")
+public class IdSequence {
+
+    @Id
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    public IdSequence() {}
+
+    public IdSequence(String name, Long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+    }
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Long getNextValue() { return nextValue; }
+    public void setNextValue(Long nextValue) { this.nextValue = nextValue; }
+}
@@ -41,8 +41,9 @@ public class Sale {
     @Column(name = "void_reason")
     private String voidReason;
 
-    // CRITICAL: Add cascade and fetch settings
-    @OneToMany(mappedBy = "sale", cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    // Loaded on demand: transaction lists use TransactionSummary, and the repository
+    // methods whose callers read the items fetch them with an entity graph
+    @OneToMany(mappedBy = "sale", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private List<SaleItem> items = new ArrayList<>();
 
     @PrePersist
@@ -3,6 +3,8 @@ package com.inventory.Calo.s_Drugstore.entity;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(name = "sale_items")
@@ -34,8 +36,13 @@ public class SaleItem {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Legacy JSON batch history; converted into batchAllocations on startup
     @Column(name = "batch_info", columnDefinition = "TEXT")
-    private String batchInfo;  // JSON string storing batch deductions
+    private String batchInfo;
+
+    // Batch deductions for this item, used to restore stock on void/delete
+    @OneToMany(mappedBy = "saleItem", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<SaleItemBatchAllocation> batchAllocations = new ArrayList<>();
 
     @Transient
     private Product product;
@@ -51,6 +58,13 @@ public class SaleItem {
         this.subtotal = product.getPrice().multiply(BigDecimal.valueOf(quantity));
     }
 
+    // Helper method to record a batch deduction
+    public void addBatchAllocation(Long batchId, int quantity) {
+        SaleItemBatchAllocation allocation = new SaleItemBatchAllocation(batchId, quantity);
+        allocation.setSaleItem(this);
+        batchAllocations.add(allocation);
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -94,4 +108,7 @@ public class SaleItem {
 
     public String getBatchInfo() { return batchInfo; }
     public void setBatchInfo(String batchInfo) { this.batchInfo = batchInfo; }
+
+    public List<SaleItemBatchAllocation> getBatchAllocations() { return batchAllocations; }
+    public void setBatchAllocations(List<SaleItemBatchAllocation> batchAllocations) { this.batchAllocations = batchAllocations; }
 }
\ No newline at end of file
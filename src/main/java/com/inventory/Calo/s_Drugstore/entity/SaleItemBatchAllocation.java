@@ -0,0 +1,47 @@
+package com.inventory.Calo.s_Drugstore.entity;
+
+import jakarta.persistence.*;
+
+// Units a sale item took from one batch (FEFO deduction history).
+// batch_id is a plain column so the history survives a batch being deleted.
+@Entity
+@Table(name = "sale_item_batch_allocations", indexes = {
+        @Index(name = "idx_sale_item_batch_allocations_sale_item", columnList = "sale_item_id"),
+        @Index(name = "idx_sale_item_batch_allocations_batch", columnList = "batch_id")
+})
+public class SaleItemBatchAllocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sale_item_id", nullable = false)
+    private SaleItem saleItem;
+
+    @Column(name = "batch_id", nullable = false)
+    private Long batchId;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    public SaleItemBatchAllocation() {}
+
+    public SaleItemBatchAllocation(Long batchId, Integer quantity) {
+        this.batchId = batchId;
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public SaleItem getSaleItem() { return saleItem; }
+    public void setSaleItem(SaleItem saleItem) { this.saleItem = saleItem; }
+
+    public Long getBatchId() { return batchId; }
+    public void setBatchId(Long batchId) { this.batchId = batchId; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
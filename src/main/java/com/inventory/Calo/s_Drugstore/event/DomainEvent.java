@@ -0,0 +1,36 @@
+package com.inventory.Calo.s_Drugstore.event;
+
+import java.time.LocalDate;
+
+/**
+ * Something that changed in the database, published through DomainEventBus once the
+ * write has committed. Events carry ids only; listeners re-read what they show.
+ * Equal events in one burst are delivered once (records compare by value).
+ */
+public sealed interface DomainEvent {
+
+    // A checkout was recorded (its stock deductions arrive as BatchChanged)
+    record SaleCompleted(Long saleId, LocalDate saleDay) implements DomainEvent {}
+
+    // A sale was voided and its stock restored
+    record SaleVoided(Long saleId, LocalDate saleDay) implements DomainEvent {}
+
+    // A sale was edited or deleted
+    record SaleChanged(Long saleId, LocalDate saleDay) implements DomainEvent {}
+
+    // A product's batches (and so its stock and expiry) changed
+    record BatchChanged(Long productId) implements DomainEvent {}
+
+    // A product was added, edited or removed
+    record ProductChanged(Long productId, Change change) implements DomainEvent {}
+
+    enum Change {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    default boolean isSaleEvent() {
+        return this instanceof SaleCompleted || this instanceof SaleVoided || this instanceof SaleChanged;
+    }
+}
@@ -0,0 +1,162 @@
+package com.inventory.Calo.s_Drugstore.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Delivers DomainEvents to caches and open views without holding up the writer.
+ * Events published inside a transaction are only queued once it commits (and dropped
+ * on rollback). One dispatcher thread waits coalesce-ms after the first event of a
+ * burst, so a CSV import or a multi-line checkout reaches each listener as a single
+ * de-duplicated list instead of hundreds of calls.
+ */
+@Service
+public class DomainEventBus {
+
+    // Returned by subscribe(); cancel() stops delivery to that listener
+    public interface Subscription {
+        void cancel();
+    }
+
+    @Value("${app.events.coalesce-ms:100}")
+    private long coalesceMs;
+
+    private final LinkedBlockingQueue<DomainEvent> queue = new LinkedBlockingQueue<>();
+    private final List<Consumer<List<DomainEvent>>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<List<DomainEvent>>> commitListeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong bursts = new AtomicLong();
+
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "domain-events");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        dispatcher.interrupt();
+        dispatcher.join(1000);
+        System.out.println("📊 Domain events: published=" + published.get() +
+                " delivered=" + delivered.get() + " bursts=" + bursts.get());
+    }
+
+    // Queue an event; inside a transaction it waits for the commit
+    public void publish(DomainEvent event) {
+        published.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingInTransaction().add(event);
+        } else {
+            committed(List.of(event));
+        }
+    }
+
+    /**
+     * Receive every burst of events on the dispatcher thread. Listeners must be quick
+     * (hand UI work to Platform.runLater) and pick out the event types they care about.
+     */
+    public Subscription subscribe(Consumer<List<DomainEvent>> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Receive events on the committing thread, right after the commit and before any
+     * coalescing. Only for bookkeeping that must not lag behind the write (marking
+     * cached entries stale); anything slower belongs in subscribe().
+     */
+    public Subscription onCommit(Consumer<List<DomainEvent>> listener) {
+        commitListeners.add(listener);
+        return () -> commitListeners.remove(listener);
+    }
+
+    // Events published so far in the current transaction, queued when it commits
+    private List<DomainEvent> pendingInTransaction() {
+        @SuppressWarnings("unchecked")
+        List<DomainEvent> pending = (List<DomainEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        List<DomainEvent> events = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, events);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(DomainEventBus.this);
+                if (status == STATUS_COMMITTED && !events.isEmpty()) {
+                    committed(events);
+                }
+            }
+        });
+        return events;
+    }
+
+    private void committed(List<DomainEvent> events) {
+        for (Consumer<List<DomainEvent>> listener : commitListeners) {
+            try {
+                listener.accept(events);
+            } catch (Exception e) {
+                System.err.println("Domain event commit listener failed: " + e.getMessage());
+            }
+        }
+        queue.addAll(events);
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                DomainEvent first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                // Let the rest of the burst arrive, then deliver it as one list
+                Thread.sleep(coalesceMs);
+                Set<DomainEvent> burst = new LinkedHashSet<>();
+                burst.add(first);
+                queue.drainTo(burst);
+
+                deliver(List.copyOf(burst));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void deliver(List<DomainEvent> events) {
+        bursts.incrementAndGet();
+        delivered.addAndGet(events.size());
+        for (Consumer<List<DomainEvent>> listener : listeners) {
+            try {
+                listener.accept(events);
+            } catch (Exception e) {
+                System.err.println("Domain event listener failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,10 +28,35 @@ public interface BatchRepository extends JpaRepository<Batch, Long> {
     @Query("SELECT b FROM Batch b WHERE b.product.id = :productId ORDER BY b.expirationDate ASC")
     List<Batch> findByProductOrderByExpirationDate(@Param("productId") Long productId);
 
+    // Find all batches for several products, ordered by expiration date within each product
+    @Query("SELECT b FROM Batch b WHERE b.product.id IN :productIds ORDER BY b.product.id, b.expirationDate ASC")
+    List<Batch> findByProductIdsOrderByExpirationDate(@Param("productIds") Collection<Long> productIds);
+
     // Find non-expired batches for a product, ordered by expiration date (FEFO)
     @Query("SELECT b FROM Batch b WHERE b.product.id = :productId AND b.expirationDate > :today ORDER BY b.expirationDate ASC")
     List<Batch> findNonExpiredBatchesByProductId(@Param("productId") Long productId, @Param("today") LocalDate today);
 
+    // Find usable (non-expired, in stock) batches for several products, ordered FEFO within each product
+    @Query("SELECT b FROM Batch b WHERE b.product.id IN :productIds AND b.expirationDate > :today AND b.stock > 0 " +
+            "ORDER BY b.product.id, b.expirationDate ASC, b.id ASC")
+    List<Batch> findAvailableBatchesByProductIds(@Param("productIds") Collection<Long> productIds, @Param("today") LocalDate today);
+
+    // Total batch stock per product as [productId, sum]
+    @Query("SELECT b.product.id, SUM(b.stock) FROM Batch b WHERE b.product.id IN :productIds GROUP BY b.product.id")
+    List<Object[]> sumStockByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    // Batch figures for the product tables, one BatchSummary per product that has batches
+    @Query("SELECT new com.inventory.Calo.s_Drugstore.repository.BatchSummary(" +
+            "b.product.id, COUNT(b), " +
+            "SUM(CASE WHEN b.expirationDate IS NULL OR b.expirationDate > :today THEN b.stock ELSE 0 END), " +
+            "MIN(CASE WHEN b.stock > 0 THEN b.expirationDate END), MIN(b.expirationDate), " +
+            "MIN(NULLIF(b.supplier, '')), COUNT(DISTINCT NULLIF(b.supplier, '')), " +
+            "SUM(CASE WHEN b.expirationDate < :expiringBefore THEN 1 ELSE 0 END)) " +
+            "FROM Batch b WHERE b.product.id IN :productIds GROUP BY b.product.id")
+    List<BatchSummary> summarizeByProductIds(@Param("productIds") Collection<Long> productIds,
+                                             @Param("today") LocalDate today,
+                                             @Param("expiringBefore") LocalDate expiringBefore);
+
     // Find batch by batch number
     Optional<Batch> findByBatchNumber(String batchNumber);
 
@@ -54,4 +80,8 @@ public interface BatchRepository extends JpaRepository<Batch, Long> {
 
     // Count total batches for a product
     long countByProduct(Product product);
+
+    // Highest batch row ID (seeds the batch number sequence)
+    @Query("SELECT COALESCE(MAX(b.id), 0) FROM Batch b")
+    long findMaxId();
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.inventory.Calo.s_Drugstore.repository;
+
+import java.time.LocalDate;
+
+/**
+ * One product's batches reduced to the figures the product tables show, computed by
+ * a single GROUP BY (BatchRepository.summarizeByProductIds) for a whole page of products.
+ * Products without batches have no summary; see ProductRow.
+ */
+public record BatchSummary(Long productId, Long batchCount, Long nonExpiredStock,
+                           LocalDate earliestStockedExpiry, LocalDate earliestExpiry,
+                           String firstSupplier, Long supplierCount, Long expiringSoonBatches) {
+}
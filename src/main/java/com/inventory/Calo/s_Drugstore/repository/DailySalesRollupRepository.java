@@ -0,0 +1,31 @@
+package com.inventory.Calo.s_Drugstore.repository;
+
+import com.inventory.Calo.s_Drugstore.entity.DailySalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, Long> {
+
+    // Rows a new sale adds to (one per category in the sale)
+    @Query("SELECT r FROM DailySalesRollup r WHERE r.saleDate = :saleDate AND r.userId = :userId AND r.category IN :categories")
+    List<DailySalesRollup> findRows(@Param("saleDate") LocalDate saleDate,
+                                    @Param("userId") Long userId,
+                                    @Param("categories") Collection<String> categories);
+
+    // Sales total per day, returns [saleDate, totalAmount]
+    @Query("SELECT r.saleDate, SUM(r.totalAmount) FROM DailySalesRollup r " +
+            "WHERE r.saleDate >= :fromDate AND r.saleDate <= :toDate GROUP BY r.saleDate")
+    List<Object[]> sumTotalsByDate(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM DailySalesRollup r WHERE r.saleDate IN :dates")
+    int deleteBySaleDates(@Param("dates") Collection<LocalDate> dates);
+}
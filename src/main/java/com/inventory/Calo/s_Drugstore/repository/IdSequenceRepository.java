@@ -0,0 +1,9 @@
+package com.inventory.Calo.s_Drugstore.repository;
+
+import com.inventory.Calo.s_Drugstore.entity.IdSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IdSequenceRepository extends JpaRepository<IdSequence, String> {
+}
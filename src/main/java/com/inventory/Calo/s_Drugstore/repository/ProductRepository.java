@@ -1,12 +1,15 @@
 package com.inventory.Calo.s_Drugstore.repository;
 
 import com.inventory.Calo.s_Drugstore.entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,11 +19,14 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Find by medicine ID
     Optional<Product> findByMedicineId(String medicineId);
 
-    // Search by name or medicine ID
-    @Query("SELECT p FROM Product p WHERE " +
-            "LOWER(p.brandName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(p.medicineId) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<Product> searchByNameOrId(@Param("searchTerm") String searchTerm);
+    // Find several products by medicine ID (uses the unique medicine_id index)
+    List<Product> findByMedicineIdIn(Collection<String> medicineIds);
+
+    // Search brand names and medicine IDs (an FTS5 MATCH expression, see FtsQuery), best match first
+    @Query(value = "SELECT p.* FROM products_fts JOIN products p ON p.id = products_fts.rowid " +
+            "WHERE products_fts MATCH '{name medicine_id} : (' || :query || ')' " +
+            "ORDER BY bm25(products_fts)", nativeQuery = true)
+    List<Product> searchByNameOrId(@Param("query") String query);
 
     // Find by supplier
     List<Product> findBySupplier(String supplier);
@@ -36,6 +42,14 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.expirationDate >= CURRENT_DATE AND p.expirationDate <= :date")
     List<Product> findExpiringProducts(@Param("date") LocalDate date);
 
+    // Products with a batch expiring by :endDate (already expired ones too), and products without
+    // batches whose own expiration date is between :today and :endDate; earliest expiry first
+    @Query("SELECT p FROM Product p LEFT JOIN Batch b ON b.product = p GROUP BY p " +
+            "HAVING MIN(b.expirationDate) <= :endDate " +
+            "OR (COUNT(b) = 0 AND p.expirationDate >= :today AND p.expirationDate <= :endDate) " +
+            "ORDER BY COALESCE(MIN(b.expirationDate), p.expirationDate)")
+    List<Product> findWithExpiringBatches(@Param("today") LocalDate today, @Param("endDate") LocalDate endDate);
+
     // Get all suppliers (distinct)
     @Query("SELECT DISTINCT p.supplier FROM Product p WHERE p.supplier IS NOT NULL ORDER BY p.supplier")
     List<String> findAllSuppliers();
@@ -58,14 +72,42 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Check if medicine ID exists
     boolean existsByMedicineId(String medicineId);
 
+    // Highest MED number in use (seeds the medicine ID sequence)
+    @Query(value = "SELECT COALESCE(MAX(CAST(SUBSTR(medicine_id, 4) AS INTEGER)), 0) FROM products WHERE medicine_id LIKE 'MED%'", nativeQuery = true)
+    long findMaxMedicineNumber();
+
     // Advanced search with multiple filters
-    @Query("SELECT p FROM Product p WHERE " +
-            "(:searchTerm IS NULL OR LOWER(p.brandName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(p.medicineId) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND " +
-            "(:supplier IS NULL OR p.supplier = :supplier) AND " +
-            "(:category IS NULL OR p.category = :category)")
+    @Query("SELECT p FROM Product p WHERE " + PRODUCT_FILTERS)
     List<Product> findByFilters(
             @Param("searchTerm") String searchTerm,
             @Param("supplier") String supplier,
             @Param("category") String category
     );
-}
\ No newline at end of file
+
+    // One page of the same search; the Pageable's sort becomes the ORDER BY
+    @Query("SELECT p FROM Product p WHERE " + PRODUCT_FILTERS)
+    List<Product> findPageByFilters(
+            @Param("searchTerm") String searchTerm,
+            @Param("supplier") String supplier,
+            @Param("category") String category,
+            Pageable pageable
+    );
+
+    // How many products the search matches (the paged tables' row count)
+    @Query("SELECT COUNT(p) FROM Product p WHERE " + PRODUCT_FILTERS)
+    long countByFilters(
+            @Param("searchTerm") String searchTerm,
+            @Param("supplier") String supplier,
+            @Param("category") String category
+    );
+
+    // Stock value of the whole catalog (price x stock)
+    @Query("SELECT COALESCE(SUM(p.price * p.stock), 0) FROM Product p")
+    BigDecimal sumInventoryValue();
+
+    // :searchTerm is an FTS5 MATCH expression over brand, generic name, medicine ID, manufacturer and category
+    String PRODUCT_FILTERS =
+            "(:searchTerm IS NULL OR product_text_match(p.id, :searchTerm)) AND " +
+            "(:supplier IS NULL OR p.supplier = :supplier) AND " +
+            "(:category IS NULL OR p.category = :category)";
+}
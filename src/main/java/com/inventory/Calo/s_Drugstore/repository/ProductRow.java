@@ -0,0 +1,68 @@
+package com.inventory.Calo.s_Drugstore.repository;
+
+import com.inventory.Calo.s_Drugstore.entity.Product;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * One row of a product table: the product plus its batch figures, built for a whole page
+ * at once by ProductService.toRows. Cells only read these fields, so scrolling never
+ * queries batches. Rebuild the rows (refresh the table) after any stock change.
+ */
+public record ProductRow(Product product, long batchCount, long nonExpiredStock,
+                         LocalDate earliestStockedExpiry, LocalDate earliestBatchExpiry,
+                         String batchSupplier, long batchSupplierCount, boolean hasExpiringBatch) {
+
+    public static ProductRow of(Product product, BatchSummary batches) {
+        if (batches == null) {
+            // Legacy product without batches
+            return new ProductRow(product, 0, 0, null, null, null, 0, false);
+        }
+        return new ProductRow(product, batches.batchCount(),
+                batches.nonExpiredStock() != null ? batches.nonExpiredStock() : 0,
+                batches.earliestStockedExpiry(), batches.earliestExpiry(),
+                batches.firstSupplier(), batches.supplierCount(), batches.expiringSoonBatches() > 0);
+    }
+
+    public boolean canDelete() {
+        return batchCount == 0;
+    }
+
+    // Inventory expiration column: earliest batch that still has stock, else the product's own date (null when out of stock)
+    public LocalDate displayExpiry() {
+        if (product.getStock() == null || product.getStock() == 0) {
+            return null;
+        }
+        return earliestStockedExpiry != null ? earliestStockedExpiry : product.getExpirationDate();
+    }
+
+    // Earliest expiry over every batch, else the product's own date (expiring medicines report)
+    public LocalDate earliestExpiry() {
+        return earliestBatchExpiry != null ? earliestBatchExpiry : product.getExpirationDate();
+    }
+
+    public Long daysUntilExpiry() {
+        LocalDate expiry = earliestExpiry();
+        return expiry != null ? ChronoUnit.DAYS.between(LocalDate.now(), expiry) : null;
+    }
+
+    // Expired / Critical (7 days) / Warning (30 days) / Good, or Unknown without any date
+    public String expiryStatus() {
+        Long daysLeft = daysUntilExpiry();
+        if (daysLeft == null) return "Unknown";
+        if (daysLeft < 0) return "Expired";
+        if (daysLeft <= 7) return "Critical";
+        if (daysLeft <= 30) return "Warning";
+        return "Good";
+    }
+
+    // Batch supplier ("Name", or "Name (+2)" for several), falling back to the product's supplier
+    public String supplierLabel() {
+        if (batchSupplier != null) {
+            return batchSupplierCount > 1 ? batchSupplier + " (+" + (batchSupplierCount - 1) + ")" : batchSupplier;
+        }
+        String productSupplier = product.getSupplier();
+        return productSupplier != null && !productSupplier.isEmpty() ? productSupplier : "N/A";
+    }
+}
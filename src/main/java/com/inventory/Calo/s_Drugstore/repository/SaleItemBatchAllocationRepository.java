@@ -0,0 +1,56 @@
+package com.inventory.Calo.s_Drugstore.repository;
+
+import com.inventory.Calo.s_Drugstore.entity.SaleItemBatchAllocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SaleItemBatchAllocationRepository extends JpaRepository<SaleItemBatchAllocation, Long> {
+
+    // Sale items (of the given sales) that have recorded batch allocations
+    @Query("SELECT DISTINCT a.saleItem.id FROM SaleItemBatchAllocation a WHERE a.saleItem.sale.id IN :saleIds")
+    List<Long> findAllocatedSaleItemIds(@Param("saleIds") Collection<Long> saleIds);
+
+    // Medicine IDs (of the given sales) that have recorded batch allocations
+    @Query("SELECT DISTINCT a.saleItem.medicineId FROM SaleItemBatchAllocation a WHERE a.saleItem.sale.id IN :saleIds")
+    List<String> findAllocatedMedicineIds(@Param("saleIds") Collection<Long> saleIds);
+
+    // Which sale items drew from a batch (uses the batch_id index)
+    @Query("SELECT a FROM SaleItemBatchAllocation a JOIN FETCH a.saleItem si JOIN FETCH si.sale WHERE a.batchId = :batchId")
+    List<SaleItemBatchAllocation> findByBatchIdWithSale(@Param("batchId") Long batchId);
+
+    // Put every allocated unit of the given sales back into its batch, in one statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE batches SET stock = stock + (" +
+            "SELECT SUM(a.quantity) FROM sale_item_batch_allocations a " +
+            "JOIN sale_items si ON si.id = a.sale_item_id " +
+            "WHERE si.sale_id IN (:saleIds) AND a.batch_id = batches.id), " +
+            "updated_at = :today " +
+            "WHERE id IN (SELECT a.batch_id FROM sale_item_batch_allocations a " +
+            "JOIN sale_items si ON si.id = a.sale_item_id WHERE si.sale_id IN (:saleIds))",
+            nativeQuery = true)
+    int restoreBatchStock(@Param("saleIds") Collection<Long> saleIds, @Param("today") LocalDate today);
+
+    // Re-sum product stock for the products whose batches the given sales drew from
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE products SET stock = (" +
+            "SELECT COALESCE(SUM(b.stock), 0) FROM batches b WHERE b.product_id = products.id) " +
+            "WHERE id IN (SELECT b.product_id FROM batches b WHERE b.id IN (" +
+            "SELECT a.batch_id FROM sale_item_batch_allocations a " +
+            "JOIN sale_items si ON si.id = a.sale_item_id WHERE si.sale_id IN (:saleIds)))",
+            nativeQuery = true)
+    int recalculateProductStock(@Param("saleIds") Collection<Long> saleIds);
+
+    // Remove the allocation history of the given sales
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM SaleItemBatchAllocation a WHERE a.saleItem.id IN " +
+            "(SELECT si.id FROM SaleItem si WHERE si.sale.id IN :saleIds)")
+    int deleteBySaleIds(@Param("saleIds") Collection<Long> saleIds);
+}
@@ -2,8 +2,22 @@ package com.inventory.Calo.s_Drugstore.repository;
 
 import com.inventory.Calo.s_Drugstore.entity.SaleItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface SaleItemRepository extends JpaRepository<SaleItem, Long> {
-}
\ No newline at end of file
+
+    // Items still carrying the legacy JSON batch history
+    List<SaleItem> findByBatchInfoIsNotNull();
+
+    // Non-voided items in a date range for the daily sales rollup,
+    // returns [saleDate, userId, saleId, medicineId, quantity, subtotal]
+    @Query("SELECT s.saleDate, s.userId, s.id, i.medicineId, i.quantity, i.subtotal FROM SaleItem i JOIN i.sale s " +
+            "WHERE s.saleDate >= :startDate AND s.saleDate < :endDate AND (s.voided IS NULL OR s.voided = FALSE)")
+    List<Object[]> findRollupRows(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+}
@@ -1,6 +1,8 @@
 package com.inventory.Calo.s_Drugstore.repository;
 
 import com.inventory.Calo.s_Drugstore.entity.Sale;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SaleRepository extends JpaRepository<Sale, Long> {
@@ -21,18 +24,76 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
     List<Sale> findAllTodaysSalesIncludingVoided(@Param("startOfDay") LocalDateTime startOfDay, @Param("endOfDay") LocalDateTime endOfDay);
 
     // Find only voided transactions
+    @EntityGraph(attributePaths = "items")
     @Query("SELECT s FROM Sale s WHERE s.voided = TRUE ORDER BY s.voidDate DESC")
     List<Sale> findVoidedTransactions();
 
-    // Get the latest transaction ID for generating new IDs
-    @Query("SELECT s FROM Sale s ORDER BY s.id DESC")
-    List<Sale> findLatestSales();
+    // Highest TXN number in use (seeds the transaction ID sequence)
+    @Query(value = "SELECT COALESCE(MAX(CAST(SUBSTR(transaction_id, 4) AS INTEGER)), 0) FROM sales WHERE transaction_id LIKE 'TXN%'", nativeQuery = true)
+    long findMaxTransactionNumber();
 
-    // Find sales between dates - EXCLUDING VOIDED
+    // Sales that drew stock from a batch (batch traceability)
+    @EntityGraph(attributePaths = "items")
+    @Query("SELECT DISTINCT s FROM Sale s JOIN s.items si JOIN si.batchAllocations a WHERE a.batchId = :batchId ORDER BY s.saleDate DESC")
+    List<Sale> findSalesByBatchId(@Param("batchId") Long batchId);
+
+    // Find sales between dates - EXCLUDING VOIDED (with items, for the exports)
+    @EntityGraph(attributePaths = "items")
     @Query("SELECT s FROM Sale s WHERE s.saleDate >= :startDate AND s.saleDate <= :endDate AND (s.voided IS NULL OR s.voided = FALSE) ORDER BY s.saleDate DESC")
     List<Sale> findBySaleDateBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
     // Find ALL sales between dates including voided
+    @EntityGraph(attributePaths = "items")
     @Query("SELECT s FROM Sale s WHERE s.saleDate >= :startDate AND s.saleDate <= :endDate ORDER BY s.saleDate DESC")
     List<Sale> findAllBySaleDateBetweenIncludingVoided(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+
+    // Date of the first sale ever recorded (rollup rebuild starts here)
+    @Query("SELECT MIN(s.saleDate) FROM Sale s")
+    LocalDateTime findFirstSaleDate();
+
+    // One sale with its items, for the view / edit dialogs
+    @EntityGraph(attributePaths = "items")
+    Optional<Sale> findWithItemsById(Long id);
+
+    // Transaction list rows (see TransactionSummary) and the filters every list query shares
+    String SUMMARY_SELECT = "SELECT new com.inventory.Calo.s_Drugstore.repository.TransactionSummary(" +
+            "s.id, s.transactionId, s.saleDate, s.createdAt, s.totalAmount, s.totalItems, " +
+            "(SELECT COUNT(i) FROM SaleItem i WHERE i.sale = s), " +
+            "(SELECT f.medicineName FROM SaleItem f WHERE f.id = (SELECT MIN(m.id) FROM SaleItem m WHERE m.sale = s)), " +
+            "(SELECT f.quantity FROM SaleItem f WHERE f.id = (SELECT MIN(m.id) FROM SaleItem m WHERE m.sale = s)), " +
+            "s.userId, u.fullName, s.voided) " +
+            "FROM Sale s LEFT JOIN User u ON u.id = s.userId ";
+    String SUMMARY_FILTERS = "WHERE s.saleDate >= :startDate AND s.saleDate < :endDate " +
+            "AND (:includeVoided = TRUE OR s.voided IS NULL OR s.voided = FALSE) " +
+            "AND (:userId IS NULL OR s.userId = :userId) ";
+
+    // Transaction list rows in [startDate, endDate), newest first, without loading any items
+    @Query(SUMMARY_SELECT + SUMMARY_FILTERS + "ORDER BY s.saleDate DESC, s.id DESC")
+    List<TransactionSummary> findSummaries(@Param("startDate") LocalDateTime startDate,
+                                           @Param("endDate") LocalDateTime endDate,
+                                           @Param("includeVoided") boolean includeVoided,
+                                           @Param("userId") Long userId);
+
+    /*
+     * Keyset pages of the same list, ordered by (saleDate, id) descending. The first page
+     * reads from the top of the sale_date index, each following page seeks to the last row
+     * already shown, so every page costs the same however much history there is.
+     */
+    @Query(SUMMARY_SELECT + SUMMARY_FILTERS + "ORDER BY s.saleDate DESC, s.id DESC")
+    List<TransactionSummary> findSummaryPage(@Param("startDate") LocalDateTime startDate,
+                                             @Param("endDate") LocalDateTime endDate,
+                                             @Param("includeVoided") boolean includeVoided,
+                                             @Param("userId") Long userId,
+                                             Limit limit);
+
+    @Query(SUMMARY_SELECT + SUMMARY_FILTERS +
+            "AND s.saleDate <= :afterDate AND (s.saleDate < :afterDate OR s.id < :afterId) " +
+            "ORDER BY s.saleDate DESC, s.id DESC")
+    List<TransactionSummary> findSummaryPageAfter(@Param("startDate") LocalDateTime startDate,
+                                                  @Param("endDate") LocalDateTime endDate,
+                                                  @Param("includeVoided") boolean includeVoided,
+                                                  @Param("userId") Long userId,
+                                                  @Param("afterDate") LocalDateTime afterDate,
+                                                  @Param("afterId") Long afterId,
+                                                  Limit limit);
+}
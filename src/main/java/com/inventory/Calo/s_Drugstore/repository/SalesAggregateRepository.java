@@ -0,0 +1,178 @@
+package com.inventory.Calo.s_Drugstore.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GROUP BY queries over sales / sale_items (joined to products for the category)
+ * for the reports and dashboards. Only non-voided sales are counted, ranges are
+ * [start, end) and every method returns one small record per bucket.
+ *
+ * Plain SQL because sale_date is stored as epoch milliseconds: days, weeks and
+ * months are computed by SQLite after shifting each sale by the JVM zone's UTC
+ * offset at that moment (so buckets stay on local midnight across DST changes).
+ */
+@Repository
+@Transactional(readOnly = true)
+public class SalesAggregateRepository {
+
+    public enum Period { DAY, WEEK, MONTH }
+
+    public record SalesTotals(long transactions, long itemsSold, BigDecimal revenue) {
+
+        public BigDecimal averageOrder() {
+            return transactions > 0
+                    ? revenue.divide(BigDecimal.valueOf(transactions), 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
+        }
+    }
+
+    // periodStart is the day, the Monday of the week, or the first of the month
+    public record PeriodTotals(LocalDate periodStart, long transactions, long itemsSold, BigDecimal revenue) {}
+
+    public record CategoryTotals(String category, long itemsSold, BigDecimal revenue) {}
+
+    public record MedicineTotals(String medicineId, String medicineName, String category,
+                                 long quantitySold, BigDecimal revenue) {}
+
+    public record CashierTotals(Long userId, long transactions, long itemsSold, BigDecimal revenue) {}
+
+    private static final String NOT_VOIDED = "(s.voided IS NULL OR s.voided = 0)";
+    private static final String CATEGORY = "COALESCE(NULLIF(TRIM(p.category), ''), 'Uncategorized')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Transactions, items and revenue in a range, optionally for one cashier (userId may be null)
+    public SalesTotals totals(LocalDateTime start, LocalDateTime end, Long userId) {
+        List<Object> params = rangeParams(start, end, userId);
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*), COALESCE(SUM(s.total_items), 0), COALESCE(SUM(s.total_amount), 0) " +
+                        "FROM sales s WHERE " + NOT_VOIDED + " AND s.sale_date >= ? AND s.sale_date < ?" + userFilter(userId),
+                (rs, row) -> new SalesTotals(rs.getLong(1), rs.getLong(2), money(rs, 3)),
+                params.toArray());
+    }
+
+    // Totals per day, week or month (oldest first); periods without sales are absent
+    public List<PeriodTotals> totalsByPeriod(Period period, LocalDateTime start, LocalDateTime end, Long userId) {
+        List<Object> params = new ArrayList<>();
+        String localSeconds = localSeconds(start, end, params);
+        params.addAll(rangeParams(start, end, userId));
+
+        String bucket = switch (period) {
+            case DAY -> "date(" + localSeconds + ", 'unixepoch')";
+            case WEEK -> "date(" + localSeconds + ", 'unixepoch', 'weekday 0', '-6 days')";
+            case MONTH -> "date(" + localSeconds + ", 'unixepoch', 'start of month')";
+        };
+
+        return jdbcTemplate.query(
+                "SELECT " + bucket + " AS bucket, COUNT(*), SUM(s.total_items), SUM(s.total_amount) " +
+                        "FROM sales s WHERE " + NOT_VOIDED + " AND s.sale_date >= ? AND s.sale_date < ?" + userFilter(userId) +
+                        " GROUP BY bucket ORDER BY bucket",
+                (rs, row) -> new PeriodTotals(LocalDate.parse(rs.getString(1)), rs.getLong(2), rs.getLong(3), money(rs, 4)),
+                params.toArray());
+    }
+
+    // Items and revenue per product category (largest first), optionally for one cashier
+    public List<CategoryTotals> totalsByCategory(LocalDateTime start, LocalDateTime end, Long userId) {
+        return jdbcTemplate.query(
+                "SELECT " + CATEGORY + " AS category, SUM(i.quantity) AS items, SUM(i.subtotal) " +
+                        "FROM sale_items i JOIN sales s ON s.id = i.sale_id " +
+                        "LEFT JOIN products p ON p.medicine_id = i.medicine_id " +
+                        "WHERE " + NOT_VOIDED + " AND s.sale_date >= ? AND s.sale_date < ?" + userFilter(userId) +
+                        " GROUP BY category ORDER BY items DESC",
+                (rs, row) -> new CategoryTotals(rs.getString(1), rs.getLong(2), money(rs, 3)),
+                rangeParams(start, end, userId).toArray());
+    }
+
+    // Best sellers by quantity, optionally for one cashier
+    public List<MedicineTotals> topMedicines(LocalDateTime start, LocalDateTime end, Long userId, int limit) {
+        List<Object> params = rangeParams(start, end, userId);
+        params.add(limit);
+
+        return jdbcTemplate.query(
+                "SELECT i.medicine_id, MAX(i.medicine_name), " + CATEGORY + ", SUM(i.quantity) AS quantity, SUM(i.subtotal) " +
+                        "FROM sale_items i JOIN sales s ON s.id = i.sale_id " +
+                        "LEFT JOIN products p ON p.medicine_id = i.medicine_id " +
+                        "WHERE " + NOT_VOIDED + " AND s.sale_date >= ? AND s.sale_date < ?" + userFilter(userId) +
+                        " GROUP BY i.medicine_id ORDER BY quantity DESC LIMIT ?",
+                (rs, row) -> new MedicineTotals(rs.getString(1), rs.getString(2), rs.getString(3), rs.getLong(4), money(rs, 5)),
+                params.toArray());
+    }
+
+    // Totals per cashier (highest revenue first); grouped by cashier, so there is no cashier filter
+    public List<CashierTotals> totalsByCashier(LocalDateTime start, LocalDateTime end) {
+        return jdbcTemplate.query(
+                "SELECT s.user_id, COUNT(*), SUM(s.total_items), SUM(s.total_amount) AS revenue " +
+                        "FROM sales s WHERE " + NOT_VOIDED + " AND s.sale_date >= ? AND s.sale_date < ? " +
+                        "GROUP BY s.user_id ORDER BY revenue DESC",
+                (rs, row) -> new CashierTotals(rs.getObject(1) != null ? rs.getLong(1) : null,
+                        rs.getLong(2), rs.getLong(3), money(rs, 4)),
+                rangeParams(start, end, null).toArray());
+    }
+
+    /**
+     * sale_date in seconds, shifted into local time. Adds the offsets (and the DST
+     * transitions inside the range) to params, so it has to be called first.
+     */
+    private static String localSeconds(LocalDateTime start, LocalDateTime end, List<Object> params) {
+        ZoneId zone = ZoneId.systemDefault();
+        ZoneRules rules = zone.getRules();
+        Instant from = start.atZone(zone).toInstant();
+        Instant to = end.atZone(zone).toInstant();
+
+        StringBuilder offset = new StringBuilder();
+        ZoneOffset current = rules.getOffset(from);
+        for (ZoneOffsetTransition transition = rules.nextTransition(from);
+             transition != null && transition.getInstant().isBefore(to);
+             transition = rules.nextTransition(transition.getInstant())) {
+            offset.append(" WHEN s.sale_date < ? THEN ?");
+            params.add(transition.getInstant().toEpochMilli());
+            params.add(transition.getOffsetBefore().getTotalSeconds());
+            current = transition.getOffsetAfter();
+        }
+        params.add(current.getTotalSeconds());
+
+        // No transition in the range: a single offset
+        if (offset.isEmpty()) {
+            return "s.sale_date / 1000 + ?";
+        }
+        return "s.sale_date / 1000 + CASE" + offset + " ELSE ? END";
+    }
+
+    private static String userFilter(Long userId) {
+        return userId != null ? " AND s.user_id = ?" : "";
+    }
+
+    private static List<Object> rangeParams(LocalDateTime start, LocalDateTime end, Long userId) {
+        List<Object> params = new ArrayList<>();
+        params.add(Timestamp.valueOf(start).getTime());
+        params.add(Timestamp.valueOf(end).getTime());
+        if (userId != null) {
+            params.add(userId);
+        }
+        return params;
+    }
+
+    private static BigDecimal money(ResultSet rs, int column) throws SQLException {
+        BigDecimal value = rs.getBigDecimal(column);
+        return value != null ? value.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO.setScale(2);
+    }
+}
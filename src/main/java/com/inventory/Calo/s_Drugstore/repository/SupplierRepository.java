@@ -16,14 +16,12 @@ public interface SupplierRepository extends JpaRepository<Supplier, Long> {
     // Find by supplier ID
     Optional<Supplier> findBySupplierId(String supplierId);
 
-    // Search suppliers by name, contact person, or supplier ID
-    @Query("SELECT s FROM Supplier s WHERE " +
-            "LOWER(s.companyName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(s.contactPerson) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(s.supplierId) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(s.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(s.contactNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<Supplier> searchSuppliers(@Param("searchTerm") String searchTerm);
+    // Search company, contact person, email, phone and supplier ID (an FTS5 MATCH expression, see FtsQuery)
+    // Company name hits rank highest
+    @Query(value = "SELECT s.* FROM suppliers_fts JOIN suppliers s ON s.id = suppliers_fts.rowid " +
+            "WHERE suppliers_fts MATCH :query " +
+            "ORDER BY bm25(suppliers_fts, 10.0, 5.0, 2.0, 2.0, 5.0)", nativeQuery = true)
+    List<Supplier> searchSuppliers(@Param("query") String query);
 
     // Get all suppliers ordered by company name
     List<Supplier> findAllByOrderByCompanyNameAsc();
@@ -38,4 +36,11 @@ public interface SupplierRepository extends JpaRepository<Supplier, Long> {
     long countByDateAddedAfter(LocalDate date);
 
     Optional<Supplier> findByCompanyName(String supplierName);
+
+    // Check if supplier ID exists
+    boolean existsBySupplierId(String supplierId);
+
+    // Highest SUP number in use (seeds the supplier ID sequence)
+    @Query(value = "SELECT COALESCE(MAX(CAST(SUBSTR(supplier_id, 4) AS INTEGER)), 0) FROM suppliers WHERE supplier_id LIKE 'SUP%'", nativeQuery = true)
+    long findMaxSupplierNumber();
 }
\ No newline at end of file
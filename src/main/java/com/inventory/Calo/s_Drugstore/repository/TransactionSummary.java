@@ -0,0 +1,24 @@
+package com.inventory.Calo.s_Drugstore.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of a transaction list: the sale's own columns plus the item-line count,
+ * the first item and the cashier's name, read in a single query without loading
+ * the sale's items. Open the full sale with SalesService.getTransactionWithItems.
+ */
+public record TransactionSummary(Long id, String transactionId, LocalDateTime saleDate, LocalDateTime createdAt,
+                                 BigDecimal totalAmount, Integer totalItems, Long itemLines,
+                                 String firstItemName, Integer firstItemQuantity,
+                                 Long userId, String cashierName, Boolean voided) {
+
+    public boolean isVoided() {
+        return voided != null && voided;
+    }
+
+    // Item lines after the first one ("+2 more")
+    public long otherItemLines() {
+        return itemLines != null ? Math.max(0, itemLines - 1) : 0;
+    }
+}
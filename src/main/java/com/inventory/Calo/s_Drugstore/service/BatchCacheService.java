@@ -0,0 +1,181 @@
+package com.inventory.Calo.s_Drugstore.service;
+
+import com.inventory.Calo.s_Drugstore.entity.Batch;
+import com.inventory.Calo.s_Drugstore.repository.BatchRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Batches per product (earliest expiry first) for the dialogs and cart checks that
+ * read them over and over. Holds at most max-products entries for at most ttl-seconds,
+ * least recently used evicted first. Concurrent misses for the same product share one
+ * query, which runs outside any lock. Write paths call invalidate() for the products
+ * they touched; inside a transaction the entry is dropped again after commit so a
+ * read of the old rows can't be cached in between.
+ */
+@Service
+public class BatchCacheService {
+
+    public record CacheStats(long hits, long misses, long loads, double averageLoadMs,
+                             long evictions, long expirations, long invalidations, int size) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d misses=%d hitRate=%.1f%% loads=%d avgLoad=%.1fms evictions=%d expired=%d invalidations=%d size=%d",
+                    hits, misses, hitRate() * 100, loads, averageLoadMs, evictions, expirations, invalidations, size);
+        }
+    }
+
+    private record Entry(List<Batch> batches, long loadedAt) {}
+
+    @Autowired
+    private BatchRepository batchRepository;
+
+    @Value("${app.batch-cache.max-products:500}")
+    private int maxProducts;
+
+    @Value("${app.batch-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, CompletableFuture<List<Batch>>> loading = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation; a load that overlapped one is returned but not cached
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadNanos = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // The product's batches, from the cache or loaded once for everyone asking
+    public List<Batch> get(Long productId) {
+        synchronized (entries) {
+            Entry entry = entries.get(productId);
+            if (entry != null) {
+                if (!isExpired(entry)) {
+                    hits.incrementAndGet();
+                    return entry.batches();
+                }
+                entries.remove(productId);
+                expirations.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+
+        CompletableFuture<List<Batch>> mine = new CompletableFuture<>();
+        CompletableFuture<List<Batch>> inFlight = loading.putIfAbsent(productId, mine);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+
+        try {
+            long versionAtStart = version.get();
+            long start = System.nanoTime();
+            List<Batch> batches = List.copyOf(batchRepository.findByProductOrderByExpirationDate(productId));
+            loads.incrementAndGet();
+            loadNanos.addAndGet(System.nanoTime() - start);
+
+            synchronized (entries) {
+                if (version.get() == versionAtStart) {
+                    entries.put(productId, new Entry(batches, System.currentTimeMillis()));
+                    evictOverflow();
+                }
+            }
+            mine.complete(batches);
+            return batches;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(productId, mine);
+        }
+    }
+
+    // Drop one product's batches (call after changing its batches)
+    public void invalidate(Long productId) {
+        invalidateAll(List.of(productId));
+    }
+
+    public void invalidateAll(Collection<Long> productIds) {
+        drop(productIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> ids = List.copyOf(productIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop(ids);
+                }
+            });
+        }
+    }
+
+    public CacheStats getStats() {
+        long loadCount = loads.get();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(hits.get(), misses.get(), loadCount,
+                loadCount == 0 ? 0 : loadNanos.get() / 1_000_000.0 / loadCount,
+                evictions.get(), expirations.get(), invalidations.get(), size);
+    }
+
+    @PreDestroy
+    public void logSummary() {
+        System.out.println("📊 Batch cache: " + getStats());
+    }
+
+    private void drop(Collection<Long> productIds) {
+        synchronized (entries) {
+            version.incrementAndGet();
+            for (Long productId : productIds) {
+                // Later callers start a fresh load instead of joining one that may have read old rows
+                loading.remove(productId);
+                if (entries.remove(productId) != null) {
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return System.currentTimeMillis() - entry.loadedAt() > ttlSeconds * 1000;
+    }
+
+    // Called with the lock held; the map is in access order so the first entry is least recently used
+    private void evictOverflow() {
+        Iterator<Long> oldest = entries.keySet().iterator();
+        while (entries.size() > maxProducts && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static List<Batch> join(CompletableFuture<List<Batch>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.inventory.Calo.s_Drugstore.service;
+
+import com.inventory.Calo.s_Drugstore.entity.Product;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
+import com.inventory.Calo.s_Drugstore.event.DomainEventBus;
+import com.inventory.Calo.s_Drugstore.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The whole product catalog as one immutable, versioned snapshot, for the screens and
+ * services that need every product. Reading it is a single volatile read.
+ * Products named in committed DomainEvents are marked stale on the committing thread
+ * and re-read in the background when the event burst is delivered (or by the next
+ * reader, if it gets there first); the result is published as a new snapshot.
+ * The Product objects are shared between all readers - treat them as read-only.
+ */
+@Service
+public class CatalogService {
+
+    public record Snapshot(long version,
+                           List<Product> products,
+                           Map<Long, Product> byId,
+                           Map<String, Product> byMedicineId,
+                           List<String> suppliers,
+                           List<String> categories,
+                           long totalStock,
+                           long lowStockCount,
+                           BigDecimal inventoryValue) {
+
+        public Optional<Product> findById(Long id) {
+            return Optional.ofNullable(id == null ? null : byId.get(id));
+        }
+
+        public Optional<Product> findByMedicineId(String medicineId) {
+            return Optional.ofNullable(medicineId == null ? null : byMedicineId.get(medicineId));
+        }
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DomainEventBus events;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Loads run in their own read-only transaction so a caller's uncommitted writes never end up in the snapshot
+    private TransactionTemplate readTransaction;
+
+    private volatile Snapshot snapshot;
+    private final Set<Long> staleIds = ConcurrentHashMap.newKeySet();
+    private final Object refreshLock = new Object();
+
+    private final AtomicLong fullLoads = new AtomicLong();
+    private final AtomicLong incrementalLoads = new AtomicLong();
+    private final AtomicLong productsReloaded = new AtomicLong();
+
+    @PostConstruct
+    void subscribeToChanges() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTransaction.setReadOnly(true);
+
+        events.onCommit(this::markStale);
+        events.subscribe(delivered -> {
+            if (snapshot != null && !staleIds.isEmpty()) {
+                refresh();
+            }
+        });
+    }
+
+    @PreDestroy
+    void logSummary() {
+        Snapshot current = snapshot;
+        System.out.println("📊 Catalog: version=" + (current == null ? 0 : current.version()) +
+                " products=" + (current == null ? 0 : current.products().size()) +
+                " fullLoads=" + fullLoads.get() + " incrementalLoads=" + incrementalLoads.get() +
+                " productsReloaded=" + productsReloaded.get());
+    }
+
+    // The current catalog; only the first read, or one racing a fresh commit, touches the database
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && staleIds.isEmpty()) {
+            return current;
+        }
+        return refresh();
+    }
+
+    // All products ordered by id (unmodifiable)
+    public List<Product> getProducts() {
+        return snapshot().products();
+    }
+
+    private void markStale(List<DomainEvent> committed) {
+        for (DomainEvent event : committed) {
+            if (event instanceof DomainEvent.ProductChanged changed) {
+                staleIds.add(changed.productId());
+            } else if (event instanceof DomainEvent.BatchChanged changed) {
+                // Batch writes recalculate the product's stock
+                staleIds.add(changed.productId());
+            }
+        }
+    }
+
+    private Snapshot refresh() {
+        synchronized (refreshLock) {
+            Snapshot current = snapshot;
+
+            if (current == null) {
+                // Anything committed while the table is read gets marked again and reloaded next time
+                staleIds.clear();
+                current = build(1, readTransaction.execute(status -> productRepository.findAll()));
+                fullLoads.incrementAndGet();
+                System.out.println("✅ Catalog loaded: " + current.products().size() + " products");
+
+            } else if (!staleIds.isEmpty()) {
+                List<Long> ids = new ArrayList<>(staleIds);
+                staleIds.removeAll(ids);
+                List<Product> reloaded = readTransaction.execute(status -> productRepository.findAllById(ids));
+
+                // Products that didn't come back were deleted
+                Map<Long, Product> merged = new HashMap<>(current.byId());
+                ids.forEach(merged::remove);
+                reloaded.forEach(product -> merged.put(product.getId(), product));
+
+                current = build(current.version() + 1, merged.values());
+                incrementalLoads.incrementAndGet();
+                productsReloaded.addAndGet(ids.size());
+            }
+
+            snapshot = current;
+            return current;
+        }
+    }
+
+    private static Snapshot build(long version, Collection<Product> loaded) {
+        List<Product> products = new ArrayList<>(loaded);
+        products.sort(Comparator.comparing(Product::getId));
+
+        Map<Long, Product> byId = new HashMap<>();
+        Map<String, Product> byMedicineId = new HashMap<>();
+        Set<String> suppliers = new TreeSet<>();
+        Set<String> categories = new TreeSet<>();
+        long totalStock = 0;
+        long lowStockCount = 0;
+        BigDecimal inventoryValue = BigDecimal.ZERO;
+
+        for (Product product : products) {
+            byId.put(product.getId(), product);
+            if (product.getMedicineId() != null) {
+                byMedicineId.put(product.getMedicineId(), product);
+            }
+            if (product.getSupplier() != null) {
+                suppliers.add(product.getSupplier());
+            }
+            if (product.getCategory() != null) {
+                categories.add(product.getCategory());
+            }
+
+            // Same figures the DISTINCT/SUM/COUNT queries gave (rows with nulls skipped)
+            Integer stock = product.getStock();
+            if (stock != null) {
+                totalStock += stock;
+                if (product.getMinStockLevel() != null && stock <= product.getMinStockLevel()) {
+                    lowStockCount++;
+                }
+                if (product.getPrice() != null) {
+                    inventoryValue = inventoryValue.add(product.getPrice().multiply(BigDecimal.valueOf(stock)));
+                }
+            }
+        }
+
+        return new Snapshot(version, Collections.unmodifiableList(products),
+                Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byMedicineId),
+                List.copyOf(suppliers), List.copyOf(categories),
+                totalStock, lowStockCount, inventoryValue);
+    }
+}
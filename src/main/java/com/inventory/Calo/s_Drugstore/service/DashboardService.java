@@ -1,83 +1,71 @@
 package com.inventory.Calo.s_Drugstore.service;
 
 import com.inventory.Calo.s_Drugstore.entity.Product;
-import com.inventory.Calo.s_Drugstore.entity.Sale;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
+import com.inventory.Calo.s_Drugstore.event.DomainEventBus;
+import com.inventory.Calo.s_Drugstore.repository.SalesAggregateRepository;
+import com.inventory.Calo.s_Drugstore.repository.TransactionSummary;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
+// Read-only: dashboard queries run on the reader pool
 @Service
+@Transactional(readOnly = true)
 public class DashboardService {
 
     @Autowired
     private SalesService salesService;
 
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SalesAggregateRepository salesAggregateRepository;
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private DomainEventBus eventBus;
+
+    private static final String SALES_KPIS = "sales";
+    private static final String STOCK_KPIS = "stock";
+
+    private record CachedKpis(LocalDate day, Map<String, Object> values) {}
+
+    private final Map<String, CachedKpis> kpiCache = new ConcurrentHashMap<>();
+    private final AtomicLong kpiVersion = new AtomicLong();
+
+    @PostConstruct
+    void subscribeToChanges() {
+        eventBus.subscribe(this::onEvents);
+    }
+
     /**
-     * Get dashboard metrics (KPI cards data)
+     * Get dashboard metrics (KPI cards data).
+     * The sales and the stock figures are each kept until a sale event or a
+     * batch/product event says they changed (or the day rolls over).
      */
     public Map<String, Object> getDashboardMetrics() {
         Map<String, Object> metrics = new HashMap<>();
 
         try {
-            // Get today's sales
-            LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
-            LocalDateTime endOfToday = LocalDate.now().atTime(23, 59, 59);
-            List<Sale> todaySales = salesService.getSalesBetweenDates(startOfToday, endOfToday);
-
-            // Calculate total sales today
-            BigDecimal totalSalesToday = todaySales.stream()
-                    .map(Sale::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            // Get yesterday's sales for comparison
-            LocalDateTime startOfYesterday = LocalDate.now().minusDays(1).atStartOfDay();
-            LocalDateTime endOfYesterday = LocalDate.now().minusDays(1).atTime(23, 59, 59);
-            List<Sale> yesterdaySales = salesService.getSalesBetweenDates(startOfYesterday, endOfYesterday);
-
-            BigDecimal totalSalesYesterday = yesterdaySales.stream()
-                    .map(Sale::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            // Calculate percentage change
-            String salesChange = calculatePercentageChange(totalSalesToday, totalSalesYesterday);
-
-            // Low stock alerts
-            long lowStockCount = productService.getLowStockCount();
-            String lowStockMessage = lowStockCount > 0
-                    ? lowStockCount + " items need restocking"
-                    : "All items well stocked";
-
-            // Expiring medicines (within 30 days) - ✅ NOW CHECKS BATCHES
-            long expiringCount = productService.getExpiringBatchesCount(30);
-            String expiringMessage = expiringCount > 0
-                    ? expiringCount + " products expiring soon"
-                    : "No products expiring soon";
-
-            // Total inventory count
-            List<Product> allProducts = productService.getAllProducts();
-            long totalInventoryCount = allProducts.size();
-            long totalStock = allProducts.stream()
-                    .mapToLong(Product::getStock)
-                    .sum();
-            String inventoryMessage = totalStock + " units in stock";
-
-            // Put everything in the map
-            metrics.put("totalSalesToday", totalSalesToday.doubleValue());
-            metrics.put("salesChange", salesChange);
-            metrics.put("lowStockAlerts", lowStockCount);
-            metrics.put("lowStockMessage", lowStockMessage);
-            metrics.put("expiringMedicines", expiringCount);
-            metrics.put("expiringMessage", expiringMessage);
-            metrics.put("totalInventoryCount", totalInventoryCount);
-            metrics.put("inventoryMessage", inventoryMessage);
+            metrics.putAll(cachedKpis(SALES_KPIS, this::computeSalesKpis));
+            metrics.putAll(cachedKpis(STOCK_KPIS, this::computeStockKpis));
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -95,6 +83,87 @@ public class DashboardService {
         return metrics;
     }
 
+    private Map<String, Object> computeSalesKpis() {
+        Map<String, Object> metrics = new HashMap<>();
+
+        // Get today's sales
+        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
+        LocalDateTime startOfTomorrow = startOfToday.plusDays(1);
+
+        // Calculate total sales today
+        BigDecimal totalSalesToday = salesAggregateRepository.totals(startOfToday, startOfTomorrow, null).revenue();
+
+        // Get yesterday's sales for comparison
+        LocalDateTime startOfYesterday = startOfToday.minusDays(1);
+        BigDecimal totalSalesYesterday = salesAggregateRepository.totals(startOfYesterday, startOfToday, null).revenue();
+
+        // Calculate percentage change
+        String salesChange = calculatePercentageChange(totalSalesToday, totalSalesYesterday);
+
+        metrics.put("totalSalesToday", totalSalesToday.doubleValue());
+        metrics.put("salesChange", salesChange);
+        return metrics;
+    }
+
+    private Map<String, Object> computeStockKpis() {
+        Map<String, Object> metrics = new HashMap<>();
+
+        // Low stock alerts
+        long lowStockCount = productService.getLowStockCount();
+        String lowStockMessage = lowStockCount > 0
+                ? lowStockCount + " items need restocking"
+                : "All items well stocked";
+
+        // Expiring medicines (within 30 days) - ✅ NOW CHECKS BATCHES
+        long expiringCount = productService.getExpiringBatchesCount(30);
+        String expiringMessage = expiringCount > 0
+                ? expiringCount + " products expiring soon"
+                : "No products expiring soon";
+
+        // Total inventory count
+        CatalogService.Snapshot catalog = catalogService.snapshot();
+        long totalInventoryCount = catalog.products().size();
+        long totalStock = catalog.totalStock();
+        String inventoryMessage = totalStock + " units in stock";
+
+        metrics.put("lowStockAlerts", lowStockCount);
+        metrics.put("lowStockMessage", lowStockMessage);
+        metrics.put("expiringMedicines", expiringCount);
+        metrics.put("expiringMessage", expiringMessage);
+        metrics.put("totalInventoryCount", totalInventoryCount);
+        metrics.put("inventoryMessage", inventoryMessage);
+        return metrics;
+    }
+
+    // Cached figures for today, or freshly computed ones (not cached if an event arrived meanwhile)
+    private Map<String, Object> cachedKpis(String part, Supplier<Map<String, Object>> compute) {
+        LocalDate today = LocalDate.now();
+        CachedKpis cached = kpiCache.get(part);
+        if (cached != null && cached.day().equals(today)) {
+            return cached.values();
+        }
+
+        long version = kpiVersion.get();
+        Map<String, Object> values = compute.get();
+        if (kpiVersion.get() == version) {
+            kpiCache.put(part, new CachedKpis(today, values));
+        }
+        return values;
+    }
+
+    private void onEvents(List<DomainEvent> events) {
+        boolean salesChanged = events.stream().anyMatch(DomainEvent::isSaleEvent);
+        boolean stockChanged = events.stream().anyMatch(event -> !event.isSaleEvent());
+
+        kpiVersion.incrementAndGet();
+        if (salesChanged) {
+            kpiCache.remove(SALES_KPIS);
+        }
+        if (stockChanged) {
+            kpiCache.remove(STOCK_KPIS);
+        }
+    }
+
     /**
      * Get sales trends for the last 7 days
      */
@@ -103,16 +172,11 @@ public class DashboardService {
 
         try {
             LocalDate today = LocalDate.now();
+            Map<LocalDate, BigDecimal> dailyTotals = salesRollupService.getDailyTotals(today.minusDays(6), today);
 
             for (int i = 6; i >= 0; i--) {
                 LocalDate date = today.minusDays(i);
-                LocalDateTime startOfDay = date.atStartOfDay();
-                LocalDateTime endOfDay = date.atTime(23, 59, 59);
-
-                List<Sale> daySales = salesService.getSalesBetweenDates(startOfDay, endOfDay);
-                BigDecimal dayTotal = daySales.stream()
-                        .map(Sale::getTotalAmount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+                BigDecimal dayTotal = dailyTotals.getOrDefault(date, BigDecimal.ZERO);
 
                 Map<String, Object> dayData = new HashMap<>();
                 dayData.put("day", date.format(DateTimeFormatter.ofPattern("EEE")));
@@ -190,10 +254,10 @@ public class DashboardService {
 
         try {
             // Get today's sales (most recent first)
-            List<Sale> recentSales = salesService.getTodaysTransactions();
+            List<TransactionSummary> recentSales = salesService.getTodaysTransactions();
 
             // Add sales to activities
-            for (Sale sale : recentSales) {
+            for (TransactionSummary sale : recentSales) {
                 if (activities.size() >= 8) break; // Limit total activities
 
                 Map<String, Object> activity = new HashMap<>();
@@ -202,16 +266,16 @@ public class DashboardService {
 
                 // Get first item name from sale
                 String itemName = "Multiple items";
-                if (!sale.getItems().isEmpty()) {
-                    itemName = sale.getItems().get(0).getMedicineName();
-                    if (sale.getItems().size() > 1) {
-                        itemName += " +" + (sale.getItems().size() - 1) + " more";
+                if (sale.firstItemName() != null) {
+                    itemName = sale.firstItemName();
+                    if (sale.otherItemLines() > 0) {
+                        itemName += " +" + sale.otherItemLines() + " more";
                     }
                 }
                 activity.put("details", itemName);
 
-                activity.put("amount", "₱" + String.format("%,.2f", sale.getTotalAmount()));
-                activity.put("timestamp", formatTimeAgo(sale.getCreatedAt()));
+                activity.put("amount", "₱" + String.format("%,.2f", sale.totalAmount()));
+                activity.put("timestamp", formatTimeAgo(sale.createdAt()));
                 activity.put("status", "completed");
                 activities.add(activity);
             }
@@ -267,27 +331,14 @@ public class DashboardService {
         try {
             // Get today's sales
             LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
-            LocalDateTime endOfToday = LocalDate.now().atTime(23, 59, 59);
-            List<Sale> todaySales = salesService.getSalesBetweenDates(startOfToday, endOfToday);
-
-            // Filter by user ID
-            List<Sale> mySales = todaySales.stream()
-                    .filter(sale -> sale.getUserId().equals(userId))
-                    .collect(java.util.stream.Collectors.toList());
 
             // Calculate staff metrics
-            int myTransactions = mySales.size();
-            int myItemsSold = mySales.stream()
-                    .mapToInt(Sale::getTotalItems)
-                    .sum();
-
-            BigDecimal myRevenue = mySales.stream()
-                    .map(Sale::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            SalesAggregateRepository.SalesTotals myTotals =
+                    salesAggregateRepository.totals(startOfToday, startOfToday.plusDays(1), userId);
 
-            metrics.put("myTransactions", myTransactions);
-            metrics.put("myItemsSold", myItemsSold);
-            metrics.put("myRevenue", myRevenue.doubleValue());
+            metrics.put("myTransactions", (int) myTotals.transactions());
+            metrics.put("myItemsSold", (int) myTotals.itemsSold());
+            metrics.put("myRevenue", myTotals.revenue().doubleValue());
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -307,33 +358,33 @@ public class DashboardService {
 
         try {
             // Get today's sales by this staff member
-            List<Sale> todaySales = salesService.getTodaysTransactions();
+            List<TransactionSummary> todaySales = salesService.getTodaysTransactions();
 
             // Filter by user ID
-            List<Sale> mySales = todaySales.stream()
-                    .filter(sale -> sale.getUserId().equals(userId))
+            List<TransactionSummary> mySales = todaySales.stream()
+                    .filter(sale -> userId.equals(sale.userId()))
                     .collect(java.util.stream.Collectors.toList());
 
             // Add sales to activities (limit to 5)
-            for (Sale sale : mySales) {
+            for (TransactionSummary sale : mySales) {
                 if (activities.size() >= 5) break;
 
                 Map<String, Object> activity = new HashMap<>();
                 activity.put("type", "sale");
-                activity.put("description", sale.getTransactionId());
+                activity.put("description", sale.transactionId());
 
                 // Get first item name
-                String itemName = sale.getTotalItems() + " items";
-                if (!sale.getItems().isEmpty()) {
-                    itemName = sale.getItems().get(0).getMedicineName();
-                    if (sale.getItems().size() > 1) {
-                        itemName = sale.getTotalItems() + " items";
+                String itemName = sale.totalItems() + " items";
+                if (sale.firstItemName() != null) {
+                    itemName = sale.firstItemName();
+                    if (sale.otherItemLines() > 0) {
+                        itemName = sale.totalItems() + " items";
                     }
                 }
                 activity.put("details", itemName);
 
-                activity.put("amount", "₱" + String.format("%,.2f", sale.getTotalAmount()));
-                activity.put("timestamp", formatTimeAgo(sale.getCreatedAt()));
+                activity.put("amount", "₱" + String.format("%,.2f", sale.totalAmount()));
+                activity.put("timestamp", formatTimeAgo(sale.createdAt()));
                 activity.put("status", "completed");
                 activities.add(activity);
             }
@@ -0,0 +1,80 @@
+package com.inventory.Calo.s_Drugstore.service;
+
+import com.inventory.Calo.s_Drugstore.entity.IdSequence;
+import com.inventory.Calo.s_Drugstore.repository.IdSequenceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out TXN/MED/SUP/BATCH numbers from in-memory blocks backed by the
+ * id_sequences table, so generating an ID no longer scans the owning table.
+ */
+@Service
+public class IdSequenceService {
+
+    public static final String TRANSACTION = "TXN";
+    public static final String MEDICINE = "MED";
+    public static final String SUPPLIER = "SUP";
+    public static final String BATCH = "BATCH";
+
+    @Autowired
+    private IdSequenceRepository idSequenceRepository;
+
+    @Value("${app.sequence.block-size:20}")
+    private int blockSize;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    /**
+     * Get the next value of a sequence.
+     * The seed returns the highest number already stored in the owning table; it is
+     * only consulted on the first block of each run so that legacy rows, manual edits
+     * and a crash between block refills can never cause a number to be reused.
+     */
+    @Transactional
+    public long nextValue(String name, LongSupplier seed) {
+        Block block = blocks.computeIfAbsent(name, key -> new Block());
+
+        // One lock per sequence: concurrent checkouts only wait on each other
+        // while a new block is being reserved, never on other sequences.
+        synchronized (block) {
+            if (block.next >= block.limit) {
+                reserveBlock(name, block, seed);
+            }
+            return block.next++;
+        }
+    }
+
+    private void reserveBlock(String name, Block block, LongSupplier seed) {
+        IdSequence sequence = idSequenceRepository.findById(name)
+                .orElseGet(() -> new IdSequence(name, 1L));
+
+        // Never go backwards: if the transaction that reserved the previous block
+        // rolled back, the values already handed out from it are still ahead of the row.
+        long start = Math.max(sequence.getNextValue(), block.limit);
+        if (!block.seeded) {
+            start = Math.max(start, seed.getAsLong() + 1);
+            block.seeded = true;
+        }
+
+        sequence.setNextValue(start + blockSize);
+        idSequenceRepository.save(sequence);
+
+        block.next = start;
+        block.limit = start + blockSize;
+
+        System.out.println("🔢 Reserved " + name + " block " + start + "-" + (block.limit - 1));
+    }
+
+    private static class Block {
+        private long next;
+        private long limit;
+        private boolean seeded;
+    }
+}
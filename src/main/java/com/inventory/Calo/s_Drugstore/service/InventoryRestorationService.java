@@ -0,0 +1,156 @@
+package com.inventory.Calo.s_Drugstore.service;
+
+import com.inventory.Calo.s_Drugstore.entity.Batch;
+import com.inventory.Calo.s_Drugstore.entity.Product;
+import com.inventory.Calo.s_Drugstore.entity.Sale;
+import com.inventory.Calo.s_Drugstore.entity.SaleItem;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
+import com.inventory.Calo.s_Drugstore.event.DomainEventBus;
+import com.inventory.Calo.s_Drugstore.repository.BatchRepository;
+import com.inventory.Calo.s_Drugstore.repository.ProductRepository;
+import com.inventory.Calo.s_Drugstore.repository.SaleItemBatchAllocationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Puts sold units back into stock for voided, deleted and edited transactions.
+ * Works on any number of sales at once: items with batch allocations are restored
+ * with two set-based updates, the rest are resolved with one indexed
+ * medicineId IN (...) lookup and written back in a single batched flush.
+ */
+@Service
+public class InventoryRestorationService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BatchRepository batchRepository;
+
+    @Autowired
+    private SaleItemBatchAllocationRepository allocationRepository;
+
+    @Autowired
+    private BatchCacheService batchCache;
+
+    @Autowired
+    private DomainEventBus events;
+
+    /**
+     * Restore every item of the given sales
+     */
+    @Transactional
+    public void restoreSales(Collection<Sale> sales) {
+        if (sales.isEmpty()) {
+            return;
+        }
+
+        List<Long> saleIds = sales.stream().map(Sale::getId).toList();
+        Set<Long> allocatedItemIds = new HashSet<>(allocationRepository.findAllocatedSaleItemIds(saleIds));
+
+        // Read the (lazy) items first - the bulk updates below clear the persistence context
+        Map<String, Integer> withoutHistory = new LinkedHashMap<>();
+        Set<String> restoredMedicineIds = new HashSet<>();
+        for (Sale sale : sales) {
+            for (SaleItem item : sale.getItems()) {
+                if (!allocatedItemIds.contains(item.getId())) {
+                    withoutHistory.merge(item.getMedicineId(), item.getQuantity(), Integer::sum);
+                } else {
+                    restoredMedicineIds.add(item.getMedicineId());
+                }
+            }
+        }
+
+        // Exact restoration from batch history
+        if (!allocatedItemIds.isEmpty()) {
+            int batches = allocationRepository.restoreBatchStock(saleIds, LocalDate.now());
+            int products = allocationRepository.recalculateProductStock(saleIds);
+            System.out.println("✅ Restored stock to " + batches + " batches across " + products + " products");
+        }
+
+        // Older items without history
+        restoreWithoutBatchHistory(withoutHistory);
+
+        // Products restored from batch history (the fallback invalidates its own)
+        if (!restoredMedicineIds.isEmpty()) {
+            stockRestored(findProductsByMedicineIds(restoredMedicineIds).values().stream()
+                    .map(Product::getId)
+                    .toList());
+        }
+    }
+
+    /**
+     * Fallback for items with no batch history (old transaction or no batches):
+     * units go to each product's earliest-expiring batch, or straight onto the
+     * product when it has no batches at all.
+     */
+    @Transactional
+    public void restoreWithoutBatchHistory(Map<String, Integer> quantitiesByMedicineId) {
+        if (quantitiesByMedicineId.isEmpty()) {
+            return;
+        }
+
+        System.out.println("⚠️ No batch info available for " + quantitiesByMedicineId.keySet() + ", using fallback restoration");
+
+        Map<String, Product> products = findProductsByMedicineIds(quantitiesByMedicineId.keySet());
+        if (products.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Product> productsById = new HashMap<>();
+        for (Product product : products.values()) {
+            productsById.put(product.getId(), product);
+        }
+
+        // 1 query: every batch of those products, earliest expiry first
+        Map<Long, List<Batch>> batchesByProduct = new HashMap<>();
+        for (Batch batch : batchRepository.findByProductIdsOrderByExpirationDate(productsById.keySet())) {
+            batchesByProduct.computeIfAbsent(batch.getProduct().getId(), id -> new ArrayList<>()).add(batch);
+        }
+
+        for (Map.Entry<String, Integer> entry : quantitiesByMedicineId.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                continue;
+            }
+
+            List<Batch> batches = batchesByProduct.get(product.getId());
+            if (batches != null && !batches.isEmpty()) {
+                Batch firstBatch = batches.get(0);
+                firstBatch.setStock(firstBatch.getStock() + entry.getValue());
+
+                // Product total recomputed once from its batches
+                product.setStock(batches.stream().mapToInt(Batch::getStock).sum());
+            } else {
+                product.setStock(product.getStock() + entry.getValue());
+            }
+        }
+
+        // All batch and product updates in one batched flush
+        batchRepository.flush();
+        stockRestored(productsById.keySet());
+    }
+
+    private void stockRestored(Collection<Long> productIds) {
+        batchCache.invalidateAll(productIds);
+        productIds.forEach(productId -> events.publish(new DomainEvent.BatchChanged(productId)));
+    }
+
+    /**
+     * Resolve products by medicine ID with one indexed query
+     */
+    public Map<String, Product> findProductsByMedicineIds(Collection<String> medicineIds) {
+        Map<String, Product> products = new HashMap<>();
+        if (medicineIds.isEmpty()) {
+            return products;
+        }
+        for (Product product : productRepository.findByMedicineIdIn(medicineIds)) {
+            products.put(product.getMedicineId(), product);
+        }
+        return products;
+    }
+}
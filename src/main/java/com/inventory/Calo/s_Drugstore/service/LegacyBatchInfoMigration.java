@@ -0,0 +1,92 @@
+package com.inventory.Calo.s_Drugstore.service;
+
+import com.inventory.Calo.s_Drugstore.entity.SaleItem;
+import com.inventory.Calo.s_Drugstore.repository.SaleItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One-time conversion of the old sale_items.batch_info JSON strings into
+ * sale_item_batch_allocations rows. Converted items get batch_info cleared,
+ * so running it again only picks up rows that were never converted. Entries
+ * that can't be read stay in batch_info, so nothing is lost if a string has
+ * an unexpected shape.
+ */
+@Service
+public class LegacyBatchInfoMigration {
+
+    private static final Pattern ENTRY = Pattern.compile("\\{[^}]*}");
+    private static final Pattern BATCH_ID = Pattern.compile("\"batchId\"\\s*:\\s*\"?(\\d+)");
+    private static final Pattern QUANTITY = Pattern.compile("\"quantity\"\\s*:\\s*\"?(\\d+)");
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Transactional
+    public int migrate() {
+        List<SaleItem> legacyItems = saleItemRepository.findByBatchInfoIsNotNull();
+        if (legacyItems.isEmpty()) {
+            return 0;
+        }
+
+        int converted = 0;
+        int kept = 0;
+        for (SaleItem item : legacyItems) {
+            if (convert(item)) {
+                converted++;
+            } else {
+                kept++;
+            }
+        }
+
+        saleItemRepository.saveAll(legacyItems);
+        System.out.println("✅ Converted batch info of " + converted + " sale items into batch allocations");
+        if (kept > 0) {
+            System.err.println("⚠️ Kept unreadable batch info on " + kept + " sale items");
+        }
+        return converted;
+    }
+
+    // Adds the item's batch allocations from its batch_info. batch_info is cleared when every
+    // entry was read; otherwise only the unreadable entries are left in it (false is returned)
+    static boolean convert(SaleItem item) {
+        String batchInfo = item.getBatchInfo().trim();
+        List<String> unreadable = new ArrayList<>();
+        boolean anyEntry = false;
+
+        Matcher entries = ENTRY.matcher(batchInfo);
+        while (entries.find()) {
+            anyEntry = true;
+            Matcher batchId = BATCH_ID.matcher(entries.group());
+            Matcher quantity = QUANTITY.matcher(entries.group());
+
+            if (batchId.find() && quantity.find()) {
+                int units = Integer.parseInt(quantity.group(1));
+                if (units > 0) {
+                    item.addBatchAllocation(Long.parseLong(batchId.group(1)), units);
+                }
+            } else {
+                System.err.println("❌ Unreadable batch info on sale item " + item.getId() + ": " + entries.group());
+                unreadable.add(entries.group());
+            }
+        }
+
+        // Not a list of entries at all (and not an empty one): leave it as it is
+        if (!anyEntry && !batchInfo.isEmpty() && !batchInfo.equals("[]")) {
+            System.err.println("❌ Unreadable batch info on sale item " + item.getId() + ": " + batchInfo);
+            return false;
+        }
+        if (!unreadable.isEmpty()) {
+            item.setBatchInfo("[" + String.join(",", unreadable) + "]");
+            return false;
+        }
+        item.setBatchInfo(null);
+        return true;
+    }
+}
@@ -0,0 +1,135 @@
+package com.inventory.Calo.s_Drugstore.service;
+
+import com.inventory.Calo.s_Drugstore.entity.Product;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
+import com.inventory.Calo.s_Drugstore.event.DomainEventBus;
+import com.inventory.Calo.s_Drugstore.util.NGramIndex;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranked, typo-tolerant product search for the search boxes, backed by an NGramIndex
+ * over medicine IDs, brand and generic names, suppliers and categories.
+ * The index is built from the catalog snapshot at startup (or by the first search) and
+ * afterwards only re-indexes the products named in committed events. Results are taken from the
+ * current snapshot, so stock and prices are always the latest.
+ */
+@Service
+public class ProductSearchService {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private DomainEventBus events;
+
+    @Value("${app.search.max-results:50}")
+    private int maxResults;
+
+    private final NGramIndex index = new NGramIndex();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<Long> staleIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean built;
+
+    // CatalogService registers first (it is injected into this bean), so by the time an id
+    // shows up here the catalog already knows it is stale and catchUp() reads the new row
+    @PostConstruct
+    void subscribeToChanges() {
+        events.onCommit(committed -> {
+            for (DomainEvent event : committed) {
+                // Batch changes only move stock, which isn't indexed
+                if (event instanceof DomainEvent.ProductChanged changed) {
+                    staleIds.add(changed.productId());
+                }
+            }
+        });
+        events.subscribe(delivered -> {
+            if (built && !staleIds.isEmpty()) {
+                catchUp();
+            }
+        });
+    }
+
+    // Build the index in the background so the first keystroke doesn't wait for it
+    public void warmUp() {
+        Thread thread = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            catchUp();
+            System.out.println("✅ Search index ready in " + (System.currentTimeMillis() - start) + " ms");
+        }, "search-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public List<Product> search(String query) {
+        return search(query, maxResults);
+    }
+
+    // Best matches first; blank queries find nothing
+    public List<Product> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        catchUp();
+
+        CatalogService.Snapshot catalog = catalogService.snapshot();
+        long[] ids;
+        lock.readLock().lock();
+        try {
+            ids = index.search(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Product> results = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            // A product deleted since the index caught up is simply skipped
+            catalog.findById(id).ifPresent(results::add);
+        }
+        return results;
+    }
+
+    private void catchUp() {
+        if (built && staleIds.isEmpty()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (!built || index.garbageRatio() > 0.5) {
+                staleIds.clear();
+                CatalogService.Snapshot catalog = catalogService.snapshot();
+                index.clear();
+                catalog.products().forEach(this::indexProduct);
+                built = true;
+                return;
+            }
+
+            List<Long> ids = new ArrayList<>(staleIds);
+            staleIds.removeAll(ids);
+            CatalogService.Snapshot catalog = catalogService.snapshot();
+            for (Long id : ids) {
+                catalog.findById(id).ifPresentOrElse(this::indexProduct, () -> index.remove(id));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexProduct(Product product) {
+        index.put(product.getId(),
+                new NGramIndex.Field(product.getMedicineId(), 3),
+                new NGramIndex.Field(product.getBrandName(), 3),
+                new NGramIndex.Field(product.getGenericName(), 2),
+                new NGramIndex.Field(product.getSupplier(), 1),
+                new NGramIndex.Field(product.getCategory(), 1));
+    }
+}
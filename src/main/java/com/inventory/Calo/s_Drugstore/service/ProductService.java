@@ -3,19 +3,27 @@ package com.inventory.Calo.s_Drugstore.service;
 import com.inventory.Calo.s_Drugstore.entity.Batch;
 import com.inventory.Calo.s_Drugstore.repository.BatchRepository;
 import com.inventory.Calo.s_Drugstore.entity.Product;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
+import com.inventory.Calo.s_Drugstore.event.DomainEventBus;
+import com.inventory.Calo.s_Drugstore.repository.BatchSummary;
+import com.inventory.Calo.s_Drugstore.repository.ProductRow;
 import com.inventory.Calo.s_Drugstore.repository.ProductRepository;
+import com.inventory.Calo.s_Drugstore.util.FtsQuery;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class ProductService {
@@ -26,9 +34,33 @@ public class ProductService {
     @Autowired
     private BatchRepository batchRepository;
 
-    // Get all products
+    @Autowired
+    private IdSequenceService idSequenceService;
+
+    @Autowired
+    private StockAllocationService stockAllocationService;
+
+    @Autowired
+    private WriteQueueService writeQueue;
+
+    @Autowired
+    private BatchCacheService batchCache;
+
+    @Autowired
+    private DomainEventBus events;
+
+    @Autowired
+    private CatalogService catalog;
+
+    @Autowired
+    private ProductSearchService productSearch;
+
+    // Outcome of a CSV import: how many rows made it in and why the others didn't
+    public record ImportResult(int imported, List<String> failures) {}
+
+    // Get all products (the shared catalog snapshot - don't modify them)
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return catalog.getProducts();
     }
 
     // Get product by ID
@@ -38,25 +70,68 @@ public class ProductService {
 
     // Get product by medicine ID
     public Optional<Product> getProductByMedicineId(String medicineId) {
-        return productRepository.findByMedicineId(medicineId);
+        return catalog.snapshot().findByMedicineId(medicineId);
     }
 
-    // Search products
+    // Search products (best matches first, typos tolerated)
     public List<Product> searchProducts(String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAllProducts();
         }
-        return productRepository.searchByNameOrId(searchTerm.trim());
+        return productSearch.search(searchTerm.trim());
     }
 
     // Filter products
     public List<Product> filterProducts(String searchTerm, String supplier, String category) {
-        // Convert "All Suppliers" or "All Categories" to null
-        String supplierFilter = (supplier == null || supplier.equals("All Suppliers")) ? null : supplier;
-        String categoryFilter = (category == null || category.equals("All Categories")) ? null : category;
-        String searchFilter = (searchTerm == null || searchTerm.trim().isEmpty()) ? null : searchTerm.trim();
+        return productRepository.findByFilters(searchFilter(searchTerm), supplierFilter(supplier), categoryFilter(category));
+    }
+
+    // One page of the filtered catalog, for the paged product tables
+    public List<Product> getProductPage(String searchTerm, String supplier, String category, Pageable pageable) {
+        return productRepository.findPageByFilters(searchFilter(searchTerm), supplierFilter(supplier), categoryFilter(category), pageable);
+    }
+
+    // A page of the filtered catalog as table rows (batch figures included)
+    public List<ProductRow> getProductRowPage(String searchTerm, String supplier, String category, Pageable pageable) {
+        return toRows(getProductPage(searchTerm, supplier, category, pageable));
+    }
+
+    // Attach batch figures to each product with a single GROUP BY over their batches
+    @Transactional(readOnly = true)
+    public List<ProductRow> toRows(List<Product> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDate today = LocalDate.now();
+        Map<Long, BatchSummary> summaries = new HashMap<>();
+        List<Long> productIds = products.stream().map(Product::getId).toList();
+        for (BatchSummary summary : batchRepository.summarizeByProductIds(productIds, today, today.plusDays(30))) {
+            summaries.put(summary.productId(), summary);
+        }
+
+        return products.stream()
+                .map(product -> ProductRow.of(product, summaries.get(product.getId())))
+                .toList();
+    }
+
+    // Number of products the filters match
+    public long countProducts(String searchTerm, String supplier, String category) {
+        return productRepository.countByFilters(searchFilter(searchTerm), supplierFilter(supplier), categoryFilter(category));
+    }
 
-        return productRepository.findByFilters(searchFilter, supplierFilter, categoryFilter);
+    // Convert "All Suppliers" / "All Categories" / blank search to null (= no filter)
+    // The search itself becomes a full-text prefix query
+    private static String searchFilter(String searchTerm) {
+        return FtsQuery.prefixQuery(searchTerm);
+    }
+
+    private static String supplierFilter(String supplier) {
+        return (supplier == null || supplier.equals("All Suppliers")) ? null : supplier;
+    }
+
+    private static String categoryFilter(String category) {
+        return (category == null || category.equals("All Categories")) ? null : category;
     }
 
     // Get products by supplier
@@ -82,17 +157,20 @@ public class ProductService {
 
     // Get all suppliers
     public List<String> getAllSuppliers() {
-        return productRepository.findAllSuppliers();
+        return catalog.snapshot().suppliers();
     }
 
     // Get all categories
     public List<String> getAllCategories() {
-        return productRepository.findAllCategories();
+        return catalog.snapshot().categories();
     }
 
     // Save product (add or update based on Medicine ID)
-    @Transactional
     public Product saveProduct(Product product) {
+        return writeQueue.executeAlone(WriteQueueService.Priority.INTERACTIVE, () -> storeProduct(product));
+    }
+
+    private Product storeProduct(Product product) {
         if (product.getId() == null) {
             // New product - check if medicine ID already exists
             Optional<Product> existingProduct = productRepository.findByMedicineId(product.getMedicineId());
@@ -119,17 +197,25 @@ public class ProductService {
                 existing.setUnitOfMeasure(product.getUnitOfMeasure());
                 existing.setUpdatedAt(LocalDate.now());
 
-                return productRepository.save(existing);
+                Product saved = productRepository.save(existing);
+                events.publish(new DomainEvent.ProductChanged(saved.getId(), DomainEvent.Change.UPDATED));
+                return saved;
             }
         }
 
         // Either it's a completely new product, or it's an update with existing ID
-        return productRepository.save(product);
+        DomainEvent.Change change = product.getId() == null ? DomainEvent.Change.CREATED : DomainEvent.Change.UPDATED;
+        Product saved = productRepository.save(product);
+        events.publish(new DomainEvent.ProductChanged(saved.getId(), change));
+        return saved;
     }
 
     // Update product
-    @Transactional
     public Product updateProduct(Long id, Product updatedProduct) {
+        return writeQueue.execute(WriteQueueService.Priority.INTERACTIVE, () -> copyProductDetails(id, updatedProduct));
+    }
+
+    private Product copyProductDetails(Long id, Product updatedProduct) {
         Optional<Product> existingProduct = productRepository.findById(id);
 
         if (existingProduct.isPresent()) {
@@ -146,6 +232,7 @@ public class ProductService {
             product.setMinStockLevel(updatedProduct.getMinStockLevel());
             product.setUpdatedAt(LocalDate.now());
 
+            events.publish(new DomainEvent.ProductChanged(id, DomainEvent.Change.UPDATED));
             return productRepository.save(product);
         }
 
@@ -153,14 +240,18 @@ public class ProductService {
     }
 
     // Update stock
-    @Transactional
     public Product updateStock(Long id, Integer newStock) {
+        return writeQueue.execute(WriteQueueService.Priority.INTERACTIVE, () -> setProductStock(id, newStock));
+    }
+
+    private Product setProductStock(Long id, Integer newStock) {
         Optional<Product> existingProduct = productRepository.findById(id);
 
         if (existingProduct.isPresent()) {
             Product product = existingProduct.get();
             product.setStock(newStock);
             product.setUpdatedAt(LocalDate.now());
+            events.publish(new DomainEvent.ProductChanged(id, DomainEvent.Change.UPDATED));
             return productRepository.save(product);
         }
 
@@ -168,21 +259,28 @@ public class ProductService {
     }
 
     // Delete product
-    @Transactional
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new IllegalArgumentException("Product not found with ID: " + id);
-        }
-        productRepository.deleteById(id);
+        writeQueue.execute(WriteQueueService.Priority.INTERACTIVE, () -> {
+            if (!productRepository.existsById(id)) {
+                throw new IllegalArgumentException("Product not found with ID: " + id);
+            }
+            productRepository.deleteById(id);
+            batchCache.invalidate(id);
+            events.publish(new DomainEvent.ProductChanged(id, DomainEvent.Change.DELETED));
+        });
     }
 
     // Get statistics
     public long getTotalProductCount() {
-        return productRepository.count();
+        return catalog.getProducts().size();
     }
 
     public long getLowStockCount() {
-        return productRepository.countLowStockProducts();
+        return catalog.snapshot().lowStockCount();
+    }
+
+    public BigDecimal getInventoryValue() {
+        return catalog.snapshot().inventoryValue();
     }
 
     public long getExpiringProductsCount() {
@@ -192,30 +290,15 @@ public class ProductService {
 
     // Generate next medicine ID
     public String generateNextMedicineId() {
-        List<Product> allProducts = productRepository.findAll();
-
-        if (allProducts.isEmpty()) {
-            return "MED001";
-        }
-
-        // Find the highest medicine ID number
-        int maxNumber = 0;
-        for (Product product : allProducts) {
-            String medicineId = product.getMedicineId();
-            if (medicineId != null && medicineId.startsWith("MED")) {
-                try {
-                    int number = Integer.parseInt(medicineId.substring(3));
-                    if (number > maxNumber) {
-                        maxNumber = number;
-                    }
-                } catch (NumberFormatException e) {
-                    // Skip invalid medicine IDs
-                }
-            }
-        }
-
-        return String.format("MED%03d", maxNumber + 1);
+        String medicineId;
+        do {
+            long number = idSequenceService.nextValue(IdSequenceService.MEDICINE,
+                    productRepository::findMaxMedicineNumber);
+            medicineId = String.format("MED%03d", number);
+            // Skip IDs typed in by hand or imported from CSV
+        } while (productRepository.existsByMedicineId(medicineId));
 
+        return medicineId;
     }
 
     //New added methods below for batch support
@@ -223,15 +306,56 @@ public class ProductService {
     public String generateBatchNumber(String medicineId) {
         String prefix = "BATCH-" + medicineId + "-";
         String timestamp = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long count = batchRepository.count() + 1;
-        return prefix + timestamp + "-" + String.format("%03d", count);
+        long number = idSequenceService.nextValue(IdSequenceService.BATCH, batchRepository::findMaxId);
+        return prefix + timestamp + "-" + String.format("%03d", number);
     }
 
 
-    @Transactional
+    // Runs alone: a new product passed in gets its ID assigned when it is saved
     public Product saveProductWithBatch(Product product, Integer batchStock,
                                         LocalDate batchExpiry, BigDecimal batchPrice,
                                         String batchSupplier, LocalDate batchDateReceived) {
+        return writeQueue.executeAlone(WriteQueueService.Priority.INTERACTIVE, () ->
+                addProductBatch(product, batchStock, batchExpiry, batchPrice, batchSupplier, batchDateReceived));
+    }
+
+    /**
+     * Import CSV rows as new batches. Each row commits on its own at bulk priority,
+     * so checkouts keep going while a large file is imported. If the write queue stays
+     * full, the rows not queued yet are reported as failures (the queued ones still commit).
+     */
+    public ImportResult importProducts(List<Product> products, LocalDate dateReceived) {
+        List<CompletableFuture<Product>> rows = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        for (Product product : products) {
+            try {
+                rows.add(writeQueue.submit(WriteQueueService.Priority.BULK, false, () ->
+                        addProductBatch(product, product.getStock(), product.getExpirationDate(),
+                                product.getPrice(), product.getSupplier(), dateReceived)));
+            } catch (RuntimeException e) {
+                // Don't wait out the timeout again for every remaining row
+                for (Product notQueued : products.subList(rows.size(), products.size())) {
+                    failures.add(notQueued.getBrandName() + " - " + e.getMessage());
+                }
+                break;
+            }
+        }
+
+        int imported = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            try {
+                rows.get(i).join();
+                imported++;
+            } catch (CompletionException e) {
+                failures.add(products.get(i).getBrandName() + " - " + e.getCause().getMessage());
+            }
+        }
+        return new ImportResult(imported, failures);
+    }
+
+    private Product addProductBatch(Product product, Integer batchStock,
+                                    LocalDate batchExpiry, BigDecimal batchPrice,
+                                    String batchSupplier, LocalDate batchDateReceived) {
         // Now will Prevent adding expired medicine
         if (batchExpiry != null && batchExpiry.isBefore(LocalDate.now())) {
             throw new IllegalArgumentException("Cannot add expired medicine. Expiration date: " +
@@ -249,7 +373,8 @@ public class ProductService {
             System.out.println("✅ Adding batch to EXISTING product: " + targetProduct.getBrandName() + " (ID: " + targetProduct.getId() + ")");
         } else {
             // NEW PRODUCT - Check if one with same Brand Name already exists
-            List<Product> existingByName = productRepository.searchByNameOrId(product.getBrandName());
+            String nameQuery = FtsQuery.prefixQuery(product.getBrandName());
+            List<Product> existingByName = nameQuery == null ? List.of() : productRepository.searchByNameOrId(nameQuery);
             Product existingMatch = existingByName.stream()
                     .filter(p -> p.getBrandName().equalsIgnoreCase(product.getBrandName()))
                     .findFirst()
@@ -262,6 +387,7 @@ public class ProductService {
             } else {
                 // Completely new product - save it first
                 targetProduct = productRepository.save(product);
+                events.publish(new DomainEvent.ProductChanged(targetProduct.getId(), DomainEvent.Change.CREATED));
                 System.out.println("✅ Created NEW product: " + targetProduct.getBrandName() + " (ID: " + targetProduct.getId() + ")");
             }
         }
@@ -312,8 +438,7 @@ public class ProductService {
         Product savedProduct = productRepository.save(targetProduct);
         System.out.println("✅ Updated product total stock to: " + totalStock + " units");
 
-        // Clear cache after modification
-        clearBatchCache();
+        batchesChanged(targetProduct.getId());
 
         return savedProduct;
     }
@@ -321,9 +446,7 @@ public class ProductService {
     // Get all batches for a product
     @Transactional(readOnly = true)
     public List<Batch> getBatchesForProduct(Product product) {
-        // Use cache during table rendering to improve performance
-        return batchCache.computeIfAbsent(product.getId(),
-                id -> batchRepository.findByProductOrderByExpirationDate(id));
+        return batchCache.get(product.getId());
     }
 
     //Get batch by ID
@@ -337,8 +460,11 @@ public class ProductService {
     }
 
     //Update batch stock
-    @Transactional
     public void updateBatchStock(Long batchId, Integer newStock) {
+        writeQueue.execute(WriteQueueService.Priority.INTERACTIVE, () -> setBatchStock(batchId, newStock));
+    }
+
+    private void setBatchStock(Long batchId, Integer newStock) {
         Optional<Batch> batchOpt = batchRepository.findById(batchId);
         if (batchOpt.isPresent()) {
             Batch batch = batchOpt.get();
@@ -352,12 +478,16 @@ public class ProductService {
                     .sum();
             product.setStock(totalStock);
             productRepository.save(product);
+            batchesChanged(product.getId());
         }
     }
 
     // Update batch details (stock and expiry date)
-    @Transactional
     public void updateBatch(Batch batch) {
+        writeQueue.executeAlone(WriteQueueService.Priority.INTERACTIVE, () -> saveBatchDetails(batch));
+    }
+
+    private void saveBatchDetails(Batch batch) {
         batchRepository.save(batch);
 
         // Update product's total stock
@@ -367,11 +497,15 @@ public class ProductService {
                 .sum();
         product.setStock(totalStock);
         productRepository.save(product);
+        batchesChanged(product.getId());
     }
 
     //Delete a batch
-    @Transactional
     public void deleteBatch(Long batchId) {
+        writeQueue.execute(WriteQueueService.Priority.INTERACTIVE, () -> removeBatch(batchId));
+    }
+
+    private void removeBatch(Long batchId) {
         Optional<Batch> batchOpt = batchRepository.findById(batchId);
         if (batchOpt.isPresent()) {
             Batch batch = batchOpt.get();
@@ -385,173 +519,45 @@ public class ProductService {
                     .sum();
             product.setStock(totalStock);
             productRepository.save(product);
+            batchesChanged(product.getId());
         }
     }
 
 
+    // Drop the cached batches and let listeners know the product's stock/expiry changed
+    private void batchesChanged(Long productId) {
+        batchCache.invalidate(productId);
+        events.publish(new DomainEvent.BatchChanged(productId));
+    }
+
     //Count total number of batches for a product
     public long countBatchesForProduct(Product product) {
         return batchRepository.countByProductId(product.getId());
     }
 
-    // Cache for batch lookups during table rendering
-    private Map<Long, List<Batch>> batchCache = new ConcurrentHashMap<>();
-
-    // Call this after any batch modification to clear cache
-    public void clearBatchCache() {
-        batchCache.clear();
-    }
-
     // Deduct stock using FEFO (First Expiry First Out)
-    // Returns a JSON string with batch deduction history for restoration
+    // Returns the batch deductions so they can be recorded for restoration
     @Transactional
-    public String deductStockFromBatches(Long productId, int quantityToDeduct) {
-        // ✅ FIX: Get only NON-EXPIRED batches using the new repository method
-        LocalDate today = LocalDate.now();
-        List<Batch> batches = batchRepository.findNonExpiredBatchesByProductId(productId, today);
-
-        if (batches.isEmpty()) {
-            throw new RuntimeException("No valid (non-expired) batches available for product ID: " + productId);
-        }
-
-        int remainingToDeduct = quantityToDeduct;
-        StringBuilder batchInfoJson = new StringBuilder("[");
-        boolean first = true;
+    public List<StockAllocationService.BatchAllocation> deductStockFromBatches(Long productId, int quantityToDeduct) {
+        StockAllocationService.CartAllocation allocation = stockAllocationService.allocate(
+                List.of(new StockAllocationService.StockRequest(productId, quantityToDeduct)));
 
-        for (Batch batch : batches) {
-            if (remainingToDeduct <= 0) {
-                break;
-            }
-
-            int batchStock = batch.getStock();
-
-            if (batchStock > 0) {
-                int deductFromThisBatch = Math.min(remainingToDeduct, batchStock);
-
-                // Deduct from this batch
-                batch.setStock(batchStock - deductFromThisBatch);
-                batchRepository.save(batch);
-
-                // Track this deduction for restoration
-                if (!first) batchInfoJson.append(",");
-                batchInfoJson.append("{\"batchId\":")
-                        .append(batch.getId())
-                        .append(",\"batchNumber\":\"")
-                        .append(batch.getBatchNumber())
-                        .append("\",\"quantity\":")
-                        .append(deductFromThisBatch)
-                        .append(",\"expiryDate\":\"")
-                        .append(batch.getExpirationDate())
-                        .append("\"}");
-                first = false;
-
-                remainingToDeduct -= deductFromThisBatch;
-
-                System.out.println("✅ FEFO: Deducted " + deductFromThisBatch + " from batch " +
-                        batch.getBatchNumber() + " (Expiry: " + batch.getExpirationDate() +
-                        ", Remaining in batch: " + batch.getStock() + ")");
-            }
-        }
-
-        if (remainingToDeduct > 0) {
-            throw new RuntimeException("Insufficient non-expired batch stock. Could not fulfill " +
-                    remainingToDeduct + " units from available batches.");
-        }
-
-        batchInfoJson.append("]");
-
-        // Update product's total stock
-        int totalStock = batchRepository.findByProductId(productId).stream()
-                .mapToInt(Batch::getStock)
-                .sum();
-
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        product.setStock(totalStock);
-        productRepository.save(product);
-
-        System.out.println("✅ Product total stock updated to: " + totalStock);
-        System.out.println("📝 Batch deduction info: " + batchInfoJson.toString());
-
-        // Clear cache
-        clearBatchCache();
-
-        return batchInfoJson.toString();
+        return allocation.lines().get(0);
     }
+    // Expired / expiring products as table rows, earliest expiry first
+    @Transactional(readOnly = true)
+    public List<ProductRow> getExpiringProductRows(int days) {
+        return toRows(getProductsWithExpiringBatches(days));
+    }
+
+    // Products with a batch expiring within the given days (expired batches included), plus legacy
+    // products without batches expiring in that window; earliest expiry first
     @Transactional(readOnly = true)
     public List<Product> getProductsWithExpiringBatches(int days) {
         LocalDate today = LocalDate.now();
-        LocalDate endDate = today.plusDays(days);
-
-        System.out.println("=== DEBUG: getProductsWithExpiringBatches ===");
-        System.out.println("Checking from: " + today + " to " + endDate);
-
-        // 1. Get all batches (expired + expiring)
-        List<Batch> allBatches = batchRepository.findAll();
-        System.out.println("Total batches in database: " + allBatches.size());
-
-        // Filter for expired or expiring within the days range
-        List<Batch> relevantBatches = allBatches.stream()
-                .filter(batch -> {
-                    LocalDate expiryDate = batch.getExpirationDate();
-                    if (expiryDate == null) return false;
-                    long daysLeft = ChronoUnit.DAYS.between(today, expiryDate);
-                    // Include if expired (daysLeft < 0) OR expiring within days range
-                    return daysLeft <= days;
-                })
-                .toList();
-        System.out.println("Found " + relevantBatches.size() + " expired/expiring batches");
-
-        List<Product> productsFromBatches = relevantBatches.stream()
-                .map(batch -> {
-                    Product product = batch.getProduct();
-                    product.getBrandName(); // Initialize proxy
-                    System.out.println("  Batch found: " + product.getBrandName() + " (MED: " + product.getMedicineId() + ") - Expiry: " + batch.getExpirationDate());
-                    return product;
-                })
-                .distinct()
-                .toList();
-
-        System.out.println("Products from batches: " + productsFromBatches.size());
-
-        // 2. Get ALL expired/expiring legacy products (no batches)
-        List<Product> legacyExpiringProducts = productRepository.findExpiringProducts(endDate).stream()
-                .filter(p -> {
-                    long batchCount = batchRepository.countByProductId(p.getId());
-                    return batchCount == 0 && p.getExpirationDate() != null;
-                })
-                .toList();
-
-        System.out.println("Legacy products without batches: " + legacyExpiringProducts.size());
-
-        // 3. Combine both
-        List<Product> allProducts = new java.util.ArrayList<>(productsFromBatches);
-        for (Product legacy : legacyExpiringProducts) {
-            if (!allProducts.contains(legacy)) {
-                allProducts.add(legacy);
-            }
-        }
-
-        // Sort by expiration date
-        allProducts.sort((p1, p2) -> {
-            LocalDate date1 = getEarliestExpiryDate(p1);
-            LocalDate date2 = getEarliestExpiryDate(p2);
-            return date1.compareTo(date2);
-        });
-
-        System.out.println("Total unique expiring products: " + allProducts.size());
-        System.out.println("===========================================");
-
-        return allProducts;
+        return productRepository.findWithExpiringBatches(today, today.plusDays(days));
     }
 
-    private LocalDate getEarliestExpiryDate(Product product) {
-        List<Batch> batches = batchRepository.findByProductOrderByExpirationDate(product.getId());
-        if (!batches.isEmpty()) {
-            return batches.get(0).getExpirationDate();
-        }
-        return product.getExpirationDate();
-    }
     public long getExpiringBatchesCount(int days) {
         LocalDate today = LocalDate.now();
         LocalDate targetDate = today.plusDays(days);
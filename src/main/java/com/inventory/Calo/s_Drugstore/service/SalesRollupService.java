@@ -0,0 +1,171 @@
+package com.inventory.Calo.s_Drugstore.service;
+
+import com.inventory.Calo.s_Drugstore.entity.DailySalesRollup;
+import com.inventory.Calo.s_Drugstore.entity.Product;
+import com.inventory.Calo.s_Drugstore.entity.Sale;
+import com.inventory.Calo.s_Drugstore.entity.SaleItem;
+import com.inventory.Calo.s_Drugstore.repository.DailySalesRollupRepository;
+import com.inventory.Calo.s_Drugstore.repository.ProductRepository;
+import com.inventory.Calo.s_Drugstore.repository.SaleItemRepository;
+import com.inventory.Calo.s_Drugstore.repository.SaleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps daily_sales_rollup (non-voided sales per day, category and cashier) in step with
+ * the sales table, so trend charts sum a handful of rows instead of loading every sale.
+ * A new sale is added as a delta; voids, deletes and edits recompute the days they touch.
+ */
+@Service
+public class SalesRollupService {
+
+    @Autowired
+    private DailySalesRollupRepository rollupRepository;
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private WriteQueueService writeQueue;
+
+    @Value("${app.sales-rollup.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    // Add a newly completed sale (runs in the checkout's transaction)
+    @Transactional
+    public void recordSale(Sale sale) {
+        Map<String, String> categories = categoriesByMedicineId(
+                sale.getItems().stream().map(SaleItem::getMedicineId).toList());
+
+        Map<String, List<SaleItem>> itemsByCategory = sale.getItems().stream()
+                .collect(Collectors.groupingBy(item -> categories.getOrDefault(item.getMedicineId(), DailySalesRollup.UNCATEGORIZED)));
+
+        LocalDate saleDate = sale.getSaleDate().toLocalDate();
+        Long userId = userKey(sale.getUserId());
+
+        Map<String, DailySalesRollup> rows = rollupRepository.findRows(saleDate, userId, itemsByCategory.keySet()).stream()
+                .collect(Collectors.toMap(DailySalesRollup::getCategory, row -> row));
+
+        for (Map.Entry<String, List<SaleItem>> entry : itemsByCategory.entrySet()) {
+            DailySalesRollup row = rows.computeIfAbsent(entry.getKey(),
+                    category -> new DailySalesRollup(saleDate, category, userId));
+            row.add(entry.getValue().stream().mapToInt(SaleItem::getQuantity).sum(),
+                    entry.getValue().stream().map(SaleItem::getSubtotal).reduce(BigDecimal.ZERO, BigDecimal::add));
+        }
+        rollupRepository.saveAll(rows.values());
+    }
+
+    /**
+     * Recompute the rollup rows of the given days from the sales table.
+     * Used after voids, deletes and edits; call it last, since it clears the persistence context.
+     */
+    @Transactional
+    public void refreshDays(Collection<LocalDate> days) {
+        if (days.isEmpty()) {
+            return;
+        }
+
+        rollupRepository.deleteBySaleDates(days);
+        for (LocalDate day : new TreeSet<>(days)) {
+            rollupRepository.saveAll(aggregate(day.atStartOfDay(), day.plusDays(1).atStartOfDay()));
+        }
+    }
+
+    // Rebuild the whole table from the sales table, one month at a time
+    public void rebuildAll() {
+        writeQueue.executeAlone(WriteQueueService.Priority.BULK, () -> {
+            rollupRepository.deleteAllInBatch();
+
+            LocalDateTime firstSale = saleRepository.findFirstSaleDate();
+            if (firstSale == null) {
+                return;
+            }
+
+            LocalDate end = LocalDate.now().plusDays(1);
+            int rows = 0;
+            for (LocalDate month = firstSale.toLocalDate().withDayOfMonth(1); month.isBefore(end); month = month.plusMonths(1)) {
+                List<DailySalesRollup> monthRows = aggregate(month.atStartOfDay(), month.plusMonths(1).atStartOfDay());
+                rollupRepository.saveAll(monthRows);
+                rows += monthRows.size();
+            }
+            System.out.println("✅ Daily sales rollup rebuilt: " + rows + " rows");
+        });
+    }
+
+    // Fill the table on first start (or when asked to with app.sales-rollup.rebuild-on-startup=true)
+    public void rebuildIfEmpty() {
+        if (rebuildOnStartup || (rollupRepository.count() == 0 && saleRepository.count() > 0)) {
+            rebuildAll();
+        }
+    }
+
+    // Non-voided sales total per day between two dates (inclusive); days without sales are absent
+    @Transactional(readOnly = true)
+    public Map<LocalDate, BigDecimal> getDailyTotals(LocalDate fromDate, LocalDate toDate) {
+        Map<LocalDate, BigDecimal> totals = new TreeMap<>();
+        for (Object[] row : rollupRepository.sumTotalsByDate(fromDate, toDate)) {
+            totals.put((LocalDate) row[0], (BigDecimal) row[1]);
+        }
+        return totals;
+    }
+
+    // Sum the daily totals that fall between two dates (inclusive)
+    public static BigDecimal sumBetween(Map<LocalDate, BigDecimal> dailyTotals, LocalDate fromDate, LocalDate toDate) {
+        return dailyTotals.entrySet().stream()
+                .filter(entry -> !entry.getKey().isBefore(fromDate) && !entry.getKey().isAfter(toDate))
+                .map(Map.Entry::getValue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private List<DailySalesRollup> aggregate(LocalDateTime start, LocalDateTime end) {
+        List<Object[]> items = saleItemRepository.findRollupRows(start, end);
+        Map<String, String> categories = categoriesByMedicineId(
+                items.stream().map(row -> (String) row[3]).collect(Collectors.toSet()));
+
+        Map<List<Object>, DailySalesRollup> rows = new LinkedHashMap<>();
+        Map<List<Object>, Set<Long>> salesPerRow = new HashMap<>();
+
+        for (Object[] item : items) {
+            LocalDate saleDate = ((LocalDateTime) item[0]).toLocalDate();
+            Long userId = userKey((Long) item[1]);
+            String category = categories.getOrDefault((String) item[3], DailySalesRollup.UNCATEGORIZED);
+            List<Object> key = List.of(saleDate, category, userId);
+
+            DailySalesRollup row = rows.computeIfAbsent(key, k -> new DailySalesRollup(saleDate, category, userId));
+            row.setItemsSold(row.getItemsSold() + (Integer) item[4]);
+            row.setTotalAmount(row.getTotalAmount().add((BigDecimal) item[5]));
+            if (salesPerRow.computeIfAbsent(key, k -> new HashSet<>()).add((Long) item[2])) {
+                row.setTransactionCount(row.getTransactionCount() + 1);
+            }
+        }
+        return new ArrayList<>(rows.values());
+    }
+
+    private Map<String, String> categoriesByMedicineId(Collection<String> medicineIds) {
+        Map<String, String> categories = new HashMap<>();
+        for (Product product : productRepository.findByMedicineIdIn(new HashSet<>(medicineIds))) {
+            if (product.getCategory() != null && !product.getCategory().isBlank()) {
+                categories.put(product.getMedicineId(), product.getCategory());
+            }
+        }
+        return categories;
+    }
+
+    private static Long userKey(Long userId) {
+        return userId != null ? userId : DailySalesRollup.UNKNOWN_USER;
+    }
+}
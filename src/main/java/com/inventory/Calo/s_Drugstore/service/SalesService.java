@@ -1,10 +1,15 @@
 package com.inventory.Calo.s_Drugstore.service;
 
 import com.inventory.Calo.s_Drugstore.entity.*;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
+import com.inventory.Calo.s_Drugstore.event.DomainEventBus;
 import com.inventory.Calo.s_Drugstore.repository.BatchRepository;
 import com.inventory.Calo.s_Drugstore.repository.ProductRepository;
+import com.inventory.Calo.s_Drugstore.repository.SaleItemBatchAllocationRepository;
 import com.inventory.Calo.s_Drugstore.repository.SaleRepository;
+import com.inventory.Calo.s_Drugstore.repository.TransactionSummary;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,17 +25,48 @@ public class SalesService {
     @Autowired
     private SaleRepository saleRepository;
 
-    @Autowired
-    private ProductService productService;
-
     @Autowired
     private BatchRepository batchRepository;
 
     @Autowired
     private ProductRepository productRepository;
 
-    @Transactional
-    public Sale completeSale(List<SaleItem> cartItems, User user) {
+    @Autowired
+    private IdSequenceService idSequenceService;
+
+    @Autowired
+    private StockAllocationService stockAllocationService;
+
+    @Autowired
+    private SaleItemBatchAllocationRepository allocationRepository;
+
+    @Autowired
+    private InventoryRestorationService inventoryRestorationService;
+
+    @Autowired
+    private WriteQueueService writeQueue;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private DomainEventBus events;
+
+    // A cart line as it was at checkout; copied on the cart's thread so edits made while the
+    // sale waits in the write queue (or is replayed there) can't change what gets recorded
+    public record CartLine(Long productId, int quantity, BigDecimal unitPrice, BigDecimal subtotal) {
+
+        public static CartLine of(SaleItem item) {
+            return new CartLine(item.getProduct().getId(), item.getQuantity(), item.getUnitPrice(), item.getSubtotal());
+        }
+    }
+
+    // Checkouts go through the write queue ahead of everything else and may share a commit
+    public Sale completeSale(List<CartLine> cartItems, User user) {
+        return writeQueue.execute(WriteQueueService.Priority.CHECKOUT, () -> recordSale(cartItems, user));
+    }
+
+    private Sale recordSale(List<CartLine> cartItems, User user) {
         if (cartItems == null || cartItems.isEmpty()) {
             throw new RuntimeException("Cart is empty");
         }
@@ -44,39 +80,35 @@ public class SalesService {
         BigDecimal totalAmount = BigDecimal.ZERO;
         int totalItems = 0;
 
-        // Process each item
-        for (SaleItem item : cartItems) {
-            // Get fresh product from database
-            Optional<Product> productOpt = productService.getProductById(item.getProduct().getId());
-
-            if (!productOpt.isPresent()) {
-                throw new RuntimeException("Product not found: " + item.getMedicineName());
-            }
-
-            Product product = productOpt.get();
+        // Allocate the whole cart FEFO in one pass (stock checks, batch deductions, product totals)
+        List<StockAllocationService.StockRequest> requests = cartItems.stream()
+                .map(item -> new StockAllocationService.StockRequest(item.productId(), item.quantity()))
+                .toList();
+        StockAllocationService.CartAllocation allocation = stockAllocationService.allocate(requests);
 
-            if (product.getStock() < item.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for " + product.getBrandName() +
-                        ". Available: " + product.getStock() + ", Requested: " + item.getQuantity());
-            }
-
-            // ✅ NEW: Deduct from batches using FEFO and get batch deduction history
-            String batchInfo = productService.deductStockFromBatches(product.getId(), item.getQuantity());
+        // Process each item
+        for (int i = 0; i < cartItems.size(); i++) {
+            CartLine item = cartItems.get(i);
+            Product product = allocation.productFor(i);
 
             // Create new sale item (don't reuse cart item)
             SaleItem saleItem = new SaleItem();
             saleItem.setMedicineId(product.getMedicineId());
             saleItem.setMedicineName(product.getBrandName());
-            saleItem.setQuantity(item.getQuantity());
-            saleItem.setUnitPrice(item.getUnitPrice());
-            saleItem.setSubtotal(item.getSubtotal());
-            saleItem.setBatchInfo(batchInfo);  // Store batch deduction history
+            saleItem.setQuantity(item.quantity());
+            saleItem.setUnitPrice(item.unitPrice());
+            saleItem.setSubtotal(item.subtotal());
+
+            // Store batch deduction history
+            for (StockAllocationService.BatchAllocation batchAllocation : allocation.lines().get(i)) {
+                saleItem.addBatchAllocation(batchAllocation.batchId(), batchAllocation.quantity());
+            }
 
             // Add to sale
             sale.addItem(saleItem);
 
-            totalAmount = totalAmount.add(item.getSubtotal());
-            totalItems += item.getQuantity();
+            totalAmount = totalAmount.add(item.subtotal());
+            totalItems += item.quantity();
         }
 
         sale.setTotalAmount(totalAmount);
@@ -84,6 +116,8 @@ public class SalesService {
 
         // Save sale (will cascade to items)
         Sale savedSale = saleRepository.save(sale);
+        salesRollupService.recordSale(savedSale);
+        events.publish(new DomainEvent.SaleCompleted(savedSale.getId(), savedSale.getSaleDate().toLocalDate()));
 
         System.out.println("✅ Sale saved: " + savedSale.getTransactionId() +
                 " with " + savedSale.getItems().size() + " items");
@@ -92,6 +126,7 @@ public class SalesService {
     }
 
 
+    @Transactional(readOnly = true)
     public Map<String, Object> getTodaysSummary() {
         LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
         LocalDateTime endOfDay = LocalDate.now().plusDays(1).atStartOfDay();
@@ -115,41 +150,63 @@ public class SalesService {
         return summary;
     }
 
-    // THIS METHOD EXISTS - MAKE SURE IT'S IN YOUR FILE
-    public List<Sale> getTodaysTransactions() {
+    // Today's non-voided transactions for the lists (newest first)
+    @Transactional(readOnly = true)
+    public List<TransactionSummary> getTodaysTransactions() {
         LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = LocalDate.now().plusDays(1).atStartOfDay();
-        return saleRepository.findTodaysSales(startOfDay, endOfDay);
+        return saleRepository.findSummaries(startOfDay, startOfDay.plusDays(1), false, null);
     }
 
-    private String generateTransactionId() {
-        List<Sale> latestSales = saleRepository.findLatestSales();
-
-        if (latestSales.isEmpty()) {
-            return "TXN001";
+    /**
+     * One page of the transaction history in [startDate, endDate), newest first.
+     * Pass the last row of the previous page as {@code after} (null for the first page);
+     * userId narrows it to one cashier and may be null.
+     */
+    @Transactional(readOnly = true)
+    public List<TransactionSummary> getTransactionPage(LocalDateTime startDate, LocalDateTime endDate,
+                                                       boolean includeVoided, Long userId,
+                                                       TransactionSummary after, int pageSize) {
+        if (after == null) {
+            return saleRepository.findSummaryPage(startDate, endDate, includeVoided, userId, Limit.of(pageSize));
         }
+        return saleRepository.findSummaryPageAfter(startDate, endDate, includeVoided, userId,
+                after.saleDate(), after.id(), Limit.of(pageSize));
+    }
+
+    // Full sale with its items, for when a transaction is opened
+    @Transactional(readOnly = true)
+    public Optional<Sale> getTransactionWithItems(Long saleId) {
+        return saleRepository.findWithItemsById(saleId);
+    }
 
-        String lastId = latestSales.get(0).getTransactionId();
-        int number = Integer.parseInt(lastId.substring(3)) + 1;
+    private String generateTransactionId() {
+        long number = idSequenceService.nextValue(IdSequenceService.TRANSACTION,
+                saleRepository::findMaxTransactionNumber);
         return String.format("TXN%03d", number);
     }
 
+    @Transactional(readOnly = true)
     public List<Sale> getSalesBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
         return saleRepository.findBySaleDateBetween(startDate, endDate);
     }
 
     // Get ALL transactions including voided (for viewing in reports with filter)
+    @Transactional(readOnly = true)
     public List<Sale> getAllSalesBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
         return saleRepository.findAllBySaleDateBetweenIncludingVoided(startDate, endDate);
     }
 
     // Get only voided transactions
+    @Transactional(readOnly = true)
     public List<Sale> getVoidedTransactions() {
         return saleRepository.findVoidedTransactions();
     }
 
-    @Transactional
     public Sale updateTransaction(Sale sale) {
+        return writeQueue.executeAlone(WriteQueueService.Priority.INTERACTIVE, () -> saveUpdatedTransaction(sale));
+    }
+
+    private Sale saveUpdatedTransaction(Sale sale) {
         // Validate sale has ID
         if (sale.getId() == null) {
             throw new RuntimeException("Cannot update transaction without ID");
@@ -168,270 +225,135 @@ public class SalesService {
         sale.setTotalItems(newTotalItems);
 
         // Update the sale (cascade will update items)
-        return saleRepository.save(sale);
+        Sale savedSale = saleRepository.save(sale);
+        salesRollupService.refreshDays(List.of(savedSale.getSaleDate().toLocalDate()));
+        events.publish(new DomainEvent.SaleChanged(savedSale.getId(), savedSale.getSaleDate().toLocalDate()));
+        return savedSale;
     }
 
-    @Transactional
     public void deleteTransaction(Long saleId) {
+        writeQueue.execute(WriteQueueService.Priority.INTERACTIVE, () -> removeTransaction(saleId));
+    }
+
+    private void removeTransaction(Long saleId) {
         Optional<Sale> saleOpt = saleRepository.findById(saleId);
 
         if (!saleOpt.isPresent()) {
             throw new RuntimeException("Transaction not found");
         }
 
-        Sale sale = saleOpt.get();
+        LocalDate saleDay = saleOpt.get().getSaleDate().toLocalDate();
 
         // Restore inventory for all items
-        for (SaleItem item : sale.getItems()) {
-            // Find product by medicine ID
-            List<Product> allProducts = productService.getAllProducts();
-            Optional<Product> productOpt = allProducts.stream()
-                    .filter(p -> p.getMedicineId().equals(item.getMedicineId()))
-                    .findFirst();
-
-            if (productOpt.isPresent()) {
-                Product product = productOpt.get();
-                String batchInfo = item.getBatchInfo();
-
-                if (batchInfo != null && !batchInfo.isEmpty() && !batchInfo.equals("[]")) {
-                    // ✅ PERFECT RESTORATION: Use stored batch info for exact restoration
-                    System.out.println("🔄 Restoring using batch history: " + batchInfo);
-                    
-                    // Parse JSON manually (simple parsing for our format)
-                    String[] batches = batchInfo.replace("[", "").replace("]", "").split("\\},\\{");
-                    
-                    for (String batchStr : batches) {
-                        batchStr = batchStr.replace("{", "").replace("}", "");
-                        
-                        // Extract batchId and quantity
-                        String[] parts = batchStr.split(",");
-                        Long batchId = null;
-                        int quantity = 0;
-                        
-                        for (String part : parts) {
-                            part = part.trim();
-                            if (part.contains("batchId")) {
-                                String value = part.split(":")[1].trim().replace("\"", "");
-                                batchId = Long.parseLong(value);
-                            } else if (part.contains("quantity")) {
-                                String value = part.split(":")[1].trim().replace("\"", "");
-                                quantity = Integer.parseInt(value);
-                            }
-                        }
-                        
-                        if (batchId != null && quantity > 0) {
-                            Optional<Batch> batchOpt = batchRepository.findById(batchId);
-                            if (batchOpt.isPresent()) {
-                                Batch batch = batchOpt.get();
-                                batch.setStock(batch.getStock() + quantity);
-                                batchRepository.save(batch);
-                                
-                                System.out.println("✅ Restored " + quantity + " units to batch " +
-                                        batch.getBatchNumber() + " (New Stock: " + batch.getStock() + ")");
-                            }
-                        }
-                    }
-                    
-                    // Update product total stock
-                    int totalStock = batchRepository.findByProductId(product.getId()).stream()
-                            .mapToInt(Batch::getStock)
-                            .sum();
-                    product.setStock(totalStock);
-                    productRepository.save(product);
-                    
-                    System.out.println("✅ Product total stock updated to: " + totalStock);
-                } else {
-                    // Fallback: No batch info available (old transaction or no batches)
-                    System.out.println("⚠️ No batch info available, using fallback restoration");
-                    
-                    List<Batch> batches = batchRepository.findByProductOrderByExpirationDate(product.getId());
-                    if (!batches.isEmpty()) {
-                        Batch firstBatch = batches.get(0);
-                        firstBatch.setStock(firstBatch.getStock() + item.getQuantity());
-                        batchRepository.save(firstBatch);
-                        
-                        int totalStock = batchRepository.findByProductId(product.getId()).stream()
-                                .mapToInt(Batch::getStock)
-                                .sum();
-                        product.setStock(totalStock);
-                        productRepository.save(product);
-                    } else {
-                        product.setStock(product.getStock() + item.getQuantity());
-                        productRepository.save(product);
-                    }
-                }
-            }
-        }
+        inventoryRestorationService.restoreSales(List.of(saleOpt.get()));
+        allocationRepository.deleteBySaleIds(List.of(saleId));
 
         // Delete the sale
         saleRepository.deleteById(saleId);
+        salesRollupService.refreshDays(List.of(saleDay));
+        events.publish(new DomainEvent.SaleChanged(saleId, saleDay));
         System.out.println("✅ Transaction deleted");
     }
 
-    @Transactional
     public void voidTransaction(Long saleId, String reason) {
-        Optional<Sale> saleOpt = saleRepository.findById(saleId);
+        writeQueue.execute(WriteQueueService.Priority.INTERACTIVE, () -> {
+            Optional<Sale> saleOpt = saleRepository.findById(saleId);
 
-        if (!saleOpt.isPresent()) {
-            throw new RuntimeException("Transaction not found");
-        }
+            if (!saleOpt.isPresent()) {
+                throw new RuntimeException("Transaction not found");
+            }
+
+            if (saleOpt.get().isVoided()) {
+                throw new RuntimeException("Transaction is already voided");
+            }
+
+            markVoided(List.of(saleId), reason);
+        });
+    }
+
+    // Void several transactions in one go; already voided ones are skipped
+    // Returns the number of transactions voided
+    public int voidTransactions(Collection<Long> saleIds, String reason) {
+        return writeQueue.execute(WriteQueueService.Priority.INTERACTIVE, () -> markVoided(saleIds, reason));
+    }
 
-        Sale sale = saleOpt.get();
+    private int markVoided(Collection<Long> saleIds, String reason) {
+        List<Sale> sales = saleRepository.findAllById(saleIds).stream()
+                .filter(sale -> !sale.isVoided())
+                .toList();
 
-        if (sale.isVoided()) {
-            throw new RuntimeException("Transaction is already voided");
+        if (sales.isEmpty()) {
+            return 0;
         }
 
         // Mark as voided
-        sale.setVoided(true);
-        sale.setVoidDate(LocalDateTime.now());
-        sale.setVoidReason(reason != null ? reason : "No reason provided");
+        LocalDateTime voidDate = LocalDateTime.now();
+        for (Sale sale : sales) {
+            sale.setVoided(true);
+            sale.setVoidDate(voidDate);
+            sale.setVoidReason(reason != null ? reason : "No reason provided");
+        }
 
         // Restore inventory for all items using batch history
-        for (SaleItem item : sale.getItems()) {
-            List<Product> allProducts = productService.getAllProducts();
-            Optional<Product> productOpt = allProducts.stream()
-                    .filter(p -> p.getMedicineId().equals(item.getMedicineId()))
-                    .findFirst();
-
-            if (productOpt.isPresent()) {
-                Product product = productOpt.get();
-                String batchInfo = item.getBatchInfo();
-
-                if (batchInfo != null && !batchInfo.isEmpty() && !batchInfo.equals("[]")) {
-                    // ✅ PERFECT RESTORATION: Use stored batch info
-                    System.out.println("🔄 Voiding: Restoring using batch history: " + batchInfo);
-                    
-                    try {
-                        // Parse JSON manually: [{"batchId":1,"quantity":50},{"batchId":2,"quantity":30}]
-                        String[] batches = batchInfo.replace("[", "").replace("]", "").split("\\},\\{");
-                        
-                        for (String batchStr : batches) {
-                            batchStr = batchStr.replace("{", "").replace("}", "").trim();
-                            
-                            Long batchId = null;
-                            int quantity = 0;
-                            
-                            // Split by comma and parse key-value pairs
-                            String[] parts = batchStr.split(",");
-                            for (String part : parts) {
-                                part = part.trim();
-                                if (part.contains("\"batchId\"")) {
-                                    String value = part.split(":")[1].trim();
-                                    batchId = Long.parseLong(value);
-                                } else if (part.contains("\"quantity\"")) {
-                                    String value = part.split(":")[1].trim();
-                                    quantity = Integer.parseInt(value);
-                                }
-                            }
-                            
-                            if (batchId != null && quantity > 0) {
-                                Optional<Batch> batchOpt = batchRepository.findById(batchId);
-                                if (batchOpt.isPresent()) {
-                                    Batch batch = batchOpt.get();
-                                    batch.setStock(batch.getStock() + quantity);
-                                    batchRepository.save(batch);
-                                    
-                                    System.out.println("✅ Restored " + quantity + " units to batch " +
-                                            batch.getBatchNumber() + " (New Stock: " + batch.getStock() + ")");
-                                } else {
-                                    System.err.println("❌ Batch not found: " + batchId);
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        System.err.println("❌ Error parsing batch info: " + e.getMessage());
-                        e.printStackTrace();
-                        throw new RuntimeException("Failed to restore inventory from batch info", e);
-                    }
-                    
-                    int totalStock = batchRepository.findByProductId(product.getId()).stream()
-                            .mapToInt(Batch::getStock)
-                            .sum();
-                    product.setStock(totalStock);
-                    productRepository.save(product);
-                } else {
-                    // Fallback restoration
-                    List<Batch> batches = batchRepository.findByProductOrderByExpirationDate(product.getId());
-                    if (!batches.isEmpty()) {
-                        Batch firstBatch = batches.get(0);
-                        firstBatch.setStock(firstBatch.getStock() + item.getQuantity());
-                        batchRepository.save(firstBatch);
-                        
-                        int totalStock = batchRepository.findByProductId(product.getId()).stream()
-                                .mapToInt(Batch::getStock)
-                                .sum();
-                        product.setStock(totalStock);
-                        productRepository.save(product);
-                    } else {
-                        product.setStock(product.getStock() + item.getQuantity());
-                        productRepository.save(product);
-                    }
-                }
-            }
-        }
+        inventoryRestorationService.restoreSales(sales);
+
+        // Save the voided sales (don't delete them)
+        saleRepository.saveAll(sales);
+        salesRollupService.refreshDays(sales.stream()
+                .map(sale -> sale.getSaleDate().toLocalDate())
+                .collect(Collectors.toSet()));
+        sales.forEach(sale -> events.publish(new DomainEvent.SaleVoided(sale.getId(), sale.getSaleDate().toLocalDate())));
+        System.out.println("✅ " + sales.size() + " transaction(s) voided and inventory restored");
+        return sales.size();
+    }
 
-        // Save the voided sale (don't delete it)
-        saleRepository.save(sale);
-        System.out.println("✅ Transaction voided and inventory restored");
+    // Which sales drew stock from a batch (batch traceability)
+    @Transactional(readOnly = true)
+    public List<Sale> getSalesByBatch(Long batchId) {
+        return saleRepository.findSalesByBatchId(batchId);
     }
 
-    @Transactional
+    // Runs alone: the sale passed in is modified (new batch allocations) before it is saved
     public Sale updateTransactionWithInventory(Sale sale, Map<String, Integer> originalQuantities) {
+        return writeQueue.executeAlone(WriteQueueService.Priority.INTERACTIVE,
+                () -> reallocateTransaction(sale, originalQuantities));
+    }
+
+    private Sale reallocateTransaction(Sale sale, Map<String, Integer> originalQuantities) {
+        List<Long> saleIds = List.of(sale.getId());
+
         // First, restore inventory for all original quantities
-        for (Map.Entry<String, Integer> entry : originalQuantities.entrySet()) {
-            String medicineId = entry.getKey();
-            int originalQty = entry.getValue();
-
-            List<Product> allProducts = productService.getAllProducts();
-            Optional<Product> productOpt = allProducts.stream()
-                    .filter(p -> p.getMedicineId().equals(medicineId))
-                    .findFirst();
-
-            if (productOpt.isPresent()) {
-                Product product = productOpt.get();
-
-                // Restore to batches in FEFO order (reverse the original deduction)
-                List<com.inventory.Calo.s_Drugstore.entity.Batch> batches =
-                        batchRepository.findByProductOrderByExpirationDate(product.getId());
-
-                if (!batches.isEmpty()) {
-                    // ✅ Add back to first batch (simulating FEFO reversal)
-                    com.inventory.Calo.s_Drugstore.entity.Batch firstBatch = batches.get(0);
-                    firstBatch.setStock(firstBatch.getStock() + originalQty);
-                    batchRepository.save(firstBatch);
-
-                    // Update product stock
-                    product.setStock(product.getStock() + originalQty);
-                    productService.updateProduct(product.getId(), product);
-                } else {
-                    product.setStock(product.getStock() + originalQty);
-                    productService.updateProduct(product.getId(), product);
-                }
-            }
+        // Items with batch history go back to the exact batches they came from
+        Set<String> restoredMedicineIds = new HashSet<>(allocationRepository.findAllocatedMedicineIds(saleIds));
+        if (!restoredMedicineIds.isEmpty()) {
+            allocationRepository.restoreBatchStock(saleIds, LocalDate.now());
+            allocationRepository.recalculateProductStock(saleIds);
         }
+        allocationRepository.deleteBySaleIds(saleIds);
 
-        // Then, deduct new quantities using FEFO
-        for (SaleItem item : sale.getItems()) {
-            List<Product> allProducts = productService.getAllProducts();
-            Optional<Product> productOpt = allProducts.stream()
-                    .filter(p -> p.getMedicineId().equals(item.getMedicineId()))
-                    .findFirst();
-
-            if (productOpt.isPresent()) {
-                Product product = productOpt.get();
+        Map<String, Integer> withoutHistory = new HashMap<>(originalQuantities);
+        withoutHistory.keySet().removeAll(restoredMedicineIds);
+        inventoryRestorationService.restoreWithoutBatchHistory(withoutHistory);
 
-                // Check if we have enough stock
-                if (product.getStock() < item.getQuantity()) {
-                    throw new RuntimeException("Insufficient stock for " + product.getBrandName() +
-                            ". Available: " + product.getStock() + ", Required: " + item.getQuantity());
-                }
+        // Then, deduct new quantities using FEFO
+        Map<String, Product> products = inventoryRestorationService.findProductsByMedicineIds(
+                sale.getItems().stream().map(SaleItem::getMedicineId).toList());
 
-                // Use FEFO deduction
-                productService.deductStockFromBatches(product.getId(), item.getQuantity());
+        List<StockAllocationService.StockRequest> requests = new ArrayList<>();
+        for (SaleItem item : sale.getItems()) {
+            Product product = products.get(item.getMedicineId());
+            if (product == null) {
+                throw new RuntimeException("Product not found: " + item.getMedicineName());
+            }
+            requests.add(new StockAllocationService.StockRequest(product.getId(), item.getQuantity()));
+        }
+        StockAllocationService.CartAllocation allocation = stockAllocationService.allocate(requests);
 
-                // ✅ Cleanup depleted batches
-                //cleanupDepletedBatches(product.getId());
+        for (int i = 0; i < sale.getItems().size(); i++) {
+            SaleItem item = sale.getItems().get(i);
+            item.setBatchAllocations(new ArrayList<>());
+            for (StockAllocationService.BatchAllocation batchAllocation : allocation.lines().get(i)) {
+                item.addBatchAllocation(batchAllocation.batchId(), batchAllocation.quantity());
             }
         }
 
@@ -448,7 +370,10 @@ public class SalesService {
         sale.setTotalItems(newTotalItems);
 
         // Update and return the sale
-        return saleRepository.save(sale);
+        Sale savedSale = saleRepository.save(sale);
+        salesRollupService.refreshDays(List.of(savedSale.getSaleDate().toLocalDate()));
+        events.publish(new DomainEvent.SaleChanged(savedSale.getId(), savedSale.getSaleDate().toLocalDate()));
+        return savedSale;
     }
 
     private void cleanupDepletedBatches(Long productId) {
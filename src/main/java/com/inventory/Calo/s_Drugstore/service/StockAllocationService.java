@@ -0,0 +1,159 @@
+package com.inventory.Calo.s_Drugstore.service;
+
+import com.inventory.Calo.s_Drugstore.entity.Batch;
+import com.inventory.Calo.s_Drugstore.entity.Product;
+import com.inventory.Calo.s_Drugstore.event.DomainEvent;
+import com.inventory.Calo.s_Drugstore.event.DomainEventBus;
+import com.inventory.Calo.s_Drugstore.repository.BatchRepository;
+import com.inventory.Calo.s_Drugstore.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * FEFO (First Expiry First Out) allocation for a whole cart at once.
+ * Products and their usable batches are loaded with one query each, the
+ * deductions are worked out in memory and every batch/product update is
+ * written in a single batched flush.
+ */
+@Service
+public class StockAllocationService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BatchRepository batchRepository;
+
+    @Autowired
+    private BatchCacheService batchCache;
+
+    @Autowired
+    private DomainEventBus events;
+
+    /**
+     * One cart line to allocate
+     */
+    public record StockRequest(Long productId, int quantity) {}
+
+    /**
+     * Units taken from a single batch for one cart line
+     */
+    public record BatchAllocation(Long productId, Long batchId, String batchNumber,
+                                  LocalDate expirationDate, int quantity) {}
+
+    /**
+     * Allocations for every line, in the same order as the requests
+     */
+    public record CartAllocation(Map<Long, Product> products, List<List<BatchAllocation>> lines) {
+
+        public Product productFor(int line) {
+            return products.get(lines.get(line).get(0).productId());
+        }
+    }
+
+    /**
+     * Deduct stock for every line of a cart using FEFO.
+     * Throws before anything is written if a product is missing or short on stock.
+     */
+    @Transactional
+    public CartAllocation allocate(List<StockRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new RuntimeException("Cart is empty");
+        }
+
+        Set<Long> productIds = new LinkedHashSet<>();
+        Map<Long, Integer> requestedByProduct = new HashMap<>();
+        for (StockRequest request : requests) {
+            if (request.quantity() <= 0) {
+                throw new RuntimeException("Invalid quantity for product ID: " + request.productId());
+            }
+            productIds.add(request.productId());
+            requestedByProduct.merge(request.productId(), request.quantity(), Integer::sum);
+        }
+
+        // 1 query: all products in the cart
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            products.put(product.getId(), product);
+        }
+
+        for (Long productId : productIds) {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new RuntimeException("Product not found with ID: " + productId);
+            }
+            int requested = requestedByProduct.get(productId);
+            if (product.getStock() < requested) {
+                throw new RuntimeException("Insufficient stock for " + product.getBrandName() +
+                        ". Available: " + product.getStock() + ", Requested: " + requested);
+            }
+        }
+
+        // 1 query: every usable batch of those products, already in FEFO order
+        Map<Long, Deque<Batch>> batchesByProduct = new HashMap<>();
+        for (Batch batch : batchRepository.findAvailableBatchesByProductIds(productIds, LocalDate.now())) {
+            batchesByProduct.computeIfAbsent(batch.getProduct().getId(), id -> new ArrayDeque<>()).add(batch);
+        }
+
+        // 1 query: current total of all batches (expired included) per product
+        Map<Long, Integer> totalStock = new HashMap<>();
+        for (Object[] row : batchRepository.sumStockByProductIds(productIds)) {
+            totalStock.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+
+        List<List<BatchAllocation>> lines = new ArrayList<>();
+        for (StockRequest request : requests) {
+            Deque<Batch> batches = batchesByProduct.get(request.productId());
+            if (batches == null || batches.isEmpty()) {
+                throw new RuntimeException("No valid (non-expired) batches available for product ID: " + request.productId());
+            }
+
+            List<BatchAllocation> allocations = new ArrayList<>();
+            int remainingToDeduct = request.quantity();
+
+            while (remainingToDeduct > 0 && !batches.isEmpty()) {
+                Batch batch = batches.peekFirst();
+                int deductFromThisBatch = Math.min(remainingToDeduct, batch.getStock());
+
+                batch.setStock(batch.getStock() - deductFromThisBatch);
+                remainingToDeduct -= deductFromThisBatch;
+
+                allocations.add(new BatchAllocation(request.productId(), batch.getId(), batch.getBatchNumber(),
+                        batch.getExpirationDate(), deductFromThisBatch));
+
+                System.out.println("✅ FEFO: Deducted " + deductFromThisBatch + " from batch " +
+                        batch.getBatchNumber() + " (Expiry: " + batch.getExpirationDate() +
+                        ", Remaining in batch: " + batch.getStock() + ")");
+
+                // Later lines for the same product continue from the next batch
+                if (batch.getStock() == 0) {
+                    batches.pollFirst();
+                }
+            }
+
+            if (remainingToDeduct > 0) {
+                throw new RuntimeException("Insufficient non-expired batch stock. Could not fulfill " +
+                        remainingToDeduct + " units from available batches.");
+            }
+
+            lines.add(allocations);
+        }
+
+        // Product totals follow from the old batch totals minus what was deducted
+        for (Long productId : productIds) {
+            int newTotal = totalStock.getOrDefault(productId, 0) - requestedByProduct.get(productId);
+            products.get(productId).setStock(newTotal);
+        }
+
+        // All dirty batches and products go out as one JDBC batch
+        batchRepository.flush();
+        batchCache.invalidateAll(productIds);
+        productIds.forEach(productId -> events.publish(new DomainEvent.BatchChanged(productId)));
+
+        return new CartAllocation(products, lines);
+    }
+}
@@ -2,8 +2,8 @@ package com.inventory.Calo.s_Drugstore.service;
 
 import com.inventory.Calo.s_Drugstore.entity.Product;
 import com.inventory.Calo.s_Drugstore.entity.Supplier;
-import com.inventory.Calo.s_Drugstore.repository.ProductRepository;
 import com.inventory.Calo.s_Drugstore.repository.SupplierRepository;
+import com.inventory.Calo.s_Drugstore.util.FtsQuery;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,7 +19,10 @@ public class SupplierService {
     private SupplierRepository supplierRepository;
 
     @Autowired
-    private ProductRepository productRepository;
+    private CatalogService catalogService;
+
+    @Autowired
+    private IdSequenceService idSequenceService;
 
     public List<Supplier> getAllSuppliers() {
         return supplierRepository.findAllByOrderByCompanyNameAsc();
@@ -33,18 +36,20 @@ public class SupplierService {
         return supplierRepository.findBySupplierId(supplierId);
     }
 
+    // Full-text prefix search, best match first
     public List<Supplier> searchSuppliers(String searchTerm) {
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+        String query = FtsQuery.prefixQuery(searchTerm);
+        if (query == null) {
             return getAllSuppliers();
         }
-        return supplierRepository.searchSuppliers(searchTerm.trim());
+        return supplierRepository.searchSuppliers(query);
     }
 
     @Transactional
     public void syncSuppliersFromProducts() {
         try {
             // Get all unique supplier names from products table
-            List<String> productSuppliers = productRepository.findAll().stream()
+            List<String> productSuppliers = catalogService.getProducts().stream()
                     .map(Product::getSupplier)
                     .filter(supplier -> supplier != null && !supplier.trim().isEmpty())
                     .distinct()
@@ -156,28 +161,15 @@ public class SupplierService {
     }
 
     public String generateNextSupplierId() {
-        List<Supplier> allSuppliers = supplierRepository.findAll();
-
-        if (allSuppliers.isEmpty()) {
-            return "SUP001";
-        }
-
-        int maxNumber = 0;
-        for (Supplier supplier : allSuppliers) {
-            String supplierId = supplier.getSupplierId();
-            if (supplierId != null && supplierId.startsWith("SUP")) {
-                try {
-                    int number = Integer.parseInt(supplierId.substring(3));
-                    if (number > maxNumber) {
-                        maxNumber = number;
-                    }
-                } catch (NumberFormatException e) {
-                    // Ignore non-numeric suffixes
-                }
-            }
-        }
-
-        return String.format("SUP%03d", maxNumber + 1);
+        String supplierId;
+        do {
+            long number = idSequenceService.nextValue(IdSequenceService.SUPPLIER,
+                    supplierRepository::findMaxSupplierNumber);
+            supplierId = String.format("SUP%03d", number);
+            // Skip IDs that were entered manually
+        } while (supplierRepository.existsBySupplierId(supplierId));
+
+        return supplierId;
     }
 
     public List<Supplier> getSuppliersByStatus(String status) {
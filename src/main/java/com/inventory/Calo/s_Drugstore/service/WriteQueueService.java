@@ -0,0 +1,319 @@
+package com.inventory.Calo.s_Drugstore.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs every database write on one dedicated writer thread, since SQLite only allows one writer.
+ * Writes that arrive close together are committed as a single transaction (group commit),
+ * checkouts jump ahead of interactive edits and bulk imports, and a bounded queue pushes
+ * back on callers instead of letting them pile up on SQLITE_BUSY.
+ */
+@Service
+public class WriteQueueService {
+
+    // Lower ordinal runs first
+    public enum Priority {
+        CHECKOUT,
+        INTERACTIVE,
+        BULK
+    }
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.write-queue.capacity:256}")
+    private int capacity;
+
+    @Value("${app.write-queue.max-group-size:32}")
+    private int maxGroupSize;
+
+    @Value("${app.write-queue.group-window-ms:2}")
+    private long groupWindowMs;
+
+    @Value("${app.write-queue.submit-timeout-ms:10000}")
+    private long submitTimeoutMs;
+
+    private final PriorityBlockingQueue<WriteTask<?>> queue = new PriorityBlockingQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Semaphore slots;
+    private Semaphore bulkSlots;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        slots = new Semaphore(capacity);
+        // Bulk work may only fill half the queue so checkouts always find room
+        bulkSlots = new Semaphore(Math.max(1, capacity / 2));
+
+        running = true;
+        writer = new Thread(this::writeLoop, "db-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(5000);
+        writer.interrupt();
+
+        WriteTask<?> task;
+        while ((task = queue.poll()) != null) {
+            task.fail(new RuntimeException("Application is shutting down, write was not saved"));
+        }
+    }
+
+    /**
+     * Run a write and wait for it to commit. The work may be committed together with
+     * other writes, so it must only rely on its arguments and what it reads from the
+     * database (it is replayed on its own if another write in the same group fails).
+     */
+    public <T> T execute(Priority priority, Supplier<T> work) {
+        return await(submit(priority, true, work));
+    }
+
+    public void execute(Priority priority, Runnable work) {
+        execute(priority, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // Run a write in its own transaction and wait for it to commit
+    public <T> T executeAlone(Priority priority, Supplier<T> work) {
+        return await(submit(priority, false, work));
+    }
+
+    public void executeAlone(Priority priority, Runnable work) {
+        executeAlone(priority, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Queue a write without waiting for it. Blocks while the queue is full and
+     * throws if no room frees up within the submit timeout.
+     */
+    public <T> CompletableFuture<T> submit(Priority priority, boolean groupable, Supplier<T> work) {
+        // Already inside a write - join it instead of queueing behind ourselves
+        if (Thread.currentThread() == writer) {
+            return runInline(work);
+        }
+
+        // A read-only transaction is on the reader pool, whose connections refuse to write,
+        // so the write is queued and commits on its own. A read-write transaction is joined
+        // to keep it atomic, although it isn't serialized with the queued writes
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            System.out.println("⚠️ Write joined a transaction on " + Thread.currentThread().getName() + " instead of the write queue");
+            return runInline(work);
+        }
+
+        if (!running) {
+            throw new RuntimeException("Application is shutting down, write was not saved");
+        }
+
+        acquireSlot(priority);
+        WriteTask<T> task = new WriteTask<>(priority, groupable, sequence.incrementAndGet(), work);
+        queue.add(task);
+        return task.future;
+    }
+
+    public int getPendingWrites() {
+        return queue.size();
+    }
+
+    private <T> CompletableFuture<T> runInline(Supplier<T> work) {
+        try {
+            return CompletableFuture.completedFuture(work.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void acquireSlot(Priority priority) {
+        try {
+            if (priority == Priority.BULK && !bulkSlots.tryAcquire(submitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Database is busy - too many pending imports, please try again");
+            }
+            if (!slots.tryAcquire(submitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                if (priority == Priority.BULK) {
+                    bulkSlots.release();
+                }
+                throw new RuntimeException("Database is busy - too many pending writes, please try again");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to save", e);
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // Rethrow the original error so callers see the same messages as before
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for save to finish", e);
+        }
+    }
+
+    private void writeLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                WriteTask<?> first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                runGroup(collectGroup(first));
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return;
+                }
+            } catch (Throwable t) {
+                System.err.println("❌ Write queue error: " + t.getMessage());
+            }
+        }
+    }
+
+    // Gather the writes that arrive within the group window behind the first one
+    private List<WriteTask<?>> collectGroup(WriteTask<?> first) throws InterruptedException {
+        List<WriteTask<?>> group = new ArrayList<>();
+        group.add(first);
+        if (!first.groupable) {
+            return group;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(groupWindowMs);
+        while (group.size() < maxGroupSize) {
+            WriteTask<?> next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            if (!next.groupable) {
+                // Runs alone right after this group
+                queue.add(next);
+                break;
+            }
+            group.add(next);
+        }
+        return group;
+    }
+
+    private void runGroup(List<WriteTask<?>> group) {
+        List<WriteTask<?>> pending = new ArrayList<>(group);
+
+        while (!pending.isEmpty()) {
+            WriteTask<?> failed = null;
+            RuntimeException failure = null;
+            TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+
+            try {
+                for (WriteTask<?> task : pending) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        failed = task;
+                        failure = e;
+                        break;
+                    }
+                }
+
+                if (failed == null) {
+                    transactionManager.commit(status);
+                    pending.forEach(WriteTask::complete);
+                    return;
+                }
+
+                // One write failed: fail only that one and replay the rest without it
+                transactionManager.rollback(status);
+                failed.fail(failure);
+                pending.remove(failed);
+
+            } catch (RuntimeException | Error e) {
+                // The commit itself failed - retry each write on its own so errors land on the right caller
+                if (!status.isCompleted()) {
+                    try {
+                        transactionManager.rollback(status);
+                    } catch (RuntimeException ignored) {
+                    }
+                }
+                if (pending.size() == 1) {
+                    pending.get(0).fail(e);
+                } else {
+                    pending.forEach(task -> runGroup(List.of(task)));
+                }
+                return;
+            }
+        }
+    }
+
+    private class WriteTask<T> implements Comparable<WriteTask<?>> {
+        private final Priority priority;
+        private final boolean groupable;
+        private final long order;
+        private final Supplier<T> work;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+
+        WriteTask(Priority priority, boolean groupable, long order, Supplier<T> work) {
+            this.priority = priority;
+            this.groupable = groupable;
+            this.order = order;
+            this.work = work;
+        }
+
+        void run() {
+            result = work.get();
+        }
+
+        void complete() {
+            release();
+            future.complete(result);
+        }
+
+        void fail(Throwable error) {
+            release();
+            future.completeExceptionally(error);
+        }
+
+        private void release() {
+            slots.release();
+            if (priority == Priority.BULK) {
+                bulkSlots.release();
+            }
+        }
+
+        @Override
+        public int compareTo(WriteTask<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.inventory.Calo.s_Drugstore.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns what a user typed into an FTS5 MATCH expression: every word becomes a quoted
+ * prefix term ("para 500" -> "para"* "500"*), and FTS5 ANDs them together.
+ * Words are split the way the unicode61 tokenizer splits them, so punctuation can't
+ * turn into query syntax.
+ */
+public final class FtsQuery {
+
+    private FtsQuery() {
+    }
+
+    // The MATCH expression, or null when there is no word to search for
+    public static String prefixQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        List<String> terms = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (!word.isEmpty()) {
+                terms.add("\"" + word + "\"*");
+                word.setLength(0);
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" ", terms);
+    }
+}
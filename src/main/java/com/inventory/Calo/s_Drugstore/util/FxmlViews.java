@@ -0,0 +1,236 @@
+package com.inventory.Calo.s_Drugstore.util;
+
+import javafx.event.Event;
+import javafx.event.EventHandler;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.util.Callback;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Loads the FXML pages. When the build generated a Java builder for a page (mvn -Pfxml-codegen,
+ * see FxmlViewGenerator in src/build/java) the page is put together by plain constructor and
+ * setter calls; otherwise - no generated class, or one generated from an older version of the
+ * FXML - it is parsed by FXMLLoader as before. Either way the controller comes from the factory,
+ * gets its @FXML fields and handlers wired and is initialized.
+ */
+public final class FxmlViews {
+
+    // Where FxmlViewGenerator puts the builders: /fxml/staff-sales.fxml -> view.StaffSalesView
+    public static final String GENERATED_PACKAGE = "com.inventory.Calo.s_Drugstore.view";
+
+    private static final Map<String, Optional<GeneratedView>> generated = new ConcurrentHashMap<>();
+
+    /** A page built by FxmlViewGenerator's output. */
+    public interface GeneratedView {
+
+        // CRC32 of the FXML file the class was generated from
+        long sourceChecksum();
+
+        LoadedView build(Callback<Class<?>, Object> controllerFactory);
+    }
+
+    public record LoadedView(Parent root, Object controller) {
+
+        @SuppressWarnings("unchecked")
+        public <T> T getController() {
+            return (T) controller;
+        }
+    }
+
+    private FxmlViews() {
+    }
+
+    public static LoadedView load(String fxmlPath, Callback<Class<?>, Object> controllerFactory) throws IOException {
+        Optional<GeneratedView> view = generated.computeIfAbsent(fxmlPath, FxmlViews::findGenerated);
+        if (view.isPresent()) {
+            return view.get().build(controllerFactory);
+        }
+        return loadWithFxmlLoader(fxmlPath, controllerFactory);
+    }
+
+    /**
+     * The part of loading a page that doesn't need the FX thread: finds the generated builder
+     * and loads the classes the FXML names, so load() later only has to build the nodes.
+     * Returns the fx:controller class, or null if the page doesn't name one.
+     */
+    public static Class<?> prepare(String fxmlPath) throws IOException {
+        generated.computeIfAbsent(fxmlPath, FxmlViews::findGenerated);
+
+        ClassLoader classLoader = FxmlViews.class.getClassLoader();
+        List<String> imports = new ArrayList<>();
+        Class<?> controllerClass = null;
+
+        try (InputStream in = FxmlViews.class.getResourceAsStream(fxmlPath)) {
+            if (in == null) {
+                throw new IOException("FXML not found: " + fxmlPath);
+            }
+            XMLStreamReader reader = XMLInputFactory.newFactory().createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.PROCESSING_INSTRUCTION && "import".equals(reader.getPITarget())) {
+                    imports.add(reader.getPIData().trim());
+                } else if (event == XMLStreamConstants.START_ELEMENT) {
+                    // Upper case elements are classes (<VBox>), lower case ones are properties (<children>)
+                    String name = reader.getLocalName();
+                    if (Character.isUpperCase(name.charAt(0))) {
+                        resolve(name, imports, classLoader);
+                    }
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        if ("fx".equals(reader.getAttributePrefix(i)) && "controller".equals(reader.getAttributeLocalName(i))) {
+                            controllerClass = Class.forName(reader.getAttributeValue(i), true, classLoader);
+                        }
+                    }
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to read " + fxmlPath, e);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Controller of " + fxmlPath + " not found", e);
+        }
+        return controllerClass;
+    }
+
+    // The runtime parser, also used for pages without an up-to-date generated builder
+    public static LoadedView loadWithFxmlLoader(String fxmlPath, Callback<Class<?>, Object> controllerFactory) throws IOException {
+        URL location = FxmlViews.class.getResource(fxmlPath);
+        if (location == null) {
+            throw new IOException("FXML not found: " + fxmlPath);
+        }
+        FXMLLoader loader = new FXMLLoader(location);
+        loader.setControllerFactory(controllerFactory);
+        Parent root = loader.load();
+        return new LoadedView(root, loader.getController());
+    }
+
+    public static String generatedClassName(String fxmlPath) {
+        String fileName = fxmlPath.substring(fxmlPath.lastIndexOf('/') + 1).replaceFirst("\\.fxml$", "");
+        StringBuilder className = new StringBuilder(GENERATED_PACKAGE).append('.');
+        for (String word : fileName.split("[^A-Za-z0-9]+")) {
+            if (!word.isEmpty()) {
+                className.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+            }
+        }
+        return className.append("View").toString();
+    }
+
+    public static long checksum(byte[] fxml) {
+        CRC32 crc = new CRC32();
+        crc.update(fxml);
+        return crc.getValue();
+    }
+
+    // Loads an element's class the way FXMLLoader looks it up: exact imports first, then the wildcards.
+    // Static initializers are left to the FX thread, some of them set up the toolkit
+    private static void resolve(String simpleName, List<String> imports, ClassLoader classLoader) {
+        for (String imported : imports) {
+            String className;
+            if (imported.endsWith("." + simpleName)) {
+                className = imported;
+            } else if (imported.endsWith(".*")) {
+                className = imported.substring(0, imported.length() - 1) + simpleName;
+            } else {
+                continue;
+            }
+            try {
+                Class.forName(className, false, classLoader);
+                return;
+            } catch (ClassNotFoundException | LinkageError e) {
+                // Not in this package, try the next import
+            }
+        }
+    }
+
+    private static Optional<GeneratedView> findGenerated(String fxmlPath) {
+        String className = generatedClassName(fxmlPath);
+        try {
+            Class<?> viewClass = Class.forName(className, true, FxmlViews.class.getClassLoader());
+            GeneratedView view = (GeneratedView) viewClass.getDeclaredConstructor().newInstance();
+
+            try (InputStream in = FxmlViews.class.getResourceAsStream(fxmlPath)) {
+                if (in == null || checksum(in.readAllBytes()) != view.sourceChecksum()) {
+                    System.out.println("⚠️ " + className + " is older than " + fxmlPath + ", using FXMLLoader");
+                    return Optional.empty();
+                }
+            }
+            return Optional.of(view);
+        } catch (ClassNotFoundException e) {
+            return Optional.empty(); // Not generated in this build
+        } catch (Exception | LinkageError e) {
+            System.err.println("⚠️ Generated view " + className + " unusable, using FXMLLoader: " + e);
+            return Optional.empty();
+        }
+    }
+
+    // --- Used by the generated classes to reach the controllers' private @FXML members ---
+
+    public static MethodHandles.Lookup privateAccess(Class<?> controllerClass) {
+        try {
+            return MethodHandles.privateLookupIn(controllerClass, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("No access to " + controllerClass.getName(), e);
+        }
+    }
+
+    public static VarHandle field(MethodHandles.Lookup access, String name, Class<?> type) {
+        try {
+            return access.findVarHandle(access.lookupClass(), name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No @FXML field " + name + " in " + access.lookupClass().getName(), e);
+        }
+    }
+
+    // An @FXML method, taking the event or nothing (as FXMLLoader allows)
+    public static MethodHandle method(MethodHandles.Lookup access, String name, Class<?>... parameterTypes) {
+        try {
+            return access.findVirtual(access.lookupClass(), name, MethodType.methodType(void.class, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No @FXML method " + name + " in " + access.lookupClass().getName(), e);
+        }
+    }
+
+    public static <T extends Event> EventHandler<T> handler(MethodHandle method, Object controller) {
+        boolean takesEvent = method.type().parameterCount() == 2;
+        return event -> {
+            try {
+                if (takesEvent) {
+                    method.invoke(controller, event);
+                } else {
+                    method.invoke(controller);
+                }
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    public static void invoke(MethodHandle method, Object controller) {
+        try {
+            method.invoke(controller);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
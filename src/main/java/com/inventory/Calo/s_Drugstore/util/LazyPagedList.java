@@ -0,0 +1,322 @@
+package com.inventory.Calo.s_Drugstore.util;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * A read-only list for a TableView that only holds the pages the table has looked at.
+ * size() comes from a COUNT query; get(i) returns null for a row whose page isn't loaded
+ * yet and fetches that page (and the pages either side of it) in the background, so the
+ * FX thread never waits on a query. Cell value factories must treat a null row as
+ * "still loading". Only the most recently used pages are kept, so memory stays flat
+ * however large the result set is. Sorting a column re-queries in that order instead
+ * of sorting in memory. The list starts empty; call refresh(), or load() on a background
+ * thread and show() its result.
+ */
+public class LazyPagedList<T> extends ObservableListBase<T> {
+
+    private static final ExecutorService PREFETCH = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "table-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Function<Pageable, List<T>> pageLoader;
+    private final LongSupplier counter;
+    private final int pageSize;
+    private final Map<Integer, List<T>> pages;
+
+    // FX thread only: pages being fetched (with the generation they were asked for in),
+    // and pages get() has handed out placeholders for, which are redrawn once they arrive
+    private final Map<Integer, Long> loading = new HashMap<>();
+    private final Set<Integer> placeholders = new HashSet<>();
+
+    // Bumped on every refresh so pages fetched for older results are dropped
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Sort sort;
+    private int size = 0;
+
+    // A count and first page queried by load(), ready for show()
+    public record Loaded<T>(Sort sort, int count, List<T> firstPage) {}
+
+    public LazyPagedList(Function<Pageable, List<T>> pageLoader, LongSupplier counter,
+                         int pageSize, int maxCachedPages, Sort defaultSort) {
+        this.pageLoader = pageLoader;
+        this.counter = counter;
+        this.pageSize = pageSize;
+        this.sort = defaultSort;
+        this.pages = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > maxCachedPages;
+            }
+        });
+    }
+
+    /**
+     * Use this list as the table's items. Clicking a header in sortProperties re-queries
+     * ordered by that entity property; other columns are made unsortable.
+     */
+    public void bindTo(TableView<T> table, Map<TableColumn<T, ?>, String> sortProperties) {
+        for (TableColumn<T, ?> column : table.getColumns()) {
+            column.setSortable(sortProperties.containsKey(column));
+        }
+
+        Sort defaultSort = sort;
+        table.setSortPolicy(view -> {
+            List<Sort.Order> orders = new ArrayList<>();
+            for (TableColumn<T, ?> column : view.getSortOrder()) {
+                String property = sortProperties.get(column);
+                if (property != null) {
+                    orders.add(column.getSortType() == TableColumn.SortType.DESCENDING
+                            ? Sort.Order.desc(property) : Sort.Order.asc(property));
+                }
+            }
+            Sort requested = orders.isEmpty() ? defaultSort : Sort.by(orders);
+            if (!requested.equals(sort)) {
+                // Same rows in a new order - drop the pages and let get() fetch them again
+                sort = requested;
+                replaceAll(size, null);
+            }
+            return true;
+        });
+        table.setItems(this);
+    }
+
+    // Re-count and drop every cached page in the background (after rows were added or removed)
+    public void refresh() {
+        long requestedIn = generation.get();
+        PREFETCH.execute(() -> {
+            try {
+                Loaded<T> loaded = load(counter, pageLoader);
+                Platform.runLater(() -> {
+                    if (generation.get() == requestedIn) {
+                        show(loaded);
+                    }
+                });
+            } catch (Exception e) {
+                System.err.println("Failed to refresh table: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * refresh()'s queries without touching the list, so they can run on a background
+     * thread: the count and first page in the current order, through the given loaders
+     * (usually the list's own with filters that aren't applied yet). Hand the result
+     * to show() on the FX thread.
+     */
+    public Loaded<T> load(LongSupplier counter, Function<Pageable, List<T>> pageLoader) {
+        Sort requested = sort;
+        int count = toSize(counter.getAsLong());
+        List<T> firstPage = count == 0 ? List.of() : pageLoader.apply(PageRequest.of(0, pageSize, requested));
+        return new Loaded<>(requested, count, firstPage);
+    }
+
+    // Replace the rows with a load() result (the first page is re-queried if the sort changed meanwhile)
+    public void show(Loaded<T> loaded) {
+        replaceAll(loaded.count(), loaded.sort().equals(sort) ? loaded.firstPage() : null);
+    }
+
+    private void replaceAll(int newSize, List<T> firstPage) {
+        generation.incrementAndGet();
+        pages.clear();
+        loading.clear();
+        placeholders.clear();
+        if (firstPage != null && newSize > 0) {
+            pages.put(0, firstPage);
+        }
+
+        int oldSize = size;
+        size = newSize;
+
+        beginChange();
+        if (oldSize > 0) {
+            nextRemove(0, Collections.nCopies(oldSize, null));
+        }
+        if (size > 0) {
+            nextAdd(0, size);
+        }
+        endChange();
+    }
+
+    /**
+     * Re-query, in the background, only the cached pages holding a row that matches, for
+     * edits that keep the row count and order (e.g. stock changes while sorted by name).
+     * Anything that can add, remove or reorder rows needs refresh() instead.
+     */
+    public void reloadWhere(Predicate<T> affected) {
+        List<Integer> stale = new ArrayList<>();
+        synchronized (pages) {
+            for (Map.Entry<Integer, List<T>> entry : pages.entrySet()) {
+                if (entry.getValue().stream().anyMatch(affected)) {
+                    stale.add(entry.getKey());
+                }
+            }
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        long requestedIn = generation.get();
+        Sort requestedSort = sort;
+        PREFETCH.execute(() -> {
+            try {
+                Map<Integer, List<T>> reloaded = new LinkedHashMap<>();
+                for (int pageIndex : stale) {
+                    reloaded.put(pageIndex, pageLoader.apply(PageRequest.of(pageIndex, pageSize, requestedSort)));
+                }
+                Platform.runLater(() -> {
+                    if (generation.get() == requestedIn) {
+                        replacePages(reloaded);
+                    }
+                });
+            } catch (Exception e) {
+                System.err.println("Failed to reload table rows: " + e.getMessage());
+            }
+        });
+    }
+
+    private void replacePages(Map<Integer, List<T>> reloaded) {
+        for (Map.Entry<Integer, List<T>> entry : reloaded.entrySet()) {
+            List<T> old = pages.get(entry.getKey());
+            if (old == null || entry.getValue().size() != old.size()) {
+                // A row disappeared (or the page was evicted meanwhile) - fall back to a full refresh
+                refresh();
+                return;
+            }
+        }
+
+        beginChange();
+        for (Map.Entry<Integer, List<T>> entry : reloaded.entrySet()) {
+            List<T> old = pages.put(entry.getKey(), entry.getValue());
+            int from = entry.getKey() * pageSize;
+            nextReplace(from, from + entry.getValue().size(), old);
+        }
+        endChange();
+    }
+
+    // Whether the current order uses this entity property
+    public boolean isSortedBy(String property) {
+        return sort.getOrderFor(property) != null;
+    }
+
+    // Total rows matching the query (the COUNT, not what has been loaded)
+    public int getTotalCount() {
+        return size;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        int pageIndex = index / pageSize;
+        List<T> page = pages.get(pageIndex);
+        if (page == null) {
+            // Show an empty row for now; the row is redrawn when its page arrives
+            placeholders.add(pageIndex);
+            fetchPage(pageIndex);
+        }
+        fetchPage(pageIndex + 1);
+        fetchPage(pageIndex - 1);
+
+        int offset = index % pageSize;
+        // Past the end of a short page when rows were deleted since the count
+        return page != null && offset < page.size() ? page.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Only looks through loaded pages - searching the whole result would load all of it
+    @Override
+    public int indexOf(Object o) {
+        synchronized (pages) {
+            for (Map.Entry<Integer, List<T>> entry : pages.entrySet()) {
+                int offset = entry.getValue().indexOf(o);
+                if (offset >= 0) {
+                    return entry.getKey() * pageSize + offset;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    private static int toSize(long count) {
+        return (int) Math.min(Integer.MAX_VALUE, count);
+    }
+
+    // Query a page on the prefetch thread unless it's cached, already on its way or out of range
+    private void fetchPage(int pageIndex) {
+        if (pageIndex < 0 || pageIndex > (size - 1) / pageSize || pages.containsKey(pageIndex)
+                || loading.containsKey(pageIndex)) {
+            return;
+        }
+
+        long requestedIn = generation.get();
+        Sort requestedSort = sort;
+        loading.put(pageIndex, requestedIn);
+        PREFETCH.execute(() -> {
+            List<T> page = null;
+            try {
+                page = pageLoader.apply(PageRequest.of(pageIndex, pageSize, requestedSort));
+            } catch (Exception e) {
+                System.err.println("Failed to load page " + pageIndex + ": " + e.getMessage());
+            }
+            List<T> loaded = page;
+            Platform.runLater(() -> {
+                if (generation.get() != requestedIn) {
+                    return;
+                }
+                loading.remove(pageIndex);
+                if (loaded == null) {
+                    // Asked for again the next time the table looks at one of its rows
+                    placeholders.remove(pageIndex);
+                    return;
+                }
+                pageArrived(pageIndex, loaded);
+            });
+        });
+    }
+
+    private void pageArrived(int pageIndex, List<T> page) {
+        pages.putIfAbsent(pageIndex, page);
+
+        if (placeholders.remove(pageIndex)) {
+            // Replace the placeholders so the table asks for these rows again
+            int from = pageIndex * pageSize;
+            int to = Math.min(size, from + pageSize);
+            beginChange();
+            nextReplace(from, to, Collections.nCopies(to - from, null));
+            endChange();
+        }
+
+        if (page.size() < pageSize && pageIndex < (size - 1) / pageSize) {
+            // Rows were deleted since the count
+            refresh();
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.inventory.Calo.s_Drugstore.util;
+
+import java.util.*;
+
+/**
+ * Trigram index for type-ahead search over short texts (names, IDs, suppliers).
+ * Every word contributes its trigrams plus start-of-word grams ("$a", "$am"), so a
+ * prefix typed so far outranks a match in the middle of a word, and a mistyped letter
+ * still leaves most of a word's grams matching. A result has to contain at least half
+ * the grams of every query word and is ranked by the summed weights of the fields the
+ * matched grams came from.
+ *
+ * Replaced and removed documents leave dead slots behind until clear(); check
+ * garbageRatio() and rebuild when it gets high. Not thread-safe: callers must keep
+ * put/remove/clear from running alongside search.
+ */
+public class NGramIndex {
+
+    // Text to index and how much a match in it counts (1-7)
+    public record Field(String text, int weight) {
+        public Field {
+            if (weight < 1 || weight > MAX_WEIGHT) {
+                throw new IllegalArgumentException("Field weight must be between 1 and " + MAX_WEIGHT);
+            }
+        }
+    }
+
+    private static final int WEIGHT_BITS = 3;
+    private static final int MAX_WEIGHT = (1 << WEIGHT_BITS) - 1;
+
+    // One matched gram in search()'s per-word counters
+    private static final int MATCH = 1 << 16;
+
+    // Share of the query's grams a result has to contain
+    private static final double MIN_MATCH = 0.5;
+
+    // Gram -> (slot << WEIGHT_BITS | weight) for every document containing it
+    private final Map<String, IntList> postings = new HashMap<>();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+
+    private long[] ids = new long[256];
+    private int[] gramCounts = new int[256];
+    private boolean[] alive = new boolean[256];
+    private int slots;
+    private int deadSlots;
+
+    // Index (or re-index) a document
+    public void put(long id, Field... fields) {
+        remove(id);
+
+        Map<String, Integer> grams = new HashMap<>();
+        for (Field field : fields) {
+            if (field.text() != null) {
+                for (String gram : grams(field.text(), false)) {
+                    grams.merge(gram, field.weight(), Math::max);
+                }
+            }
+        }
+
+        int slot = slots++;
+        ensureCapacity(slots);
+        ids[slot] = id;
+        alive[slot] = true;
+        gramCounts[slot] = grams.size();
+        grams.forEach((gram, weight) ->
+                postings.computeIfAbsent(gram, g -> new IntList()).add(slot << WEIGHT_BITS | weight));
+        slotById.put(id, slot);
+    }
+
+    public void remove(long id) {
+        Integer slot = slotById.remove(id);
+        if (slot != null) {
+            alive[slot] = false;
+            deadSlots++;
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        slotById.clear();
+        Arrays.fill(alive, 0, slots, false);
+        slots = 0;
+        deadSlots = 0;
+    }
+
+    // Number of documents indexed
+    public int size() {
+        return slotById.size();
+    }
+
+    // Share of slots taken by replaced or removed documents
+    public double garbageRatio() {
+        return slots == 0 ? 0 : (double) deadSlots / slots;
+    }
+
+    /**
+     * Ids of the best matches, best first. Every word of the query has to match (at least
+     * half of its grams). Ties go to the shorter document (the closer match), then the
+     * lower id.
+     */
+    public long[] search(String query, int limit) {
+        Set<List<String>> wordGrams = new LinkedHashSet<>();
+        for (String word : words(query)) {
+            wordGrams.add(List.copyOf(new LinkedHashSet<>(grams(word, true))));
+        }
+        if (wordGrams.isEmpty() || limit <= 0) {
+            return new long[0];
+        }
+
+        // The most selective word goes first, so later words only check its candidates
+        List<QueryWord> queryWords = new ArrayList<>();
+        for (List<String> grams : wordGrams) {
+            queryWords.add(queryWord(grams));
+        }
+        queryWords.sort(Comparator.comparingLong(QueryWord::seedingCost));
+
+        int[] matches = new int[slots];   // current word: grams matched << 16 | their weights
+        int[] scores = new int[slots];    // summed weights over the words matched so far
+        int[] wordsPassed = queryWords.size() > 1 ? new int[slots] : null;
+        IntList candidates = null;        // slots that matched every word so far
+
+        int word = 0;
+        for (QueryWord queryWord : queryWords) {
+            List<IntList> lists = queryWord.postings();
+            int needed = queryWord.needed();
+            int seeding = candidates == null ? queryWord.seeding() : 0;
+            IntList touched = new IntList();
+
+            for (int g = 0; g < lists.size(); g++) {
+                IntList posting = lists.get(g);
+                if (g < seeding) {
+                    for (int i = 0; i < posting.size; i++) {
+                        int slot = posting.values[i] >>> WEIGHT_BITS;
+                        if (alive[slot]) {
+                            count(slot, posting.values[i], matches, touched);
+                        }
+                    }
+                    continue;
+                }
+
+                IntList pool = candidates != null ? candidates : touched;
+                if (pool.size * 16 < posting.size) {
+                    // Few candidates against a long posting: look each one up
+                    for (int c = 0; c < pool.size; c++) {
+                        int slot = pool.values[c];
+                        int entry = posting.find(slot);
+                        if (entry >= 0) {
+                            count(slot, entry, matches, touched);
+                        }
+                    }
+                } else {
+                    for (int i = 0; i < posting.size; i++) {
+                        int slot = posting.values[i] >>> WEIGHT_BITS;
+                        boolean inPool = candidates != null ? wordsPassed[slot] == word : matches[slot] != 0;
+                        if (inPool) {
+                            count(slot, posting.values[i], matches, touched);
+                        }
+                    }
+                }
+            }
+
+            IntList survivors = new IntList();
+            for (int i = 0; i < touched.size; i++) {
+                int slot = touched.values[i];
+                if (matches[slot] >>> 16 >= needed) {
+                    scores[slot] += matches[slot] & 0xFFFF;
+                    if (wordsPassed != null) {
+                        wordsPassed[slot] = word + 1;
+                    }
+                    survivors.add(slot);
+                }
+                matches[slot] = 0;
+            }
+            candidates = survivors;
+            word++;
+            if (candidates.size == 0) {
+                break;
+            }
+        }
+
+        // Keep the best `limit` slots in a small sorted array (best first)
+        int[] top = new int[Math.min(limit, candidates.size)];
+        int found = 0;
+        for (int i = 0; i < candidates.size; i++) {
+            int slot = candidates.values[i];
+            if (found == top.length && !ranksAbove(slot, top[found - 1], scores)) {
+                continue;
+            }
+
+            int position = found == top.length ? found - 1 : found++;
+            while (position > 0 && ranksAbove(slot, top[position - 1], scores)) {
+                top[position] = top[position - 1];
+                position--;
+            }
+            top[position] = slot;
+        }
+
+        long[] result = new long[found];
+        for (int i = 0; i < found; i++) {
+            result[i] = ids[top[i]];
+        }
+        return result;
+    }
+
+    // A query word's postings (rarest first) and how many of its grams a match needs
+    private record QueryWord(List<IntList> postings, int needed, int seeding, long seedingCost) {}
+
+    // Rarest grams first. A document without any of the first (grams - needed + 1) can't
+    // reach `needed`, so only those bring in candidates; the more common grams after them
+    // just add to the candidates' counts.
+    private QueryWord queryWord(List<String> grams) {
+        List<IntList> lists = new ArrayList<>();
+        for (String gram : grams) {
+            lists.add(postings.getOrDefault(gram, IntList.EMPTY));
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        int needed = Math.max(1, (int) Math.ceil(grams.size() * MIN_MATCH));
+        int seeding = grams.size() - needed + 1;
+        long seedingCost = 0;
+        for (int g = 0; g < seeding; g++) {
+            seedingCost += lists.get(g).size;
+        }
+        return new QueryWord(lists, needed, seeding, seedingCost);
+    }
+
+    private static void count(int slot, int entry, int[] matches, IntList touched) {
+        if (matches[slot] == 0) {
+            touched.add(slot);
+        }
+        matches[slot] += MATCH | (entry & MAX_WEIGHT);
+    }
+
+    private boolean ranksAbove(int slot, int other, int[] scores) {
+        if (scores[slot] != scores[other]) {
+            return scores[slot] > scores[other];
+        }
+        if (gramCounts[slot] != gramCounts[other]) {
+            return gramCounts[slot] < gramCounts[other];
+        }
+        return ids[slot] < ids[other];
+    }
+
+    /**
+     * Grams of a text. Indexed words get "$" + first letter and the trigrams of "$word";
+     * a one-letter query word only asks for the former.
+     */
+    static List<String> grams(String text, boolean forQuery) {
+        List<String> grams = new ArrayList<>();
+        for (String word : words(text)) {
+            String padded = "$" + word;
+            if (!forQuery || padded.length() == 2) {
+                grams.add(padded.substring(0, 2));
+            }
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    // Lower-cased runs of letters and digits
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (!word.isEmpty()) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (!word.isEmpty()) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int size = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, size);
+            gramCounts = Arrays.copyOf(gramCounts, size);
+            alive = Arrays.copyOf(alive, size);
+        }
+    }
+
+    // Growable int array (postings hold millions of entries at 50k products, so no boxing).
+    // Slots only ever grow, so a posting is sorted by slot.
+    private static final class IntList {
+        static final IntList EMPTY = new IntList();
+
+        int[] values = new int[4];
+        int size;
+
+        // The entry for a slot, or -1
+        int find(int slot) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int middleSlot = values[middle] >>> WEIGHT_BITS;
+                if (middleSlot < slot) {
+                    low = middle + 1;
+                } else if (middleSlot > slot) {
+                    high = middle - 1;
+                } else {
+                    return values[middle];
+                }
+            }
+            return -1;
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
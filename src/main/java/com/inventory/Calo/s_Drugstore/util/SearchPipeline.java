@@ -0,0 +1,121 @@
+package com.inventory.Calo.s_Drugstore.util;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.scene.control.TextInputControl;
+import javafx.util.Duration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a search box's query off the FX thread. Every change restarts a short pause;
+ * once typing stops the query goes to a background thread, and its result reaches the
+ * FX thread only if nothing newer has been asked for since. A slow query can neither
+ * make typing stutter nor overwrite the results of a later one.
+ * Create, submit and cancel on the FX thread.
+ */
+public class SearchPipeline<Q, R> {
+
+    // How long the input has to stay unchanged before the query runs
+    public static final Duration TYPING_PAUSE = Duration.millis(150);
+
+    private static final ExecutorService SEARCHES = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Function<Q, R> search;
+    private final BiConsumer<Q, R> apply;
+    private final PauseTransition pause;
+
+    // Bumped on every submit, so anything asked for earlier is out of date
+    private final AtomicLong generation = new AtomicLong();
+
+    private Consumer<Exception> onError = e -> System.err.println("Search failed: " + e.getMessage());
+    private Q pending;
+    private Future<?> running;
+
+    /**
+     * search runs on a background thread; apply gets the query and its result on the
+     * FX thread (only for the latest query).
+     */
+    public SearchPipeline(Duration delay, Function<Q, R> search, BiConsumer<Q, R> apply) {
+        this.search = search;
+        this.apply = apply;
+        this.pause = new PauseTransition(delay);
+        pause.setOnFinished(e -> dispatch(pending));
+    }
+
+    // Search whenever the field's text changes (the text as typed, possibly blank)
+    public static <R> SearchPipeline<String, R> forField(TextInputControl field, Function<String, R> search, Consumer<R> apply) {
+        SearchPipeline<String, R> pipeline = new SearchPipeline<>(TYPING_PAUSE, search, (text, result) -> apply.accept(result));
+        field.textProperty().addListener((obs, oldVal, newVal) -> pipeline.submit(newVal));
+        return pipeline;
+    }
+
+    // Called on the FX thread instead of logging when a search throws
+    public SearchPipeline<Q, R> onError(Consumer<Exception> onError) {
+        this.onError = onError;
+        return this;
+    }
+
+    // Search once the input has stayed the same for the delay
+    public void submit(Q query) {
+        generation.incrementAndGet();
+        pending = query;
+        pause.playFromStart();
+    }
+
+    // Search straight away (a filter picked from a list, a reload after an edit)
+    public void submitNow(Q query) {
+        generation.incrementAndGet();
+        pause.stop();
+        dispatch(query);
+    }
+
+    // Drop the pending search and ignore any result still on its way
+    public void cancel() {
+        generation.incrementAndGet();
+        pause.stop();
+        if (running != null) {
+            running.cancel(false);
+        }
+    }
+
+    private void dispatch(Q query) {
+        long requested = generation.get();
+
+        // A query that hasn't started is dropped; one already running isn't interrupted
+        // (that can leave its connection half-way through a statement), its result is just ignored
+        if (running != null) {
+            running.cancel(false);
+        }
+
+        running = SEARCHES.submit(() -> {
+            if (generation.get() != requested) {
+                return; // Superseded while queued
+            }
+            try {
+                R result = search.apply(query);
+                Platform.runLater(() -> {
+                    if (generation.get() == requested) {
+                        apply.accept(query, result);
+                    }
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    if (generation.get() == requested) {
+                        onError.accept(e);
+                    }
+                });
+            }
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package com.inventory.Calo.s_Drugstore.util;
+
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.core.metrics.StartupStep;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Startup phase report: how long after the JVM started the splash, the login window, the
+ * Spring context and the database layer were each ready, plus the slowest steps Spring
+ * recorded while starting. Printed once the background startup work has finished.
+ */
+public final class StartupTimings {
+
+    private static final long JVM_START = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    // Spring's own step recorder (bean creation, repository setup, ...), handed to SpringApplicationBuilder
+    public static final BufferingApplicationStartup SPRING_STEPS = new BufferingApplicationStartup(4096);
+
+    private static final Map<String, Long> phases = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private StartupTimings() {
+    }
+
+    // Record that a phase has been reached (only the first time)
+    public static void mark(String phase) {
+        phases.putIfAbsent(phase, System.currentTimeMillis() - JVM_START);
+    }
+
+    public static void report() {
+        Map<String, Long> reached;
+        synchronized (phases) {
+            reached = new LinkedHashMap<>(phases);
+        }
+
+        System.out.println("⏱️ Startup timings (ms since JVM start):");
+        reached.forEach((phase, millis) -> System.out.printf("   %-40s %6d%n", phase, millis));
+
+        Long login = reached.get("Login window shown");
+        Long database = reached.get("Database layer ready");
+        if (login != null && database != null && database > login) {
+            System.out.println("   Login window was up " + (database - login) + " ms before the database layer was ready");
+        }
+
+        // Time spent in each step itself, not in the steps it started
+        List<StartupTimeline.TimelineEvent> events = SPRING_STEPS.getBufferedTimeline().getEvents();
+        Map<Long, Long> childMillis = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            Long parent = event.getStartupStep().getParentId();
+            if (parent != null) {
+                childMillis.merge(parent, event.getDuration().toMillis(), Long::sum);
+            }
+        }
+
+        System.out.println("   Slowest Spring startup steps:");
+        events.stream()
+                .map(event -> Map.entry(event, event.getDuration().toMillis() - childMillis.getOrDefault(event.getStartupStep().getId(), 0L)))
+                .sorted(Map.Entry.<StartupTimeline.TimelineEvent, Long>comparingByValue().reversed())
+                .limit(8)
+                .forEach(entry -> System.out.printf("   %6d  %s%n", entry.getValue(), describe(entry.getKey().getStartupStep())));
+    }
+
+    private static String describe(StartupStep step) {
+        StringBuilder description = new StringBuilder(step.getName());
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (tag.getKey().equals("beanName") || tag.getKey().equals("repository")) {
+                description.append(' ').append(tag.getValue());
+            }
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,39 @@
+package com.inventory.Calo.s_Drugstore.util;
+
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+public class TableScrollUtil {
+
+    // How close to the bottom (as a fraction of the scroll range) counts as "reached the end"
+    private static final double NEAR_BOTTOM = 0.95;
+
+    // Call loadMore whenever the table is scrolled to (nearly) the last row - used to fetch the next page
+    public static void onScrolledToBottom(TableView<?> table, Runnable loadMore) {
+        if (table.getSkin() != null) {
+            attach(table, loadMore);
+        } else {
+            // The scroll bar only exists once the table has been shown
+            table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+                if (newSkin != null) {
+                    attach(table, loadMore);
+                }
+            });
+        }
+    }
+
+    private static void attach(TableView<?> table, Runnable loadMore) {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                bar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                    if (newValue.doubleValue() > oldValue.doubleValue()
+                            && newValue.doubleValue() >= bar.getMax() * NEAR_BOTTOM) {
+                        loadMore.run();
+                    }
+                });
+            }
+        }
+    }
+}
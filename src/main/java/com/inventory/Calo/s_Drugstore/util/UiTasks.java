@@ -0,0 +1,291 @@
+package com.inventory.Calo.s_Drugstore.util;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.stage.Window;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Background work for one page's controller. Service calls run on virtual threads;
+ * their results, errors and loading indicators are handled back on the FX thread, so
+ * the window never freezes on a query.
+ *
+ * Tasks belong to the page they were started from (any node of it) and are cancelled
+ * once the page leaves its window - navigating swaps the stage's scene - so a late
+ * result never lands on a page nobody is looking at. Cancelling doesn't interrupt the
+ * work itself (a write already handed to the database still commits), it only drops
+ * the result; use outlivesView() for work whose result must always be applied.
+ *
+ *   tasks.task(() -> dashboardService.getDashboardMetrics())
+ *        .key("metrics")
+ *        .onSuccess(this::showMetrics)
+ *        .start();
+ *
+ * Everything here is called on the FX thread, except that a page being loaded in the
+ * background may start its first tasks from that thread.
+ */
+public final class UiTasks {
+
+    private static final ExecutorService VIRTUAL_THREADS = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("ui-task-", 0).factory());
+
+    private final Node view;
+    private final Set<Handle> running = new HashSet<>();
+    private final Map<String, Handle> byKey = new HashMap<>();
+    private final Map<Node, Integer> showing = new HashMap<>();
+    private final Map<Node, Integer> disabling = new HashMap<>();
+    private Consumer<Throwable> errorHandler = UiTasks::showError;
+    private boolean left;
+
+    private UiTasks(Node view) {
+        this.view = view;
+
+        // Cancel everything once the page's scene is taken off its window
+        // (a cached page is put back later and starts over)
+        ChangeListener<Window> windowListener = (obs, oldWindow, newWindow) -> {
+            if (oldWindow != null && newWindow == null) {
+                leave();
+            } else if (newWindow != null) {
+                left = false;
+            }
+        };
+        view.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (oldScene != null) {
+                oldScene.windowProperty().removeListener(windowListener);
+            }
+            if (newScene != null) {
+                newScene.windowProperty().addListener(windowListener);
+                updateCursor();
+            } else if (oldScene != null && oldScene.getWindow() != null) {
+                leave();
+            }
+        });
+        if (view.getScene() != null) {
+            view.getScene().windowProperty().addListener(windowListener);
+        }
+    }
+
+    // Tasks for the page holding this node (pass a node created with the page, e.g. its root or a table)
+    public static UiTasks forView(Node view) {
+        return new UiTasks(view);
+    }
+
+    // Where errors go when a task doesn't set its own handler (default: log and show an alert)
+    public UiTasks onError(Consumer<Throwable> errorHandler) {
+        this.errorHandler = errorHandler;
+        return this;
+    }
+
+    public <T> Builder<T> task(Callable<T> work) {
+        return new Builder<>(work);
+    }
+
+    // For work without a result
+    public Builder<Void> run(Work work) {
+        return new Builder<>(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // Drop every running task's result
+    public void cancelAll() {
+        for (Handle handle : new ArrayList<>(running)) {
+            handle.cancel();
+        }
+    }
+
+    public boolean isBusy() {
+        return !running.isEmpty();
+    }
+
+    @FunctionalInterface
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    public final class Builder<T> {
+        private final Callable<T> work;
+        private String key;
+        private final List<Node> indicators = new ArrayList<>();
+        private final List<Node> controls = new ArrayList<>();
+        private Consumer<T> onSuccess = result -> {};
+        private Consumer<Throwable> onError;
+        private boolean outlivesView;
+
+        private Builder(Callable<T> work) {
+            this.work = work;
+        }
+
+        // Starting another task with the same key cancels this one (reloads of the same data)
+        public Builder<T> key(String key) {
+            this.key = key;
+            return this;
+        }
+
+        // Made visible while the task runs (a ProgressIndicator, a "Loading..." label)
+        public Builder<T> showing(Node indicator) {
+            if (indicator != null) {
+                indicators.add(indicator);
+            }
+            return this;
+        }
+
+        // Disabled while the task runs (e.g. the button that started it)
+        public Builder<T> disabling(Node... nodes) {
+            for (Node node : nodes) {
+                if (node != null) {
+                    controls.add(node);
+                }
+            }
+            return this;
+        }
+
+        public Builder<T> onSuccess(Consumer<T> onSuccess) {
+            this.onSuccess = onSuccess;
+            return this;
+        }
+
+        public Builder<T> onError(Consumer<Throwable> onError) {
+            this.onError = onError;
+            return this;
+        }
+
+        // Apply the result even if the page has been left meanwhile (e.g. clearing a cart that was just sold)
+        public Builder<T> outlivesView() {
+            this.outlivesView = true;
+            return this;
+        }
+
+        public Handle start() {
+            Handle handle = new Handle(this);
+            if (Platform.isFxApplicationThread()) {
+                begin(handle);
+            } else {
+                Platform.runLater(() -> begin(handle));
+            }
+            return handle;
+        }
+
+        private void begin(Handle handle) {
+            if (handle.done) {
+                return; // Cancelled before it got going
+            }
+            if (key != null) {
+                Handle previous = byKey.put(key, handle);
+                if (previous != null) {
+                    previous.cancel();
+                }
+            }
+            running.add(handle);
+            indicators.forEach(node -> adjust(showing, node, 1));
+            controls.forEach(node -> adjust(disabling, node, 1));
+            updateCursor();
+
+            VIRTUAL_THREADS.execute(() -> {
+                try {
+                    T result = work.call();
+                    Platform.runLater(() -> handle.finish(() -> onSuccess.accept(result)));
+                } catch (Throwable e) {
+                    Platform.runLater(() -> handle.finish(() -> (onError != null ? onError : errorHandler).accept(e)));
+                }
+            });
+        }
+    }
+
+    // A started task
+    public final class Handle {
+        private final Builder<?> builder;
+        private boolean done;
+
+        private Handle(Builder<?> builder) {
+            this.builder = builder;
+        }
+
+        // Drop the result (the work itself runs to completion)
+        public void cancel() {
+            if (!done) {
+                done = true;
+                if (running.contains(this)) {
+                    release();
+                }
+            }
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+
+        private void finish(Runnable deliver) {
+            if (done) {
+                return; // Cancelled
+            }
+            done = true;
+            release();
+            deliver.run();
+        }
+
+        private void release() {
+            running.remove(this);
+            if (builder.key != null) {
+                byKey.remove(builder.key, this);
+            }
+            builder.indicators.forEach(node -> adjust(showing, node, -1));
+            builder.controls.forEach(node -> adjust(disabling, node, -1));
+            updateCursor();
+        }
+    }
+
+    private void leave() {
+        if (left) {
+            return;
+        }
+        left = true;
+        for (Handle handle : new ArrayList<>(running)) {
+            if (!handle.builder.outlivesView) {
+                handle.cancel();
+            }
+        }
+    }
+
+    // Nodes shared by several tasks stay shown/disabled until the last one finishes
+    private void adjust(Map<Node, Integer> counts, Node node, int delta) {
+        int count = counts.merge(node, delta, Integer::sum);
+        if (count <= 0) {
+            counts.remove(node);
+        }
+        if (counts == showing) {
+            node.setVisible(count > 0);
+        } else {
+            node.setDisable(count > 0);
+        }
+    }
+
+    // The page shows a busy cursor while anything runs
+    private void updateCursor() {
+        Scene scene = view.getScene();
+        if (scene != null) {
+            scene.setCursor(running.isEmpty() ? null : Cursor.WAIT);
+        }
+    }
+
+    private static void showError(Throwable e) {
+        System.err.println("Background task failed: " + e.getMessage());
+        e.printStackTrace();
+
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Error");
+        alert.setHeaderText(null);
+        alert.setContentText("Something went wrong: " + e.getMessage());
+        alert.show();
+    }
+}
@@ -0,0 +1,127 @@
+-- =========================================
+-- V1: Baseline schema
+-- Matches the tables Hibernate used to create with ddl-auto=update.
+-- IF NOT EXISTS lets existing databases be adopted without changes.
+-- =========================================
+
+CREATE TABLE IF NOT EXISTS users (
+    active boolean not null,
+    created_at timestamp not null,
+    id integer,
+    last_login timestamp,
+    address varchar(255),
+    contact_number varchar(255),
+    date_of_birth varchar(255),
+    email varchar(255) not null unique,
+    full_name varchar(255) not null,
+    password varchar(255) not null,
+    role varchar(255) not null,
+    username varchar(255) not null unique,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS categories (
+    created_at timestamp,
+    id integer,
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS products (
+    created_at date,
+    expiration_date date,
+    min_stock_level integer,
+    prescription_required boolean,
+    price numeric(10,2) not null,
+    stock integer not null,
+    updated_at date,
+    id integer,
+    batch_number varchar(255),
+    category varchar(255),
+    dosage_form varchar(255),
+    dosage_strength varchar(255),
+    generic_name varchar(255),
+    manufacturer varchar(255),
+    medicine_id varchar(255) not null unique,
+    name varchar(255) not null,
+    supplier varchar(255),
+    unit_of_measure varchar(255),
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS batches (
+    created_at date,
+    date_received date,
+    expiration_date date,
+    price numeric(10,2) not null,
+    stock integer not null,
+    updated_at date,
+    id integer,
+    product_id bigint not null,
+    batch_number varchar(255) not null,
+    supplier varchar(255),
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS suppliers (
+    created_at date,
+    date_added date,
+    updated_at date,
+    id integer,
+    address varchar(255),
+    company_name varchar(255) not null,
+    contact_number varchar(255),
+    contact_person varchar(255),
+    email varchar(255),
+    products_supplied varchar(255),
+    status varchar(255) not null,
+    supplier_id varchar(255) not null unique,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS sales (
+    total_amount numeric(38,2) not null,
+    total_items integer not null,
+    voided boolean,
+    created_at timestamp,
+    id integer,
+    sale_date timestamp not null,
+    user_id bigint,
+    void_date timestamp,
+    transaction_id varchar(255) not null unique,
+    void_reason varchar(255),
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS sale_items (
+    quantity integer not null,
+    subtotal numeric(38,2) not null,
+    unit_price numeric(38,2) not null,
+    created_at timestamp,
+    id integer,
+    sale_id bigint not null,
+    batch_info TEXT,
+    medicine_id varchar(255) not null,
+    medicine_name varchar(255) not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS sale_item_batch_allocations (
+    quantity integer not null,
+    batch_id bigint not null,
+    id integer,
+    sale_item_id bigint not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS id_sequences (
+    next_value bigint not null,
+    name varchar(255) not null,
+    primary key (name)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sale_item_batch_allocations_sale_item
+    ON sale_item_batch_allocations (sale_item_id);
+
+CREATE INDEX IF NOT EXISTS idx_sale_item_batch_allocations_batch
+    ON sale_item_batch_allocations (batch_id);
@@ -0,0 +1,33 @@
+-- =========================================
+-- V2: Indexes for the hot query predicates
+-- =========================================
+
+-- SaleRepository.findAllBySaleDateBetweenIncludingVoided (date range only)
+CREATE INDEX IF NOT EXISTS idx_sales_sale_date ON sales (sale_date);
+
+-- SaleRepository.findBySaleDateBetween / findTodaysSales: "(voided IS NULL OR voided = FALSE)"
+-- is answered as two range scans, one per voided value
+CREATE INDEX IF NOT EXISTS idx_sales_voided_sale_date ON sales (voided, sale_date);
+
+-- SaleRepository.findVoidedTransactions (voided = TRUE ORDER BY void_date)
+CREATE INDEX IF NOT EXISTS idx_sales_voided_void_date ON sales (voided, void_date);
+
+-- Per-cashier sales in a date range (staff dashboard and reports)
+CREATE INDEX IF NOT EXISTS idx_sales_user_sale_date ON sales (user_id, sale_date);
+
+-- Sale.items lookups and per-medicine sales history
+CREATE INDEX IF NOT EXISTS idx_sale_items_sale_id ON sale_items (sale_id);
+CREATE INDEX IF NOT EXISTS idx_sale_items_medicine_id ON sale_items (medicine_id);
+
+-- BatchRepository.findNonExpiredBatchesByProductId / findByProductOrderByExpirationDate (FEFO order)
+CREATE INDEX IF NOT EXISTS idx_batches_product_expiration ON batches (product_id, expiration_date);
+
+-- BatchRepository.findExpiringBatches: only batches that still hold stock
+CREATE INDEX IF NOT EXISTS idx_batches_in_stock_expiration ON batches (expiration_date) WHERE stock > 0;
+
+-- StockAllocationService: usable batches of the cart's products, FEFO order
+CREATE INDEX IF NOT EXISTS idx_batches_in_stock_product_expiration ON batches (product_id, expiration_date) WHERE stock > 0;
+
+-- ProductRepository.findByFilters supplier/category filters
+CREATE INDEX IF NOT EXISTS idx_products_supplier ON products (supplier);
+CREATE INDEX IF NOT EXISTS idx_products_category ON products (category);
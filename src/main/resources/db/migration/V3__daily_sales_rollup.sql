@@ -0,0 +1,18 @@
+-- =========================================
+-- V3: Daily sales rollup (per day, category and cashier)
+-- Filled from the sales table on first start (SalesRollupService.rebuildIfEmpty)
+-- =========================================
+
+CREATE TABLE IF NOT EXISTS daily_sales_rollup (
+    items_sold integer not null,
+    total_amount numeric(38,2) not null,
+    transaction_count integer not null,
+    id integer,
+    sale_date date not null,
+    user_id bigint not null,
+    category varchar(255) not null,
+    primary key (id)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_daily_sales_rollup_key
+    ON daily_sales_rollup (sale_date, category, user_id);
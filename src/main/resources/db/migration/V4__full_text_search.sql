@@ -0,0 +1,74 @@
+-- =========================================
+-- V4: FTS5 full-text indexes for the product and supplier searches
+-- External-content tables: the text lives in products/suppliers, the triggers below
+-- keep the index in step. Searches are word-prefix MATCH queries ranked with bm25.
+-- =========================================
+
+-- ProductRepository.searchByNameOrId and the search box of the paged product tables
+-- (name is the brand name column)
+CREATE VIRTUAL TABLE IF NOT EXISTS products_fts USING fts5(
+    name, generic_name, medicine_id, manufacturer, category,
+    content = 'products', content_rowid = 'id',
+    tokenize = 'unicode61 remove_diacritics 2',
+    prefix = '2 3'
+);
+
+CREATE TRIGGER IF NOT EXISTS products_fts_insert AFTER INSERT ON products BEGIN
+    INSERT INTO products_fts (rowid, name, generic_name, medicine_id, manufacturer, category)
+    VALUES (new.id, new.name, new.generic_name, new.medicine_id, new.manufacturer, new.category);
+END;
+
+CREATE TRIGGER IF NOT EXISTS products_fts_delete AFTER DELETE ON products BEGIN
+    INSERT INTO products_fts (products_fts, rowid, name, generic_name, medicine_id, manufacturer, category)
+    VALUES ('delete', old.id, old.name, old.generic_name, old.medicine_id, old.manufacturer, old.category);
+END;
+
+-- Hibernate writes every column on update, so only re-index when searched text changed
+-- (stock updates during checkout leave the index alone)
+CREATE TRIGGER IF NOT EXISTS products_fts_update AFTER UPDATE ON products
+WHEN old.name IS NOT new.name
+    OR old.generic_name IS NOT new.generic_name
+    OR old.medicine_id IS NOT new.medicine_id
+    OR old.manufacturer IS NOT new.manufacturer
+    OR old.category IS NOT new.category
+BEGIN
+    INSERT INTO products_fts (products_fts, rowid, name, generic_name, medicine_id, manufacturer, category)
+    VALUES ('delete', old.id, old.name, old.generic_name, old.medicine_id, old.manufacturer, old.category);
+    INSERT INTO products_fts (rowid, name, generic_name, medicine_id, manufacturer, category)
+    VALUES (new.id, new.name, new.generic_name, new.medicine_id, new.manufacturer, new.category);
+END;
+
+INSERT INTO products_fts (products_fts) VALUES ('rebuild');
+
+-- SupplierRepository.searchSuppliers
+CREATE VIRTUAL TABLE IF NOT EXISTS suppliers_fts USING fts5(
+    company_name, contact_person, email, contact_number, supplier_id,
+    content = 'suppliers', content_rowid = 'id',
+    tokenize = 'unicode61 remove_diacritics 2',
+    prefix = '2 3'
+);
+
+CREATE TRIGGER IF NOT EXISTS suppliers_fts_insert AFTER INSERT ON suppliers BEGIN
+    INSERT INTO suppliers_fts (rowid, company_name, contact_person, email, contact_number, supplier_id)
+    VALUES (new.id, new.company_name, new.contact_person, new.email, new.contact_number, new.supplier_id);
+END;
+
+CREATE TRIGGER IF NOT EXISTS suppliers_fts_delete AFTER DELETE ON suppliers BEGIN
+    INSERT INTO suppliers_fts (suppliers_fts, rowid, company_name, contact_person, email, contact_number, supplier_id)
+    VALUES ('delete', old.id, old.company_name, old.contact_person, old.email, old.contact_number, old.supplier_id);
+END;
+
+CREATE TRIGGER IF NOT EXISTS suppliers_fts_update AFTER UPDATE ON suppliers
+WHEN old.company_name IS NOT new.company_name
+    OR old.contact_person IS NOT new.contact_person
+    OR old.email IS NOT new.email
+    OR old.contact_number IS NOT new.contact_number
+    OR old.supplier_id IS NOT new.supplier_id
+BEGIN
+    INSERT INTO suppliers_fts (suppliers_fts, rowid, company_name, contact_person, email, contact_number, supplier_id)
+    VALUES ('delete', old.id, old.company_name, old.contact_person, old.email, old.contact_number, old.supplier_id);
+    INSERT INTO suppliers_fts (rowid, company_name, contact_person, email, contact_number, supplier_id)
+    VALUES (new.id, new.company_name, new.contact_person, new.email, new.contact_number, new.supplier_id);
+END;
+
+INSERT INTO suppliers_fts (suppliers_fts) VALUES ('rebuild');
@@ -0,0 +1,210 @@
+package com.inventory.Calo.s_Drugstore.benchmark;
+
+import com.inventory.Calo.s_Drugstore.config.BackgroundStartup;
+import com.inventory.Calo.s_Drugstore.entity.*;
+import com.inventory.Calo.s_Drugstore.repository.BatchRepository;
+import com.inventory.Calo.s_Drugstore.repository.ProductRepository;
+import com.inventory.Calo.s_Drugstore.repository.SaleRepository;
+import com.inventory.Calo.s_Drugstore.repository.UserRepository;
+import com.inventory.Calo.s_Drugstore.service.SalesService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checkout latency with and without a monthly report reading at the same time.
+ * Runs against a seeded throwaway database with the active persistence profile:
+ *
+ *   mvn test -Pbenchmark -Dtest=CheckoutLatencyBenchmark
+ *
+ * Add -Dspring.profiles.active=default to measure the untuned (rollback journal) settings.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/benchmark/checkout-latency.db",
+        "spring.jpa.show-sql=false"
+})
+class CheckoutLatencyBenchmark {
+
+    @Autowired
+    private BackgroundStartup backgroundStartup;
+
+    @Autowired
+    private SalesService salesService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BatchRepository batchRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${benchmark.products:500}")
+    private int productCount;
+
+    @Value("${benchmark.sales:5000}")
+    private int seededSales;
+
+    @Value("${benchmark.checkouts:200}")
+    private int checkouts;
+
+    private final Random random = new Random(42);
+    private List<Product> products;
+    private User cashier;
+
+    // Start from an empty database; this has to happen before the Spring context opens it
+    static {
+        try {
+            Path dir = Path.of("target/benchmark");
+            Files.createDirectories(dir);
+            for (String suffix : new String[]{"", "-wal", "-shm"}) {
+                Files.deleteIfExists(dir.resolve("checkout-latency.db" + suffix));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @BeforeAll
+    void seed() {
+        // The default admin is created by the startup tasks, after the context is up
+        backgroundStartup.awaitReady();
+        cashier = userRepository.findAll().get(0);
+
+        // Products with three batches each (one already expired)
+        products = new ArrayList<>();
+        for (int i = 1; i <= productCount; i++) {
+            products.add(new Product(String.format("BEN%05d", i), "Benchmark Medicine " + i, 0,
+                    BigDecimal.valueOf(5 + random.nextInt(500)), null, "Supplier " + (i % 20)));
+        }
+        products = productRepository.saveAll(products);
+
+        List<Batch> batches = new ArrayList<>();
+        for (Product product : products) {
+            batches.add(new Batch("BEN-" + product.getId() + "-1", product, 1_000_000, LocalDate.now().plusMonths(6), product.getPrice(), "Seed"));
+            batches.add(new Batch("BEN-" + product.getId() + "-2", product, 1_000_000, LocalDate.now().plusYears(1), product.getPrice(), "Seed"));
+            batches.add(new Batch("BEN-" + product.getId() + "-3", product, 500, LocalDate.now().minusDays(10), product.getPrice(), "Seed"));
+            product.setStock(2_000_500);
+        }
+        batchRepository.saveAll(batches);
+        productRepository.saveAll(products);
+
+        // A month of sales history for the report to chew through
+        List<Sale> history = new ArrayList<>();
+        for (int i = 1; i <= seededSales; i++) {
+            Sale sale = new Sale();
+            sale.setTransactionId(String.format("TXN%06d", i));
+            sale.setSaleDate(LocalDateTime.now().minusMinutes(random.nextInt(30 * 24 * 60)));
+            sale.setUserId(cashier.getId());
+            BigDecimal total = BigDecimal.ZERO;
+            int items = 0;
+            for (int line = 0; line < 3; line++) {
+                SaleItem item = new SaleItem(randomProduct(), 1 + random.nextInt(3));
+                sale.addItem(item);
+                total = total.add(item.getSubtotal());
+                items += item.getQuantity();
+            }
+            sale.setTotalAmount(total);
+            sale.setTotalItems(items);
+            history.add(sale);
+
+            if (history.size() == 500) {
+                saleRepository.saveAll(history);
+                history.clear();
+            }
+        }
+        saleRepository.saveAll(history);
+    }
+
+    @Test
+    void checkoutLatencyDuringMonthlyReport() throws Exception {
+        System.out.println("Journal mode: " + jdbcTemplate.queryForObject("PRAGMA journal_mode", String.class));
+
+        // Warm up
+        runCheckouts(20);
+
+        long[] idle = runCheckouts(checkouts);
+
+        AtomicBoolean reporting = new AtomicBoolean(true);
+        AtomicInteger reportsRun = new AtomicInteger();
+        Thread report = new Thread(() -> {
+            LocalDateTime monthStart = LocalDate.now().minusDays(30).atStartOfDay();
+            while (reporting.get()) {
+                salesService.getAllSalesBetweenDates(monthStart, LocalDateTime.now());
+                reportsRun.incrementAndGet();
+            }
+        }, "monthly-report");
+        report.start();
+
+        long[] underLoad;
+        try {
+            underLoad = runCheckouts(checkouts);
+        } finally {
+            reporting.set(false);
+            report.join();
+        }
+
+        print("Checkout (idle)", idle);
+        print("Checkout (monthly report running, " + reportsRun.get() + " reports)", underLoad);
+    }
+
+    private long[] runCheckouts(int count) {
+        long[] nanos = new long[count];
+        for (int i = 0; i < count; i++) {
+            List<SalesService.CartLine> cart = new ArrayList<>();
+            Set<Long> inCart = new HashSet<>();
+            while (cart.size() < 5) {
+                Product product = randomProduct();
+                if (inCart.add(product.getId())) {
+                    cart.add(SalesService.CartLine.of(new SaleItem(product, 1 + random.nextInt(3))));
+                }
+            }
+
+            long start = System.nanoTime();
+            salesService.completeSale(cart, cashier);
+            nanos[i] = System.nanoTime() - start;
+        }
+        return nanos;
+    }
+
+    private Product randomProduct() {
+        return products.get(random.nextInt(products.size()));
+    }
+
+    private static void print(String label, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-60s p50=%6.2f ms  p95=%6.2f ms  p99=%6.2f ms  max=%6.2f ms%n", label,
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99), sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,146 @@
+package com.inventory.Calo.s_Drugstore.benchmark;
+
+import com.inventory.Calo.s_Drugstore.entity.Product;
+import com.inventory.Calo.s_Drugstore.util.NGramIndex;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * POS search box: the trigram index against the old per-keystroke scan (lower-case and
+ * contains() over every product), on a generated catalog. No database involved:
+ *
+ *   mvn test -Pbenchmark -Dtest=ProductSearchBenchmark
+ *
+ * Add -Dbenchmark.search.products=100000 to change the catalog size.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductSearchBenchmark {
+
+    private static final String[] GENERICS = {
+            "Paracetamol", "Ibuprofen", "Amoxicillin", "Cetirizine", "Loratadine", "Metformin",
+            "Losartan", "Amlodipine", "Omeprazole", "Salbutamol", "Azithromycin", "Cefalexin",
+            "Mefenamic Acid", "Phenylephrine", "Dextromethorphan", "Ascorbic Acid", "Ferrous Sulfate",
+            "Simvastatin", "Clopidogrel", "Carbocisteine", "Ambroxol", "Loperamide", "Metoclopramide",
+            "Prednisone", "Hydrocortisone", "Cloxacillin", "Co-Amoxiclav", "Naproxen", "Diclofenac"
+    };
+    private static final String[] SYLLABLES = {"bio", "flex", "med", "cor", "vita", "tem", "lo", "ra", "zen", "tri", "pax", "ol", "dex", "ki", "nor", "sol"};
+    private static final String[] SUPPLIERS = {
+            "Zuellig Pharma", "Metro Drug", "Unilab", "DKSH", "Pharmaserv", "United Drug Supply",
+            "Medline", "Pascual Lab", "Ritemed", "Getz Pharma", "Interphil", "Sandoz", "Westmont",
+            "Lloyd Lab", "Natrapharm", "Ambica", "Bell-Kenz", "Hizon Labs", "Euro-Med", "Generika"
+    };
+    private static final String[] CATEGORIES = {"Pain Relief", "Antibiotics", "Vitamins", "Cold & Flu", "Maintenance", "Others"};
+    private static final String[] FORMS = {"Tablet", "Capsule", "Syrup", "Suspension"};
+
+    // What cashiers type: prefixes, whole words, IDs, suppliers and a few typos
+    private static final String[] QUERIES = {
+            "p", "pa", "para", "paracetamol", "amox", "amoxicilin", "ibuprfen", "cetrizine",
+            "MED01234", "01234", "biomed", "vita", "zuellig", "metro drug", "cold", "losartan 50", "azitro"
+    };
+
+    private final int productCount = Integer.getInteger("benchmark.search.products", 50_000);
+    private final Random random = new Random(42);
+    private List<Product> products;
+    private NGramIndex index;
+
+    @BeforeAll
+    void buildCatalog() {
+        products = new ArrayList<>(productCount);
+        for (int i = 1; i <= productCount; i++) {
+            String generic = GENERICS[random.nextInt(GENERICS.length)];
+            String brand = capitalize(SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)])
+                    + " " + (50 * (1 + random.nextInt(10))) + "mg " + FORMS[random.nextInt(FORMS.length)];
+            Product product = new Product(String.format("MED%05d", i), brand, 0,
+                    BigDecimal.valueOf(5 + random.nextInt(500)), null, SUPPLIERS[random.nextInt(SUPPLIERS.length)]);
+            product.setId((long) i);
+            product.setGenericName(generic);
+            product.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            products.add(product);
+        }
+
+        long start = System.nanoTime();
+        index = new NGramIndex();
+        for (Product product : products) {
+            index.put(product.getId(),
+                    new NGramIndex.Field(product.getMedicineId(), 3),
+                    new NGramIndex.Field(product.getBrandName(), 3),
+                    new NGramIndex.Field(product.getGenericName(), 2),
+                    new NGramIndex.Field(product.getSupplier(), 1),
+                    new NGramIndex.Field(product.getCategory(), 1));
+        }
+        System.out.printf("Indexed %d products in %.1f ms%n", productCount, (System.nanoTime() - start) / 1e6);
+    }
+
+    @Test
+    void searchLatency() {
+        Map<Long, Product> byId = new HashMap<>();
+        products.forEach(product -> byId.put(product.getId(), product));
+
+        // Warm up both paths
+        for (int i = 0; i < 200; i++) {
+            for (String query : QUERIES) {
+                index.search(query, 50);
+                scan(query);
+            }
+        }
+
+        int rounds = 50;
+        long[] indexed = new long[rounds * QUERIES.length];
+        long[] scanned = new long[rounds * QUERIES.length];
+        int n = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (String query : QUERIES) {
+                long start = System.nanoTime();
+                index.search(query, 50);
+                indexed[n] = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                scan(query);
+                scanned[n++] = System.nanoTime() - start;
+            }
+        }
+
+        print("Trigram index (top 50)", indexed);
+        print("Old scan (lower-case + contains)", scanned);
+
+        for (String query : new String[]{"amoxicilin", "ibuprfen", "MED01234"}) {
+            List<String> top = Arrays.stream(index.search(query, 3))
+                    .mapToObj(id -> byId.get(id).getMedicineId() + " " + byId.get(id).getBrandName() + " / " + byId.get(id).getGenericName())
+                    .toList();
+            System.out.println("  \"" + query + "\" -> " + top);
+        }
+    }
+
+    // SalesController's filter before the index
+    private List<Product> scan(String query) {
+        String searchText = query.toLowerCase();
+        return products.stream()
+                .filter(product -> product.getBrandName().toLowerCase().contains(searchText) ||
+                        product.getMedicineId().toLowerCase().contains(searchText) ||
+                        product.getCategory().toLowerCase().contains(searchText) ||
+                        (product.getSupplier() != null && product.getSupplier().toLowerCase().contains(searchText)))
+                .toList();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static void print(String label, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-40s p50=%7.3f ms  p95=%7.3f ms  p99=%7.3f ms  max=%7.3f ms%n", label,
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99), sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
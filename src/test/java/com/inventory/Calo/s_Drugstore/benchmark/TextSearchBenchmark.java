@@ -0,0 +1,212 @@
+package com.inventory.Calo.s_Drugstore.benchmark;
+
+import com.inventory.Calo.s_Drugstore.config.BackgroundStartup;
+import com.inventory.Calo.s_Drugstore.repository.ProductRepository;
+import com.inventory.Calo.s_Drugstore.repository.SupplierRepository;
+import com.inventory.Calo.s_Drugstore.util.FtsQuery;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Product and supplier searches: the FTS5 MATCH queries against the leading-wildcard
+ * LIKE scans they replaced, on a seeded throwaway database:
+ *
+ *   mvn test -Pbenchmark -Dtest=TextSearchBenchmark
+ *
+ * Add -Dbenchmark.products=200000 or -Dbenchmark.suppliers=20000 to change the data size.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/benchmark/text-search.db",
+        "spring.jpa.show-sql=false"
+})
+class TextSearchBenchmark {
+
+    private static final String[] GENERICS = {
+            "Paracetamol", "Ibuprofen", "Amoxicillin", "Cetirizine", "Loratadine", "Metformin",
+            "Losartan", "Amlodipine", "Omeprazole", "Salbutamol", "Azithromycin", "Cefalexin",
+            "Mefenamic Acid", "Phenylephrine", "Dextromethorphan", "Ascorbic Acid", "Ferrous Sulfate"
+    };
+    private static final String[] SYLLABLES = {"bio", "flex", "med", "cor", "vita", "tem", "lo", "ra", "zen", "tri", "pax", "ol", "dex", "ki", "nor", "sol"};
+    private static final String[] MANUFACTURERS = {"Unilab", "Pascual Lab", "Ritemed", "Getz Pharma", "Interphil", "Sandoz", "Natrapharm", "Generika"};
+    private static final String[] CATEGORIES = {"Pain Relief", "Antibiotics", "Vitamins", "Cold & Flu", "Maintenance", "Others"};
+    private static final String[] FIRST_NAMES = {"Maria", "Jose", "Ana", "Juan", "Rosa", "Carlo", "Liza", "Mark", "Grace", "Paolo"};
+    private static final String[] LAST_NAMES = {"Santos", "Reyes", "Cruz", "Bautista", "Garcia", "Mendoza", "Torres", "Flores", "Ramos", "Aquino"};
+
+    // What gets typed into the product and supplier search boxes
+    private static final String[] PRODUCT_SEARCHES = {"pa", "para", "paracetamol", "amox", "biomed", "MED01234", "unilab", "cold", "losartan 500"};
+    private static final String[] SUPPLIER_SEARCHES = {"me", "mendoza", "pharma", "maria santos", "SUP00123", "0917", "gmail"};
+
+    // The SQL the old LIKE searches generated (p.name is the brand name column)
+    private static final String OLD_PRODUCT_FILTER =
+            "SELECT COUNT(*) FROM products p WHERE lower(p.name) LIKE lower('%' || ? || '%') OR lower(p.medicine_id) LIKE lower('%' || ? || '%')";
+    private static final String OLD_PRODUCT_SEARCH =
+            "SELECT p.id FROM products p WHERE lower(p.name) LIKE lower('%' || ? || '%') OR lower(p.medicine_id) LIKE lower('%' || ? || '%')";
+    private static final String OLD_SUPPLIER_SEARCH =
+            "SELECT s.id FROM suppliers s WHERE lower(s.company_name) LIKE lower('%' || ? || '%') OR lower(s.contact_person) LIKE lower('%' || ? || '%') " +
+                    "OR lower(s.supplier_id) LIKE lower('%' || ? || '%') OR lower(s.email) LIKE lower('%' || ? || '%') OR lower(s.contact_number) LIKE lower('%' || ? || '%')";
+
+    // What the new repository queries run (ids only, so both sides pay the same to read rows back)
+    private static final String FTS_PRODUCT_FILTER =
+            "SELECT COUNT(*) FROM products p WHERE p.id IN (SELECT rowid FROM products_fts WHERE products_fts MATCH ?)";
+    private static final String FTS_PRODUCT_SEARCH =
+            "SELECT p.id FROM products_fts JOIN products p ON p.id = products_fts.rowid " +
+                    "WHERE products_fts MATCH '{name medicine_id} : (' || ? || ')' ORDER BY bm25(products_fts)";
+    private static final String FTS_SUPPLIER_SEARCH =
+            "SELECT s.id FROM suppliers_fts JOIN suppliers s ON s.id = suppliers_fts.rowid " +
+                    "WHERE suppliers_fts MATCH ? ORDER BY bm25(suppliers_fts, 10.0, 5.0, 2.0, 2.0, 5.0)";
+
+    @Autowired
+    private BackgroundStartup backgroundStartup;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${benchmark.products:50000}")
+    private int productCount;
+
+    @Value("${benchmark.suppliers:5000}")
+    private int supplierCount;
+
+    private final Random random = new Random(42);
+
+    // Start from an empty database; this has to happen before the Spring context opens it
+    static {
+        try {
+            Path dir = Path.of("target/benchmark");
+            Files.createDirectories(dir);
+            for (String suffix : new String[]{"", "-wal", "-shm"}) {
+                Files.deleteIfExists(dir.resolve("text-search.db" + suffix));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @BeforeAll
+    void seed() {
+        // Seed once the startup tasks are done, so they don't write at the same time
+        backgroundStartup.awaitReady();
+
+        // Plain inserts; the V4 triggers fill the FTS tables as they go
+        List<Object[]> products = new ArrayList<>();
+        for (int i = 1; i <= productCount; i++) {
+            String brand = capitalize(pick(SYLLABLES) + pick(SYLLABLES)) + " " + (50 * (1 + random.nextInt(10))) + "mg";
+            products.add(new Object[]{String.format("MED%05d", i), brand, pick(GENERICS), pick(MANUFACTURERS), pick(CATEGORIES), 5 + random.nextInt(500)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (medicine_id, name, generic_name, manufacturer, category, price, stock) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 0)", products);
+
+        List<Object[]> suppliers = new ArrayList<>();
+        for (int i = 1; i <= supplierCount; i++) {
+            String first = pick(FIRST_NAMES);
+            String last = pick(LAST_NAMES);
+            suppliers.add(new Object[]{String.format("SUP%05d", i), last + " " + pick(MANUFACTURERS) + " " + i, first + " " + last,
+                    (first + "." + last + i + "@gmail.com").toLowerCase(), String.format("0917%07d", random.nextInt(10_000_000))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO suppliers (supplier_id, company_name, contact_person, email, contact_number, status) " +
+                "VALUES (?, ?, ?, ?, ?, 'Active')", suppliers);
+
+        System.out.println("Seeded " + productCount + " products and " + supplierCount + " suppliers");
+    }
+
+    @Test
+    void searchLatency() {
+        // The repository methods run the same statements
+        for (String term : PRODUCT_SEARCHES) {
+            String query = FtsQuery.prefixQuery(term);
+            if (productRepository.countByFilters(query, null, null) != jdbcTemplate.queryForObject(FTS_PRODUCT_FILTER, Long.class, query)
+                    || productRepository.searchByNameOrId(query).size() != jdbcTemplate.queryForList(FTS_PRODUCT_SEARCH, Long.class, query).size()) {
+                throw new IllegalStateException("Repository and benchmark SQL disagree for \"" + term + "\"");
+            }
+        }
+        for (String term : SUPPLIER_SEARCHES) {
+            String query = FtsQuery.prefixQuery(term);
+            if (supplierRepository.searchSuppliers(query).size() != jdbcTemplate.queryForList(FTS_SUPPLIER_SEARCH, Long.class, query).size()) {
+                throw new IllegalStateException("Repository and benchmark SQL disagree for \"" + term + "\"");
+            }
+        }
+
+        compare("Product filter count", PRODUCT_SEARCHES,
+                term -> jdbcTemplate.queryForObject(OLD_PRODUCT_FILTER, Long.class, term, term),
+                term -> jdbcTemplate.queryForObject(FTS_PRODUCT_FILTER, Long.class, FtsQuery.prefixQuery(term)));
+        compare("Product name/ID search", PRODUCT_SEARCHES,
+                term -> jdbcTemplate.queryForList(OLD_PRODUCT_SEARCH, Long.class, term, term).size(),
+                term -> jdbcTemplate.queryForList(FTS_PRODUCT_SEARCH, Long.class, FtsQuery.prefixQuery(term)).size());
+        compare("Supplier search", SUPPLIER_SEARCHES,
+                term -> jdbcTemplate.queryForList(OLD_SUPPLIER_SEARCH, Long.class, term, term, term, term, term).size(),
+                term -> jdbcTemplate.queryForList(FTS_SUPPLIER_SEARCH, Long.class, FtsQuery.prefixQuery(term)).size());
+    }
+
+    private void compare(String label, String[] terms, Function<String, Object> like, Function<String, Object> fts) {
+        // Warm up both paths
+        for (int i = 0; i < 5; i++) {
+            for (String term : terms) {
+                like.apply(term);
+                fts.apply(term);
+            }
+        }
+
+        int rounds = 20;
+        long[] scanned = new long[rounds * terms.length];
+        long[] matched = new long[rounds * terms.length];
+        int n = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (String term : terms) {
+                long start = System.nanoTime();
+                like.apply(term);
+                scanned[n] = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                fts.apply(term);
+                matched[n++] = System.nanoTime() - start;
+            }
+        }
+
+        print(label + " (LIKE scan)", scanned);
+        print(label + " (FTS5 MATCH)", matched);
+        for (String term : terms) {
+            System.out.println("  \"" + term + "\": LIKE=" + like.apply(term) + " FTS5=" + fts.apply(term));
+        }
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static void print(String label, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-45s p50=%7.2f ms  p95=%7.2f ms  p99=%7.2f ms  max=%7.2f ms%n", label,
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99), sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
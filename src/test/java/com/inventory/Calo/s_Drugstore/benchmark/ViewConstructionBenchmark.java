@@ -0,0 +1,153 @@
+package com.inventory.Calo.s_Drugstore.benchmark;
+
+import com.inventory.Calo.s_Drugstore.util.FxmlViews;
+import javafx.application.Platform;
+import javafx.util.Callback;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Building each page's scene graph: FXMLLoader parsing the FXML against the builder classes
+ * generated from it. Needs the generated classes and a display for the JavaFX toolkit:
+ *
+ *   mvn test -Pbenchmark,fxml-codegen -Dtest=ViewConstructionBenchmark
+ *
+ * Each load gets a fresh controller (autowired by Spring) and includes its initialize(),
+ * the same on both sides. Add -Dbenchmark.viewLoads=50 for more measured loads per page.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/benchmark/view-construction.db",
+        "spring.jpa.show-sql=false"
+})
+class ViewConstructionBenchmark {
+
+    private static final Path FXML_DIR = Path.of("src/main/resources/fxml");
+
+    @Autowired
+    private ConfigurableApplicationContext springContext;
+
+    @Value("${benchmark.viewLoads:20}")
+    private int loads;
+
+    private final Map<String, FxmlViews.GeneratedView> generatedViews = new TreeMap<>();
+    private Callback<Class<?>, Object> freshControllers;
+
+    // Start from an empty database; this has to happen before the Spring context opens it
+    static {
+        try {
+            Path dir = Path.of("target/benchmark");
+            Files.createDirectories(dir);
+            for (String suffix : new String[]{"", "-wal", "-shm"}) {
+                Files.deleteIfExists(dir.resolve("view-construction.db" + suffix));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @BeforeAll
+    void setUp() throws Exception {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException alreadyStarted) {
+            // Toolkit is up already
+        } catch (Throwable e) {
+            Assumptions.abort("No JavaFX toolkit (display) available: " + e);
+        }
+
+        List<Path> fxmlFiles;
+        try (Stream<Path> files = Files.list(FXML_DIR)) {
+            fxmlFiles = files.filter(file -> file.toString().endsWith(".fxml")).sorted().toList();
+        }
+        for (Path fxmlFile : fxmlFiles) {
+            String fxmlPath = "/fxml/" + fxmlFile.getFileName();
+            FxmlViews.GeneratedView view = generatedView(fxmlPath);
+            if (view != null) {
+                generatedViews.put(fxmlPath, view);
+            } else {
+                System.out.println("No up-to-date generated view for " + fxmlPath + " (build with -Pfxml-codegen)");
+            }
+        }
+        Assumptions.assumeFalse(generatedViews.isEmpty(), "No generated views on the classpath");
+
+        // A new controller per load, so repeated loads don't rebind the singletons
+        freshControllers = type -> springContext.getAutowireCapableBeanFactory().createBean(type);
+    }
+
+    @Test
+    void viewConstruction() throws Exception {
+        System.out.printf("%-28s %14s %14s %10s%n", "Page (" + loads + " loads)", "FXMLLoader p50", "Generated p50", "Speed-up");
+
+        long fxmlTotal = 0;
+        long generatedTotal = 0;
+        for (Map.Entry<String, FxmlViews.GeneratedView> page : generatedViews.entrySet()) {
+            String fxmlPath = page.getKey();
+            FxmlViews.GeneratedView generated = page.getValue();
+
+            // Warm up both paths (class loading, FXMLLoader's introspection caches, JIT)
+            for (int i = 0; i < 5; i++) {
+                FxmlViews.loadWithFxmlLoader(fxmlPath, freshControllers);
+                generated.build(freshControllers);
+            }
+
+            // Alternate the two so neither gets a quieter stretch of the run
+            long[] fxml = new long[loads];
+            long[] built = new long[loads];
+            for (int i = 0; i < loads; i++) {
+                long start = System.nanoTime();
+                FxmlViews.loadWithFxmlLoader(fxmlPath, freshControllers);
+                fxml[i] = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                generated.build(freshControllers);
+                built[i] = System.nanoTime() - start;
+            }
+
+            long fxmlMedian = median(fxml);
+            long builtMedian = median(built);
+            fxmlTotal += fxmlMedian;
+            generatedTotal += builtMedian;
+            System.out.printf("%-28s %11.2f ms %11.2f ms %9.1fx%n", fxmlPath,
+                    fxmlMedian / 1e6, builtMedian / 1e6, (double) fxmlMedian / builtMedian);
+        }
+        System.out.printf("%-28s %11.2f ms %11.2f ms %9.1fx%n", "All pages",
+                fxmlTotal / 1e6, generatedTotal / 1e6, (double) fxmlTotal / generatedTotal);
+    }
+
+    // The generated builder for a page, if there is one matching the FXML as it is now
+    private static FxmlViews.GeneratedView generatedView(String fxmlPath) throws Exception {
+        FxmlViews.GeneratedView view;
+        try {
+            view = (FxmlViews.GeneratedView) Class.forName(FxmlViews.generatedClassName(fxmlPath))
+                    .getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        try (InputStream in = ViewConstructionBenchmark.class.getResourceAsStream(fxmlPath)) {
+            return FxmlViews.checksum(in.readAllBytes()) == view.sourceChecksum() ? view : null;
+        }
+    }
+
+    private static long median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
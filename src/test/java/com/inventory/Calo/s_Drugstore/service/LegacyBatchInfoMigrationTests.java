@@ -0,0 +1,80 @@
+package com.inventory.Calo.s_Drugstore.service;
+
+import com.inventory.Calo.s_Drugstore.entity.SaleItem;
+import com.inventory.Calo.s_Drugstore.entity.SaleItemBatchAllocation;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The batch_info strings below have the exact shape the old
+ * ProductService.deductStockFromBatches wrote.
+ */
+class LegacyBatchInfoMigrationTests {
+
+    @Test
+    void convertsEveryEntryAndClearsBatchInfo() {
+        SaleItem item = itemWith("[{\"batchId\":12,\"batchNumber\":\"BATCH-0012\",\"quantity\":3,\"expiryDate\":\"2025-03-01\"},"
+                + "{\"batchId\":15,\"batchNumber\":\"BATCH-0015\",\"quantity\":7,\"expiryDate\":\"2025-06-30\"}]");
+
+        assertTrue(LegacyBatchInfoMigration.convert(item));
+
+        assertNull(item.getBatchInfo());
+        assertAllocations(item, List.of(12L, 15L), List.of(3, 7));
+        assertSame(item, item.getBatchAllocations().get(0).getSaleItem());
+    }
+
+    @Test
+    void keepsUnreadableEntriesInBatchInfo() {
+        SaleItem item = itemWith("[{\"batchId\":12,\"batchNumber\":\"BATCH-0012\",\"quantity\":3,\"expiryDate\":\"2025-03-01\"},"
+                + "{\"batchId\":null,\"batchNumber\":\"BATCH-0099\",\"quantity\":2,\"expiryDate\":\"null\"}]");
+
+        assertFalse(LegacyBatchInfoMigration.convert(item));
+
+        assertAllocations(item, List.of(12L), List.of(3));
+        assertEquals("[{\"batchId\":null,\"batchNumber\":\"BATCH-0099\",\"quantity\":2,\"expiryDate\":\"null\"}]", item.getBatchInfo());
+    }
+
+    @Test
+    void keepsBatchInfoWhenNothingCouldBeConverted() {
+        String garbled = "[{\"batch\":12,\"qty\":3}]";
+        SaleItem item = itemWith(garbled);
+
+        assertFalse(LegacyBatchInfoMigration.convert(item));
+
+        assertTrue(item.getBatchAllocations().isEmpty());
+        assertEquals(garbled, item.getBatchInfo());
+    }
+
+    @Test
+    void keepsBatchInfoThatIsNotAList() {
+        SaleItem item = itemWith("deducted from BATCH-0012");
+
+        assertFalse(LegacyBatchInfoMigration.convert(item));
+
+        assertEquals("deducted from BATCH-0012", item.getBatchInfo());
+    }
+
+    @Test
+    void clearsEmptyBatchInfo() {
+        SaleItem item = itemWith("[]");
+
+        assertTrue(LegacyBatchInfoMigration.convert(item));
+
+        assertNull(item.getBatchInfo());
+        assertTrue(item.getBatchAllocations().isEmpty());
+    }
+
+    private static SaleItem itemWith(String batchInfo) {
+        SaleItem item = new SaleItem();
+        item.setBatchInfo(batchInfo);
+        return item;
+    }
+
+    private static void assertAllocations(SaleItem item, List<Long> batchIds, List<Integer> quantities) {
+        assertEquals(batchIds, item.getBatchAllocations().stream().map(SaleItemBatchAllocation::getBatchId).toList());
+        assertEquals(quantities, item.getBatchAllocations().stream().map(SaleItemBatchAllocation::getQuantity).toList());
+    }
+}
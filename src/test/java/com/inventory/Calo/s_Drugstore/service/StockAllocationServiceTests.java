@@ -0,0 +1,165 @@
+package com.inventory.Calo.s_Drugstore.service;
+
+import com.inventory.Calo.s_Drugstore.config.BackgroundStartup;
+import com.inventory.Calo.s_Drugstore.entity.Batch;
+import com.inventory.Calo.s_Drugstore.entity.Product;
+import com.inventory.Calo.s_Drugstore.repository.BatchRepository;
+import com.inventory.Calo.s_Drugstore.repository.ProductRepository;
+import com.inventory.Calo.s_Drugstore.service.StockAllocationService.BatchAllocation;
+import com.inventory.Calo.s_Drugstore.service.StockAllocationService.CartAllocation;
+import com.inventory.Calo.s_Drugstore.service.StockAllocationService.StockRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FEFO allocation against a throwaway SQLite database. Every test seeds its own
+ * product with an early batch, a late batch and an already expired one.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/test/stock-allocation.db",
+        "spring.jpa.show-sql=false"
+})
+class StockAllocationServiceTests {
+
+    private static final AtomicInteger PRODUCTS = new AtomicInteger();
+
+    @Autowired
+    private StockAllocationService stockAllocationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BatchRepository batchRepository;
+
+    @Autowired
+    private BackgroundStartup backgroundStartup;
+
+    private Product product;
+    private Batch early;
+    private Batch late;
+    private Batch expired;
+
+    // Start from an empty database; this has to happen before the Spring context opens it
+    static {
+        try {
+            Path dir = Path.of("target/test");
+            Files.createDirectories(dir);
+            for (String suffix : new String[]{"", "-wal", "-shm"}) {
+                Files.deleteIfExists(dir.resolve("stock-allocation.db" + suffix));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        backgroundStartup.awaitReady();
+
+        int number = PRODUCTS.incrementAndGet();
+        product = productRepository.save(new Product(String.format("TST%05d", number), "Test Medicine " + number, 65,
+                BigDecimal.TEN, null, "Supplier"));
+
+        // Saved late first, so FEFO order can't come from insertion order
+        late = batchRepository.save(new Batch("TST-" + number + "-LATE", product, 10, LocalDate.now().plusDays(200), BigDecimal.TEN, "Supplier"));
+        early = batchRepository.save(new Batch("TST-" + number + "-EARLY", product, 5, LocalDate.now().plusDays(30), BigDecimal.TEN, "Supplier"));
+        expired = batchRepository.save(new Batch("TST-" + number + "-EXPIRED", product, 50, LocalDate.now().minusDays(5), BigDecimal.TEN, "Supplier"));
+    }
+
+    @Test
+    void takesTheEarliestExpiringBatchFirstAndSplitsAcrossBatches() {
+        CartAllocation allocation = stockAllocationService.allocate(List.of(new StockRequest(product.getId(), 8)));
+
+        assertEquals(List.of(
+                new BatchAllocation(product.getId(), early.getId(), early.getBatchNumber(), early.getExpirationDate(), 5),
+                new BatchAllocation(product.getId(), late.getId(), late.getBatchNumber(), late.getExpirationDate(), 3)
+        ), allocation.lines().get(0));
+
+        assertEquals(0, stockOf(early));
+        assertEquals(7, stockOf(late));
+        assertEquals(50, stockOf(expired));
+        assertEquals(57, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void laterLinesForTheSameProductContinueWhereTheLastOneStopped() {
+        CartAllocation allocation = stockAllocationService.allocate(List.of(
+                new StockRequest(product.getId(), 3),
+                new StockRequest(product.getId(), 4)));
+
+        assertEquals(List.of(3), quantities(allocation.lines().get(0)));
+        assertEquals(List.of(early.getId()), batchIds(allocation.lines().get(0)));
+        assertEquals(List.of(2, 2), quantities(allocation.lines().get(1)));
+        assertEquals(List.of(early.getId(), late.getId()), batchIds(allocation.lines().get(1)));
+
+        assertEquals(0, stockOf(early));
+        assertEquals(8, stockOf(late));
+        assertEquals(58, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void expiredBatchesAreNeverAllocated() {
+        // 20 units are on the product, but only 15 of them are in batches that haven't expired
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> stockAllocationService.allocate(List.of(new StockRequest(product.getId(), 20))));
+        assertTrue(error.getMessage().startsWith("Insufficient non-expired batch stock"), error.getMessage());
+
+        assertNothingChanged();
+    }
+
+    @Test
+    void rejectsMoreThanTheProductHas() {
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> stockAllocationService.allocate(List.of(new StockRequest(product.getId(), 66))));
+        assertTrue(error.getMessage().startsWith("Insufficient stock for " + product.getBrandName()), error.getMessage());
+
+        assertNothingChanged();
+    }
+
+    @Test
+    void failingLineRollsBackTheWholeCart() {
+        Product other = productRepository.save(new Product("TST-OTHER-" + product.getId(), "Other Medicine", 5,
+                BigDecimal.ONE, null, "Supplier"));
+        batchRepository.save(new Batch("TST-OTHER-" + product.getId() + "-EXPIRED", other, 5, LocalDate.now().minusDays(1), BigDecimal.ONE, "Supplier"));
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> stockAllocationService.allocate(List.of(
+                new StockRequest(product.getId(), 8),
+                new StockRequest(other.getId(), 1))));
+        assertTrue(error.getMessage().startsWith("No valid (non-expired) batches"), error.getMessage());
+
+        assertNothingChanged();
+    }
+
+    private void assertNothingChanged() {
+        assertEquals(5, stockOf(early));
+        assertEquals(10, stockOf(late));
+        assertEquals(50, stockOf(expired));
+        assertEquals(65, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    private int stockOf(Batch batch) {
+        return batchRepository.findById(batch.getId()).orElseThrow().getStock();
+    }
+
+    private static List<Integer> quantities(List<BatchAllocation> allocations) {
+        return allocations.stream().map(BatchAllocation::quantity).toList();
+    }
+
+    private static List<Long> batchIds(List<BatchAllocation> allocations) {
+        return allocations.stream().map(BatchAllocation::batchId).toList();
+    }
+}
@@ -0,0 +1,216 @@
+package com.inventory.Calo.s_Drugstore.service;
+
+import com.inventory.Calo.s_Drugstore.service.WriteQueueService.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The write queue on a plain SQLite file with a JDBC transaction manager. Most tests
+ * first park the writer thread on a write that waits for a latch, so everything
+ * submitted afterwards is already queued when the writer picks up the next group.
+ */
+class WriteQueueServiceTests {
+
+    private static final Path DATABASE = Path.of("target/test/write-queue.db");
+
+    private WriteQueueService writeQueue;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.createDirectories(DATABASE.getParent());
+        Files.deleteIfExists(DATABASE);
+
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + DATABASE);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE writes (name TEXT NOT NULL)");
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        startQueue(256);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        writeQueue.stop();
+    }
+
+    @Test
+    void failingWriteDoesNotRollBackItsGroupMates() throws Exception {
+        AtomicInteger firstRuns = new AtomicInteger();
+        CountDownLatch release = blockWriter();
+
+        CompletableFuture<Object> first = writeQueue.submit(Priority.INTERACTIVE, true, () -> {
+            firstRuns.incrementAndGet();
+            return insert("first");
+        });
+        CompletableFuture<Object> failing = writeQueue.submit(Priority.INTERACTIVE, true, () -> {
+            insert("failing");
+            throw new IllegalStateException("Not enough stock");
+        });
+        CompletableFuture<Object> last = writeQueue.submit(Priority.INTERACTIVE, true, () -> insert("last"));
+        release.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        last.get(5, TimeUnit.SECONDS);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertEquals("Not enough stock", error.getCause().getMessage());
+
+        // The first write ran in the failed group and again in the replay without the failing one
+        assertEquals(2, firstRuns.get());
+        assertEquals(List.of("first", "last"), savedWrites());
+    }
+
+    @Test
+    void checkoutIsServedBeforeQueuedBulkWork() throws Exception {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = blockWriter();
+
+        List<CompletableFuture<Object>> writes = List.of(
+                writeQueue.submit(Priority.BULK, false, () -> order.add("import 1")),
+                writeQueue.submit(Priority.BULK, false, () -> order.add("import 2")),
+                writeQueue.submit(Priority.INTERACTIVE, false, () -> order.add("edit")),
+                writeQueue.submit(Priority.CHECKOUT, false, () -> order.add("checkout")));
+        release.countDown();
+
+        CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("checkout", "edit", "import 1", "import 2"), order);
+    }
+
+    @Test
+    void submitTimesOutWhenTheQueueIsFull() throws Exception {
+        writeQueue.stop();
+        startQueue(2);
+
+        // The parked write and one queued write take both slots
+        CountDownLatch release = blockWriter();
+        CompletableFuture<Object> queued = writeQueue.submit(Priority.CHECKOUT, true, () -> insert("queued"));
+
+        long start = System.nanoTime();
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> writeQueue.submit(Priority.CHECKOUT, true, () -> insert("refused")));
+        assertTrue(error.getMessage().startsWith("Database is busy"), error.getMessage());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+
+        release.countDown();
+        queued.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("queued"), savedWrites());
+    }
+
+    @Test
+    void bulkWorkOnlyFillsHalfTheQueue() throws Exception {
+        writeQueue.stop();
+        startQueue(4);
+
+        CountDownLatch release = blockWriter();
+        CompletableFuture<Object> firstImport = writeQueue.submit(Priority.BULK, false, () -> insert("import 1"));
+        CompletableFuture<Object> secondImport = writeQueue.submit(Priority.BULK, false, () -> insert("import 2"));
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> writeQueue.submit(Priority.BULK, false, () -> insert("import 3")));
+        assertTrue(error.getMessage().contains("too many pending imports"), error.getMessage());
+
+        // A checkout still finds room
+        CompletableFuture<Object> checkout = writeQueue.submit(Priority.CHECKOUT, true, () -> insert("checkout"));
+        release.countDown();
+
+        CompletableFuture.allOf(firstImport, secondImport, checkout).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("checkout", "import 1", "import 2"), savedWrites());
+    }
+
+    @Test
+    void nestedWriteRunsInlineInTheSameTransaction() {
+        String thread = assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                writeQueue.execute(Priority.INTERACTIVE, () -> {
+                    insert("outer");
+                    return writeQueue.execute(Priority.CHECKOUT, () -> {
+                        insert("inner");
+                        return Thread.currentThread().getName();
+                    });
+                }));
+        assertEquals("db-writer", thread);
+        assertEquals(List.of("inner", "outer"), savedWrites());
+
+        // Rolled back together when the outer write fails afterwards
+        assertThrows(IllegalStateException.class, () ->
+                writeQueue.execute(Priority.INTERACTIVE, () -> {
+                    writeQueue.execute(Priority.CHECKOUT, () -> insert("inner 2"));
+                    throw new IllegalStateException("Outer write failed");
+                }));
+        assertEquals(List.of("inner", "outer"), savedWrites());
+    }
+
+    @Test
+    void writeFromReadOnlyTransactionIsQueued() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        String thread = readOnly.execute(status ->
+                writeQueue.execute(Priority.INTERACTIVE, () -> Thread.currentThread().getName()));
+        assertEquals("db-writer", thread);
+    }
+
+    @Test
+    void writeFromReadWriteTransactionJoinsIt() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        String thread = readWrite.execute(status ->
+                writeQueue.execute(Priority.INTERACTIVE, () -> Thread.currentThread().getName()));
+        assertEquals(Thread.currentThread().getName(), thread);
+    }
+
+    private void startQueue(int capacity) {
+        writeQueue = new WriteQueueService();
+        ReflectionTestUtils.setField(writeQueue, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(writeQueue, "capacity", capacity);
+        ReflectionTestUtils.setField(writeQueue, "maxGroupSize", 32);
+        ReflectionTestUtils.setField(writeQueue, "groupWindowMs", 50L);
+        ReflectionTestUtils.setField(writeQueue, "submitTimeoutMs", 100L);
+        writeQueue.start();
+    }
+
+    // Parks the writer thread until the returned latch is released
+    private CountDownLatch blockWriter() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        writeQueue.submit(Priority.CHECKOUT, false, () -> {
+            started.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private Object insert(String name) {
+        return jdbcTemplate.update("INSERT INTO writes (name) VALUES (?)", name);
+    }
+
+    private List<String> savedWrites() {
+        return jdbcTemplate.queryForList("SELECT name FROM writes ORDER BY name", String.class);
+    }
+}
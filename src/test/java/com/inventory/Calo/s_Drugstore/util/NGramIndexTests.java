@@ -0,0 +1,133 @@
+package com.inventory.Calo.s_Drugstore.util;
+
+import com.inventory.Calo.s_Drugstore.util.NGramIndex.Field;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ranking and matching rules of the trigram index behind the product search boxes.
+ * Ids are chosen so that the id tie-break alone would give the opposite order.
+ */
+class NGramIndexTests {
+
+    private final NGramIndex index = new NGramIndex();
+
+    @Test
+    void prefixMatchOutranksMatchInTheMiddleOfAWord() {
+        index.put(1, new Field("Clamox", 3));
+        index.put(2, new Field("Amoxicillin", 3));
+
+        assertArrayEquals(new long[]{2, 1}, index.search("amo", 10));
+    }
+
+    @Test
+    void heavierFieldOutranksLighterOne() {
+        index.put(1, new Field("Cetirizine", 3), new Field("Unilab", 1));
+        index.put(2, new Field("Unilab", 3), new Field("Cetirizine", 1));
+
+        assertArrayEquals(new long[]{2, 1}, index.search("unilab", 10));
+        assertArrayEquals(new long[]{1, 2}, index.search("cetirizine", 10));
+    }
+
+    @Test
+    void toleratesOneMistypedLetter() {
+        index.put(1, new Field("Paracetamol", 3));
+        index.put(2, new Field("Ibuprofen", 3));
+
+        assertArrayEquals(new long[]{1}, index.search("paracetanol", 10));
+        assertArrayEquals(new long[]{1}, index.search("paracetmol", 10));
+        assertArrayEquals(new long[]{2}, index.search("ibuprofne", 10));
+    }
+
+    @Test
+    void everyQueryWordHasToMatch() {
+        index.put(1, new Field("Biogesic Paracetamol 500mg", 3));
+        index.put(2, new Field("Paracetamol 250mg Syrup", 3));
+        index.put(3, new Field("Amoxicillin 500mg", 3));
+
+        assertArrayEquals(new long[]{1}, index.search("paracetamol 500", 10));
+        assertArrayEquals(new long[]{1}, index.search("500 paracetamol", 10));
+        assertArrayEquals(new long[]{2}, index.search("syrup paracetamol", 10));
+        assertArrayEquals(new long[0], index.search("amoxicillin syrup", 10));
+    }
+
+    @Test
+    void putReplacesTheOldTextAndRemoveDropsTheDocument() {
+        index.put(1, new Field("Amoxicillin", 3));
+        index.put(1, new Field("Cetirizine", 3));
+
+        assertArrayEquals(new long[0], index.search("amoxicillin", 10));
+        assertArrayEquals(new long[]{1}, index.search("cetirizine", 10));
+        assertEquals(1, index.size());
+        assertEquals(0.5, index.garbageRatio());
+
+        index.remove(1);
+
+        assertArrayEquals(new long[0], index.search("cetirizine", 10));
+        assertEquals(0, index.size());
+        assertEquals(1.0, index.garbageRatio());
+    }
+
+    @Test
+    void rebuildAfterTooMuchGarbageKeepsTheSameResults() {
+        for (long id = 1; id <= 4; id++) {
+            index.put(id, new Field("Losartan " + (id * 25) + "mg", 3));
+        }
+        index.put(5, new Field("Metformin 500mg", 3));
+        index.put(2, new Field("Losartan 50mg Tablet", 3));
+        index.put(3, new Field("Losartan 75mg Tablet", 3));
+        index.remove(4);
+        index.remove(5);
+        long[] before = index.search("losartan", 10);
+        assertTrue(index.garbageRatio() > 0.5, "garbage ratio " + index.garbageRatio());
+
+        // What ProductSearchService does once the ratio is too high
+        index.clear();
+        assertEquals(0, index.garbageRatio());
+        assertArrayEquals(new long[0], index.search("losartan", 10));
+        index.put(1, new Field("Losartan 25mg", 3));
+        index.put(2, new Field("Losartan 50mg Tablet", 3));
+        index.put(3, new Field("Losartan 75mg Tablet", 3));
+
+        assertEquals(0, index.garbageRatio());
+        assertEquals(3, index.size());
+        assertArrayEquals(new long[]{1, 2, 3}, before);
+        assertArrayEquals(before, index.search("losartan", 10));
+    }
+
+    @Test
+    void tiesGoToTheShorterDocumentThenTheLowerId() {
+        index.put(1, new Field("Vitamin C 500mg Chewable", 3));
+        index.put(5, new Field("Vitamin C", 3));
+        index.put(3, new Field("Vitamin C", 3));
+        index.put(4, new Field("Vitamin C", 3));
+
+        assertArrayEquals(new long[]{3, 4, 5, 1}, index.search("vitamin", 10));
+        assertArrayEquals(new long[]{3, 4}, index.search("vitamin", 2));
+        assertArrayEquals(new long[0], index.search("vitamin", 0));
+    }
+
+    @Test
+    void oneLetterQueryMatchesWordsStartingWithIt() {
+        index.put(1, new Field("Amoxicillin", 3));
+        index.put(2, new Field("Paracetamol", 3));
+        index.put(3, new Field("Ascorbic Acid", 3));
+
+        long[] found = index.search("A", 10);
+        Arrays.sort(found);
+        assertArrayEquals(new long[]{1, 3}, found);
+
+        assertArrayEquals(new long[]{3}, index.search("a acid", 10));
+    }
+
+    @Test
+    void queryWithoutWordsFindsNothing() {
+        index.put(1, new Field("Amoxicillin", 3));
+
+        assertArrayEquals(new long[0], index.search("", 10));
+        assertArrayEquals(new long[0], index.search(" - ", 10));
+    }
+}